@@ -43,7 +43,7 @@ import static uk.ac.ox.poseidon.common.core.csv.CsvParserUtil.recordStream;
 public class SpeciesCodesFromFileFactory implements AlgorithmFactory<SpeciesCodes>, Supplier<SpeciesCodes> {
 
     private static final CacheByFile<SpeciesCodes> cache =
-        new CacheByFile<>(SpeciesCodesFromFileFactory::getSpeciesCodes);
+        new CacheByFile<>(SpeciesCodesFromFileFactory.class, SpeciesCodesFromFileFactory::getSpeciesCodes);
     private InputPath speciesCodeFile;
 
     @SuppressWarnings("unused")
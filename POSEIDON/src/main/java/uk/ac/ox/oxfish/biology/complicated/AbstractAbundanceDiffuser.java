@@ -69,7 +69,11 @@ public abstract class AbstractAbundanceDiffuser implements AbundanceDiffuser {
 
         //turn it into a list and shuffle it
         List<Map.Entry<SeaTile, AbundanceLocalBiology>> locals = Lists.newArrayList(biologies.entrySet());
-        Collections.shuffle(locals, new Random(model.getRandom().nextLong()));
+        //tiles hash by identity: sort them first so the shuffle only depends on the seed
+        locals.sort(Comparator.comparingInt((Map.Entry<SeaTile, AbundanceLocalBiology> entry) -> entry.getKey().getGridX())
+            .thenComparingInt(entry -> entry.getKey().getGridY()));
+        Random shuffler = new Random(model.getRandom().nextLong());
+        Collections.shuffle(locals, shuffler);
 
 
         for (Map.Entry<SeaTile, AbundanceLocalBiology> here : locals) {
@@ -82,8 +86,8 @@ public abstract class AbstractAbundanceDiffuser implements AbundanceDiffuser {
             List<SeaTile> potential = neighbors.get(here.getKey());
             if (potential.size() == 0)
                 continue;
-            //shuffle neighbors
-            Collections.shuffle(potential);
+            //shuffle neighbors (seeded, so runs are reproducible)
+            Collections.shuffle(potential, shuffler);
             for (SeaTile there : potential) {
                 assert biologies.containsKey(there);
                 AbundanceLocalBiology thereBiology = biologies.get(there);
@@ -24,6 +24,7 @@ package uk.ac.ox.oxfish.biology.complicated;
 
 import com.google.common.base.MoreObjects;
 import com.google.common.base.Preconditions;
+import com.google.common.collect.ImmutableMap;
 import uk.ac.ox.oxfish.biology.GlobalBiology;
 import uk.ac.ox.oxfish.biology.LocalBiology;
 import uk.ac.ox.oxfish.biology.Species;
@@ -33,9 +34,7 @@ import uk.ac.ox.oxfish.model.FishState;
 import uk.ac.ox.oxfish.utility.FishStateUtilities;
 
 import java.util.*;
-import java.util.Map.Entry;
 
-import static com.google.common.collect.ImmutableMap.toImmutableMap;
 import static com.google.common.collect.Iterables.get;
 import static java.util.Arrays.copyOf;
 import static java.util.Arrays.stream;
@@ -52,12 +51,23 @@ import static java.util.stream.Collectors.toCollection;
 public class AbundanceLocalBiology implements LocalBiology {
 
 
+    private static final Species[] NO_SPECIES = new Species[0];
+    private static final double[][][] NO_ABUNDANCE = new double[0][][];
     private static final boolean warned = false;
     /**
-     * the hashmap contains for each species a table [age][male-female] corresponding to the number of fish of that
-     * age and that sex
+     * the species, sorted by index. For a biology made from a global biology, species i sits in slot i, which lets us
+     * find its abundance without hashing.
      */
-    private final HashMap<Species, double[][]> abundance = new HashMap<>();
+    private Species[] species = NO_SPECIES;
+    /**
+     * for each slot in the species array, a table [subdivision][bin] corresponding to the number of fish in that
+     * subdivision and bin
+     */
+    private double[][][] abundance = NO_ABUNDANCE;
+    /**
+     * unmodifiable map view of the species and abundance arrays, only built when asked for
+     */
+    private Map<Species, double[][]> abundanceView = null;
     /**
      * biomass gets computed somewhat lazily (but this number gets reset under any interaction with the object, no matter how trivial)
      */
@@ -87,8 +97,9 @@ public class AbundanceLocalBiology implements LocalBiology {
      */
     public AbundanceLocalBiology(final Collection<? extends Species> allSpecies) {
         //for each species create cohorts
-        for (final Species species : allSpecies) {
-            abundance.put(species, makeAbundanceArray(species));
+        setSpecies(allSpecies);
+        for (int i = 0; i < species.length; i++) {
+            abundance[i] = makeAbundanceArray(species[i]);
         }
         //done!
         lastComputedBiomass = new double[allSpecies.size()];
@@ -110,7 +121,13 @@ public class AbundanceLocalBiology implements LocalBiology {
      */
     @SuppressWarnings("CopyConstructorMissesField") // the call to `this` takes care of that
     public AbundanceLocalBiology(final AbundanceLocalBiology other) {
-        this(other.abundance);
+        species = other.species.clone();
+        abundance = new double[other.abundance.length][][];
+        for (int i = 0; i < abundance.length; i++) {
+            abundance[i] = copyOfMatrix(other.abundance[i]);
+        }
+        lastComputedBiomass = new double[species.length];
+        Arrays.fill(lastComputedBiomass, Double.NaN);
     }
 
     /**
@@ -119,18 +136,47 @@ public class AbundanceLocalBiology implements LocalBiology {
      * @param abundance A map from species to abundance matrices. The matrices are copied.
      */
     public AbundanceLocalBiology(final Map<Species, double[][]> abundance) {
-        abundance.forEach((species, matrix) ->
-            this.abundance.put(
-                species,
-                stream(matrix)
-                    .map(a -> Arrays.copyOf(a, a.length))
-                    .toArray(double[][]::new)
-            )
-        );
+        setSpecies(abundance.keySet());
+        for (int i = 0; i < species.length; i++) {
+            this.abundance[i] = copyOfMatrix(abundance.get(species[i]));
+        }
         lastComputedBiomass = new double[abundance.size()];
         Arrays.fill(lastComputedBiomass, Double.NaN);
     }
 
+    private static double[][] copyOfMatrix(final double[][] matrix) {
+        return stream(matrix)
+            .map(a -> copyOf(a, a.length))
+            .toArray(double[][]::new);
+    }
+
+    /**
+     * Sorts the species by index and allocates one abundance slot per species.
+     */
+    private void setSpecies(final Collection<? extends Species> allSpecies) {
+        species = allSpecies.stream()
+            .sorted(comparingInt(Species::getIndex))
+            .toArray(Species[]::new);
+        abundance = new double[species.length][][];
+    }
+
+    /**
+     * Finds the abundance matrix of the given species, or null if this biology doesn't have it. Species are normally
+     * found directly through their index; we only fall back on a scan when a species doesn't sit in its own slot.
+     */
+    private double[][] matrixOf(final Species species) {
+        final int index = species.getIndex();
+        if (index >= 0 && index < this.species.length && this.species[index] == species) {
+            return abundance[index];
+        }
+        for (int i = 0; i < this.species.length; i++) {
+            if (this.species[i] == species) {
+                return abundance[i];
+            }
+        }
+        return null;
+    }
+
     public static AbundanceLocalBiology aggregate(
         final GlobalBiology globalBiology,
         final Collection<AbundanceLocalBiology> biologies
@@ -139,27 +185,34 @@ public class AbundanceLocalBiology implements LocalBiology {
 
         final AbundanceLocalBiology newBiology = new AbundanceLocalBiology();
         newBiology.lastComputedBiomass = sumLastComputedBiomasses(biologies);
+        newBiology.setSpecies(globalBiology.getSpecies());
 
-        // Grab the abundance map from the first biology as a source for number of bins/subdivisions
+        // Grab the abundance matrices from the first biology as a source for number of bins/subdivisions
         // We don't want to use the GlobalBiology for that as the meristics might not be initialized
-        final Map<Species, double[][]> firstAbundance = get(biologies, 0).abundance;
-        globalBiology.getSpecies().forEach(species -> {
-            final double[][] firstMatrix = firstAbundance.get(species);
+        final AbundanceLocalBiology firstBiology = get(biologies, 0);
+        for (int i = 0; i < newBiology.species.length; i++) {
             // Make a deep copy of the matrix
-            final double[][] newMatrix = stream(firstMatrix)
-                .map(a -> copyOf(a, a.length))
-                .toArray(double[][]::new);
-            biologies.stream().skip(1)
-                .map(biology -> biology.abundance.get(species))
-                .forEach(otherMatrix -> {
-                    for (int sub = 0; sub < newMatrix.length; sub++) {
-                        for (int bin = 0; bin < newMatrix[sub].length; bin++) {
-                            newMatrix[sub][bin] += otherMatrix[sub][bin];
-                        }
+            newBiology.abundance[i] = copyOfMatrix(firstBiology.matrixOf(newBiology.species[i]));
+        }
+        // Then add the other biologies one at a time, summing each row in a tight loop
+        boolean first = true;
+        for (final AbundanceLocalBiology biology : biologies) {
+            if (first) {
+                first = false;
+                continue;
+            }
+            for (int i = 0; i < newBiology.species.length; i++) {
+                final double[][] newMatrix = newBiology.abundance[i];
+                final double[][] otherMatrix = biology.matrixOf(newBiology.species[i]);
+                for (int sub = 0; sub < newMatrix.length; sub++) {
+                    final double[] newRow = newMatrix[sub];
+                    final double[] otherRow = otherMatrix[sub];
+                    for (int bin = 0; bin < newRow.length; bin++) {
+                        newRow[bin] += otherRow[bin];
                     }
-                });
-            newBiology.abundance.put(species, newMatrix);
-        });
+                }
+            }
+        }
         return newBiology;
     }
 
@@ -197,14 +250,13 @@ public class AbundanceLocalBiology implements LocalBiology {
      */
     public double[] getCurrentBiomass() {
 
-        // This is a bit awkward, as we don't have access to the global biology
-        // to map indices to species, but should work just fine as long as
-        // the abundance map contains all the species (a safe assumption, I think).
-        return abundance.keySet()
-            .stream()
-            .sorted(comparingInt(Species::getIndex))
-            .mapToDouble(this::getBiomass)
-            .toArray();
+        // The species are kept sorted by index, so this lines up with the global biology
+        // as long as this biology contains all the species (a safe assumption, I think).
+        final double[] biomass = new double[species.length];
+        for (int i = 0; i < species.length; i++) {
+            biomass[i] = getBiomass(species[i]);
+        }
+        return biomass;
     }
 
     /**
@@ -218,7 +270,7 @@ public class AbundanceLocalBiology implements LocalBiology {
 
         if (Double.isNaN(lastComputedBiomass[species.getIndex()])) {
             lastComputedBiomass[species.getIndex()] = FishStateUtilities.weigh(
-                abundance.get(species),
+                matrixOf(species),
                 species.getMeristics()
             );
             assert !Double.isNaN(lastComputedBiomass[species.getIndex()]);
@@ -274,7 +326,7 @@ public class AbundanceLocalBiology implements LocalBiology {
             );
 
 
-            final double[][] abundanceHere = this.abundance.get(species);
+            final double[][] abundanceHere = matrixOf(species);
 
 
             final double[][] catchesMatrix = catches.asMatrix();
@@ -303,17 +355,18 @@ public class AbundanceLocalBiology implements LocalBiology {
     public StructuredAbundance getAbundance(final Species species) {
         Arrays.fill(lastComputedBiomass, Double.NaN); //force a recount after calling this
 
-        return new StructuredAbundance(abundance.get(species)
-        );
+        return new StructuredAbundance(matrixOf(species));
 
     }
 
     public Map<Species, StructuredAbundance> getStructuredAbundance() {
         Arrays.fill(lastComputedBiomass, Double.NaN); // force a recount after calling this
-        return abundance.entrySet().stream().collect(toImmutableMap(
-            Entry::getKey,
-            entry -> new StructuredAbundance(entry.getValue())
-        ));
+        final ImmutableMap.Builder<Species, StructuredAbundance> builder =
+            ImmutableMap.builderWithExpectedSize(species.length);
+        for (int i = 0; i < species.length; i++) {
+            builder.put(species[i], new StructuredAbundance(abundance[i]));
+        }
+        return builder.build();
     }
 
     /**
@@ -322,7 +375,15 @@ public class AbundanceLocalBiology implements LocalBiology {
      * arrays are not. Mutating those should be done responsibly.
      */
     public Map<Species, double[][]> getAbundance() {
-        return Collections.unmodifiableMap(abundance);
+        if (abundanceView == null) {
+            final ImmutableMap.Builder<Species, double[][]> builder =
+                ImmutableMap.builderWithExpectedSize(species.length);
+            for (int i = 0; i < species.length; i++) {
+                builder.put(species[i], abundance[i]);
+            }
+            abundanceView = builder.build();
+        }
+        return abundanceView;
     }
 
     @Override
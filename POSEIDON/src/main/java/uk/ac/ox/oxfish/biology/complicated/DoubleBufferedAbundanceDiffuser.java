@@ -0,0 +1,285 @@
+/*
+ * POSEIDON: an agent-based model of fisheries
+ * Copyright (c) 2025, University of Oxford.
+ *
+ * University of Oxford means the Chancellor, Masters and Scholars of the
+ * University of Oxford, having an administrative office at Wellington
+ * Square, Oxford OX1 2JD, UK.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+
+package uk.ac.ox.oxfish.biology.complicated;
+
+import com.google.common.base.Preconditions;
+import ec.util.MersenneTwisterFast;
+import sim.util.Bag;
+import uk.ac.ox.oxfish.biology.Species;
+import uk.ac.ox.oxfish.geography.NauticalMap;
+import uk.ac.ox.oxfish.geography.SeaTile;
+import uk.ac.ox.oxfish.model.FishState;
+import uk.ac.ox.oxfish.utility.FishStateUtilities;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.function.IntConsumer;
+import java.util.stream.IntStream;
+
+import static com.google.common.base.Preconditions.checkState;
+
+/**
+ * Constant rate diffusion done in two passes, so that the order in which tiles are visited doesn't matter: first each
+ * tile works out how many fish leave towards each of its neighbours, reading abundances that nobody is modifying, then
+ * each tile applies what leaves it and what arrives from its neighbours. Both passes run over blocks of tiles, in
+ * parallel if asked to, and each block rounds with its own random stream seeded from the model randomizer, so results
+ * only depend on the seed.
+ * <p>
+ * Unlike the {@link ConstantRateAbundanceDiffuser}, where a tile can lose fish to a neighbour and then get some back
+ * within the same step, all movement here is computed from the abundances at the start of the step. If the outflows
+ * of a bin would add up to more fish than the tile holds, they are scaled down.
+ */
+public class DoubleBufferedAbundanceDiffuser implements AbundanceDiffuser {
+
+    private static final int BLOCK_SIZE = 256;
+
+    /**
+     * how many cells distant can this species move in a day?
+     */
+    private final int diffusingRange;
+
+    /**
+     * % of differential that moves from here to there
+     */
+    private final double diffusingRate;
+
+    /**
+     * fish of this age or above can move
+     */
+    private final int minMovementAge;
+
+    /**
+     * fish of this age or below can move
+     */
+    private final int maxMovementAge;
+
+    private final boolean rounding;
+
+    private boolean parallel = true;
+
+    /**
+     * the biologies the neighbourhoods below were built for
+     */
+    private Map<SeaTile, AbundanceLocalBiology> indexedBiologies;
+
+    private int indexedSize;
+
+    /**
+     * biologies sorted by grid position, so that blocks don't depend on the hashing of tiles
+     */
+    private AbundanceLocalBiology[] biologies;
+
+    /**
+     * indices of the neighbours of each tile
+     */
+    private int[][] neighbours;
+
+    /**
+     * for each tile and each of its neighbours, the position of the tile among the neighbours of that neighbour
+     */
+    private int[][] positionsAtNeighbours;
+
+    /**
+     * fish leaving each tile towards each of its neighbours, by subdivision and bin
+     */
+    private double[][] outflows;
+
+    public DoubleBufferedAbundanceDiffuser(
+        final int diffusingRange,
+        final double diffusingRate,
+        final int minMovementAge,
+        final int maxMovementAge,
+        final boolean rounding
+    ) {
+        Preconditions.checkArgument(diffusingRange >= 0);
+        Preconditions.checkArgument(diffusingRate >= 0);
+        Preconditions.checkArgument(diffusingRate <= 1);
+        this.diffusingRange = diffusingRange;
+        this.diffusingRate = diffusingRate;
+        this.minMovementAge = minMovementAge;
+        this.maxMovementAge = maxMovementAge;
+        this.rounding = rounding;
+    }
+
+    @Override
+    public void step(
+        final Species species,
+        final Map<SeaTile, AbundanceLocalBiology> biologies,
+        final FishState model
+    ) {
+        if (biologies.isEmpty())
+            return;
+        index(biologies, model.getMap());
+
+        final StructuredAbundance sample = this.biologies[0].getAbundance(species);
+        final int subdivisions = sample.getSubdivisions();
+        final int bins = sample.getBins();
+        final int cells = subdivisions * bins;
+
+        final long seed = model.getRandom().nextLong();
+        forEachBlock(block -> {
+            final MersenneTwisterFast random =
+                new MersenneTwisterFast(new int[]{(int) seed, (int) (seed >>> 32), block});
+            final int end = Math.min(this.biologies.length, (block + 1) * BLOCK_SIZE);
+            for (int tile = block * BLOCK_SIZE; tile < end; tile++)
+                computeOutflows(tile, species, subdivisions, bins, random);
+        });
+        forEachBlock(block -> {
+            final int end = Math.min(this.biologies.length, (block + 1) * BLOCK_SIZE);
+            for (int tile = block * BLOCK_SIZE; tile < end; tile++)
+                applyFlows(tile, species, bins, cells);
+        });
+    }
+
+    private void forEachBlock(final IntConsumer blockUpdate) {
+        final IntStream blocks = IntStream.range(0, (biologies.length + BLOCK_SIZE - 1) / BLOCK_SIZE);
+        (parallel ? blocks.parallel() : blocks).forEach(blockUpdate);
+    }
+
+    private void computeOutflows(
+        final int tile,
+        final Species species,
+        final int subdivisions,
+        final int bins,
+        final MersenneTwisterFast random
+    ) {
+        final int[] tileNeighbours = neighbours[tile];
+        final int cells = subdivisions * bins;
+        if (outflows[tile] == null || outflows[tile].length != tileNeighbours.length * cells)
+            outflows[tile] = new double[tileNeighbours.length * cells];
+        final double[] out = outflows[tile];
+        Arrays.fill(out, 0);
+
+        final double[][] here = biologies[tile].getAbundance(species).asMatrix();
+        for (int subdivision = 0; subdivision < subdivisions; subdivision++) {
+            for (int bin = Math.max(0, minMovementAge); bin <= Math.min(bins - 1, maxMovementAge); bin++) {
+                double fishHere = here[subdivision][bin];
+                if (rounding)
+                    fishHere = (int) fishHere;
+                if (fishHere <= 0)
+                    continue;
+                final int cell = subdivision * bins + bin;
+                double leaving = 0;
+                for (int k = 0; k < tileNeighbours.length; k++) {
+                    double fishThere = biologies[tileNeighbours[k]].getAbundance(species).asMatrix()[subdivision][bin];
+                    if (rounding)
+                        fishThere = (int) fishThere;
+                    final double delta = fishHere - fishThere;
+                    if (delta <= 0)
+                        continue;
+                    final double movement = rounding ?
+                        FishStateUtilities.randomRounding(delta * diffusingRate, random) :
+                        delta * diffusingRate;
+                    out[k * cells + cell] = movement;
+                    leaving += movement;
+                }
+                if (leaving > fishHere) {
+                    final double scale = fishHere / leaving;
+                    for (int k = 0; k < tileNeighbours.length; k++) {
+                        final double scaled = out[k * cells + cell] * scale;
+                        out[k * cells + cell] = rounding ? Math.floor(scaled) : scaled;
+                    }
+                }
+            }
+        }
+    }
+
+    private void applyFlows(
+        final int tile,
+        final Species species,
+        final int bins,
+        final int cells
+    ) {
+        final double[][] here = biologies[tile].getAbundance(species).asMatrix();
+        final int[] tileNeighbours = neighbours[tile];
+        final double[] out = outflows[tile];
+        for (int k = 0; k < tileNeighbours.length; k++) {
+            final double[] in = outflows[tileNeighbours[k]];
+            final int inOffset = positionsAtNeighbours[tile][k] * cells;
+            final int outOffset = k * cells;
+            for (int cell = 0; cell < cells; cell++) {
+                final double net = in[inOffset + cell] - out[outOffset + cell];
+                if (net != 0)
+                    here[cell / bins][cell % bins] += net;
+            }
+        }
+    }
+
+    /**
+     * builds the neighbourhoods the first time these biologies are seen (or when they change)
+     */
+    private void index(
+        final Map<SeaTile, AbundanceLocalBiology> biologies,
+        final NauticalMap map
+    ) {
+        if (biologies == indexedBiologies && biologies.size() == indexedSize)
+            return;
+
+        final SeaTile[] tiles = biologies.keySet().toArray(new SeaTile[0]);
+        Arrays.sort(tiles, Comparator.comparingInt(SeaTile::getGridX).thenComparingInt(SeaTile::getGridY));
+        final Map<SeaTile, Integer> indices = new IdentityHashMap<>(tiles.length);
+        this.biologies = new AbundanceLocalBiology[tiles.length];
+        for (int i = 0; i < tiles.length; i++) {
+            indices.put(tiles[i], i);
+            this.biologies[i] = biologies.get(tiles[i]);
+        }
+
+        neighbours = new int[tiles.length][];
+        for (int i = 0; i < tiles.length; i++) {
+            final Bag mooreNeighbors = map.getMooreNeighbors(tiles[i], diffusingRange);
+            final int[] found = new int[mooreNeighbors.size()];
+            int count = 0;
+            for (final Object neighbour : mooreNeighbors) {
+                final Integer index = indices.get(neighbour);
+                if (index != null && index != i)
+                    found[count++] = index;
+            }
+            neighbours[i] = Arrays.copyOf(found, count);
+            Arrays.sort(neighbours[i]);
+        }
+        positionsAtNeighbours = new int[tiles.length][];
+        for (int i = 0; i < tiles.length; i++) {
+            positionsAtNeighbours[i] = new int[neighbours[i].length];
+            for (int k = 0; k < neighbours[i].length; k++) {
+                final int position = Arrays.binarySearch(neighbours[neighbours[i][k]], i);
+                checkState(position >= 0, "Neighbourhoods must be symmetric");
+                positionsAtNeighbours[i][k] = position;
+            }
+        }
+        outflows = new double[tiles.length][];
+        indexedBiologies = biologies;
+        indexedSize = biologies.size();
+    }
+
+    @SuppressWarnings("unused")
+    public boolean isParallel() {
+        return parallel;
+    }
+
+    public void setParallel(final boolean parallel) {
+        this.parallel = parallel;
+    }
+}
@@ -0,0 +1,109 @@
+/*
+ * POSEIDON: an agent-based model of fisheries
+ * Copyright (c) 2025, University of Oxford.
+ *
+ * University of Oxford means the Chancellor, Masters and Scholars of the
+ * University of Oxford, having an administrative office at Wellington
+ * Square, Oxford OX1 2JD, UK.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+
+package uk.ac.ox.oxfish.biology.complicated.factory;
+
+import uk.ac.ox.oxfish.biology.complicated.DoubleBufferedAbundanceDiffuser;
+import uk.ac.ox.oxfish.model.FishState;
+import uk.ac.ox.oxfish.utility.AlgorithmFactory;
+import uk.ac.ox.poseidon.common.api.parameters.DoubleParameter;
+import uk.ac.ox.poseidon.common.core.parameters.FixedDoubleParameter;
+
+/**
+ * Constant rate diffusion computed from the abundances at the start of the step, see
+ * {@link DoubleBufferedAbundanceDiffuser}.
+ */
+public class DoubleBufferedDiffuserFactory implements AlgorithmFactory<DoubleBufferedAbundanceDiffuser> {
+
+    /**
+     * % of differential that moves from here to there
+     */
+    private DoubleParameter diffusingRate = new FixedDoubleParameter(.001);
+    /**
+     * max distance in cells fish can move within a day
+     */
+    private DoubleParameter diffusingRange = new FixedDoubleParameter(1);
+
+    private DoubleParameter smallestMovingBin = new FixedDoubleParameter(0);
+
+    private DoubleParameter largestMovingBin = new FixedDoubleParameter(10000);
+
+    private boolean parallel = true;
+
+    @Override
+    public DoubleBufferedAbundanceDiffuser apply(final FishState state) {
+        final DoubleBufferedAbundanceDiffuser diffuser = new DoubleBufferedAbundanceDiffuser(
+            (int) diffusingRange.applyAsDouble(state.getRandom()),
+            diffusingRate.applyAsDouble(state.getRandom()),
+            (int) smallestMovingBin.applyAsDouble(state.getRandom()),
+            (int) largestMovingBin.applyAsDouble(state.getRandom()),
+            true
+        );
+        diffuser.setParallel(parallel);
+        return diffuser;
+    }
+
+    public DoubleParameter getDiffusingRate() {
+        return diffusingRate;
+    }
+
+    public void setDiffusingRate(final DoubleParameter diffusingRate) {
+        this.diffusingRate = diffusingRate;
+    }
+
+    public DoubleParameter getDiffusingRange() {
+        return diffusingRange;
+    }
+
+    public void setDiffusingRange(final DoubleParameter diffusingRange) {
+        this.diffusingRange = diffusingRange;
+    }
+
+    public DoubleParameter getSmallestMovingBin() {
+        return smallestMovingBin;
+    }
+
+    public void setSmallestMovingBin(final DoubleParameter smallestMovingBin) {
+        this.smallestMovingBin = smallestMovingBin;
+    }
+
+    public DoubleParameter getLargestMovingBin() {
+        return largestMovingBin;
+    }
+
+    public void setLargestMovingBin(final DoubleParameter largestMovingBin) {
+        this.largestMovingBin = largestMovingBin;
+    }
+
+    @SuppressWarnings("unused")
+    public boolean isParallel() {
+        return parallel;
+    }
+
+    /**
+     * If true, both passes of the diffusion run in parallel over blocks of tiles. Results are the same either way.
+     */
+    public void setParallel(final boolean parallel) {
+        this.parallel = parallel;
+    }
+}
@@ -50,7 +50,7 @@ public class AbundanceInitializerFactory
     extends BiologyInitializerFactory<AbundanceLocalBiology> {
 
     private final CacheByFile<Map<String, List<Bin>>> binsCache =
-        new CacheByFile<>(AbundanceInitializerFactory::binsPerSpecies);
+        new CacheByFile<>(AbundanceInitializerFactory.class, AbundanceInitializerFactory::binsPerSpecies);
 
     private InputPath binsFile;
     private AlgorithmFactory<SpeciesCodes> speciesCodes;
@@ -22,11 +22,13 @@
 
 package uk.ac.ox.oxfish.biology.tuna;
 
-import com.google.common.cache.CacheBuilder;
-import com.google.common.cache.CacheLoader;
-import com.google.common.cache.LoadingCache;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSortedMap;
 import com.univocity.parsers.common.record.Record;
 import sim.field.grid.DoubleGrid2D;
+import uk.ac.ox.oxfish.utility.InputCache;
+import uk.ac.ox.poseidon.common.core.geography.GridStack;
 import uk.ac.ox.poseidon.common.core.geography.MapExtent;
 
 import java.nio.file.Path;
@@ -35,9 +37,11 @@ import java.util.Arrays;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
+import java.util.function.Function;
 import java.util.function.Supplier;
 
 import static com.google.common.base.Preconditions.checkNotNull;
+import static com.google.common.collect.ImmutableList.toImmutableList;
 import static com.google.common.collect.ImmutableMap.toImmutableMap;
 import static com.google.common.collect.ImmutableSortedMap.toImmutableSortedMap;
 import static com.google.common.collect.Ordering.natural;
@@ -49,15 +53,17 @@ import static uk.ac.ox.poseidon.common.core.csv.CsvParserUtil.recordStream;
 abstract class AbstractAllocationGridsSupplier<K>
     implements Supplier<AllocationGrids<K>> {
 
+    private static final String DATE_COLUMN = "date";
+    private static final String LONGITUDE_COLUMN = "lon";
+    private static final String LATITUDE_COLUMN = "lat";
+    private static final String VALUE_COLUMN = "value";
+
     private final Path gridsFilePath;
     private final MapExtent mapExtent;
     private final int period;
 
     private final boolean toNormalize;
 
-    private final LoadingCache<AbstractAllocationGridsSupplier<K>, AllocationGrids<K>> cache =
-        CacheBuilder.newBuilder().build(CacheLoader.from(__ -> readGridsFromFile()));
-
     AbstractAllocationGridsSupplier(
         final Path gridsFilePath,
         final MapExtent mapExtent,
@@ -90,19 +96,94 @@ abstract class AbstractAllocationGridsSupplier<K>
 
     @Override
     public AllocationGrids<K> get() {
-        return cache.getUnchecked(this);
+        return InputCache.INSTANCE.get(
+            gridsFilePath,
+            __ -> readGrids(),
+            getClass(),
+            mapExtent,
+            period,
+            toNormalize,
+            keyExtractionParameters()
+        );
     }
 
-    private AllocationGrids<K> readGridsFromFile() {
+    /**
+     * Anything, besides the class of the supplier, that determines the keys extracted from the records. Suppliers
+     * for which this is equal share the grids they read from the same file.
+     */
+    Object keyExtractionParameters() {
+        return "";
+    }
+
+    /**
+     * Reads the grids from the grid stack file next to the CSV file if there is an up-to-date one, and from the CSV
+     * file otherwise.
+     */
+    private AllocationGrids<K> readGrids() {
 
         checkNotNull(this.gridsFilePath);
         checkNotNull(this.mapExtent);
 
+        return GridStack.readIfUpToDate(gridsFilePath, mapExtent)
+            .filter(gridStack -> gridStack.getKeyColumns().equals(keyColumns()))
+            .filter(gridStack -> gridStack.getValueColumns().equals(ImmutableList.of(VALUE_COLUMN)))
+            .map(this::readGridsFromGridStack)
+            .orElseGet(() -> {
+                final AllocationGrids<K> grids = readGridsFromFile();
+                if (GridStack.isConvertingOnFallback())
+                    writeGridStack();
+                return grids;
+            });
+    }
+
+    /**
+     * Converts the CSV file to a grid stack file, which will be read instead of the CSV file from now on.
+     */
+    public void writeGridStack() {
+        GridStack.convert(
+            gridsFilePath,
+            GridStack.gridStackFileFor(gridsFilePath),
+            mapExtent,
+            record -> LocalDate.parse(record.getString(DATE_COLUMN)),
+            keyColumns(),
+            LONGITUDE_COLUMN,
+            LATITUDE_COLUMN,
+            ImmutableList.of(VALUE_COLUMN)
+        );
+    }
+
+    private AllocationGrids<K> readGridsFromGridStack(final GridStack gridStack) {
+        final List<String> keyColumns = gridStack.getKeyColumns();
+        final List<K> keys = gridStack.getKeys().stream()
+            .map(key -> extractKey(column -> key.get(keyColumns.indexOf(column))))
+            .collect(toImmutableList());
+        final List<LocalDate> dates = gridStack.getDates();
+        final LocalDate startDate = dates.stream().min(naturalOrder()).orElseThrow(() ->
+            new IllegalStateException("No dates found in grid stack for " + gridsFilePath)
+        );
+        final ImmutableSortedMap.Builder<Integer, Map<K, DoubleGrid2D>> grids =
+            ImmutableSortedMap.naturalOrder();
+        for (int d = 0; d < dates.size(); d++) {
+            final ImmutableMap.Builder<K, DoubleGrid2D> gridsByKey = ImmutableMap.builder();
+            for (int k = 0; k < keys.size(); k++) {
+                if (gridStack.hasPlane(d, k)) {
+                    final DoubleGrid2D grid = new DoubleGrid2D(mapExtent.getGridWidth(), mapExtent.getGridHeight());
+                    gridStack.copyInto(grid.field, d, k, 0);
+                    gridsByKey.put(keys.get(k), toNormalize ? normalize(grid) : grid);
+                }
+            }
+            grids.put((int) DAYS.between(startDate, dates.get(d)), gridsByKey.build());
+        }
+        return AllocationGrids.from(grids.build(), period);
+    }
+
+    private AllocationGrids<K> readGridsFromFile() {
+
         final Map<LocalDate, Map<K, List<Record>>> recordsByDateAndKey =
             recordStream(gridsFilePath)
                 .collect(groupingBy(
-                    r -> LocalDate.parse(r.getString("date")),
-                    groupingBy(this::extractKeyFromRecord)
+                    r -> LocalDate.parse(r.getString(DATE_COLUMN)),
+                    groupingBy(record -> extractKey(record::getString))
                 ));
 
         final LocalDate startDate = recordsByDateAndKey
@@ -129,7 +210,12 @@ abstract class AbstractAllocationGridsSupplier<K>
         );
     }
 
-    abstract K extractKeyFromRecord(Record record);
+    /**
+     * The columns, besides date, coordinates and value, that {@link #extractKey} reads.
+     */
+    abstract List<String> keyColumns();
+
+    abstract K extractKey(Function<? super String, String> columnValue);
 
     private static DoubleGrid2D makeGrid(
         final MapExtent mapExtent,
@@ -141,8 +227,8 @@ abstract class AbstractAllocationGridsSupplier<K>
             mapExtent.getGridHeight()
         );
         records.forEach(record -> {
-            final double lon = record.getDouble("lon");
-            final double lat = record.getDouble("lat");
+            final double lon = record.getDouble(LONGITUDE_COLUMN);
+            final double lat = record.getDouble(LATITUDE_COLUMN);
             final int x = mapExtent.toGridX(lon);
             final int y = mapExtent.toGridY(lat);
             if (x < grid.getWidth() && y < grid.getHeight() &&
@@ -150,7 +236,7 @@ abstract class AbstractAllocationGridsSupplier<K>
                 grid.set(
                     x,
                     y,
-                    record.getDouble("value")
+                    record.getDouble(VALUE_COLUMN)
                 );
             } else {
                 // System.err.println( "grid cannot include the point at " + lon + "," + lat + " because it is out of
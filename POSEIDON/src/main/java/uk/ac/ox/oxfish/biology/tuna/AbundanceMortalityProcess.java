@@ -37,7 +37,6 @@ import java.util.Map.Entry;
 import static com.google.common.collect.ImmutableList.toImmutableList;
 import static com.google.common.collect.ImmutableMap.toImmutableMap;
 import static java.util.Arrays.stream;
-import static java.util.stream.IntStream.range;
 
 /**
  * A proportional mortality process. Note that "proportional mortality" here means mortality as a direct percentage as
@@ -94,27 +93,20 @@ public class AbundanceMortalityProcess implements BiologicalProcess<AbundanceLoc
             stream(abundance)
                 .map(double[]::clone)
                 .toArray(double[][]::new);
-        mortalitySources
-            .get(species)
-            .values()
-            .stream()
-            .map(mortality ->
-                range(0, subs).mapToObj(sub ->
-                    range(0, bins).mapToDouble(bin ->
-                        abundance[sub][bin] * mortality.get(sub).get(bin)
-                    ).toArray()
-                ).toArray(double[][]::new)
-            )
-            .forEach(deaths ->
-                range(0, subs).forEach(sub ->
-                    range(0, bins).forEach(bin -> {
-                        deathEventsObservers.forEach(observer ->
-                            observer.observe(new DeathEvent(species, sub, bin, deaths[sub][bin]))
-                        );
-                        newAbundance[sub][bin] -= deaths[sub][bin];
-                    })
-                )
-            );
+        // deaths are always computed from the abundance we started with, one source of mortality at a time
+        for (final List<ImmutableDoubleArray> mortality : mortalitySources.get(species).values()) {
+            for (int sub = 0; sub < subs; sub++) {
+                final ImmutableDoubleArray mortalityRates = mortality.get(sub);
+                for (int bin = 0; bin < bins; bin++) {
+                    final double deaths = abundance[sub][bin] * mortalityRates.get(bin);
+                    if (!deathEventsObservers.isEmpty()) {
+                        final DeathEvent deathEvent = new DeathEvent(species, sub, bin, deaths);
+                        deathEventsObservers.forEach(observer -> observer.observe(deathEvent));
+                    }
+                    newAbundance[sub][bin] -= deaths;
+                }
+            }
+        }
         return newAbundance;
     }
 
@@ -32,13 +32,17 @@ import uk.ac.ox.oxfish.biology.tuna.SmallLargeAllocationGridsSupplier.Key;
 import uk.ac.ox.oxfish.biology.tuna.SmallLargeAllocationGridsSupplier.SizeGroup;
 import uk.ac.ox.oxfish.geography.SeaTile;
 
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.DoubleBuffer;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.function.BiFunction;
 
-import static com.google.common.collect.ImmutableMap.toImmutableMap;
-import static java.util.function.Function.identity;
-import static java.util.stream.IntStream.range;
+import static com.google.common.base.Preconditions.checkNotNull;
 
 /**
  * A {@link Reallocator} class where the local biology is abundance based. The type of key used to
@@ -46,11 +50,23 @@ import static java.util.stream.IntStream.range;
  * tuna in the EPO, for example, we have different map for "small" and "large" tunas of each
  * species. To know which map to use for each age bin, objects of this class must be pass a function
  * that associates each bin to the right map.
+ * <p>
+ * The allocation weights are read off the grids once per set of grids and kept in an off-heap tensor laid out
+ * [tile][key], where the keys are the distinct (species, size group) pairs. Since the grids repeat every year, this
+ * tensor gets reused by all the later reallocations with the same grids.
  */
 public class AbundanceReallocator
     extends Reallocator<AbundanceLocalBiology> {
 
     private final BiFunction<Species, Integer, SizeGroup> binToSizeGroup;
+    private final Map<Map<? extends SpeciesKey, DoubleGrid2D>, DoubleBuffer> weightsPerGrids = new IdentityHashMap<>();
+    private List<SeaTile> weightedTiles = null;
+    private GlobalBiology indexedBiology = null;
+    private List<Key> keys;
+    /**
+     * For each species (in global biology order) and bin, the index of the matching key in the weights tensor.
+     */
+    private int[][] keyIndices;
 
     /**
      * Constructs a new AbundanceReallocator.
@@ -73,42 +89,76 @@ public class AbundanceReallocator
         final List<SeaTile> seaTiles,
         final AbundanceLocalBiology aggregatedBiology
     ) {
-        final Map<Species, DoubleGrid2D[]> gridsPerSpecies =
-            getGrids(globalBiology, allocationGrids);
-        seaTiles.forEach(seaTile -> {
+        if (seaTiles != weightedTiles || globalBiology != indexedBiology) {
+            indexKeys(globalBiology);
+            weightsPerGrids.clear();
+            weightedTiles = seaTiles;
+        }
+        final DoubleBuffer weights =
+            weightsPerGrids.computeIfAbsent(allocationGrids, grids -> computeWeights(grids, seaTiles));
+        final List<Species> species = globalBiology.getSpecies();
+        final double[][][] aggregatedMatrices = new double[species.size()][][];
+        for (int i = 0; i < aggregatedMatrices.length; i++) {
+            aggregatedMatrices[i] = aggregatedBiology.getAbundance(species.get(i)).asMatrix();
+        }
+        final int numKeys = keys.size();
+        int row = 0;
+        for (final SeaTile seaTile : seaTiles) {
             final LocalBiology biology = seaTile.getBiology();
-            final Int2D xy = seaTile.getGridLocation();
-            for (final Species species : globalBiology.getSpecies()) {
-                final double[][] aggregatedMatrix =
-                    aggregatedBiology.getAbundance(species).asMatrix();
-                final double[][] localMatrix =
-                    biology.getAbundance(species).asMatrix();
-                final DoubleGrid2D[] grids = gridsPerSpecies.get(species);
-                final int numSubs = species.getNumberOfSubdivisions();
-                final int numBins = species.getNumberOfBins();
+            for (int i = 0; i < aggregatedMatrices.length; i++) {
+                final Species s = species.get(i);
+                final double[][] aggregatedMatrix = aggregatedMatrices[i];
+                final double[][] localMatrix = biology.getAbundance(s).asMatrix();
+                final int[] binKeys = keyIndices[i];
+                final int numSubs = s.getNumberOfSubdivisions();
+                final int numBins = s.getNumberOfBins();
                 for (int sub = 0; sub < numSubs; sub++) {
                     for (int bin = 0; bin < numBins; bin++) {
-                        final double numFish = aggregatedMatrix[sub][bin];
-                        localMatrix[sub][bin] = numFish * grids[bin].get(xy.x, xy.y);
+                        localMatrix[sub][bin] = aggregatedMatrix[sub][bin] * weights.get(row + binKeys[bin]);
                     }
                 }
             }
-        });
+            row += numKeys;
+        }
     }
 
-    private Map<Species, DoubleGrid2D[]> getGrids(
-        final GlobalBiology globalBiology,
-        final Map<?, DoubleGrid2D> allocationGrids
+    private void indexKeys(final GlobalBiology globalBiology) {
+        final Map<Key, Integer> indexOfKey = new HashMap<>();
+        keys = new ArrayList<>();
+        keyIndices = globalBiology.getSpecies().stream()
+            .map(species -> {
+                final int[] indices = new int[species.getNumberOfBins()];
+                for (int bin = 0; bin < indices.length; bin++) {
+                    final Key key = new Key(species.getCode(), binToSizeGroup.apply(species, bin));
+                    indices[bin] = indexOfKey.computeIfAbsent(key, k -> {
+                        keys.add(k);
+                        return keys.size() - 1;
+                    });
+                }
+                return indices;
+            })
+            .toArray(int[][]::new);
+        indexedBiology = globalBiology;
+    }
+
+    private DoubleBuffer computeWeights(
+        final Map<? extends SpeciesKey, DoubleGrid2D> allocationGrids,
+        final List<SeaTile> seaTiles
     ) {
-        return globalBiology.getSpecies().stream().collect(toImmutableMap(
-            identity(),
-            species -> range(0, species.getNumberOfBins())
-                .mapToObj(bin -> allocationGrids.get(new Key(
-                    species.getCode(),
-                    binToSizeGroup.apply(species, bin)
-                )))
-                .toArray(DoubleGrid2D[]::new)
-        ));
+        final DoubleGrid2D[] grids = keys.stream()
+            .map(key -> checkNotNull(allocationGrids.get(key), "Missing allocation grid for %s", key.getSpeciesCode()))
+            .toArray(DoubleGrid2D[]::new);
+        final DoubleBuffer weights = ByteBuffer
+            .allocateDirect(seaTiles.size() * grids.length * Double.BYTES)
+            .order(ByteOrder.nativeOrder())
+            .asDoubleBuffer();
+        for (final SeaTile seaTile : seaTiles) {
+            final Int2D xy = seaTile.getGridLocation();
+            for (final DoubleGrid2D grid : grids) {
+                weights.put(grid.get(xy.x, xy.y));
+            }
+        }
+        return weights;
     }
 
 }
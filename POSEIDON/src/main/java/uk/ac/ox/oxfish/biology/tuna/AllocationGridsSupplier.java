@@ -22,11 +22,13 @@
 
 package uk.ac.ox.oxfish.biology.tuna;
 
-import com.univocity.parsers.common.record.Record;
+import com.google.common.collect.ImmutableList;
 import uk.ac.ox.oxfish.biology.tuna.Reallocator.SpeciesKey;
 import uk.ac.ox.poseidon.common.core.geography.MapExtent;
 
 import java.nio.file.Path;
+import java.util.List;
+import java.util.function.Function;
 
 class AllocationGridsSupplier
     extends AbstractAllocationGridsSupplier<SpeciesKey> {
@@ -40,11 +42,16 @@ class AllocationGridsSupplier
     }
 
     @Override
-    SpeciesKey extractKeyFromRecord(
-        final Record record
+    List<String> keyColumns() {
+        return ImmutableList.of("species_code");
+    }
+
+    @Override
+    SpeciesKey extractKey(
+        final Function<? super String, String> columnValue
     ) {
         return new SpeciesKey(
-            record.getString("species_code")
+            columnValue.apply("species_code")
         );
     }
 
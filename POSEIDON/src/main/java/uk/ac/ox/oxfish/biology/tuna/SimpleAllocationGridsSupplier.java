@@ -22,10 +22,12 @@
 
 package uk.ac.ox.oxfish.biology.tuna;
 
-import com.univocity.parsers.common.record.Record;
+import com.google.common.collect.ImmutableList;
 import uk.ac.ox.poseidon.common.core.geography.MapExtent;
 
 import java.nio.file.Path;
+import java.util.List;
+import java.util.function.Function;
 
 public class SimpleAllocationGridsSupplier extends AbstractAllocationGridsSupplier<String> {
 
@@ -62,7 +64,17 @@ public class SimpleAllocationGridsSupplier extends AbstractAllocationGridsSuppli
     }
 
     @Override
-    String extractKeyFromRecord(final Record record) {
+    List<String> keyColumns() {
+        return ImmutableList.of();
+    }
+
+    @Override
+    String extractKey(final Function<? super String, String> columnValue) {
+        return keyName;
+    }
+
+    @Override
+    Object keyExtractionParameters() {
         return keyName;
     }
 }
@@ -22,14 +22,16 @@
 
 package uk.ac.ox.oxfish.biology.tuna;
 
-import com.univocity.parsers.common.record.Record;
+import com.google.common.collect.ImmutableList;
 import uk.ac.ox.poseidon.common.core.geography.MapExtent;
 
 import java.nio.file.Path;
 import java.util.Arrays;
+import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.function.Function;
 
 import static com.google.common.collect.ImmutableMap.toImmutableMap;
 import static java.util.function.Function.identity;
@@ -54,11 +56,16 @@ public class SmallLargeAllocationGridsSupplier
     }
 
     @Override
-    Key extractKeyFromRecord(
-        final Record record
+    List<String> keyColumns() {
+        return ImmutableList.of("group", "species_code");
+    }
+
+    @Override
+    Key extractKey(
+        final Function<? super String, String> columnValue
     ) {
-        final String groupCode = record.getString("group");
-        final String speciesCode = record.getString("species_code");
+        final String groupCode = columnValue.apply("group");
+        final String speciesCode = columnValue.apply("species_code");
         return new Key(
             speciesCode,
             Optional.ofNullable(groups.get(groupCode))
@@ -22,10 +22,12 @@
 
 package uk.ac.ox.oxfish.environment;
 
-import com.univocity.parsers.common.record.Record;
+import com.google.common.collect.ImmutableList;
 import uk.ac.ox.poseidon.common.core.geography.MapExtent;
 
 import java.nio.file.Path;
+import java.util.List;
+import java.util.function.Function;
 
 public class SimpleGridsSupplier extends AbstractGridsSupplier<String> {
 
@@ -57,7 +59,17 @@ public class SimpleGridsSupplier extends AbstractGridsSupplier<String> {
     }
 
     @Override
-    String extractKeyFromRecord(final Record record) {
+    List<String> keyColumns() {
+        return ImmutableList.of();
+    }
+
+    @Override
+    String extractKey(final Function<? super String, String> columnValue) {
+        return keyName;
+    }
+
+    @Override
+    Object keyExtractionParameters() {
         return keyName;
     }
 }
@@ -22,25 +22,34 @@
 
 package uk.ac.ox.oxfish.experiments.tuna;
 
+import com.google.common.base.Suppliers;
 import com.google.common.collect.HashMultimap;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMultimap;
 import com.google.common.collect.Multimap;
+import com.google.common.hash.Hashing;
 import com.univocity.parsers.csv.CsvWriter;
 import com.univocity.parsers.csv.CsvWriterSettings;
 import uk.ac.ox.oxfish.model.FishState;
+import uk.ac.ox.oxfish.model.FishStateSnapshot;
 import uk.ac.ox.oxfish.model.Startable;
+import uk.ac.ox.oxfish.model.data.monitors.loggers.OutputFormat;
 import uk.ac.ox.oxfish.model.data.monitors.loggers.RowProvider;
+import uk.ac.ox.oxfish.model.data.monitors.loggers.StreamingRowWriter;
 import uk.ac.ox.oxfish.model.data.monitors.loggers.TidyFisherDailyData;
 import uk.ac.ox.oxfish.model.data.monitors.loggers.TidyFisherYearlyData;
 import uk.ac.ox.oxfish.model.data.monitors.loggers.TidyYearlyData;
 import uk.ac.ox.oxfish.model.scenario.Scenario;
+import uk.ac.ox.oxfish.model.scenario.ScenarioTemplate;
 import uk.ac.ox.oxfish.utility.AlgorithmFactory;
+import uk.ac.ox.oxfish.utility.InputCache;
 import uk.ac.ox.oxfish.utility.yaml.FishYAML;
 
 import java.io.*;
+import java.net.URISyntaxException;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.nio.file.Paths;
 import java.time.LocalDateTime;
 import java.util.Collection;
 import java.util.HashMap;
@@ -53,11 +62,15 @@ import java.util.function.Predicate;
 import java.util.function.Supplier;
 import java.util.logging.Logger;
 import java.util.stream.IntStream;
+import java.util.stream.Stream;
 
 import static com.google.common.base.Preconditions.checkNotNull;
+import static com.google.common.base.Preconditions.checkArgument;
 import static com.google.common.collect.ImmutableList.toImmutableList;
+import static com.google.common.collect.ImmutableMap.toImmutableMap;
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.util.function.Function.identity;
 import static java.util.stream.IntStream.range;
-import static uk.ac.ox.oxfish.model.data.monitors.loggers.RowProvider.writeRows;
 
 public final class Runner<S extends Scenario> {
 
@@ -77,6 +90,13 @@ public final class Runner<S extends Scenario> {
         HashMultimap.create();
     private boolean parallel = true;
     private boolean writeScenarioToFile = false;
+    private boolean forkingFromSnapshots = false;
+    private int spinUpYears = 0;
+    private Path snapshotsFolder = null;
+    private Long snapshotSeed = null;
+    private int fisherPhaseThreads = 0;
+    private boolean streamingOutput = false;
+    private OutputFormat outputFormat = OutputFormat.CSV;
     private CsvWriterSettings csvWriterSettings = new CsvWriterSettings();
     private Collection<Policy<? super S>> policies = ImmutableList.of(Policy.DEFAULT);
     private Consumer<? super State> beforeStartConsumer = __ -> {};
@@ -113,16 +133,7 @@ public final class Runner<S extends Scenario> {
         final Path scenarioPath,
         final Class<S> scenarioClass
     ) {
-        return () -> {
-            try (final FileReader fileReader = new FileReader(scenarioPath.toFile())) {
-                final FishYAML fishYAML = new FishYAML();
-                return fishYAML.loadAs(fileReader, scenarioClass);
-            } catch (final FileNotFoundException e) {
-                throw new IllegalArgumentException("Can't find scenario file: " + scenarioPath, e);
-            } catch (final IOException e) {
-                throw new IllegalStateException("Error while reading file: " + scenarioPath, e);
-            }
-        };
+        return () -> ScenarioTemplate.of(scenarioPath, scenarioClass).get();
     }
 
     @SuppressWarnings("unused")
@@ -182,6 +193,118 @@ public final class Runner<S extends Scenario> {
         return this;
     }
 
+    @SuppressWarnings("unused")
+    public boolean isForkingFromSnapshots() {
+        return forkingFromSnapshots;
+    }
+
+    /**
+     * If true, the model is started only once per policy and all the runs for that policy are forked from a snapshot
+     * of the started model, each with its own seed. The before start consumer is then called once per policy, when
+     * the snapshot is made, but the after start consumer is still called for every run.
+     */
+    @SuppressWarnings("unused")
+    public Runner<S> setForkingFromSnapshots(final boolean forkingFromSnapshots) {
+        this.forkingFromSnapshots = forkingFromSnapshots;
+        return this;
+    }
+
+    @SuppressWarnings("unused")
+    public int getSpinUpYears() {
+        return spinUpYears;
+    }
+
+    /**
+     * The number of years for which the model is stepped before taking a snapshot. Only applies when forking from
+     * snapshots. Nothing is written to the output files during the spin-up.
+     */
+    @SuppressWarnings("unused")
+    public Runner<S> setSpinUpYears(final int spinUpYears) {
+        checkArgument(spinUpYears >= 0);
+        this.spinUpYears = spinUpYears;
+        return this;
+    }
+
+    @SuppressWarnings("unused")
+    public Path getSnapshotsFolder() {
+        return snapshotsFolder;
+    }
+
+    /**
+     * If set when forking from snapshots, snapshots are read from this folder when they exist, and written to it
+     * otherwise, so that they can be reused from one program run to the next. This requires a snapshot seed. A
+     * snapshot is only reused if it was made from the same scenario, with the same spin-up years and seed, and by the
+     * same build of the model.
+     */
+    @SuppressWarnings("unused")
+    public Runner<S> setSnapshotsFolder(final Path snapshotsFolder) {
+        this.snapshotsFolder = snapshotsFolder;
+        return this;
+    }
+
+    @SuppressWarnings("unused")
+    public Long getSnapshotSeed() {
+        return snapshotSeed;
+    }
+
+    /**
+     * The seed of the model from which snapshots are taken. Forks get their own seeds, so this only affects the
+     * spin-up. If null (the default), the seed is based on the current time and snapshots are not saved to the
+     * snapshots folder.
+     */
+    @SuppressWarnings("unused")
+    public Runner<S> setSnapshotSeed(final Long snapshotSeed) {
+        this.snapshotSeed = snapshotSeed;
+        return this;
+    }
+
+    @SuppressWarnings("unused")
+    public int getFisherPhaseThreads() {
+        return fisherPhaseThreads;
+    }
+
+    /**
+     * The number of threads on which the fishers of each run are stepped (see
+     * {@link FishState#setFisherPhaseThreads(int)}). The default, 0, steps them one by one through the schedule.
+     */
+    @SuppressWarnings("unused")
+    public Runner<S> setFisherPhaseThreads(final int fisherPhaseThreads) {
+        checkArgument(fisherPhaseThreads >= 0);
+        this.fisherPhaseThreads = fisherPhaseThreads;
+        return this;
+    }
+
+    @SuppressWarnings("unused")
+    public boolean isStreamingOutput() {
+        return streamingOutput;
+    }
+
+    /**
+     * If true, runs send their rows to a {@link StreamingRowWriter} instead of reopening the output files at every
+     * step. The rows of each run then end up together in the output files, ordered by run number, once all the runs
+     * are done.
+     */
+    @SuppressWarnings("unused")
+    public Runner<S> setStreamingOutput(final boolean streamingOutput) {
+        this.streamingOutput = streamingOutput;
+        return this;
+    }
+
+    @SuppressWarnings("unused")
+    public OutputFormat getOutputFormat() {
+        return outputFormat;
+    }
+
+    /**
+     * The format of the output files when streaming output. Columnar files get the extension of their format instead
+     * of {@code .csv}.
+     */
+    @SuppressWarnings("unused")
+    public Runner<S> setOutputFormat(final OutputFormat outputFormat) {
+        this.outputFormat = checkNotNull(outputFormat);
+        return this;
+    }
+
     @SuppressWarnings("SameParameterValue")
     public void run(final int numYearsToRun) {
         run(numYearsToRun, 1);
@@ -200,26 +323,47 @@ public final class Runner<S extends Scenario> {
         final AtomicInteger runCounter
     ) {
         final int numRuns = policies.size() * numberOfRunsPerPolicy;
-        final IntStream range = range(0, numberOfRunsPerPolicy);
-        (parallel ? range.parallel() : range).forEach(i ->
-            (parallel ? policies.parallelStream() : policies.stream()).forEach(policy -> {
-                final int runNumber = runCounter.getAndIncrement();
-                logger.info(String.format("=== Starting run %d / %s ===", runNumber, numRuns));
-                final State state = startRun(policy, runNumber, numRuns, numberOfYearsToRun);
-                if (writeScenarioToFile) writeScenarioToFile(state);
-                beforeStartConsumer.accept(state);
-                state.model.start();
-                afterStartConsumer.accept(state);
-                final Multimap<Path, RowProvider> rowProviders = makeRowProviders(state);
-                do {
-                    writeOutputs(runNumber, rowProviders, false);
-                    state.printStep();
-                    state.model.schedule.step(state.model);
-                    afterStepConsumer.accept(state);
-                } while (state.model.getYear() < numberOfYearsToRun);
-                afterRunConsumer.accept(state);
-                writeOutputs(runNumber, rowProviders, true);
-            }));
+        final Map<Policy<? super S>, Supplier<FishStateSnapshot>> snapshots = policies
+            .stream()
+            .distinct()
+            .collect(toImmutableMap(
+                identity(),
+                policy -> Suppliers.memoize(() -> makeSnapshot(policy, numRuns, numberOfYearsToRun))
+            ));
+        try (
+            final StreamingRowWriter rowWriter = streamingOutput
+                ? new StreamingRowWriter(outputPath, outputFormat, csvWriterSettings, this::isFirstWrite)
+                : null
+        ) {
+            final IntStream range = range(0, numberOfRunsPerPolicy);
+            (parallel ? range.parallel() : range).forEach(i ->
+                (parallel ? policies.parallelStream() : policies.stream()).forEach(policy -> {
+                    final int runNumber = runCounter.getAndIncrement();
+                    logger.info(String.format("=== Starting run %d / %s ===", runNumber, numRuns));
+                    final State state;
+                    if (forkingFromSnapshots) {
+                        state = forkRun(snapshots.get(policy).get(), policy, runNumber, numRuns, numberOfYearsToRun);
+                    } else {
+                        state = startRun(policy, runNumber, numRuns, numberOfYearsToRun);
+                        if (writeScenarioToFile) writeScenarioToFile(state);
+                        beforeStartConsumer.accept(state);
+                        state.model.start();
+                    }
+                    afterStartConsumer.accept(state);
+                    final Multimap<Path, RowProvider> rowProviders = makeRowProviders(state);
+                    try (final RowSink rowSink = makeRowSink(rowWriter, runNumber)) {
+                        do {
+                            writeOutputs(rowSink, rowProviders, false);
+                            state.printStep();
+                            state.model.schedule.step(state.model);
+                            afterStepConsumer.accept(state);
+                        } while (state.model.getYear() < numberOfYearsToRun);
+                        afterRunConsumer.accept(state);
+                        writeOutputs(rowSink, rowProviders, true);
+                    }
+                }));
+        }
+        logger.info("Input cache: " + InputCache.INSTANCE);
     }
 
     private State startRun(
@@ -227,21 +371,121 @@ public final class Runner<S extends Scenario> {
         final int runNumber,
         final int numRuns,
         final int numYearsToRun
+    ) {
+        return startRun(policy, runNumber, numRuns, numYearsToRun, System.currentTimeMillis() + runNumber);
+    }
+
+    private State startRun(
+        final Policy<? super S> policy,
+        final int runNumber,
+        final int numRuns,
+        final int numYearsToRun,
+        final long seed
     ) {
         final LocalDateTime startTime = LocalDateTime.now();
         final S scenario = scenarioSupplier.get();
         policy.getScenarioConsumer().accept(scenario);
-        final FishState fishState = new FishState(System.currentTimeMillis() + runNumber);
+        final FishState fishState = new FishState(seed);
         fishState.setScenario(scenario);
+        fishState.setFisherPhaseThreads(fisherPhaseThreads);
+        return new State(scenario, policy, fishState, runNumber, numRuns, numYearsToRun, startTime);
+    }
+
+    private FishStateSnapshot makeSnapshot(
+        final Policy<? super S> policy,
+        final int numRuns,
+        final int numYearsToRun
+    ) {
+        final State state = snapshotSeed == null
+            ? startRun(policy, 0, numRuns, numYearsToRun)
+            : startRun(policy, 0, numRuns, numYearsToRun, snapshotSeed);
+        if (snapshotsFolder != null && snapshotSeed == null) {
+            logger.warning("Snapshots can only be reused with a fixed snapshot seed; not using " + snapshotsFolder);
+        }
+        final String snapshotKey =
+            snapshotsFolder == null || snapshotSeed == null ? null : snapshotKey(state.scenario);
+        final Path snapshotFile = snapshotKey == null ? null : snapshotsFolder.resolve(
+            fileNameFor(policy) + "_" + Hashing.sha256().hashString(snapshotKey, UTF_8).toString().substring(0, 16) +
+                ".snapshot"
+        );
+        if (snapshotFile != null && Files.exists(snapshotFile)) {
+            logger.info("Reading snapshot for " + policy.getName() + " from " + snapshotFile);
+            try {
+                return FishStateSnapshot.readFrom(snapshotFile, snapshotKey);
+            } catch (final IllegalStateException e) {
+                logger.warning("Not reusing snapshot: " + e.getMessage());
+            }
+        }
+        if (writeScenarioToFile) writeScenarioToFile(state);
+        beforeStartConsumer.accept(state);
+        state.model.start();
+        final FishStateSnapshot snapshot = FishStateSnapshot.of(state.model, spinUpYears);
+        if (snapshotFile != null) {
+            try {
+                Files.createDirectories(snapshotsFolder);
+                snapshot.writeTo(snapshotFile, snapshotKey);
+            } catch (final IOException | IllegalStateException e) {
+                logger.warning("Unable to write snapshot to " + snapshotFile + ": " + e.getMessage());
+            }
+        }
+        return snapshot;
+    }
+
+    @SuppressWarnings("unchecked")
+    private State forkRun(
+        final FishStateSnapshot snapshot,
+        final Policy<? super S> policy,
+        final int runNumber,
+        final int numRuns,
+        final int numYearsToRun
+    ) {
+        final LocalDateTime startTime = LocalDateTime.now();
+        final FishState fishState = snapshot.fork(System.currentTimeMillis() + runNumber);
+        final S scenario = (S) fishState.getScenario();
         return new State(scenario, policy, fishState, runNumber, numRuns, numYearsToRun, startTime);
     }
 
+    /**
+     * Describes everything a snapshot depends on: the scenario, as modified by the policy, the spin-up, the seed and
+     * the build of the model.
+     */
+    private String snapshotKey(final S scenario) {
+        final StringWriter yaml = new StringWriter();
+        new FishYAML().dump(scenario, yaml);
+        return String.join(
+            "; ",
+            "scenario " + Hashing.sha256().hashString(yaml.toString(), UTF_8),
+            "spin-up years " + spinUpYears,
+            "seed " + snapshotSeed,
+            "fisher phase threads " + fisherPhaseThreads,
+            "build " + buildStamp()
+        );
+    }
+
+    /**
+     * The location of the model classes and the time they were last modified.
+     */
+    private static String buildStamp() {
+        try {
+            final Path location =
+                Paths.get(FishState.class.getProtectionDomain().getCodeSource().getLocation().toURI());
+            try (final Stream<Path> files = Files.walk(location)) {
+                return location + "@" + files.mapToLong(file -> file.toFile().lastModified()).max().orElse(0);
+            }
+        } catch (final URISyntaxException | IOException | RuntimeException e) {
+            return "unknown";
+        }
+    }
+
+    private static String fileNameFor(final Policy<?> policy) {
+        return policy.getName().replaceAll("[^a-zA-Z0-9-_.]", "_");
+    }
+
     private void writeScenarioToFile(final State runnerState) {
         try {
             final Path scenariosFolder = outputPath.resolve(SCENARIOS_FOLDER);
             Files.createDirectories(scenariosFolder);
-            final Path scenarioFile =
-                scenariosFolder.resolve(runnerState.getPolicy().getName().replaceAll("[^a-zA-Z0-9-_.]", "_") + ".yaml");
+            final Path scenarioFile = scenariosFolder.resolve(fileNameFor(runnerState.getPolicy()) + ".yaml");
             new FishYAML().dump(runnerState.getScenario(), new FileWriter(scenarioFile.toFile()));
         } catch (final IOException e) {
             throw new RuntimeException(e);
@@ -261,8 +505,54 @@ public final class Runner<S extends Scenario> {
         return rowProviders.build();
     }
 
+    private RowSink makeRowSink(
+        final StreamingRowWriter rowWriter,
+        final int runNumber
+    ) {
+        if (rowWriter == null) {
+            return (outputPath, providers) -> writeRows(outputPath, providers, runNumber);
+        }
+        final StreamingRowWriter.RunWriter runWriter = rowWriter.openRun(runNumber);
+        return new RowSink() {
+            @Override
+            public void write(
+                final Path outputPath,
+                final Collection<RowProvider> providers
+            ) {
+                runWriter.write(outputPath, providers);
+            }
+
+            @Override
+            public void close() {
+                runWriter.close();
+            }
+        };
+    }
+
+    private boolean isFirstWrite(final Path outputPath) {
+        synchronized (overwriteFiles) {
+            return overwriteFiles.computeIfAbsent(outputPath, __ -> new AtomicBoolean(true)).getAndSet(false);
+        }
+    }
+
+    private void writeRows(
+        final Path outputPath,
+        final Collection<RowProvider> providers,
+        final int runNumber
+    ) {
+        synchronized (overwriteFiles) {
+            final boolean overwrite = isFirstWrite(outputPath);
+            try (final Writer fileWriter = new FileWriter(outputPath.toFile(), !overwrite)) {
+                final CsvWriter csvWriter = new CsvWriter(new BufferedWriter(fileWriter), csvWriterSettings);
+                RowProvider.writeRows(csvWriter, providers, runNumber, overwrite);
+            } catch (final IOException e) {
+                throw new IllegalStateException("Writing to " + outputPath + " failed.", e);
+            }
+        }
+    }
+
     private void writeOutputs(
-        final int runNumber,
+        final RowSink rowSink,
         final Multimap<? extends Path, RowProvider> rowProviders,
         final boolean isFinalStep
     ) {
@@ -273,16 +563,7 @@ public final class Runner<S extends Scenario> {
                 ? providers
                 : providers.stream().filter(RowProvider::isEveryStep).collect(toImmutableList());
             if (!activeProviders.isEmpty()) {
-                synchronized (overwriteFiles) {
-                    final boolean overwrite =
-                        overwriteFiles.computeIfAbsent(outputPath, __ -> new AtomicBoolean(true)).getAndSet(false);
-                    try (final Writer fileWriter = new FileWriter(outputPath.toFile(), !overwrite)) {
-                        final CsvWriter csvWriter = new CsvWriter(new BufferedWriter(fileWriter), csvWriterSettings);
-                        writeRows(csvWriter, activeProviders, runNumber, overwrite);
-                    } catch (final IOException e) {
-                        throw new IllegalStateException("Writing to " + outputPath + " failed.", e);
-                    }
-                }
+                rowSink.write(outputPath, activeProviders);
             }
         });
     }
@@ -351,6 +632,20 @@ public final class Runner<S extends Scenario> {
         return this;
     }
 
+    /**
+     * Where a run writes its rows: either straight to the output files or through a {@link StreamingRowWriter}.
+     */
+    private interface RowSink extends AutoCloseable {
+        void write(
+            Path outputPath,
+            Collection<RowProvider> providers
+        );
+
+        @Override
+        default void close() {
+        }
+    }
+
     public class State implements RowProvider {
 
         private final S scenario;
@@ -643,7 +643,7 @@ public class Fisher implements Steppable, Startable, Agent {
     public void spendForTrip(final double moneySpent) {
         spendExogenously(moneySpent);
         memory.getTripLogger().recordCosts(moneySpent);
-        getDailyCounter().count(FisherYearlyTimeSeries.CASH_FLOW_COLUMN, -moneySpent);
+        getDailyCounter().countCashFlow(-moneySpent);
 
     }
 
@@ -666,7 +666,7 @@ public class Fisher implements Steppable, Startable, Agent {
      */
     public void spendExogenously(final double moneySpent) {
         status.setBankBalance(status.getBankBalance() - moneySpent);
-        getDailyCounter().count(FisherYearlyTimeSeries.CASH_FLOW_COLUMN, -moneySpent);
+        getDailyCounter().countCashFlow(-moneySpent);
 
     }
 
@@ -942,7 +942,7 @@ public class Fisher implements Steppable, Startable, Agent {
             consumeFuel(litersBurned);
 
         memory.getYearlyCounter().count(FisherYearlyTimeSeries.EFFORT, hoursSpentFishing);
-        memory.getDailyCounter().count(FisherYearlyTimeSeries.EFFORT, hoursSpentFishing);
+        memory.getDailyCounter().countEffort(hoursSpentFishing);
     }
 
     /**
@@ -1006,7 +1006,7 @@ public class Fisher implements Steppable, Startable, Agent {
 
     public void earn(final double moneyEarned) {
         status.setBankBalance(status.getBankBalance() + moneyEarned);
-        getDailyCounter().count(FisherYearlyTimeSeries.CASH_FLOW_COLUMN, moneyEarned);
+        getDailyCounter().countCashFlow(moneyEarned);
 
     }
 
@@ -22,21 +22,17 @@
 
 package uk.ac.ox.oxfish.fisher.heatmap.regression.extractors;
 
-import uk.ac.ox.oxfish.fisher.Fisher;
 import uk.ac.ox.oxfish.geography.SeaTile;
-import uk.ac.ox.oxfish.model.FishState;
 
 /**
  * returns the grid y of the observation's tile
  * Created by carrknight on 8/24/16.
  */
-public class GridYExtractor implements ObservationExtractor {
+public class GridYExtractor implements TileFeatureExtractor {
 
 
     @Override
-    public double extract(
-        SeaTile tile, double timeOfObservation, Fisher agent, FishState model
-    ) {
+    public double extractFromTile(final SeaTile tile) {
         return tile.getGridY();
     }
 }
@@ -0,0 +1,49 @@
+/*
+ * POSEIDON: an agent-based model of fisheries
+ * Copyright (c) 2025, University of Oxford.
+ *
+ * University of Oxford means the Chancellor, Masters and Scholars of the
+ * University of Oxford, having an administrative office at Wellington
+ * Square, Oxford OX1 2JD, UK.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+
+package uk.ac.ox.oxfish.fisher.heatmap.regression.extractors;
+
+import uk.ac.ox.oxfish.fisher.Fisher;
+import uk.ac.ox.oxfish.geography.SeaTile;
+import uk.ac.ox.oxfish.model.FishState;
+
+/**
+ * An extractor whose feature depends on the tile alone: not on time, on the fisher or on the state of the model. Its
+ * features can then be computed once per map and shared by every regression on that map that uses the same
+ * extractor instance.
+ */
+public interface TileFeatureExtractor extends ObservationExtractor {
+
+    double extractFromTile(SeaTile tile);
+
+    @Override
+    default double extract(
+        final SeaTile tile,
+        final double timeOfObservation,
+        final Fisher agent,
+        final FishState model
+    ) {
+        return extractFromTile(tile);
+    }
+
+}
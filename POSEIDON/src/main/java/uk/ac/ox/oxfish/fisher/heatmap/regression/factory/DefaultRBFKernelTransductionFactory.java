@@ -52,6 +52,17 @@ public class DefaultRBFKernelTransductionFactory implements AlgorithmFactory<Ker
 
     private DoubleParameter habitatBandwidth = new FixedDoubleParameter(1);
 
+    private boolean parallel = false;
+
+    /**
+     * shared by all the regressions built here, so that they read the same tile features
+     */
+    private final GridXExtractor gridXExtractor = new GridXExtractor();
+
+    private final GridYExtractor gridYExtractor = new GridYExtractor();
+
+    private final HabitatExtractor habitatExtractor = new HabitatExtractor();
+
 
     /**
      * Applies this function to the given argument.
@@ -63,15 +74,15 @@ public class DefaultRBFKernelTransductionFactory implements AlgorithmFactory<Ker
     @Override
     public KernelTransduction apply(final FishState state) {
 
-        return new KernelTransduction(
+        final KernelTransduction regression = new KernelTransduction(
             state.getMap(),
             forgettingFactor.applyAsDouble(state.getRandom()),
             entry(
-                new GridXExtractor(),
+                gridXExtractor,
                 xBandwidth.applyAsDouble(state.getRandom())
             ),
             entry(
-                new GridYExtractor(),
+                gridYExtractor,
                 yBandwidth.applyAsDouble(state.getRandom())
             ),
             entry(
@@ -79,10 +90,12 @@ public class DefaultRBFKernelTransductionFactory implements AlgorithmFactory<Ker
                 distanceFromPortBandwidth.applyAsDouble(state.getRandom())
             ),
             entry(
-                new HabitatExtractor(),
+                habitatExtractor,
                 habitatBandwidth.applyAsDouble(state.getRandom())
             )
         );
+        regression.setParallel(parallel);
+        return regression;
 
 
     }
@@ -177,4 +190,17 @@ public class DefaultRBFKernelTransductionFactory implements AlgorithmFactory<Ker
     public void setHabitatBandwidth(final DoubleParameter habitatBandwidth) {
         this.habitatBandwidth = habitatBandwidth;
     }
+
+    @SuppressWarnings("unused")
+    public boolean isParallel() {
+        return parallel;
+    }
+
+    /**
+     * If true, each observation updates the tiles in parallel blocks; predictions are unaffected.
+     */
+    @SuppressWarnings("unused")
+    public void setParallel(final boolean parallel) {
+        this.parallel = parallel;
+    }
 }
@@ -41,6 +41,15 @@ public class KernelTransductionFactory implements AlgorithmFactory<KernelTransdu
 
     private DoubleParameter forgettingFactor = new FixedDoubleParameter(1);
 
+    private boolean parallel = false;
+
+    /**
+     * shared by all the regressions built here, so that they read the same tile features
+     */
+    private final GridXExtractor gridXExtractor = new GridXExtractor();
+
+    private final GridYExtractor gridYExtractor = new GridYExtractor();
+
 
     /**
      * Applies this function to the given argument.
@@ -52,12 +61,14 @@ public class KernelTransductionFactory implements AlgorithmFactory<KernelTransdu
     @Override
     public KernelTransduction apply(final FishState state) {
         final double bandwidth = spaceBandwidth.applyAsDouble(state.getRandom());
-        return new KernelTransduction(
+        final KernelTransduction regression = new KernelTransduction(
             state.getMap(),
             forgettingFactor.applyAsDouble(state.getRandom()),
-            entry(new GridXExtractor(), bandwidth),
-            entry(new GridYExtractor(), bandwidth)
+            entry(gridXExtractor, bandwidth),
+            entry(gridYExtractor, bandwidth)
         );
+        regression.setParallel(parallel);
+        return regression;
     }
 
 
@@ -76,6 +87,17 @@ public class KernelTransductionFactory implements AlgorithmFactory<KernelTransdu
     public void setForgettingFactor(final DoubleParameter forgettingFactor) {
         this.forgettingFactor = forgettingFactor;
     }
-}
 
+    @SuppressWarnings("unused")
+    public boolean isParallel() {
+        return parallel;
+    }
 
+    /**
+     * If true, each observation updates the tiles in parallel blocks; predictions are unaffected.
+     */
+    @SuppressWarnings("unused")
+    public void setParallel(final boolean parallel) {
+        this.parallel = parallel;
+    }
+}
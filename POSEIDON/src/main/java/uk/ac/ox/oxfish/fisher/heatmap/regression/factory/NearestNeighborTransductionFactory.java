@@ -45,6 +45,15 @@ public class NearestNeighborTransductionFactory implements AlgorithmFactory<Near
 
     private DoubleParameter spaceBandwidth = new FixedDoubleParameter(5d);
 
+    private boolean parallel = false;
+
+    /**
+     * shared by all the regressions built here, so that they read the same tile features
+     */
+    private final GridYExtractor gridYExtractor = new GridYExtractor();
+
+    private final GridXExtractor gridXExtractor = new GridXExtractor();
+
 
     /**
      * Applies this function to the given argument.
@@ -54,11 +63,11 @@ public class NearestNeighborTransductionFactory implements AlgorithmFactory<Near
      */
     @Override
     public NearestNeighborTransduction apply(final FishState state) {
-        return new NearestNeighborTransduction(
+        final NearestNeighborTransduction regression = new NearestNeighborTransduction(
             state.getMap(),
             new ObservationExtractor[]{
-                new GridYExtractor(),
-                new GridXExtractor(),
+                gridYExtractor,
+                gridXExtractor,
                 new ObservationTimeExtractor()
             },
             new double[]{
@@ -69,6 +78,8 @@ public class NearestNeighborTransductionFactory implements AlgorithmFactory<Near
             new CartesianRegressionDistance(0) //gets changed by the regression
 
         );
+        regression.setParallel(parallel);
+        return regression;
     }
 
 
@@ -108,5 +119,16 @@ public class NearestNeighborTransductionFactory implements AlgorithmFactory<Near
         this.spaceBandwidth = spaceBandwidth;
     }
 
+    @SuppressWarnings("unused")
+    public boolean isParallel() {
+        return parallel;
+    }
 
+    /**
+     * If true, each observation updates the tiles in parallel blocks; predictions are unaffected.
+     */
+    @SuppressWarnings("unused")
+    public void setParallel(final boolean parallel) {
+        this.parallel = parallel;
+    }
 }
@@ -29,22 +29,29 @@ import uk.ac.ox.oxfish.geography.SeaTile;
 import uk.ac.ox.oxfish.model.FishState;
 
 import java.util.Arrays;
-import java.util.HashMap;
-import java.util.List;
 import java.util.Map.Entry;
 
 /**
  * Iterative kernel regression, focusing on the seatiles you want to predict for should make the prediction
  * step a lot faster (even though the new observation step will be worse)
  * Created by carrknight on 7/8/16.
+ * <p>
+ * Each tile works like a {@link KernelTilePredictor} with a product gaussian kernel, but predictions and denominators
+ * are kept in primitive arrays and updated in a single pass by a {@link TileRegressionEngine}.
  */
 public class KernelTransduction implements GeographicalRegression<Double> {
 
 
-    private final HashMap<SeaTile, KernelTilePredictor> kernels;
+    private final TileRegressionEngine engine;
+
+    private final double[] predictions;
+
+    private final double[] denominators;
 
     private final double forgettingFactor;
 
+    private double[] bandwidths;
+
     @SuppressWarnings("unchecked")
     public KernelTransduction(
         final NauticalMap map,
@@ -52,11 +59,17 @@ public class KernelTransduction implements GeographicalRegression<Double> {
         final Entry<ObservationExtractor, Double>... extractorsAndBandwidths
     ) {
 
+        assert extractorsAndBandwidths.length > 0;
         this.forgettingFactor = forgettingFactor;
-        final List<SeaTile> tiles = map.getAllSeaTilesExcludingLandAsList();
-        kernels = new HashMap<>(tiles.size());
-        for (final SeaTile tile : tiles)
-            kernels.put(tile, new KernelTilePredictor(forgettingFactor, tile, extractorsAndBandwidths));
+        final ObservationExtractor[] extractors = new ObservationExtractor[extractorsAndBandwidths.length];
+        bandwidths = new double[extractorsAndBandwidths.length];
+        for (int i = 0; i < extractorsAndBandwidths.length; i++) {
+            extractors[i] = extractorsAndBandwidths[i].getKey();
+            bandwidths[i] = extractorsAndBandwidths[i].getValue();
+        }
+        engine = new TileRegressionEngine(map, extractors);
+        predictions = new double[engine.size()];
+        denominators = new double[engine.size()];
 
     }
 
@@ -68,11 +81,11 @@ public class KernelTransduction implements GeographicalRegression<Double> {
     @Override
     public double predict(final SeaTile tile, final double time, final Fisher fisher, final FishState model) {
 
-        final KernelTilePredictor kernel = kernels.get(tile);
-        if (kernel == null)
+        final int index = engine.indexOf(tile);
+        if (index < 0)
             return Double.NaN;
         else
-            return kernel.getCurrentPrediction();
+            return predictions[index];
 
     }
 
@@ -91,10 +104,31 @@ public class KernelTransduction implements GeographicalRegression<Double> {
         final FishState model
     ) {
 
+        final double[] observationFeatures = engine.observationFeatures(newObservation, fisher, model);
+        final double[][] tileFeatures = engine.tileFeatures(newObservation.getTime(), fisher, model);
+        final double[] bandwidths = this.bandwidths;
+        final double value = newObservation.getValue();
         //go through all the tiles
-        for (final KernelTilePredictor kernel : kernels.values()) {
-            kernel.addObservation(newObservation, fisher, model);
-        }
+        engine.forEachBlock((from, to) -> {
+            for (int t = from; t < to; t++) {
+                //product of gaussian kernels, computed as a single exponential
+                double exponent = 0;
+                for (int i = 0; i < bandwidths.length; i++) {
+                    final double distance = observationFeatures[i] - tileFeatures[i][t];
+                    exponent += distance * distance / bandwidths[i];
+                }
+                final double kernel = Math.exp(-exponent);
+                //update denominator
+                final double denominator = denominators[t] * forgettingFactor + kernel;
+                if (!Double.isFinite(denominator))
+                    throw new IllegalArgumentException(denominator + " , " +
+                        forgettingFactor + " , " + kernel + " , " + Arrays.toString(bandwidths));
+                denominators[t] = denominator;
+                //update predictor
+                if (denominator > 0)
+                    predictions[t] += (value - predictions[t]) * kernel / denominator;
+            }
+        });
     }
 
     public double getForgettingFactor() {
@@ -136,10 +170,6 @@ public class KernelTransduction implements GeographicalRegression<Double> {
     @Override
     public double[] getParametersAsArray() {
 
-        final double[] bandwidths = kernels.values().iterator().next().getBandwidths();
-        //check that they all have the same bandwidths!
-        assert kernels.values().stream().allMatch(
-            kernelTile -> Arrays.equals(kernelTile.getBandwidths(), bandwidths));
         return bandwidths;
 
     }
@@ -150,8 +180,19 @@ public class KernelTransduction implements GeographicalRegression<Double> {
     @Override
     public void setParameters(final double[] parameterArray) {
 
-        kernels.values().forEach(kernelTile -> kernelTile.setBandwidths(parameterArray));
+        bandwidths = parameterArray;
 
     }
 
+    public boolean isParallel() {
+        return engine.isParallel();
+    }
+
+    /**
+     * If true, observations update the tiles in parallel blocks. Predictions are the same as in a serial run.
+     */
+    public void setParallel(final boolean parallel) {
+        engine.setParallel(parallel);
+    }
+
 }
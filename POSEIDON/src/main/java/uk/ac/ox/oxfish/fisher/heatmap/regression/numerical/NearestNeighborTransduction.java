@@ -30,14 +30,20 @@ import uk.ac.ox.oxfish.geography.NauticalMap;
 import uk.ac.ox.oxfish.geography.SeaTile;
 import uk.ac.ox.oxfish.model.FishState;
 
-import java.util.HashMap;
-import java.util.List;
+import java.util.Arrays;
+import java.util.IdentityHashMap;
+import java.util.Map;
 
 /**
  * Rather than building a k-d tree to search all the time why don't we just have a map of seatiles we are studying and keep
  * a map seatile---> nearest neighbor associated with it? It might not work for observations with additional information (like habitat and so on)
  * That's the idea here
  * Created by carrknight on 7/5/16.
+ * <p>
+ * Tiles and their features come from a {@link TileRegressionEngine}. At each observation the features of the current
+ * neighbours are extracted again, since extractors may depend on the fisher or the model, but only once per distinct
+ * neighbour rather than once per tile; the distances to the new and the old neighbours are then accumulated one
+ * feature at a time.
  */
 public class NearestNeighborTransduction implements GeographicalRegression<Double> {
 
@@ -45,11 +51,19 @@ public class NearestNeighborTransduction implements GeographicalRegression<Doubl
     private final static GeographicalObservation<Double> PLACEHOLDER = new GeographicalObservation<Double>(null,
         -1d,
         Double.NaN);
-    private final HashMap<SeaTile, GeographicalObservation<Double>> closestNeighborForNow;
+
+    private final TileRegressionEngine engine;
+
+    private final GeographicalObservation<Double>[] closestNeighborForNow;
+
     /**
-     * functions used to turn an observation into a double[]
+     * features of the closest neighbour of each tile as of the last observation, null while it is still the placeholder
      */
-    private final ObservationExtractor[] extractors;
+    private final double[][] closestNeighborFeatures;
+
+    private final double[] newDistances;
+
+    private final double[] oldDistances;
 
     /**
      * divide each feature distance by this to reweight them
@@ -62,6 +76,7 @@ public class NearestNeighborTransduction implements GeographicalRegression<Doubl
     private RegressionDistance transformer;
 
 
+    @SuppressWarnings("unchecked")
     public NearestNeighborTransduction(
         NauticalMap map,
         ObservationExtractor[] extractors, double[] bandwidths,
@@ -71,13 +86,14 @@ public class NearestNeighborTransduction implements GeographicalRegression<Doubl
         Preconditions.checkArgument(bandwidths.length > 0);
         Preconditions.checkArgument(bandwidths.length == extractors.length);
 
-        this.extractors = extractors;
         this.bandwidths = bandwidths;
         this.transformer = transformer;
-        List<SeaTile> tiles = map.getAllSeaTilesExcludingLandAsList();
-        closestNeighborForNow = new HashMap<>(tiles.size());
-        for (SeaTile tile : tiles)
-            closestNeighborForNow.put(tile, PLACEHOLDER);
+        engine = new TileRegressionEngine(map, extractors);
+        closestNeighborForNow = new GeographicalObservation[engine.size()];
+        Arrays.fill(closestNeighborForNow, PLACEHOLDER);
+        closestNeighborFeatures = new double[engine.size()][];
+        newDistances = new double[engine.size()];
+        oldDistances = new double[engine.size()];
 
 
     }
@@ -90,42 +106,56 @@ public class NearestNeighborTransduction implements GeographicalRegression<Doubl
     @Override
     public double predict(SeaTile tile, double time, Fisher fisher, FishState model) {
 
-        return closestNeighborForNow.getOrDefault(tile, PLACEHOLDER).getValue();
+        final int index = engine.indexOf(tile);
+        return index < 0 ? PLACEHOLDER.getValue() : closestNeighborForNow[index].getValue();
     }
 
 
     @Override
     public void addObservation(GeographicalObservation<Double> newObservation, Fisher fisher, FishState model) {
 
-        //go through all the tiles
-        for (SeaTile tile : closestNeighborForNow.keySet()) {
-            //if the new observation is closer than the old one this is your new closest observation
-            GeographicalObservation<Double> oldObservation = closestNeighborForNow.get(tile);
-            if (oldObservation == PLACEHOLDER || (
-                distance(fisher, tile, newObservation.getTime(), model, newObservation) <
-                    distance(fisher, tile, newObservation.getTime(), model, oldObservation)))
-                closestNeighborForNow.put(tile, newObservation);
-        }
-    }
-
-
-    private double distance(
-        Fisher fisher, SeaTile tile, double time, FishState model, GeographicalObservation<Double> observation
-    ) {
-        double distance = 0;
+        final double[] observationFeatures = engine.observationFeatures(newObservation, fisher, model);
+        refreshNeighborFeatures(fisher, model);
+        final double[][] tileFeatures = engine.tileFeatures(newObservation.getTime(), fisher, model);
+        Arrays.fill(newDistances, 0);
+        Arrays.fill(oldDistances, 0);
+        //one feature at a time, so the transformer bandwidth is only set once per feature
         for (int i = 0; i < bandwidths.length; i++) {
             transformer.setBandwidth(bandwidths[i]);
-            distance += transformer.distance(
-                extractors[i].extract(tile, time, fisher, model),
-                extractors[i].extract(observation.getTile(), observation.getTime(), fisher, model)
-            );
-
-
+            final int feature = i;
+            final double[] column = tileFeatures[i];
+            engine.forEachBlock((from, to) -> {
+                for (int t = from; t < to; t++) {
+                    newDistances[t] += transformer.distance(column[t], observationFeatures[feature]);
+                    if (closestNeighborFeatures[t] != null)
+                        oldDistances[t] += transformer.distance(column[t], closestNeighborFeatures[t][feature]);
+                }
+            });
         }
+        //if the new observation is closer than the old one this is your new closest observation
+        engine.forEachBlock((from, to) -> {
+            for (int t = from; t < to; t++) {
+                if (closestNeighborForNow[t] == PLACEHOLDER || newDistances[t] < oldDistances[t]) {
+                    closestNeighborForNow[t] = newObservation;
+                    closestNeighborFeatures[t] = observationFeatures;
+                }
+            }
+        });
+    }
 
-        return distance;
-
-
+    /**
+     * extracts again the features of each current neighbour, once per neighbour, as the old regression did for every
+     * tile at each observation
+     */
+    private void refreshNeighborFeatures(final Fisher fisher, final FishState model) {
+        final Map<GeographicalObservation<Double>, double[]> features = new IdentityHashMap<>();
+        for (int t = 0; t < closestNeighborForNow.length; t++) {
+            if (closestNeighborForNow[t] != PLACEHOLDER)
+                closestNeighborFeatures[t] = features.computeIfAbsent(
+                    closestNeighborForNow[t],
+                    neighbor -> engine.observationFeatures(neighbor, fisher, model)
+                );
+        }
     }
 
     /**
@@ -175,4 +205,15 @@ public class NearestNeighborTransduction implements GeographicalRegression<Doubl
     public void setParameters(double[] parameterArray) {
         bandwidths = parameterArray;
     }
+
+    public boolean isParallel() {
+        return engine.isParallel();
+    }
+
+    /**
+     * If true, observations update the tiles in parallel blocks. Predictions are the same as in a serial run.
+     */
+    public void setParallel(final boolean parallel) {
+        engine.setParallel(parallel);
+    }
 }
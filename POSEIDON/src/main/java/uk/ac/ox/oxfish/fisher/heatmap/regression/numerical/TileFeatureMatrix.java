@@ -0,0 +1,111 @@
+/*
+ * POSEIDON: an agent-based model of fisheries
+ * Copyright (c) 2025, University of Oxford.
+ *
+ * University of Oxford means the Chancellor, Masters and Scholars of the
+ * University of Oxford, having an administrative office at Wellington
+ * Square, Oxford OX1 2JD, UK.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+
+package uk.ac.ox.oxfish.fisher.heatmap.regression.numerical;
+
+import uk.ac.ox.oxfish.fisher.heatmap.regression.extractors.TileFeatureExtractor;
+import uk.ac.ox.oxfish.geography.NauticalMap;
+import uk.ac.ox.oxfish.geography.SeaTile;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.WeakHashMap;
+
+/**
+ * The water tiles of a map, in a fixed order, together with the features of every {@link TileFeatureExtractor} used on
+ * that map, stored as one primitive column per extractor instance. There is a single instance per map, so all the
+ * regressions built with the same extractors read the same columns rather than each extracting their own.
+ */
+public class TileFeatureMatrix {
+
+    private static final Map<NauticalMap, TileFeatureMatrix> MATRICES = new WeakHashMap<>();
+
+    private final SeaTile[] tiles;
+
+    /**
+     * position of each tile in {@link #tiles}, indexed by {@code gridX * height + gridY}, -1 for land
+     */
+    private final int[] indices;
+
+    private final int width;
+
+    private final int height;
+
+    /**
+     * extractors do not override equals, so this is keyed by identity; columns go away with their extractors
+     */
+    private final Map<TileFeatureExtractor, double[]> columns = Collections.synchronizedMap(new WeakHashMap<>());
+
+    TileFeatureMatrix(final NauticalMap map) {
+        final List<SeaTile> waterTiles = map.getAllSeaTilesExcludingLandAsList();
+        tiles = waterTiles.toArray(new SeaTile[0]);
+        width = map.getWidth();
+        height = map.getHeight();
+        indices = new int[width * height];
+        Arrays.fill(indices, -1);
+        for (int i = 0; i < tiles.length; i++)
+            indices[tiles[i].getGridX() * height + tiles[i].getGridY()] = i;
+    }
+
+    public static TileFeatureMatrix of(final NauticalMap map) {
+        synchronized (MATRICES) {
+            return MATRICES.computeIfAbsent(map, TileFeatureMatrix::new);
+        }
+    }
+
+    public int size() {
+        return tiles.length;
+    }
+
+    public SeaTile getTile(final int index) {
+        return tiles[index];
+    }
+
+    /**
+     * the position of the tile in the matrix, or -1 if it is land or not on this map
+     */
+    public int indexOf(final SeaTile tile) {
+        final int x = tile.getGridX();
+        final int y = tile.getGridY();
+        if (x < 0 || x >= width || y < 0 || y >= height)
+            return -1;
+        final int index = indices[x * height + y];
+        return index >= 0 && tiles[index] == tile ? index : -1;
+    }
+
+    /**
+     * The features of every tile for this extractor, computed the first time they are asked for. The array is shared
+     * and must not be modified.
+     */
+    public double[] getColumn(final TileFeatureExtractor extractor) {
+        return columns.computeIfAbsent(extractor, __ -> {
+            final double[] column = new double[tiles.length];
+            for (int i = 0; i < tiles.length; i++)
+                column[i] = extractor.extractFromTile(tiles[i]);
+            return column;
+        });
+    }
+
+}
@@ -0,0 +1,150 @@
+/*
+ * POSEIDON: an agent-based model of fisheries
+ * Copyright (c) 2025, University of Oxford.
+ *
+ * University of Oxford means the Chancellor, Masters and Scholars of the
+ * University of Oxford, having an administrative office at Wellington
+ * Square, Oxford OX1 2JD, UK.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+
+package uk.ac.ox.oxfish.fisher.heatmap.regression.numerical;
+
+import uk.ac.ox.oxfish.fisher.Fisher;
+import uk.ac.ox.oxfish.fisher.heatmap.regression.extractors.ObservationExtractor;
+import uk.ac.ox.oxfish.fisher.heatmap.regression.extractors.TileFeatureExtractor;
+import uk.ac.ox.oxfish.geography.NauticalMap;
+import uk.ac.ox.oxfish.geography.SeaTile;
+import uk.ac.ox.oxfish.model.FishState;
+
+import java.util.stream.IntStream;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+/**
+ * Shared machinery of the transduction regressions, which keep one prediction per water tile. It hands out the
+ * features of all tiles as primitive columns, one per extractor: columns of {@link TileFeatureExtractor}s come from
+ * the map's {@link TileFeatureMatrix} and are computed once for all fishers, the others are refilled at each
+ * observation. Updates then run as tight loops over blocks of tiles, optionally in parallel.
+ */
+public class TileRegressionEngine {
+
+    private static final int BLOCK_SIZE = 1024;
+
+    private final TileFeatureMatrix matrix;
+
+    private final ObservationExtractor[] extractors;
+
+    private final double[][] tileFeatures;
+
+    private final boolean[] dynamic;
+
+    private boolean parallel = false;
+
+    public TileRegressionEngine(final NauticalMap map, final ObservationExtractor... extractors) {
+        checkArgument(extractors.length > 0);
+        this.matrix = TileFeatureMatrix.of(map);
+        this.extractors = extractors;
+        this.tileFeatures = new double[extractors.length][];
+        this.dynamic = new boolean[extractors.length];
+        for (int i = 0; i < extractors.length; i++) {
+            if (extractors[i] instanceof TileFeatureExtractor) {
+                tileFeatures[i] = matrix.getColumn((TileFeatureExtractor) extractors[i]);
+            } else {
+                dynamic[i] = true;
+                tileFeatures[i] = new double[matrix.size()];
+            }
+        }
+    }
+
+    public int size() {
+        return matrix.size();
+    }
+
+    public int indexOf(final SeaTile tile) {
+        return matrix.indexOf(tile);
+    }
+
+    public SeaTile getTile(final int index) {
+        return matrix.getTile(index);
+    }
+
+    public int getNumberOfFeatures() {
+        return extractors.length;
+    }
+
+    /**
+     * The features of the observation itself, one per extractor.
+     */
+    public double[] observationFeatures(
+        final GeographicalObservation<?> observation,
+        final Fisher fisher,
+        final FishState model
+    ) {
+        return ObservationExtractor.convertToFeatures(
+            observation.getTile(),
+            observation.getTime(),
+            fisher,
+            extractors,
+            model
+        );
+    }
+
+    /**
+     * The features of every tile at the given time, indexed by extractor then by tile. Only the columns of extractors
+     * that are not {@link TileFeatureExtractor}s are recomputed; the arrays are reused between calls.
+     */
+    public double[][] tileFeatures(final double time, final Fisher fisher, final FishState model) {
+        for (int i = 0; i < extractors.length; i++) {
+            if (dynamic[i]) {
+                final double[] column = tileFeatures[i];
+                for (int t = 0; t < column.length; t++)
+                    column[t] = extractors[i].extract(matrix.getTile(t), time, fisher, model);
+            }
+        }
+        return tileFeatures;
+    }
+
+    /**
+     * Runs the update over all tiles, block by block, in parallel if so configured. Blocks must not share state.
+     */
+    public void forEachBlock(final BlockUpdate update) {
+        final int size = matrix.size();
+        if (!parallel || size <= BLOCK_SIZE)
+            update.apply(0, size);
+        else
+            IntStream.range(0, (size + BLOCK_SIZE - 1) / BLOCK_SIZE).parallel().forEach(block ->
+                update.apply(block * BLOCK_SIZE, Math.min(size, (block + 1) * BLOCK_SIZE))
+            );
+    }
+
+    public boolean isParallel() {
+        return parallel;
+    }
+
+    public void setParallel(final boolean parallel) {
+        this.parallel = parallel;
+    }
+
+    @FunctionalInterface
+    public interface BlockUpdate {
+        /**
+         * updates the tiles from {@code from} (inclusive) to {@code to} (exclusive)
+         */
+        void apply(int from, int to);
+    }
+
+}
@@ -22,32 +22,28 @@
 
 package uk.ac.ox.oxfish.fisher.purseseiner.caches;
 
-import com.google.common.cache.Cache;
-import com.google.common.cache.CacheBuilder;
+import uk.ac.ox.oxfish.utility.InputCache;
 
-import java.io.IOException;
 import java.nio.file.Path;
-import java.util.concurrent.ExecutionException;
 import java.util.function.Function;
 
+import static com.google.common.base.Preconditions.checkNotNull;
+
+/**
+ * Reads values from files through the JVM-wide {@link InputCache}. The qualifier distinguishes the values read by
+ * different caches from the same file, so two caches must only share a qualifier if they read files the same way.
+ */
 public class CacheByFile<T> implements Function<Path, T> {
-    private final Cache<String, T> cache;
+    private final Object qualifier;
     private final Function<Path, T> readFunction;
 
-    public CacheByFile(final Function<Path, T> readFunction) {
-        this.readFunction = readFunction;
-        this.cache = CacheBuilder.newBuilder().build();
+    public CacheByFile(final Object qualifier, final Function<Path, T> readFunction) {
+        this.qualifier = checkNotNull(qualifier);
+        this.readFunction = checkNotNull(readFunction);
     }
 
     @Override
     public T apply(final Path path) {
-        try {
-            return cache.get(
-                path.toFile().getCanonicalPath(),
-                () -> readFunction.apply(path)
-            );
-        } catch (final ExecutionException | IOException e) {
-            throw new RuntimeException(e);
-        }
+        return InputCache.INSTANCE.get(path, readFunction, CacheByFile.class, qualifier);
     }
 }
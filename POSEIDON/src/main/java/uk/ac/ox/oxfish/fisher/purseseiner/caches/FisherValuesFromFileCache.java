@@ -42,7 +42,7 @@ import static java.util.Collections.emptyMap;
  */
 public abstract class FisherValuesFromFileCache<T> {
 
-    private final CacheByFile<Map<Integer, Map<String, T>>> cache = new CacheByFile<>(this::readValues);
+    private final CacheByFile<Map<Integer, Map<String, T>>> cache = new CacheByFile<>(getClass(), this::readValues);
 
     protected abstract Map<Integer, Map<String, T>> readValues(final Path valuesFile);
 
@@ -32,6 +32,8 @@ import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Set;
+import java.util.SplittableRandom;
+import java.util.function.DoublePredicate;
 
 import static com.google.common.collect.ImmutableMap.toImmutableMap;
 import static com.google.common.collect.ImmutableSet.toImmutableSet;
@@ -88,10 +90,15 @@ public abstract class AbstractFishAttractor<
         final LocalBiology seaTileBiology,
         final AggregatingFad<?, ?> fad
     ) {
+        // FADs stepped in parallel bring their own random stream
+        final SplittableRandom randomStream = fad.getRandomStream();
+        final DoublePredicate draw = randomStream == null
+            ? rng::nextBoolean
+            : probability -> randomStream.nextDouble() < probability;
         return species
             .stream()
             .filter(species ->
-                rng.nextBoolean(
+                draw.test(
                     attractionProbabilityFunction.apply(
                         species,
                         seaTileBiology,
@@ -31,6 +31,7 @@ import uk.ac.ox.oxfish.biology.complicated.AbundanceLocalBiology;
 import uk.ac.ox.oxfish.biology.complicated.ImmutableAbundance;
 import uk.ac.ox.oxfish.biology.complicated.StructuredAbundance;
 import uk.ac.ox.oxfish.fisher.equipment.Catch;
+import uk.ac.ox.oxfish.geography.fads.FadMap;
 import uk.ac.ox.oxfish.utility.FishStateUtilities;
 
 import java.util.*;
@@ -129,9 +130,10 @@ public class AbundanceAggregatingFad
         if (totalBiomassToRelease > 0) {
 
             getOwner().reactTo(new BiomassLostEvent(biomassLost));
-            getOwner().getFadMap().getAbundanceLostObserver().observe(
-                new AbundanceLostEvent(ImmutableAbundance.extractFrom(getBiology()))
-            );
+            final FadMap fadMap = getOwner().getFadMap();
+            final AbundanceLostEvent abundanceLostEvent =
+                new AbundanceLostEvent(ImmutableAbundance.extractFrom(getBiology()));
+            fadMap.report(() -> fadMap.getAbundanceLostObserver().observe(abundanceLostEvent));
             // directly reset the biology's abundance arrays to zero
             getBiology().getAbundance().values().stream().flatMap(Arrays::stream)
                 .forEach(abundanceArray -> Arrays.fill(abundanceArray, 0));
@@ -24,7 +24,6 @@ package uk.ac.ox.oxfish.fisher.purseseiner.fads;
 
 import com.google.common.collect.ImmutableMap;
 import com.vividsolutions.jts.geom.Coordinate;
-import ec.util.MersenneTwisterFast;
 import sim.util.Double2D;
 import sim.util.Int2D;
 import uk.ac.ox.oxfish.biology.GlobalBiology;
@@ -40,7 +39,9 @@ import uk.ac.ox.oxfish.model.data.monitors.regions.Locatable;
 
 import java.util.Collection;
 import java.util.Map;
+import java.util.SplittableRandom;
 import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.DoubleSupplier;
 import java.util.stream.Collectors;
 
 import static com.google.common.base.Preconditions.checkNotNull;
@@ -70,6 +71,18 @@ public abstract class Fad implements Locatable {
 
     private Integer stepOfFirstAttraction = null;
 
+    /**
+     * A random stream of this FAD's own, only set when the {@link uk.ac.ox.oxfish.geography.fads.FadMap} steps its
+     * FADs in parallel. Null otherwise.
+     */
+    private SplittableRandom randomStream = null;
+
+    /**
+     * The number of FADs deployed on the FAD map before this one, from which its random stream is derived, or -1 if
+     * it hasn't been deployed yet.
+     */
+    private int deploymentNumber = -1;
+
     public Fad(
         final TripRecord tripDeployed,
         final int stepDeployed,
@@ -101,7 +114,7 @@ public abstract class Fad implements Locatable {
 
     public void maybeReleaseFishIntoTile(
         final LocalBiology seaTileBiology,
-        final MersenneTwisterFast rng
+        final DoubleSupplier rng
     ) {
         releaseFishIntoTile(getSpeciesToRelease(rng), seaTileBiology);
     }
@@ -112,16 +125,16 @@ public abstract class Fad implements Locatable {
     );
 
     public void maybeReleaseFishIntoTheVoid(
-        final MersenneTwisterFast rng
+        final DoubleSupplier rng
     ) {
         releaseFishIntoTheVoid(getSpeciesToRelease(rng));
     }
 
-    private Collection<? extends Species> getSpeciesToRelease(final MersenneTwisterFast rng) {
+    private Collection<? extends Species> getSpeciesToRelease(final DoubleSupplier rng) {
         return fishReleaseProbabilities
             .entrySet()
             .stream()
-            .filter(entry -> rng.nextDouble() < entry.getValue())
+            .filter(entry -> rng.getAsDouble() < entry.getValue())
             .map(Map.Entry::getKey)
             .collect(Collectors.toList());
     }
@@ -252,6 +265,22 @@ public abstract class Fad implements Locatable {
         this.stepOfFirstAttraction = checkNotNull(stepOfFirstAttraction);
     }
 
+    public SplittableRandom getRandomStream() {
+        return randomStream;
+    }
+
+    public void setRandomStream(final SplittableRandom randomStream) {
+        this.randomStream = randomStream;
+    }
+
+    public int getDeploymentNumber() {
+        return deploymentNumber;
+    }
+
+    public void setDeploymentNumber(final int deploymentNumber) {
+        this.deploymentNumber = deploymentNumber;
+    }
+
     public Integer getStepsBeforeFirstAttraction() {
         return stepOfFirstAttraction != null
             ? stepOfFirstAttraction - getStepDeployed()
@@ -47,7 +47,9 @@ import uk.ac.ox.poseidon.common.api.Observer;
 import uk.ac.ox.poseidon.regulations.api.Regulations;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.Collections;
+import java.util.List;
 import java.util.Optional;
 import java.util.Set;
 import java.util.concurrent.atomic.AtomicLong;
@@ -276,15 +278,55 @@ public class FadManager {
         return deployFad(seaTile, location, random);
     }
 
+    /**
+     * Observers can be shared between FAD managers, so the observers are called through {@link FadMap#report}, which
+     * puts them in FAD order when the FAD map steps its FADs in parallel and in group order when fishers are stepped
+     * concurrently. The yearly action counter belongs to this manager and is read by regulations during the fisher's
+     * own step, so it reacts right away.
+     */
     public <O> void reactTo(final O observable) {
-        this.observers.reactTo(observable);
+        report(observers.getObserversOf(observable), observable);
     }
 
+    /**
+     * Only builds the observable if someone observes it, but then builds it right away, since the FAD it comes from
+     * can change before the report is made.
+     */
     public <O> void reactTo(
         final Class<? super O> observedClass,
         final Supplier<O> observableSupplier
     ) {
-        this.observers.reactTo(observedClass, observableSupplier);
+        reactToRelevant(observedClass, observableSupplier);
+    }
+
+    private <O> void reactToRelevant(
+        final Class<O> observedClass,
+        final Supplier<? extends O> observableSupplier
+    ) {
+        final List<Observer<O>> relevantObservers = this.observers.getRelevantObservers(observedClass);
+        if (!relevantObservers.isEmpty()) {
+            report(relevantObservers, observableSupplier.get());
+        }
+    }
+
+    private <O> void report(
+        final List<Observer<O>> relevantObservers,
+        final O observable
+    ) {
+        final List<Observer<O>> sharedObservers = new ArrayList<>(relevantObservers.size());
+        for (final Observer<O> observer : relevantObservers) {
+            if (observer == yearlyActionCounter)
+                observer.observe(observable);
+            else
+                sharedObservers.add(observer);
+        }
+        if (sharedObservers.isEmpty())
+            return;
+        final Runnable report = () -> this.observers.reactTo(sharedObservers, observable);
+        if (fadMap == null)
+            report.run();
+        else
+            fadMap.report(report);
     }
 
     public Bag fadsAt(final SeaTile seaTile) {
@@ -32,20 +32,22 @@ import static java.util.stream.Collectors.*;
 import static uk.ac.ox.poseidon.common.core.csv.CsvParserUtil.recordStream;
 
 public class MinimumSetValuesFromFileFactory implements AlgorithmFactory<MinimumSetValues> {
-    private static final CacheByFile<MinimumSetValues> cache = new CacheByFile<>(path ->
-        new MapBasedMinimumSetValues(
-            recordStream(path)
-                .collect(groupingBy(
-                    record -> record.getInt("year"),
-                    groupingBy(
-                        record -> ActionClass.valueOf(record.getString("action_type")),
-                        mapping(
-                            record -> record.getDouble("value"),
-                            collectingAndThen(toList(), objects -> objects.get(0))
+    private static final CacheByFile<MinimumSetValues> cache = new CacheByFile<>(
+        MinimumSetValuesFromFileFactory.class,
+        path ->
+            new MapBasedMinimumSetValues(
+                recordStream(path)
+                    .collect(groupingBy(
+                        record -> record.getInt("year"),
+                        groupingBy(
+                            record -> ActionClass.valueOf(record.getString("action_type")),
+                            mapping(
+                                record -> record.getDouble("value"),
+                                collectingAndThen(toList(), objects -> objects.get(0))
+                            )
                         )
-                    )
-                ))
-        )
+                    ))
+            )
     );
     private InputPath file;
 
@@ -41,7 +41,7 @@ public class SetDurationSamplersFactory
     implements AlgorithmFactory<Map<Class<? extends AbstractSetAction>, DurationSampler>> {
 
     private final CacheByFile<List<Record>> recordCache =
-        new CacheByFile<>(CsvParserUtil::recordList);
+        new CacheByFile<>(SetDurationSamplersFactory.class, CsvParserUtil::recordList);
     private InputPath setDurationsFile;
     private final CacheByFishState<Map<Class<? extends AbstractSetAction>, DurationSampler>> samplersCache =
         new CacheByFishState<>(
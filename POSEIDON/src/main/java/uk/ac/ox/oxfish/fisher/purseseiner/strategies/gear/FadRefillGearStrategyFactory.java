@@ -40,7 +40,8 @@ import static uk.ac.ox.poseidon.common.core.csv.CsvParserUtil.recordStream;
 
 public class FadRefillGearStrategyFactory implements AlgorithmFactory<GearStrategy>, Dummyable {
 
-    private final CacheByFile<Map<Integer, ImmutableMap<String, Integer>>> cache = new CacheByFile<>(this::readValues);
+    private final CacheByFile<Map<Integer, ImmutableMap<String, Integer>>> cache =
+        new CacheByFile<>(FadRefillGearStrategyFactory.class, this::readValues);
     private InputPath maxFadDeploymentsFile;
     private IntegerParameter targetYear;
 
@@ -294,6 +294,9 @@ public class NauticalMap implements Startable {
             tile.start(model);
         }
 
+        if (pathfinder != null)
+            pathfinder.start(this);
+
         Preconditions.checkArgument(receipt == null);
         // reset fished map count
         receipt =
@@ -358,6 +361,8 @@ public class NauticalMap implements Startable {
         final int endXGrid,
         final int endYGrid
     ) {
+        if (distance instanceof PrecomputedDistance)
+            return ((PrecomputedDistance) distance).distance(startXGrid, startYGrid, endXGrid, endYGrid);
         return distance.distance(getSeaTile(startXGrid, startYGrid), getSeaTile(endXGrid, endYGrid), this);
     }
 
@@ -442,7 +447,10 @@ public class NauticalMap implements Startable {
         final int x,
         final int y
     ) {
-        return fishersMap.setObjectLocation(fisher, x, y);
+        // fishers can move concurrently in the fisher phase
+        synchronized (fishersMap) {
+            return fishersMap.setObjectLocation(fisher, x, y);
+        }
     }
 
     /**
@@ -451,8 +459,9 @@ public class NauticalMap implements Startable {
      * @param tile where it has been fished
      */
     public void recordFishing(final SeaTile tile) {
-
-        dailyTrawlsMap.field[tile.getGridX()][tile.getGridY()]++;
+        synchronized (dailyTrawlsMap) {
+            dailyTrawlsMap.field[tile.getGridX()][tile.getGridY()]++;
+        }
     }
 
     public SparseGrid2D getFisherGrid() {
@@ -476,7 +485,10 @@ public class NauticalMap implements Startable {
     }
 
     /**
-     * return the full osmoseWFSPath that brings us from start to end
+     * return the full osmoseWFSPath that brings us from start to end. The pathfinder is always asked for the route
+     * going away from the tile that comes first (by row, then column), and the route back is that same route
+     * reversed: since the path memories also hand out reversed routes, this keeps the route between two tiles from
+     * depending on which way it was asked first, which fishers stepped concurrently can't agree on.
      *
      * @param start the starting tile
      * @param end   the ending tile
@@ -486,7 +498,15 @@ public class NauticalMap implements Startable {
         final SeaTile start,
         final SeaTile end
     ) {
-        return pathfinder.getRoute(this, start, end);
+        if (start.getGridY() < end.getGridY() ||
+            (start.getGridY() == end.getGridY() && start.getGridX() <= end.getGridX()))
+            return pathfinder.getRoute(this, start, end);
+        final Deque<SeaTile> route = pathfinder.getRoute(this, end, start);
+        if (route == null)
+            return null;
+        final Deque<SeaTile> reversed = new LinkedList<>();
+        route.forEach(reversed::addFirst);
+        return reversed;
     }
 
     public Bag getFishersAtLocation(final SeaTile tile) {
@@ -500,7 +520,9 @@ public class NauticalMap implements Startable {
         final int x,
         final int y
     ) {
-        return fishersMap.getObjectsAtLocation(x, y);
+        synchronized (fishersMap) {
+            return fishersMap.getObjectsAtLocation(x, y);
+        }
     }
 
     /**
@@ -526,20 +548,23 @@ public class NauticalMap implements Startable {
         final SeaTile tile,
         final int neighborhoodSize
     ) {
-        Bag neighbors;
-        neighbors = neighborhoodSize == 1 ? sizeOneNeighborhoods.get(tile) :
-            alreadyComputedNeighbors.get(tile, neighborhoodSize);
-        if (neighbors == null) {
-            neighbors = new Bag();
-            rasterBackingGrid.getMooreNeighbors(tile.getGridX(), tile.getGridY(), neighborhoodSize,
-                Grid2D.BOUNDED, false, neighbors, null, null
-            );
-            if (neighborhoodSize == 1)
-                sizeOneNeighborhoods.put(tile, neighbors);
-            else
-                alreadyComputedNeighbors.put(tile, neighborhoodSize, neighbors);
+        // fishers stepped concurrently share these caches
+        synchronized (alreadyComputedNeighbors) {
+            Bag neighbors;
+            neighbors = neighborhoodSize == 1 ? sizeOneNeighborhoods.get(tile) :
+                alreadyComputedNeighbors.get(tile, neighborhoodSize);
+            if (neighbors == null) {
+                neighbors = new Bag();
+                rasterBackingGrid.getMooreNeighbors(tile.getGridX(), tile.getGridY(), neighborhoodSize,
+                    Grid2D.BOUNDED, false, neighbors, null, null
+                );
+                if (neighborhoodSize == 1)
+                    sizeOneNeighborhoods.put(tile, neighbors);
+                else
+                    alreadyComputedNeighbors.put(tile, neighborhoodSize, neighbors);
+            }
+            return neighbors;
         }
-        return neighbors;
     }
 
     public Stream<SeaTile> getMooreNeighborsStream(
@@ -599,6 +624,19 @@ public class NauticalMap implements Startable {
         this.distance = distance;
     }
 
+    /**
+     * Replaces the distance of this map by a {@link PrecomputedDistance} wrapping it, which all distance queries,
+     * including those of the planners, then go through. Must be called once the land and water tiles are final.
+     *
+     * @param maxDenseMatrixBytes the memory the dense water tile distance matrix may take, 0 to go without it
+     */
+    public void precomputeDistances(final long maxDenseMatrixBytes) {
+        final Distance wrapped = distance instanceof PrecomputedDistance
+            ? ((PrecomputedDistance) distance).getDelegate()
+            : distance;
+        setDistance(new PrecomputedDistance(this, wrapped, maxDenseMatrixBytes));
+    }
+
     public MapExtent getMapExtent() {
         return mapExtent;
     }
@@ -0,0 +1,222 @@
+/*
+ * POSEIDON: an agent-based model of fisheries
+ * Copyright (c) 2025, University of Oxford.
+ *
+ * University of Oxford means the Chancellor, Masters and Scholars of the
+ * University of Oxford, having an administrative office at Wellington
+ * Square, Oxford OX1 2JD, UK.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+
+package uk.ac.ox.oxfish.geography;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.logging.Logger;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+
+/**
+ * Wraps the distance of a map and answers from tables built once for that map, exploiting the regularity of the grid:
+ * <ul>
+ *     <li>distances that only depend on the offset between cells ({@link EquirectangularDistance},
+ *     {@link CartesianDistance}, {@link CartesianUTMDistance} and {@link ManhattanDistance}) are looked up in a table
+ *     indexed by that offset;</li>
+ *     <li>{@link EquirectangularDistanceByCoordinate} uses the longitude of each column, the latitude of each row and
+ *     the cosine of the mean latitude of each pair of rows, so that no trigonometry happens at query time;</li>
+ *     <li>any other distance, and the one above, can also be stored in a dense matrix between water tiles, if that
+ *     matrix fits in the given memory budget.</li>
+ * </ul>
+ * Results match those of the wrapped distance up to floating point error. Use {@link NauticalMap#precomputeDistances}
+ * to opt in.
+ */
+public class PrecomputedDistance extends BaseDistance {
+
+    private static final Logger logger = Logger.getLogger(PrecomputedDistance.class.getName());
+
+    private final Distance delegate;
+    private final NauticalMap map;
+    private final int width;
+    private final int height;
+
+    /**
+     * distances by offset, indexed by {@code (dx + width - 1) * (2 * height - 1) + dy + height - 1}, or null
+     */
+    private final double[] offsetDistances;
+
+    /**
+     * in radians, by column and by row, or null
+     */
+    private final double[] longitudes;
+    private final double[] latitudes;
+
+    /**
+     * cosine of the mean latitude of rows y1 and y2, indexed by {@code y1 + y2}, or null
+     */
+    private final double[] meanLatitudeCosines;
+
+    /**
+     * position of each water tile in the dense matrix, indexed by {@code x * height + y}, -1 for land; null if there
+     * is no dense matrix
+     */
+    private final int[] denseIndices;
+    private final double[] denseDistances;
+    private final boolean denseSymmetric;
+    private final int numberOfDenseTiles;
+
+    /**
+     * @param map                 the map whose grid the tables are built for
+     * @param delegate            the distance to reproduce
+     * @param maxDenseMatrixBytes how much memory the dense water tile matrix is allowed to take; 0 disables it
+     */
+    public PrecomputedDistance(
+        final NauticalMap map,
+        final Distance delegate,
+        final long maxDenseMatrixBytes
+    ) {
+        checkArgument(maxDenseMatrixBytes >= 0);
+        checkArgument(!(delegate instanceof PrecomputedDistance));
+        this.map = checkNotNull(map);
+        this.delegate = checkNotNull(delegate);
+        this.width = map.getWidth();
+        this.height = map.getHeight();
+
+        if (isTranslationInvariant(delegate)) {
+            offsetDistances = new double[(2 * width - 1) * (2 * height - 1)];
+            for (int dx = -(width - 1); dx < width; dx++) {
+                for (int dy = -(height - 1); dy < height; dy++) {
+                    final int startX = Math.max(0, -dx);
+                    final int startY = Math.max(0, -dy);
+                    offsetDistances[offsetIndex(dx, dy)] = delegate.distance(
+                        map.getSeaTile(startX, startY),
+                        map.getSeaTile(startX + dx, startY + dy),
+                        map
+                    );
+                }
+            }
+        } else {
+            offsetDistances = null;
+        }
+
+        if (delegate instanceof EquirectangularDistanceByCoordinate) {
+            longitudes = new double[width];
+            for (int x = 0; x < width; x++)
+                longitudes[x] = Math.toRadians(map.getCoordinates(x, 0).x);
+            latitudes = new double[height];
+            for (int y = 0; y < height; y++)
+                latitudes[y] = Math.toRadians(map.getCoordinates(0, y).y);
+            meanLatitudeCosines = new double[2 * height - 1];
+            for (int sum = 0; sum < meanLatitudeCosines.length; sum++)
+                meanLatitudeCosines[sum] = Math.cos((latitudes[sum / 2] + latitudes[sum - sum / 2]) / 2d);
+        } else {
+            longitudes = null;
+            latitudes = null;
+            meanLatitudeCosines = null;
+        }
+
+        // the dense matrix is only worth it when a lookup by offset is not possible
+        final List<SeaTile> waterTiles = map.getAllSeaTilesExcludingLandAsList();
+        final long n = waterTiles.size();
+        denseSymmetric = delegate instanceof EquirectangularDistanceByCoordinate;
+        final long entries = denseSymmetric ? n * (n + 1) / 2 : n * n;
+        if (offsetDistances == null &&
+            entries * Double.BYTES <= maxDenseMatrixBytes &&
+            entries < Integer.MAX_VALUE - 8) {
+            final SeaTile[] tiles = waterTiles.toArray(new SeaTile[0]);
+            numberOfDenseTiles = tiles.length;
+            denseIndices = new int[width * height];
+            Arrays.fill(denseIndices, -1);
+            for (int i = 0; i < tiles.length; i++)
+                denseIndices[tiles[i].getGridX() * height + tiles[i].getGridY()] = i;
+            denseDistances = new double[(int) entries];
+            for (int i = 0; i < tiles.length; i++) {
+                for (int j = 0; j < (denseSymmetric ? i + 1 : tiles.length); j++) {
+                    denseDistances[denseIndex(i, j)] = computeDistance(
+                        tiles[i].getGridX(), tiles[i].getGridY(), tiles[j].getGridX(), tiles[j].getGridY()
+                    );
+                }
+            }
+            logger.fine(() -> "Precomputed a dense distance matrix of " + entries + " entries");
+        } else {
+            numberOfDenseTiles = 0;
+            denseIndices = null;
+            denseDistances = null;
+        }
+    }
+
+    private static boolean isTranslationInvariant(final Distance distance) {
+        return distance instanceof EquirectangularDistance ||
+            distance instanceof CartesianDistance ||
+            distance instanceof CartesianUTMDistance ||
+            distance instanceof ManhattanDistance;
+    }
+
+    private int offsetIndex(final int dx, final int dy) {
+        return (dx + width - 1) * (2 * height - 1) + dy + height - 1;
+    }
+
+    /**
+     * computed in long since {@code i * (i + 1)} overflows an int well before the index itself does
+     */
+    private int denseIndex(final int i, final int j) {
+        if (!denseSymmetric)
+            return (int) ((long) i * numberOfDenseTiles + j);
+        return (int) (i >= j ? (long) i * (i + 1) / 2 + j : (long) j * (j + 1) / 2 + i);
+    }
+
+    @Override
+    public double distance(final SeaTile start, final SeaTile end, final NauticalMap map) {
+        if (map != this.map)
+            return delegate.distance(start, end, map);
+        return distance(start.getGridX(), start.getGridY(), end.getGridX(), end.getGridY());
+    }
+
+    /**
+     * the distance (in km) between the cell at (startX,startY) and the cell at (endX,endY) of the map this was built
+     * for
+     */
+    @Override
+    public double distance(final int startX, final int startY, final int endX, final int endY) {
+        if (denseIndices != null) {
+            final int i = denseIndices[startX * height + startY];
+            final int j = denseIndices[endX * height + endY];
+            if (i >= 0 && j >= 0)
+                return denseDistances[denseIndex(i, j)];
+        }
+        return computeDistance(startX, startY, endX, endY);
+    }
+
+    private double computeDistance(final int startX, final int startY, final int endX, final int endY) {
+        if (offsetDistances != null)
+            return offsetDistances[offsetIndex(endX - startX, endY - startY)];
+        if (meanLatitudeCosines != null) {
+            final double x = (longitudes[endX] - longitudes[startX]) * meanLatitudeCosines[startY + endY];
+            final double y = latitudes[endY] - latitudes[startY];
+            return Math.sqrt(x * x + y * y) * EquirectangularDistance.EARTH_RADIUS;
+        }
+        return delegate.distance(map.getSeaTile(startX, startY), map.getSeaTile(endX, endY), map);
+    }
+
+    public Distance getDelegate() {
+        return delegate;
+    }
+
+    public boolean hasDenseMatrix() {
+        return denseDistances != null;
+    }
+
+}
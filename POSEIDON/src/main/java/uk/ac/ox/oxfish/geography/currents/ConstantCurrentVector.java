@@ -64,4 +64,14 @@ public class ConstantCurrentVector implements CurrentVectors {
     public Double2D getVector(int step, Int2D location) {
         return currentVector;
     }
+
+    @Override
+    public double getU(int step, int x, int y) {
+        return currentVector.x;
+    }
+
+    @Override
+    public double getV(int step, int x, int y) {
+        return currentVector.y;
+    }
 }
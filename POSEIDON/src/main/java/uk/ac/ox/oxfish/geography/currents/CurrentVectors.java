@@ -32,4 +32,18 @@ public interface CurrentVectors {
     int getGridWidth();
 
     Double2D getVector(int step, Int2D location);
+
+    /**
+     * the x component of the current vector at grid location (x, y) on the given step
+     */
+    default double getU(final int step, final int x, final int y) {
+        return getVector(step, new Int2D(x, y)).x;
+    }
+
+    /**
+     * the y component of the current vector at grid location (x, y) on the given step
+     */
+    default double getV(final int step, final int x, final int y) {
+        return getVector(step, new Int2D(x, y)).y;
+    }
 }
@@ -24,6 +24,7 @@ package uk.ac.ox.oxfish.geography.currents;
 
 import com.google.common.cache.Cache;
 import com.google.common.cache.CacheBuilder;
+import com.google.common.collect.Maps;
 import sim.util.Double2D;
 import sim.util.Int2D;
 
@@ -134,6 +135,40 @@ public class CurrentVectorsEPO implements CurrentVectors {
         }
     }
 
+    /**
+     * Returns a dense view of these currents, where the vectors of every location are computed at once for a step
+     * and kept in primitive arrays. The vectors are computed without going through the caches of this object.
+     * Steps that share a {@link #fieldKey} share their arrays, and only the fields of the last
+     * {@value DenseCurrentVectors#DEFAULT_MAX_FIELDS} keys looked up are held, so memory stays bounded however long
+     * the run and however often the pattern changes.
+     */
+    public DenseCurrentVectors toDense() {
+        return new DenseCurrentVectors(
+            gridWidth,
+            gridHeight,
+            (step, location) -> vectorMaps.isEmpty() ?
+                ZERO_VECTOR :
+                computeVector(step, location).orElse(ZERO_VECTOR),
+            this::fieldKey
+        );
+    }
+
+    /**
+     * The vectors of a step only depend on its step of the year and on the patterns found within a year (plus a
+     * step) on either side of it, where interpolation looks for vector maps. When the pattern is the same over
+     * that whole window, the step is keyed by (pattern, step of the year) and shares its vectors with the same step
+     * of every other such year. Otherwise, e.g., when the window spans a change of pattern, the step is its own key.
+     */
+    private Object fieldKey(final int step) {
+        final int stepsPerYear = 365 * stepsPerDay;
+        final CurrentPattern pattern = currentPatternAtStep.apply(step);
+        for (int otherStep = step - stepsPerYear - 1; otherStep <= step + stepsPerYear + 1; otherStep++) {
+            if (currentPatternAtStep.apply(otherStep) != pattern)
+                return step;
+        }
+        return Maps.immutableEntry(pattern, step % stepsPerYear);
+    }
+
     /**
      * Returns the current vector for seaTile at step. Returns an empty optional if we have no currents for that location.
      */
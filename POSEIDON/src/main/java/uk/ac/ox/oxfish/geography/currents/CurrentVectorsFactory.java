@@ -25,6 +25,7 @@ package uk.ac.ox.oxfish.geography.currents;
 import com.google.common.cache.CacheBuilder;
 import com.google.common.cache.CacheLoader;
 import com.google.common.cache.LoadingCache;
+import com.google.common.collect.ImmutableList;
 import com.univocity.parsers.common.record.Record;
 import com.vividsolutions.jts.geom.Coordinate;
 import sim.field.geo.GeomGridField;
@@ -33,13 +34,17 @@ import sim.util.Double2D;
 import sim.util.Int2D;
 import uk.ac.ox.oxfish.geography.EquirectangularDistance;
 import uk.ac.ox.poseidon.common.core.csv.CsvParserUtil;
+import uk.ac.ox.poseidon.common.core.geography.GridStack;
 import uk.ac.ox.poseidon.common.core.geography.MapExtent;
 
 import java.nio.file.Path;
+import java.time.LocalDate;
 import java.util.EnumMap;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
+import java.util.Optional;
 import java.util.TreeMap;
 
 import static uk.ac.ox.oxfish.utility.FishStateUtilities.entry;
@@ -52,6 +57,14 @@ public enum CurrentVectorsFactory {
     public static final int STEPS_PER_DAY = 1;
     public static final int SECONDS_PER_DAY = 60 * 60 * 24;
 
+    private static final List<String> VECTOR_COLUMNS = ImmutableList.of("u", "v");
+
+    /**
+     * The value columns of grid stacks holding vectors converted from metres/second to grid offsets/day, at the
+     * coordinates of their CSV record, like when reading the CSV file.
+     */
+    private static final List<String> CONVERTED_VECTOR_COLUMNS = ImmutableList.of("dx_per_day", "dy_per_day");
+
     private final LoadingCache<Entry<MapExtent, Entry<Boolean, Map<CurrentPattern, Path>>>, CurrentVectors> cache =
         CacheBuilder.newBuilder().maximumSize(1).build(CacheLoader.from(entry -> {
             MapExtent mapExtent = entry.getKey();
@@ -65,6 +78,11 @@ public enum CurrentVectorsFactory {
             );
         }));
 
+    private final LoadingCache<Entry<MapExtent, Entry<Boolean, Map<CurrentPattern, Path>>>, CurrentVectors> denseCache =
+        CacheBuilder.newBuilder().maximumSize(1).build(CacheLoader.from(entry ->
+            ((CurrentVectorsEPO) cache.getUnchecked(entry)).toDense()
+        ));
+
     @SuppressWarnings("SameParameterValue")
     private static TreeMap<Integer, EnumMap<CurrentPattern, Map<Int2D, Double2D>>> makeVectorMaps(
         final MapExtent mapExtent,
@@ -76,7 +94,14 @@ public enum CurrentVectorsFactory {
         final GeomGridField geomGridField = new GeomGridField(dummyGrid);
         geomGridField.setMBR(mapExtent.getEnvelope());
 
-        currentFiles.forEach((currentPattern, path) ->
+        currentFiles.forEach((currentPattern, path) -> {
+            final Optional<GridStack> gridStack = GridStack.readIfUpToDate(path, mapExtent)
+                .filter(stack -> stack.getKeyColumns().isEmpty())
+                .filter(stack -> stack.getValueColumns().equals(gridStackColumns(inputIsMetersPerSecond1)));
+            if (gridStack.isPresent()) {
+                readVectorMaps(gridStack.get(), currentPattern, mapExtent, currentVectors);
+                return;
+            }
             CsvParserUtil.recordStream(path).forEach(record -> {
                 final Coordinate coordinate = readCoordinate(record);
                 final int dayOfYear = getLocalDate(record, "dttm", "yyyy-MM-dd").getDayOfYear();
@@ -90,10 +115,74 @@ public enum CurrentVectorsFactory {
                 );
                 // mutates the innermost map in the main data structure
                 vectorByLocation.put(gridLocation, vector);
-            }));
+            });
+            if (GridStack.isConvertingOnFallback())
+                writeGridStack(mapExtent, path, inputIsMetersPerSecond1);
+        });
         return currentVectors;
     }
 
+    private static List<String> gridStackColumns(final boolean inputIsMetersPerSecond) {
+        return inputIsMetersPerSecond ? CONVERTED_VECTOR_COLUMNS : VECTOR_COLUMNS;
+    }
+
+    /**
+     * Reads the vectors of a grid stack file, which are already in grid offsets/day.
+     */
+    private static void readVectorMaps(
+        final GridStack gridStack,
+        final CurrentPattern currentPattern,
+        final MapExtent mapExtent,
+        final TreeMap<Integer, EnumMap<CurrentPattern, Map<Int2D, Double2D>>> currentVectors
+    ) {
+        final List<LocalDate> dates = gridStack.getDates();
+        for (int d = 0; d < dates.size(); d++) {
+            if (!gridStack.hasPlane(d, 0)) {
+                continue;
+            }
+            final Map<Int2D, Double2D> vectorByLocation = currentVectors
+                .computeIfAbsent(dates.get(d).getDayOfYear(), __ -> new EnumMap<>(CurrentPattern.class))
+                .computeIfAbsent(currentPattern, __ -> new HashMap<>());
+            for (int x = 0; x < mapExtent.getGridWidth(); x++) {
+                for (int y = 0; y < mapExtent.getGridHeight(); y++) {
+                    final double u = gridStack.get(d, 0, 0, x, y);
+                    final double v = gridStack.get(d, 0, 1, x, y);
+                    if (!Double.isNaN(u) && !Double.isNaN(v)) {
+                        vectorByLocation.put(new Int2D(x, y), new Double2D(u, v));
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Converts a CSV file of current vectors to a grid stack file, which will be read instead of the CSV file from
+     * now on when reading it with the same map extent and units. The vectors are stored the way they are read from
+     * the CSV file, i.e., already converted to grid offsets/day at the coordinates of their record if the input is in
+     * metres/second.
+     */
+    public static void writeGridStack(
+        final MapExtent mapExtent,
+        final Path currentsFile,
+        final boolean inputIsMetersPerSecond
+    ) {
+        GridStack.convert(
+            currentsFile,
+            GridStack.gridStackFileFor(currentsFile),
+            mapExtent,
+            record -> getLocalDate(record, "dttm", "yyyy-MM-dd"),
+            ImmutableList.of(),
+            "lon",
+            "lat",
+            gridStackColumns(inputIsMetersPerSecond),
+            (record, values) -> {
+                final Double2D vector = readVector(record, readCoordinate(record), mapExtent, inputIsMetersPerSecond);
+                values[0] = vector.x;
+                values[1] = vector.y;
+            }
+        );
+    }
+
     private static Coordinate readCoordinate(final Record record) {
         return new Coordinate(record.getDouble("lon"), record.getDouble("lat"));
     }
@@ -159,7 +248,22 @@ public enum CurrentVectorsFactory {
         final Map<CurrentPattern, Path> currentFiles,
         final boolean inputIsMetersPerSecond
     ) {
-        return cache.getUnchecked(entry(mapExtent, entry(inputIsMetersPerSecond, currentFiles)));
+        return getCurrentVectors(mapExtent, currentFiles, inputIsMetersPerSecond, false);
+    }
+
+    /**
+     * Same as {@link #getCurrentVectors(MapExtent, Map, boolean)}, but can return a {@link DenseCurrentVectors}
+     * view, which keeps the vectors of every location for each step in primitive arrays.
+     */
+    public CurrentVectors getCurrentVectors(
+        final MapExtent mapExtent,
+        final Map<CurrentPattern, Path> currentFiles,
+        final boolean inputIsMetersPerSecond,
+        final boolean dense
+    ) {
+        final Entry<MapExtent, Entry<Boolean, Map<CurrentPattern, Path>>> key =
+            entry(mapExtent, entry(inputIsMetersPerSecond, currentFiles));
+        return dense ? denseCache.getUnchecked(key) : cache.getUnchecked(key);
     }
 
 }
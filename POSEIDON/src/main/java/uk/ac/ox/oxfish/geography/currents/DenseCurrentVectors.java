@@ -0,0 +1,228 @@
+/*
+ * POSEIDON: an agent-based model of fisheries
+ * Copyright (c) 2025, University of Oxford.
+ *
+ * University of Oxford means the Chancellor, Masters and Scholars of the
+ * University of Oxford, having an administrative office at Wellington
+ * Square, Oxford OX1 2JD, UK.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package uk.ac.ox.oxfish.geography.currents;
+
+import sim.util.Double2D;
+import sim.util.Int2D;
+
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.function.BiFunction;
+import java.util.function.IntFunction;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+/**
+ * Current vectors kept in dense primitive fields: for each step, one {@code float[2][width * height]} array
+ * holding the u (x) and v (y) components of every grid location, indexed by {@code y * width + x}.
+ * Fields are filled lazily, all locations at once, the first time a step is requested, including steps whose
+ * vectors are interpolated by the source. After that, {@link #getU} and {@link #getV} are plain array reads.
+ * <p>
+ * Steps that are known to have the same vectors share a field: each step is mapped to a field key, and a field
+ * is computed once per key. Without a key function, every step gets its own field. At most {@code maxFields} fields
+ * are held: when a new one is computed, the key that was least recently looked up while filling is dropped, along
+ * with the steps pointing to its field, and will be computed again if it is needed later. Since simulations move
+ * forward one step at a time, this keeps the fields of the last few steps of every run sharing the instance. Filling
+ * is synchronized but reading is lock-free, so the same instance can be shared between runs.
+ */
+public class DenseCurrentVectors implements CurrentVectors {
+
+    /**
+     * Enough for the current steps of many runs sharing the instance, while keeping a 100 by 100 grid under 6 MB.
+     */
+    public static final int DEFAULT_MAX_FIELDS = 64;
+
+    private final int gridWidth;
+    private final int gridHeight;
+    private final BiFunction<? super Integer, ? super Int2D, Double2D> vectorAtStep;
+    private final IntFunction<?> fieldKey;
+    private final int maxFields;
+
+    /**
+     * field key -> {u, v} field, from the least to the most recently looked up. Only accessed while filling.
+     */
+    private final LinkedHashMap<Object, float[][]> fieldsByKey = new LinkedHashMap<>(16, 0.75f, true);
+
+    /**
+     * step -> {u, v} field, or null if not looked up yet or dropped. Steps with the same key point to the same field.
+     * Replaced by a copy whenever a step is added, so that readers always see fully built fields.
+     */
+    private volatile float[][][] fields = new float[0][][];
+
+    /**
+     * @param gridWidth    the width of the grid
+     * @param gridHeight   the height of the grid
+     * @param vectorAtStep computes the vector of a location at a step; only called while filling fields
+     */
+    public DenseCurrentVectors(
+        final int gridWidth,
+        final int gridHeight,
+        final BiFunction<? super Integer, ? super Int2D, Double2D> vectorAtStep
+    ) {
+        this(gridWidth, gridHeight, vectorAtStep, Integer::valueOf);
+    }
+
+    /**
+     * @param gridWidth    the width of the grid
+     * @param gridHeight   the height of the grid
+     * @param vectorAtStep computes the vector of a location at a step; only called while filling fields
+     * @param fieldKey     maps a step to the key of its field; steps with equal keys must have the same vectors
+     */
+    public DenseCurrentVectors(
+        final int gridWidth,
+        final int gridHeight,
+        final BiFunction<? super Integer, ? super Int2D, Double2D> vectorAtStep,
+        final IntFunction<?> fieldKey
+    ) {
+        this(gridWidth, gridHeight, vectorAtStep, fieldKey, DEFAULT_MAX_FIELDS);
+    }
+
+    /**
+     * @param gridWidth    the width of the grid
+     * @param gridHeight   the height of the grid
+     * @param vectorAtStep computes the vector of a location at a step; only called while filling fields
+     * @param fieldKey     maps a step to the key of its field; steps with equal keys must have the same vectors
+     * @param maxFields    the maximum number of fields held at once
+     */
+    public DenseCurrentVectors(
+        final int gridWidth,
+        final int gridHeight,
+        final BiFunction<? super Integer, ? super Int2D, Double2D> vectorAtStep,
+        final IntFunction<?> fieldKey,
+        final int maxFields
+    ) {
+        checkArgument(maxFields > 0, "Must hold at least one field");
+        this.gridWidth = gridWidth;
+        this.gridHeight = gridHeight;
+        this.vectorAtStep = vectorAtStep;
+        this.fieldKey = fieldKey;
+        this.maxFields = maxFields;
+    }
+
+    /**
+     * Makes a dense copy of any current vectors, filled through {@link CurrentVectors#getVector}.
+     */
+    public static DenseCurrentVectors from(final CurrentVectors currentVectors) {
+        return new DenseCurrentVectors(
+            currentVectors.getGridWidth(),
+            currentVectors.getGridHeight(),
+            currentVectors::getVector
+        );
+    }
+
+    @Override
+    public int getGridHeight() {
+        return gridHeight;
+    }
+
+    @Override
+    public int getGridWidth() {
+        return gridWidth;
+    }
+
+    @Override
+    public Double2D getVector(final int step, final Int2D location) {
+        final float[][] field = getField(step);
+        final int index = location.y * gridWidth + location.x;
+        return new Double2D(field[0][index], field[1][index]);
+    }
+
+    @Override
+    public double getU(final int step, final int x, final int y) {
+        return getField(step)[0][y * gridWidth + x];
+    }
+
+    @Override
+    public double getV(final int step, final int x, final int y) {
+        return getField(step)[1][y * gridWidth + x];
+    }
+
+    /**
+     * The {u, v} arrays of the given step, indexed by {@code y * width + x}. They are shared, so they must not be
+     * modified.
+     */
+    public float[][] getFieldAt(final int step) {
+        return getField(step);
+    }
+
+    /**
+     * The number of distinct fields currently held, which never exceeds the bound given at construction.
+     */
+    public synchronized int getNumberOfFields() {
+        return fieldsByKey.size();
+    }
+
+    private float[][] getField(final int step) {
+        final float[][][] fields = this.fields;
+        if (step < fields.length) {
+            final float[][] field = fields[step];
+            if (field != null)
+                return field;
+        }
+        return fillField(step);
+    }
+
+    private synchronized float[][] fillField(final int step) {
+        checkArgument(step >= 0, "Negative step: %s", step);
+        if (step < fields.length && fields[step] != null)
+            return fields[step];
+        final float[][][] newFields =
+            Arrays.copyOf(fields, step < fields.length ? fields.length : Math.max(step + 1, fields.length * 2));
+        final Object key = fieldKey.apply(step);
+        float[][] field = fieldsByKey.get(key);
+        if (field == null) {
+            field = computeField(step);
+            fieldsByKey.put(key, field);
+            if (fieldsByKey.size() > maxFields)
+                drop(fieldsByKey.values().iterator(), newFields);
+        }
+        newFields[step] = field;
+        fields = newFields;
+        return field;
+    }
+
+    private static void drop(
+        final Iterator<float[][]> leastRecentlyUsed,
+        final float[][][] fields
+    ) {
+        final float[][] dropped = leastRecentlyUsed.next();
+        leastRecentlyUsed.remove();
+        for (int step = 0; step < fields.length; step++) {
+            if (fields[step] == dropped)
+                fields[step] = null;
+        }
+    }
+
+    private float[][] computeField(final int step) {
+        final float[][] field = new float[2][gridWidth * gridHeight];
+        for (int y = 0; y < gridHeight; y++) {
+            for (int x = 0; x < gridWidth; x++) {
+                final Double2D vector = vectorAtStep.apply(step, new Int2D(x, y));
+                field[0][y * gridWidth + x] = (float) vector.x;
+                field[1][y * gridWidth + x] = (float) vector.y;
+            }
+        }
+        return field;
+    }
+}
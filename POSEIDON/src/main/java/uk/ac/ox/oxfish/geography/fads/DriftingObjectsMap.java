@@ -28,41 +28,78 @@ import sim.util.Double2D;
 import sim.util.Int2D;
 import uk.ac.ox.oxfish.geography.NauticalMap;
 import uk.ac.ox.oxfish.geography.currents.CurrentVectors;
+import uk.ac.ox.oxfish.geography.currents.DenseCurrentVectors;
 
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.function.BiConsumer;
+import java.util.stream.IntStream;
 import java.util.stream.Stream;
 
 import static com.google.common.base.Preconditions.*;
-import static uk.ac.ox.oxfish.utility.MasonUtils.bagToStream;
-import static uk.ac.ox.oxfish.utility.MasonUtils.inBounds;
 
+/**
+ * Keeps track of objects drifting with the currents. Objects are stored in parallel primitive arrays (positions,
+ * grid cell ids, liveness and move callbacks, one slot per object) so that drift can be applied in one tight loop,
+ * and each grid cell keeps a bag of the objects it contains.
+ * <p>
+ * Slots and cell bags are kept in the same order as MASON's {@link Continuous2D} would (new objects are appended,
+ * a removed object is replaced by the last one) so that iteration order, and hence results, don't depend on the
+ * storage. Move callbacks are only called when an object changes cell, lands on land or is removed.
+ */
 public class DriftingObjectsMap {
 
-    private final Continuous2D field;
+    private static final int INITIAL_CAPACITY = 64;
+
+    private final int width;
+    private final int height;
+    private final boolean[] landCells;
     private final CurrentVectors currentVectors;
-    private final Map<Object, BiConsumer<Double2D, Optional<Double2D>>> onMoveCallbacks = new HashMap<>();
+    /**
+     * the same as currentVectors when they can be read without allocating, null otherwise
+     */
+    private final DenseCurrentVectors denseCurrentVectors;
+
+    private final Map<Object, Integer> slots = new HashMap<>();
+    private Object[] objects = new Object[INITIAL_CAPACITY];
+    private double[] xs = new double[INITIAL_CAPACITY];
+    private double[] ys = new double[INITIAL_CAPACITY];
+    private int[] cells = new int[INITIAL_CAPACITY];
+    private boolean[] alive = new boolean[INITIAL_CAPACITY];
+    private Object[] onMoveCallbacks = new Object[INITIAL_CAPACITY];
+    private int size = 0;
+
+    /**
+     * the objects in each cell ({@code y * width + x}), or null if there are none
+     */
+    private final Bag[] cellBags;
+
+    // used while applying drift: removals are deferred until the end of the pass so that slots don't move
+    private double[] previousXs = new double[0];
+    private double[] previousYs = new double[0];
+    private boolean drifting = false;
+    private final List<Object> pendingRemovals = new ArrayList<>();
 
     DriftingObjectsMap(
         final CurrentVectors currentVectors,
         final NauticalMap nauticalMap
     ) {
-        this(
-            new Continuous2D(1.0, nauticalMap.getWidth(), nauticalMap.getHeight()),
-            currentVectors
-        );
-    }
-
-    private DriftingObjectsMap(
-        final Continuous2D field,
-        final CurrentVectors currentVectors
-    ) {
-        checkArgument(field.getHeight() == currentVectors.getGridHeight());
-        checkArgument(field.getWidth() == currentVectors.getGridWidth());
-        this.field = field;
+        checkArgument(nauticalMap.getHeight() == currentVectors.getGridHeight());
+        checkArgument(nauticalMap.getWidth() == currentVectors.getGridWidth());
+        this.width = nauticalMap.getWidth();
+        this.height = nauticalMap.getHeight();
         this.currentVectors = currentVectors;
+        this.denseCurrentVectors = currentVectors instanceof DenseCurrentVectors ?
+            (DenseCurrentVectors) currentVectors : null;
+        this.cellBags = new Bag[width * height];
+        this.landCells = new boolean[width * height];
+        for (int y = 0; y < height; y++)
+            for (int x = 0; x < width; x++)
+                landCells[y * width + x] = nauticalMap.getSeaTile(x, y).isLand();
     }
 
     public CurrentVectors getCurrentVectors() {
@@ -70,49 +107,74 @@ public class DriftingObjectsMap {
     }
 
     void applyDrift(final int timeStep) {
-        for (final Object o : field.allObjects.toArray()) { // makes a copy, as objects can be removed
-            final Double2D oldLoc = field.getObjectLocationAsDouble2D(o);
-            final Optional<Double2D> newLoc = nextPosition(oldLoc, timeStep);
-            if (newLoc.isPresent())
-                move(o, oldLoc, newLoc.get());
-            else
-                remove(o, oldLoc);
+        final int n = size;
+        if (previousXs.length < n) {
+            previousXs = new double[objects.length];
+            previousYs = new double[objects.length];
         }
-    }
+        System.arraycopy(xs, 0, previousXs, 0, n);
+        System.arraycopy(ys, 0, previousYs, 0, n);
 
-    private Optional<Double2D> nextPosition(final Double2D position, final int timeStep) {
-        return getGridLocation(position)
-            .map(gridLocation -> currentVectors.getVector(timeStep, gridLocation))
-            .map(position::add)
-            .filter(location -> inBounds(location, field));
-    }
-
-    private void move(final Object object, final Double2D oldLocation, final Double2D newLocation) {
-        setObjectLocation(object, newLocation);
-        Optional
-            .ofNullable(onMoveCallbacks.get(object))
-            .ifPresent(f -> f.accept(oldLocation, Optional.of(newLocation)));
-    }
-
-    private void remove(final Object object, final Double2D oldLocation) {
-        final Object result = field.remove(object);
-        checkNotNull(result, "Object not on the map!");
-        Optional
-            .ofNullable(onMoveCallbacks.remove(object))
-            .ifPresent(f -> f.accept(oldLocation, Optional.empty()));
-    }
+        // first, move everything
+        if (denseCurrentVectors != null) {
+            final float[][] field = denseCurrentVectors.getFieldAt(timeStep);
+            final float[] us = field[0];
+            final float[] vs = field[1];
+            for (int i = 0; i < n; i++) {
+                final int cell = cells[i];
+                xs[i] += us[cell];
+                ys[i] += vs[cell];
+            }
+        } else {
+            for (int i = 0; i < n; i++) {
+                final Double2D vector = currentVectors.getVector(
+                    timeStep,
+                    new Int2D(cells[i] % width, cells[i] / width)
+                );
+                xs[i] += vector.x;
+                ys[i] += vector.y;
+            }
+        }
 
-    private Optional<Int2D> getGridLocation(final Double2D position) {
-        return position.x >= 0 && position.x < currentVectors.getGridWidth() &&
-            position.y >= 0 && position.y < currentVectors.getGridHeight()
-            ? Optional.of(new Int2D((int) position.x, (int) position.y))
-            : Optional.empty();
+        // then deal with the objects that changed cell or left the map
+        drifting = true;
+        try {
+            for (int i = 0; i < n; i++) {
+                if (!alive[i])
+                    continue;
+                final double x = xs[i];
+                final double y = ys[i];
+                if (x >= 0 && x < width && y >= 0 && y < height) {
+                    final int oldCell = cells[i];
+                    final int newCell = (int) y * width + (int) x;
+                    if (newCell != oldCell) {
+                        removeFromCell(objects[i], oldCell);
+                        addToCell(objects[i], newCell);
+                        cells[i] = newCell;
+                    }
+                    if ((newCell != oldCell || landCells[newCell]) && onMoveCallbacks[i] != null)
+                        callback(i).accept(
+                            new Double2D(previousXs[i], previousYs[i]),
+                            Optional.of(new Double2D(x, y))
+                        );
+                } else {
+                    // off the map: the object disappears from where it was
+                    xs[i] = previousXs[i];
+                    ys[i] = previousYs[i];
+                    removeSlot(i);
+                }
+            }
+        } finally {
+            drifting = false;
+            for (final Object object : pendingRemovals)
+                compact(slots.get(object));
+            pendingRemovals.clear();
+        }
     }
 
-    private void setObjectLocation(final Object object, final Double2D newLocation) {
-        checkArgument(inBounds(newLocation, field));
-        final boolean result = field.setObjectLocation(object, newLocation);
-        checkState(result);
+    @SuppressWarnings("unchecked")
+    private BiConsumer<Double2D, Optional<Double2D>> callback(final int slot) {
+        return (BiConsumer<Double2D, Optional<Double2D>>) onMoveCallbacks[slot];
     }
 
     /**
@@ -122,7 +184,59 @@ public class DriftingObjectsMap {
      * @param object the object to remove
      */
     public void remove(final Object object) {
-        remove(object, field.getObjectLocationAsDouble2D(object));
+        final Integer slot = slots.get(object);
+        checkNotNull(slot, "Object not on the map!");
+        checkState(alive[slot], "Object not on the map!");
+        removeSlot(slot);
+    }
+
+    /**
+     * Takes the object out of its cell, where it can no longer be found, ahead of a {@link #remove} that has to wait.
+     * The object keeps its slot and its location until then.
+     */
+    void detach(final Object object) {
+        final Integer slot = slots.get(object);
+        if (slot != null && alive[slot] && cells[slot] >= 0) {
+            removeFromCell(object, cells[slot]);
+            cells[slot] = -1;
+        }
+    }
+
+    private void removeSlot(final int slot) {
+        final Object object = objects[slot];
+        final Double2D oldLocation = new Double2D(xs[slot], ys[slot]);
+        final BiConsumer<Double2D, Optional<Double2D>> onMove = callback(slot);
+        if (cells[slot] >= 0)
+            removeFromCell(object, cells[slot]);
+        alive[slot] = false;
+        onMoveCallbacks[slot] = null;
+        if (drifting)
+            pendingRemovals.add(object);
+        else
+            compact(slot);
+        if (onMove != null)
+            onMove.accept(oldLocation, Optional.empty());
+    }
+
+    /**
+     * fills the slot of a removed object with the last object, like {@link Bag#remove(int)} does
+     */
+    private void compact(final int slot) {
+        slots.remove(objects[slot]);
+        final int last = size - 1;
+        if (slot != last) {
+            objects[slot] = objects[last];
+            xs[slot] = xs[last];
+            ys[slot] = ys[last];
+            cells[slot] = cells[last];
+            alive[slot] = alive[last];
+            onMoveCallbacks[slot] = onMoveCallbacks[last];
+            slots.put(objects[slot], slot);
+        }
+        objects[last] = null;
+        onMoveCallbacks[last] = null;
+        alive[last] = false;
+        size = last;
     }
 
     public void add(
@@ -130,23 +244,105 @@ public class DriftingObjectsMap {
         final Double2D location,
         final BiConsumer<Double2D, Optional<Double2D>> onMove
     ) {
-        setObjectLocation(object, location);
-        onMoveCallbacks.put(object, onMove);
+        checkArgument(location.x >= 0 && location.x < width && location.y >= 0 && location.y < height);
+        final int cell = (int) location.y * width + (int) location.x;
+        final Integer existingSlot = slots.get(object);
+        final int slot;
+        if (existingSlot != null && alive[existingSlot]) {
+            slot = existingSlot;
+            if (cells[slot] != cell) {
+                if (cells[slot] >= 0)
+                    removeFromCell(object, cells[slot]);
+                addToCell(object, cell);
+            }
+        } else {
+            checkState(existingSlot == null, "Can't add back an object removed while drifting");
+            if (size == objects.length)
+                grow();
+            slot = size++;
+            objects[slot] = object;
+            alive[slot] = true;
+            slots.put(object, slot);
+            addToCell(object, cell);
+        }
+        xs[slot] = location.x;
+        ys[slot] = location.y;
+        cells[slot] = cell;
+        onMoveCallbacks[slot] = onMove;
+    }
+
+    private void grow() {
+        final int capacity = objects.length * 2;
+        objects = Arrays.copyOf(objects, capacity);
+        xs = Arrays.copyOf(xs, capacity);
+        ys = Arrays.copyOf(ys, capacity);
+        cells = Arrays.copyOf(cells, capacity);
+        alive = Arrays.copyOf(alive, capacity);
+        onMoveCallbacks = Arrays.copyOf(onMoveCallbacks, capacity);
+    }
+
+    private void addToCell(
+        final Object object,
+        final int cell
+    ) {
+        if (cellBags[cell] == null)
+            cellBags[cell] = new Bag();
+        cellBags[cell].add(object);
+    }
+
+    private void removeFromCell(
+        final Object object,
+        final int cell
+    ) {
+        final Bag bag = cellBags[cell];
+        bag.remove(object);
+        if (bag.isEmpty())
+            cellBags[cell] = null;
     }
 
     Double2D getObjectLocation(final Object object) {
-        return field.getObjectLocation(object);
+        final Integer slot = slots.get(object);
+        return slot != null && alive[slot] ? new Double2D(xs[slot], ys[slot]) : null;
+    }
+
+    /**
+     * the id ({@code y * width + x}) of the grid cell the object is in, or -1 if it's not on the map
+     */
+    int getObjectCell(final Object object) {
+        final Integer slot = slots.get(object);
+        return slot != null && alive[slot] ? cells[slot] : -1;
+    }
+
+    /**
+     * the objects in the given grid cell, or null if there are none. The bag is live, so it must not be modified.
+     */
+    Bag getObjectsInCell(
+        final int x,
+        final int y
+    ) {
+        return cellBags[y * width + x];
     }
 
     public Stream<Object> objects() {
-        return bagToStream(field.allObjects);
+        // like iterating over a MASON bag, this reads the slots as it goes
+        return IntStream.range(0, size).filter(i -> alive[i]).mapToObj(i -> objects[i]);
     }
 
     public Bag getAllObjects() {
-        return field.getAllObjects();
+        final Bag bag = new Bag(size);
+        objects().forEach(bag::add);
+        return bag;
     }
 
+    /**
+     * Returns a snapshot of the objects and their locations as a MASON field, for portrayal and inspection.
+     * It is rebuilt on every call and is not updated as objects drift.
+     */
     public Continuous2D getField() {
+        final Continuous2D field = new Continuous2D(1.0, width, height);
+        for (int i = 0; i < size; i++)
+            if (alive[i])
+                field.setObjectLocation(objects[i], new Double2D(xs[i], ys[i]));
         return field;
     }
 
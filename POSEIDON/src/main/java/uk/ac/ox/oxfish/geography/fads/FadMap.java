@@ -22,13 +22,13 @@
 
 package uk.ac.ox.oxfish.geography.fads;
 
+import ec.util.MersenneTwisterFast;
 import sim.engine.SimState;
 import sim.engine.Steppable;
 import sim.engine.Stoppable;
 import sim.field.continuous.Continuous2D;
 import sim.util.Bag;
 import sim.util.Double2D;
-import sim.util.Int2D;
 import uk.ac.ox.oxfish.biology.GlobalBiology;
 import uk.ac.ox.oxfish.biology.LocalBiology;
 import uk.ac.ox.oxfish.biology.Species;
@@ -38,12 +38,19 @@ import uk.ac.ox.oxfish.geography.NauticalMap;
 import uk.ac.ox.oxfish.geography.SeaTile;
 import uk.ac.ox.oxfish.geography.currents.CurrentVectors;
 import uk.ac.ox.oxfish.model.AdditionalStartable;
+import uk.ac.ox.oxfish.model.ConcurrentFisherPhase;
 import uk.ac.ox.oxfish.model.FishState;
 import uk.ac.ox.oxfish.model.StepOrder;
 
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.SplittableRandom;
 import java.util.function.BiConsumer;
+import java.util.function.DoubleSupplier;
 import java.util.stream.Stream;
 
 /**
@@ -55,6 +62,10 @@ public class FadMap
     implements AdditionalStartable, Steppable {
 
     private static final long serialVersionUID = -4923511779083700503L;
+    /**
+     * The reports queued by the FAD being stepped in parallel on the current thread, if any.
+     */
+    private static final ThreadLocal<List<Runnable>> deferredReports = new ThreadLocal<>();
     private final DriftingObjectsMap driftingObjectsMap;
     private final NauticalMap nauticalMap;
     private final GlobalBiology globalBiology;
@@ -62,6 +73,20 @@ public class FadMap
     private final AbundanceLostObserver abundanceLostObserver = new AbundanceLostObserver();
     final private LinkedList<FadRemovalListener> removalListeners = new LinkedList<>();
     private Stoppable stoppable;
+    /**
+     * If true, the FADs are stepped in parallel, tile by tile, each drawing from its own random stream.
+     */
+    private boolean parallel = false;
+    private int numberOfDeployments = 0;
+    /**
+     * The model seed the random streams of the FADs were derived from, which changes when a model is forked from a
+     * snapshot.
+     */
+    private long randomStreamsSeed;
+    /**
+     * If true, the wall time of the whole DAWN phase is registered as a daily data column when the map is started.
+     */
+    private boolean dawnPhaseTimed = false;
 
     public FadMap(
         final NauticalMap nauticalMap,
@@ -91,6 +116,13 @@ public class FadMap
     public void start(final FishState model) {
         model.setFadMap(this);
         stoppable = model.scheduleEveryDay(this, StepOrder.DAWN);
+        if (dawnPhaseTimed) {
+            model.getDailyDataSet().registerGatherer(
+                "DAWN Phase Time (ms)",
+                fishState -> fishState.getLastPhaseDuration(StepOrder.DAWN) / 1E6,
+                Double.NaN
+            );
+        }
     }
 
     @Override
@@ -104,21 +136,121 @@ public class FadMap
     public void step(final SimState simState) {
         final FishState fishState = (FishState) simState;
         driftingObjectsMap.applyDrift(fishState.getStep());
+        if (parallel) {
+            stepInParallel(fishState);
+        } else {
+            final MersenneTwisterFast rng = fishState.getRandom();
+            allFads().forEach(fad -> stepFad(fad, fishState, rng::nextDouble));
+        }
+    }
+
+    /**
+     * Groups the FADs by tile, keeping their usual order within each tile, and steps the groups in parallel. A tile's
+     * biology is only ever touched by the thread that handles that tile, each FAD draws from its own random stream,
+     * and what the FADs report to shared observers is queued and replayed in FAD order after the parallel pass (see
+     * {@link #report}), so the outcome does not depend on the number of threads.
+     */
+    private void stepInParallel(final FishState fishState) {
+        if (fishState.seed() != randomStreamsSeed) {
+            allFads().forEach(fad -> fad.setRandomStream(null));
+            randomStreamsSeed = fishState.seed();
+        }
+        final List<Fad> fads = new ArrayList<>();
+        final Map<Integer, List<Integer>> fadIndicesByCell = new LinkedHashMap<>();
         allFads().forEach(fad -> {
-            fad.reactToStep(fishState);
-            final Optional<LocalBiology> seaTileBiology =
-                getFadTile(fad)
-                    .flatMap(this::getTileBiology);
-            if (seaTileBiology.isPresent()) {
-                fad.aggregateFish(seaTileBiology.get(), globalBiology, fishState.getStep());
-                fad.maybeReleaseFishIntoTile(
-                    seaTileBiology.get(),
-                    fishState.getRandom()
-                );
-            } else {
-                fad.maybeReleaseFishIntoTheVoid(fishState.getRandom());
+            if (fad.getRandomStream() == null) {
+                fad.setRandomStream(newRandomStream(fishState.seed(), fad));
             }
+            fadIndicesByCell
+                .computeIfAbsent(driftingObjectsMap.getObjectCell(fad), __ -> new ArrayList<>())
+                .add(fads.size());
+            fads.add(fad);
         });
+        final List<List<Runnable>> reports = new ArrayList<>(fads.size());
+        for (int i = 0; i < fads.size(); i++)
+            reports.add(new ArrayList<>(0));
+        fadIndicesByCell.values().parallelStream().forEach(fadIndices ->
+            fadIndices.forEach(i -> {
+                final Fad fad = fads.get(i);
+                deferredReports.set(reports.get(i));
+                try {
+                    stepFad(fad, fishState, fad.getRandomStream()::nextDouble);
+                } finally {
+                    deferredReports.remove();
+                }
+            })
+        );
+        reports.forEach(fadReports -> fadReports.forEach(Runnable::run));
+    }
+
+    /**
+     * Each FAD's stream is seeded from the model seed and the FAD's deployment number on this map. The global
+     * {@link Fad} ids are not used because they keep counting across all the models of the JVM. The streams are
+     * SplitMix64 generators, which only hold two longs, where a {@link MersenneTwisterFast} would hold a few KB per
+     * FAD.
+     */
+    private SplittableRandom newRandomStream(final long seed, final Fad fad) {
+        if (fad.getDeploymentNumber() < 0) {
+            fad.setDeploymentNumber(numberOfDeployments++);
+        }
+        return new SplittableRandom(mix(mix(seed) + fad.getDeploymentNumber()));
+    }
+
+    // The SplitMix64 finalizer, so that nearby seeds and deployment numbers give unrelated streams.
+    private static long mix(final long value) {
+        long z = value;
+        z = (z ^ (z >>> 30)) * 0xbf58476d1ce4e5b9L;
+        z = (z ^ (z >>> 27)) * 0x94d049bb133111ebL;
+        return z ^ (z >>> 31);
+    }
+
+    /**
+     * Makes a report to observers that are shared beyond a FAD's tile (the FAD owner's observers, the abundance lost
+     * observer, ...). While the FADs are stepped in parallel, the report is queued with the FAD being stepped and
+     * only made once all the FADs are done, in FAD order. While fishers are stepped concurrently, it is queued with
+     * the fisher's group instead (see {@link ConcurrentFisherPhase#deferUntilAfterPhase}). Observables should thus be
+     * built before reporting them. Otherwise, the report is made right away.
+     */
+    public void report(final Runnable report) {
+        final List<Runnable> reports = deferredReports.get();
+        if (reports != null) {
+            reports.add(report);
+        } else if (!ConcurrentFisherPhase.deferUntilAfterPhase(report)) {
+            report.run();
+        }
+    }
+
+    private void stepFad(
+        final Fad fad,
+        final FishState fishState,
+        final DoubleSupplier rng
+    ) {
+        fad.reactToStep(fishState);
+        final Optional<LocalBiology> seaTileBiology =
+            getFadTile(fad)
+                .flatMap(this::getTileBiology);
+        if (seaTileBiology.isPresent()) {
+            fad.aggregateFish(seaTileBiology.get(), globalBiology, fishState.getStep());
+            fad.maybeReleaseFishIntoTile(seaTileBiology.get(), rng);
+        } else {
+            fad.maybeReleaseFishIntoTheVoid(rng);
+        }
+    }
+
+    public boolean isParallel() {
+        return parallel;
+    }
+
+    public void setParallel(final boolean parallel) {
+        this.parallel = parallel;
+    }
+
+    public boolean isDawnPhaseTimed() {
+        return dawnPhaseTimed;
+    }
+
+    public void setDawnPhaseTimed(final boolean dawnPhaseTimed) {
+        this.dawnPhaseTimed = dawnPhaseTimed;
     }
 
     public Stream<Fad> allFads() {
@@ -128,7 +260,10 @@ public class FadMap
     }
 
     public Optional<SeaTile> getFadTile(final Fad fad) {
-        return getFadLocation(fad).flatMap(this::getSeaTile);
+        final int cell = driftingObjectsMap.getObjectCell(fad);
+        return cell < 0 ?
+            Optional.empty() :
+            Optional.ofNullable(nauticalMap.getSeaTile(cell % nauticalMap.getWidth(), cell / nauticalMap.getWidth()));
     }
 
     private Optional<LocalBiology> getTileBiology(final SeaTile seaTile) {
@@ -158,10 +293,25 @@ public class FadMap
         deployFad(fad, new Double2D(seaTile.getGridX() + 0.5, seaTile.getGridY() + 0.5));
     }
 
+    /**
+     * While fishers are stepped concurrently, the FAD only joins the map once the phase is over, in group order, so
+     * that deployment numbers and the order of the FADs do not depend on the number of threads.
+     */
     public void deployFad(
         final Fad fad,
         final Double2D location
     ) {
+        if (!ConcurrentFisherPhase.deferUntilAfterPhase(() -> add(fad, location)))
+            add(fad, location);
+    }
+
+    private void add(
+        final Fad fad,
+        final Double2D location
+    ) {
+        if (fad.getDeploymentNumber() < 0) {
+            fad.setDeploymentNumber(numberOfDeployments++);
+        }
         driftingObjectsMap.add(fad, location, onMove(fad));
     }
 
@@ -188,7 +338,18 @@ public class FadMap
         };
     }
 
+    /**
+     * While fishers are stepped concurrently, the FAD leaves its tile right away, so that no one else sets on it, but
+     * its owner and the removal listeners, which other groups can share, only hear of it once the phase is over.
+     */
     public void remove(final Fad fad) {
+        if (ConcurrentFisherPhase.deferUntilAfterPhase(() -> removeNow(fad)))
+            driftingObjectsMap.detach(fad);
+        else
+            removeNow(fad);
+    }
+
+    private void removeNow(final Fad fad) {
         driftingObjectsMap.remove(fad);
         for (final FadRemovalListener removalListener : getRemovalListeners()) {
             removalListener.onFadRemoval(fad);
@@ -217,13 +378,12 @@ public class FadMap
         final int x,
         final int y
     ) {
-        final Int2D location = new Int2D(x, y);
-        final Bag bag = driftingObjectsMap.getField().getObjectsAtDiscretizedLocation(location);
+        final Bag bag = driftingObjectsMap.getObjectsInCell(x, y);
         return bag == null ? new Bag() : bag;
     }
 
     /**
-     * Returns the Continuous2D field backing the floating objects map. Only public because the GUI portrayal needs to
+     * Returns a snapshot of the FAD locations as a Continuous2D field. Only public because the GUI portrayal needs to
      * access it.
      */
     public Continuous2D getField() {
@@ -37,6 +37,9 @@ public class FadMapFactory implements AlgorithmFactory<FadMap> {
     private final Class<? extends LocalBiology> localBiologyClass;
     private CurrentPatternMapSupplier currentPatternMapSupplier;
     private boolean inputIsMetersPerSecond = true;
+    private boolean denseCurrentVectors = false;
+    private boolean parallel = false;
+    private boolean dawnPhaseTimed = false;
 
     FadMapFactory(
         final Class<? extends LocalBiology> localBiologyClass,
@@ -70,19 +73,23 @@ public class FadMapFactory implements AlgorithmFactory<FadMap> {
         checkState(fishState.getStepsPerDay() == CurrentVectorsFactory.STEPS_PER_DAY);
         final NauticalMap nauticalMap = fishState.getMap();
         final CurrentVectors currentVectors = buildCurrentVectors(fishState);
-        return new FadMap(
+        final FadMap fadMap = new FadMap(
             nauticalMap,
             currentVectors,
             fishState.getBiology(),
             localBiologyClass
         );
+        fadMap.setParallel(parallel);
+        fadMap.setDawnPhaseTimed(dawnPhaseTimed);
+        return fadMap;
     }
 
     CurrentVectors buildCurrentVectors(final FishState fishState) {
         return CurrentVectorsFactory.INSTANCE.getCurrentVectors(
             fishState.getMap().getMapExtent(),
             currentPatternMapSupplier.get(),
-            inputIsMetersPerSecond
+            inputIsMetersPerSecond,
+            denseCurrentVectors
         );
     }
 
@@ -94,4 +101,42 @@ public class FadMapFactory implements AlgorithmFactory<FadMap> {
     public void setInputIsMetersPerSecond(final boolean inputIsMetersPerSecond) {
         this.inputIsMetersPerSecond = inputIsMetersPerSecond;
     }
+
+    @SuppressWarnings("unused")
+    public boolean isDenseCurrentVectors() {
+        return denseCurrentVectors;
+    }
+
+    /**
+     * If true, current vectors are precomputed for the whole map one step at a time and stored as floats,
+     * which makes drifting cheaper at the cost of some memory and of a small loss of precision.
+     */
+    public void setDenseCurrentVectors(final boolean denseCurrentVectors) {
+        this.denseCurrentVectors = denseCurrentVectors;
+    }
+
+    @SuppressWarnings("unused")
+    public boolean isParallel() {
+        return parallel;
+    }
+
+    /**
+     * If true, the FADs aggregate and release fish in parallel, tile by tile. Each FAD then draws from its own random
+     * stream, so results are reproducible for a given seed but differ from those of a serial run.
+     */
+    public void setParallel(final boolean parallel) {
+        this.parallel = parallel;
+    }
+
+    @SuppressWarnings("unused")
+    public boolean isDawnPhaseTimed() {
+        return dawnPhaseTimed;
+    }
+
+    /**
+     * If true, the wall time of the DAWN phase, where FADs drift and aggregate fish, is recorded in the daily data set.
+     */
+    public void setDawnPhaseTimed(final boolean dawnPhaseTimed) {
+        this.dawnPhaseTimed = dawnPhaseTimed;
+    }
 }
@@ -34,6 +34,12 @@ import uk.ac.ox.oxfish.biology.GlobalBiology;
 import uk.ac.ox.oxfish.geography.*;
 import uk.ac.ox.oxfish.geography.habitat.TileHabitat;
 import uk.ac.ox.oxfish.geography.pathfinding.AStarPathfinder;
+import uk.ac.ox.oxfish.geography.pathfinding.BoundedPathMemory;
+import uk.ac.ox.oxfish.geography.pathfinding.IndexedAStarPathfinder;
+import uk.ac.ox.oxfish.geography.pathfinding.PathMemory;
+import uk.ac.ox.oxfish.geography.pathfinding.Pathfinder;
+import uk.ac.ox.oxfish.geography.pathfinding.PortRoutesPathfinder;
+import uk.ac.ox.oxfish.geography.pathfinding.TableBasedPathMemory;
 import uk.ac.ox.oxfish.geography.sampling.GeographicalSample;
 import uk.ac.ox.oxfish.geography.sampling.SampledMap;
 import uk.ac.ox.oxfish.model.FishState;
@@ -78,6 +84,26 @@ public class FromFileMapInitializer implements MapInitializer {
      */
     final private Table<Integer, Integer, Double> overridenDepths;
 
+    /**
+     * if true, the map answers distance queries from precomputed tables (see {@link PrecomputedDistance})
+     */
+    private boolean precomputingDistances = false;
+
+    private long maxDenseDistanceMatrixBytes = 0;
+
+    /**
+     * if positive, routes are remembered in a {@link BoundedPathMemory} holding at most this many route steps rather
+     * than in an unbounded table
+     */
+    private long maximumPathMemorySteps = 0;
+
+    private PathfinderType pathfinderType = PathfinderType.A_STAR;
+
+    /**
+     * where the port routes pathfinder persists its tables; null to keep them in memory only
+     */
+    private Path portRoutesCacheDirectory = null;
+
     public FromFileMapInitializer(
         Path filePath,
         int gridWidthInCells,
@@ -162,6 +188,39 @@ public class FromFileMapInitializer implements MapInitializer {
         GlobalBiology biology,
         FishState model
     ) {
+        final NauticalMap map = readMap();
+        if (precomputingDistances)
+            map.precomputeDistances(maxDenseDistanceMatrixBytes);
+        final PathMemory memory;
+        if (maximumPathMemorySteps > 0) {
+            final BoundedPathMemory boundedMemory = new BoundedPathMemory(map, maximumPathMemorySteps);
+            boundedMemory.registerDailyDataColumns(model);
+            memory = boundedMemory;
+        } else
+            memory = new TableBasedPathMemory();
+        map.setPathfinder(makePathfinder(map.getDistance(), memory));
+        return map;
+    }
+
+    private Pathfinder makePathfinder(final Distance distance, final PathMemory memory) {
+        switch (pathfinderType) {
+            case A_STAR:
+                return new AStarPathfinder(distance, memory);
+            case INDEXED_A_STAR:
+                return new IndexedAStarPathfinder(distance, memory);
+            case PORT_ROUTES:
+                // routes that do not involve a port go through the same A* as by default
+                return new PortRoutesPathfinder(
+                    distance,
+                    new AStarPathfinder(distance, memory),
+                    portRoutesCacheDirectory
+                );
+            default:
+                throw new IllegalArgumentException("Not a valid pathfinder type: " + pathfinderType);
+        }
+    }
+
+    private NauticalMap readMap() {
 
         // get the file extension
         String fileExtension = Files.getFileExtension(filePath.getFileName().toString());
@@ -237,4 +296,68 @@ public class FromFileMapInitializer implements MapInitializer {
         }
     }
 
+    public boolean isPrecomputingDistances() {
+        return precomputingDistances;
+    }
+
+    public void setPrecomputingDistances(final boolean precomputingDistances) {
+        this.precomputingDistances = precomputingDistances;
+    }
+
+    public long getMaxDenseDistanceMatrixBytes() {
+        return maxDenseDistanceMatrixBytes;
+    }
+
+    public void setMaxDenseDistanceMatrixBytes(final long maxDenseDistanceMatrixBytes) {
+        this.maxDenseDistanceMatrixBytes = maxDenseDistanceMatrixBytes;
+    }
+
+    public long getMaximumPathMemorySteps() {
+        return maximumPathMemorySteps;
+    }
+
+    public void setMaximumPathMemorySteps(final long maximumPathMemorySteps) {
+        this.maximumPathMemorySteps = maximumPathMemorySteps;
+    }
+
+    public PathfinderType getPathfinderType() {
+        return pathfinderType;
+    }
+
+    public void setPathfinderType(final PathfinderType pathfinderType) {
+        this.pathfinderType = checkNotNull(pathfinderType);
+    }
+
+    public Path getPortRoutesCacheDirectory() {
+        return portRoutesCacheDirectory;
+    }
+
+    public void setPortRoutesCacheDirectory(final Path portRoutesCacheDirectory) {
+        this.portRoutesCacheDirectory = portRoutesCacheDirectory;
+    }
+
+    /**
+     * The pathfinders a map read from file can use. They all find shortest routes, and differ in how fast they do it
+     * and in how much memory they need.
+     */
+    public enum PathfinderType {
+
+        /**
+         * {@link AStarPathfinder}, the default
+         */
+        A_STAR,
+
+        /**
+         * {@link IndexedAStarPathfinder}, an A* over int tile ids that reuses its buffers between searches
+         */
+        INDEXED_A_STAR,
+
+        /**
+         * {@link PortRoutesPathfinder}, which precomputes all the routes from the ports and uses A* for the others;
+         * between routes of equal length, it may pick a different one than A*
+         */
+        PORT_ROUTES
+
+    }
+
 }
@@ -44,6 +44,16 @@ public class FromFileMapInitializerFactory implements AlgorithmFactory<FromFileM
 
     private boolean latLong = true;
 
+    private boolean precomputingDistances = false;
+
+    private int maxDenseDistanceMatrixMegabytes = 0;
+
+    private int maximumPathMemorySteps = 0;
+
+    private FromFileMapInitializer.PathfinderType pathfinderType = FromFileMapInitializer.PathfinderType.A_STAR;
+
+    private InputPath portRoutesCacheDirectory = null;
+
     public FromFileMapInitializerFactory() {
     }
 
@@ -66,13 +76,23 @@ public class FromFileMapInitializerFactory implements AlgorithmFactory<FromFileM
     @Override
     public FromFileMapInitializer apply(final FishState state) {
         final MersenneTwisterFast rng = state.getRandom();
-        return new FromFileMapInitializer(
+        return withMapOptions(new FromFileMapInitializer(
             mapFile.get(),
             (int) gridWidthInCell.applyAsDouble(rng),
             mapPaddingInDegrees.applyAsDouble(rng),
             header,
             latLong
-        );
+        ));
+    }
+
+    FromFileMapInitializer withMapOptions(final FromFileMapInitializer initializer) {
+        initializer.setPrecomputingDistances(precomputingDistances);
+        initializer.setMaxDenseDistanceMatrixBytes(maxDenseDistanceMatrixMegabytes * 1024L * 1024L);
+        initializer.setMaximumPathMemorySteps(maximumPathMemorySteps);
+        initializer.setPathfinderType(pathfinderType);
+        if (portRoutesCacheDirectory != null)
+            initializer.setPortRoutesCacheDirectory(portRoutesCacheDirectory.get());
+        return initializer;
     }
 
     /**
@@ -155,4 +175,63 @@ public class FromFileMapInitializerFactory implements AlgorithmFactory<FromFileM
         this.latLong = latLong;
     }
 
+    public boolean isPrecomputingDistances() {
+        return precomputingDistances;
+    }
+
+    /**
+     * If true, distances on the map are answered from tables precomputed for its grid. Results are the same up to
+     * floating point error.
+     */
+    public void setPrecomputingDistances(final boolean precomputingDistances) {
+        this.precomputingDistances = precomputingDistances;
+    }
+
+    public int getMaxDenseDistanceMatrixMegabytes() {
+        return maxDenseDistanceMatrixMegabytes;
+    }
+
+    /**
+     * When precomputing distances that cannot be looked up by offset, how much memory a dense matrix of distances
+     * between water tiles may take. With 0, no such matrix is built.
+     */
+    public void setMaxDenseDistanceMatrixMegabytes(final int maxDenseDistanceMatrixMegabytes) {
+        this.maxDenseDistanceMatrixMegabytes = maxDenseDistanceMatrixMegabytes;
+    }
+
+    public int getMaximumPathMemorySteps() {
+        return maximumPathMemorySteps;
+    }
+
+    /**
+     * If positive, the map remembers at most this many route steps, dropping the least recently used routes, and
+     * reports its hits, misses, evictions and size as daily data. With 0, routes are kept in an unbounded table.
+     */
+    public void setMaximumPathMemorySteps(final int maximumPathMemorySteps) {
+        this.maximumPathMemorySteps = maximumPathMemorySteps;
+    }
+
+    public FromFileMapInitializer.PathfinderType getPathfinderType() {
+        return pathfinderType;
+    }
+
+    /**
+     * Which pathfinder the map uses to route fishers. All of them find shortest routes.
+     */
+    public void setPathfinderType(final FromFileMapInitializer.PathfinderType pathfinderType) {
+        this.pathfinderType = pathfinderType;
+    }
+
+    public InputPath getPortRoutesCacheDirectory() {
+        return portRoutesCacheDirectory;
+    }
+
+    /**
+     * Where the {@code PORT_ROUTES} pathfinder saves its precomputed tables, so that later runs on the same map and
+     * ports can read them instead of computing them again. When not set, the tables are only kept in memory.
+     */
+    public void setPortRoutesCacheDirectory(final InputPath portRoutesCacheDirectory) {
+        this.portRoutesCacheDirectory = portRoutesCacheDirectory;
+    }
+
 }
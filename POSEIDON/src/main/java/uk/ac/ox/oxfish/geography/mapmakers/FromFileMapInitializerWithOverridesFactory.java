@@ -63,14 +63,14 @@ public class FromFileMapInitializerWithOverridesFactory extends FromFileMapIniti
 
         }
 
-        return new FromFileMapInitializer(
+        return withMapOptions(new FromFileMapInitializer(
             getMapFile().get(),
             (int) getGridWidthInCell().applyAsDouble(rng),
             getMapPaddingInDegrees().applyAsDouble(rng),
             isHeader(),
             isLatLong(),
             overrides
-        );
+        ));
     }
 
     public List<String> getDepthOverrides() {
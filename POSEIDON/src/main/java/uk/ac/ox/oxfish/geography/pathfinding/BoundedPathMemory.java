@@ -0,0 +1,216 @@
+/*
+ * POSEIDON: an agent-based model of fisheries
+ * Copyright (c) 2025, University of Oxford.
+ *
+ * University of Oxford means the Chancellor, Masters and Scholars of the
+ * University of Oxford, having an administrative office at Wellington
+ * Square, Oxford OX1 2JD, UK.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package uk.ac.ox.oxfish.geography.pathfinding;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.collect.ImmutableList;
+import uk.ac.ox.oxfish.geography.NauticalMap;
+import uk.ac.ox.oxfish.geography.SeaTile;
+import uk.ac.ox.oxfish.model.FishState;
+import uk.ac.ox.oxfish.model.data.Gatherer;
+
+import java.util.Collection;
+import java.util.Optional;
+import java.util.concurrent.atomic.LongAdder;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+/**
+ * A path memory that only keeps a bounded number of route steps, evicting the least recently used routes
+ * when it is full. Routes are stored compactly as arrays of tile ids ({@code gridY * width + gridX}) and
+ * turned back into tiles when requested. Like {@link TableBasedPathMemory}, a route known in one direction
+ * is reversed to answer a query in the other.
+ * <p>
+ * Tile ids are resolved against the map given at construction, so an instance belongs to that map and must not be
+ * used with another one, even one read from the same file. Within a run it is thread-safe, so fishers stepping in
+ * parallel can share it. It counts hits, misses and evictions, which can be registered as daily data.
+ */
+public class BoundedPathMemory implements PathMemory {
+
+    private static final int[] IMPOSSIBLE_PATH = new int[0];
+
+    private final NauticalMap map;
+    private final int width;
+    private final long numberOfTiles;
+
+    private final Cache<Long, int[]> memory;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    /**
+     * @param map                    the map the routes are on, and the only one this memory can be used with
+     * @param maximumNumberOfSteps   how many route steps (tiles, summed over all routes) to keep at most
+     */
+    public BoundedPathMemory(
+        final NauticalMap map,
+        final long maximumNumberOfSteps
+    ) {
+        checkArgument(maximumNumberOfSteps > 0);
+        this.map = map;
+        this.width = map.getWidth();
+        this.numberOfTiles = (long) map.getWidth() * map.getHeight();
+        this.memory = CacheBuilder.newBuilder()
+            .maximumWeight(maximumNumberOfSteps)
+            // every entry costs at least one step, so that impossible paths are bounded too
+            .weigher((Long key, int[] path) -> path.length + 1)
+            .recordStats()
+            .build();
+    }
+
+    /**
+     * Returns a path from start to end if one is known, or the reverse of a known path from end to start.
+     *
+     * @return an immutable list of tiles wrapped in an Optional if there is a known path, an empty Optional if
+     * we know there is no path, or null if we don't know anything about this path.
+     */
+    @Override
+    @SuppressWarnings("OptionalAssignedToNull")
+    public Optional<ImmutableList<SeaTile>> getPath(
+        final SeaTile start,
+        final SeaTile end
+    ) {
+        final int startId = tileId(start);
+        final int endId = tileId(end);
+        final int[] knownPath = memory.getIfPresent(key(startId, endId));
+        if (knownPath != null) {
+            hits.increment();
+            return toTiles(knownPath, false);
+        }
+        // maybe we have it in reverse?
+        final int[] knownInversePath = memory.getIfPresent(key(endId, startId));
+        if (knownInversePath != null) {
+            hits.increment();
+            return toTiles(knownInversePath, true);
+        }
+        misses.increment();
+        return null;
+    }
+
+    @Override
+    public void putPath(
+        final SeaTile start,
+        final SeaTile end,
+        final ImmutableList<SeaTile> path
+    ) {
+        putPath(start, end, (Collection<SeaTile>) path);
+    }
+
+    /**
+     * Stores the path without going through an intermediate immutable list.
+     */
+    @Override
+    public void putPath(
+        final SeaTile start,
+        final SeaTile end,
+        final Collection<SeaTile> path
+    ) {
+        final int[] ids = new int[path.size()];
+        int i = 0;
+        for (final SeaTile tile : path)
+            ids[i++] = tileId(tile);
+        memory.put(key(tileId(start), tileId(end)), ids);
+    }
+
+    @Override
+    public void putImpossiblePath(
+        final SeaTile start,
+        final SeaTile end
+    ) {
+        memory.put(key(tileId(start), tileId(end)), IMPOSSIBLE_PATH);
+    }
+
+    public long getHits() {
+        return hits.sum();
+    }
+
+    public long getMisses() {
+        return misses.sum();
+    }
+
+    public long getEvictions() {
+        return memory.stats().evictionCount();
+    }
+
+    /**
+     * the number of routes (including impossible ones) currently in memory
+     */
+    public long getSize() {
+        return memory.size();
+    }
+
+    /**
+     * Registers the cumulative hits, misses and evictions, and the current number of routes kept,
+     * as daily data columns of the model.
+     */
+    public void registerDailyDataColumns(final FishState model) {
+        model.getDailyDataSet().registerGatherer(
+            "Path Memory Hits",
+            (Gatherer<FishState>) fishState -> (double) getHits(),
+            0d
+        );
+        model.getDailyDataSet().registerGatherer(
+            "Path Memory Misses",
+            (Gatherer<FishState>) fishState -> (double) getMisses(),
+            0d
+        );
+        model.getDailyDataSet().registerGatherer(
+            "Path Memory Evictions",
+            (Gatherer<FishState>) fishState -> (double) getEvictions(),
+            0d
+        );
+        model.getDailyDataSet().registerGatherer(
+            "Path Memory Size",
+            (Gatherer<FishState>) fishState -> (double) getSize(),
+            0d
+        );
+    }
+
+    private Optional<ImmutableList<SeaTile>> toTiles(
+        final int[] path,
+        final boolean reversed
+    ) {
+        if (path == IMPOSSIBLE_PATH)
+            return Optional.empty();
+        final ImmutableList.Builder<SeaTile> builder = ImmutableList.builderWithExpectedSize(path.length);
+        if (reversed)
+            for (int i = path.length - 1; i >= 0; i--)
+                builder.add(map.getSeaTile(path[i] % width, path[i] / width));
+        else
+            for (final int id : path)
+                builder.add(map.getSeaTile(id % width, id / width));
+        return Optional.of(builder.build());
+    }
+
+    private int tileId(final SeaTile tile) {
+        return tile.getGridY() * width + tile.getGridX();
+    }
+
+    private long key(
+        final int startId,
+        final int endId
+    ) {
+        return startId * numberOfTiles + endId;
+    }
+}
@@ -0,0 +1,243 @@
+/*
+ * POSEIDON: an agent-based model of fisheries
+ * Copyright (c) 2025, University of Oxford.
+ *
+ * University of Oxford means the Chancellor, Masters and Scholars of the
+ * University of Oxford, having an administrative office at Wellington
+ * Square, Oxford OX1 2JD, UK.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package uk.ac.ox.oxfish.geography.pathfinding;
+
+import com.google.common.base.Preconditions;
+import com.google.common.collect.ImmutableList;
+import sim.util.Bag;
+import uk.ac.ox.oxfish.geography.CartesianDistance;
+import uk.ac.ox.oxfish.geography.Distance;
+import uk.ac.ox.oxfish.geography.NauticalMap;
+import uk.ac.ox.oxfish.geography.SeaTile;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.LinkedList;
+import java.util.Optional;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+/**
+ * The same A* search as {@link AStarPathfinder}, run over int tile ids instead of {@link SeaTile} objects.
+ * The first time it sees a map it builds a compressed (CSR) neighbour array with the step cost of every edge;
+ * after that, searches only touch primitive arrays that are reused from one query to the next: a binary heap
+ * for the frontier, and cost/predecessor arrays invalidated by bumping a generation stamp rather than cleared.
+ * Neighbours are visited and ties broken in the same order as {@link AStarPathfinder}, so routes are identical.
+ * The neighbour array is shared, but every thread searches with its own arrays, so that fishers stepped concurrently
+ * can share the pathfinder as long as its memory is thread-safe too.
+ */
+public class IndexedAStarPathfinder implements Pathfinder {
+
+    private final Distance distanceFunction;
+
+    private final PathMemory memory;
+
+    private final Distance distanceHeuristic = new CartesianDistance(1);
+
+    private volatile NauticalMap graphMap = null;
+    private int width;
+    /**
+     * tile id ({@code gridY * width + gridX}) to tile
+     */
+    private SeaTile[] tiles;
+    private boolean[] land;
+    /**
+     * the neighbours of tile i are neighbors[neighborStart[i]] to neighbors[neighborStart[i + 1] - 1]
+     */
+    private int[] neighborStart;
+    private int[] neighbors;
+    /**
+     * the cost of moving from a tile to each of its neighbours, aligned with {@link #neighbors}
+     */
+    private double[] stepCosts;
+
+    private final ThreadLocal<Search> searches = ThreadLocal.withInitial(Search::new);
+
+    public IndexedAStarPathfinder(final Distance distanceFunction, final PathMemory memory) {
+        this.distanceFunction = distanceFunction;
+        this.memory = memory;
+    }
+
+    public IndexedAStarPathfinder(final Distance distanceFunction) {
+        this(distanceFunction, new TableBasedPathMemory());
+    }
+
+    @Override
+    public void start(final NauticalMap map) {
+        prepare(map);
+    }
+
+    /**
+     * return the full osmoseWFSPath that brings us from start to end
+     *
+     * @param map   the map
+     * @param start the starting tile
+     * @param end   the ending tile
+     * @return a queue of steps from start to end or null if it isn't possible to go from start to end
+     */
+    @Override
+    @SuppressWarnings("OptionalAssignedToNull")
+    public Deque<SeaTile> getRoute(
+        final NauticalMap map,
+        final SeaTile start,
+        final SeaTile end
+    ) {
+        Preconditions.checkNotNull(start);
+        Preconditions.checkNotNull(end);
+        Preconditions.checkNotNull(map);
+
+        checkArgument(start.isWater() || start.isPortHere());
+        checkArgument(end.isWater() || end.isPortHere());
+
+        // If we already have this path in our memory, return a mutable copy of it
+        final Optional<ImmutableList<SeaTile>> knownPath = memory.getPath(start, end);
+        if (knownPath != null) return knownPath.map(LinkedList::new).orElse(null);
+
+        prepare(map);
+        final Search search = searches.get();
+        if (search.costSoFar.length != tiles.length)
+            search.resize(tiles.length);
+        final double[] costSoFar = search.costSoFar;
+        final int[] cameFrom = search.cameFrom;
+        final int[] cameFromGeneration = search.cameFromGeneration;
+        final IntMinHeap frontier = search.frontier;
+        final int generation = search.nextGeneration();
+
+        final int startId = tileId(start);
+        final int endId = tileId(end);
+        frontier.clear();
+        frontier.push(startId, 0d);
+        costSoFar[startId] = 0d;
+        while (!frontier.isEmpty()) {
+            final int current = frontier.poll();
+            if (current == endId)
+                break;
+
+            for (int edge = neighborStart[current]; edge < neighborStart[current + 1]; edge++) {
+                final int neighbor = neighbors[edge];
+                if (land[neighbor] && neighbor != endId) //don't bother if it's land
+                    continue;
+                final double newCost = costSoFar[current] + stepCosts[edge];
+                if (cameFromGeneration[neighbor] != generation || newCost < costSoFar[neighbor]) {
+                    costSoFar[neighbor] = newCost;
+                    frontier.push(neighbor, newCost + distanceHeuristic.distance(end, tiles[neighbor], map));
+                    cameFrom[neighbor] = current;
+                    cameFromGeneration[neighbor] = generation;
+                }
+            }
+        }
+
+        if (cameFromGeneration[endId] != generation) {
+            memory.putImpossiblePath(start, end);
+            return null;
+        }
+        final LinkedList<SeaTile> path = new LinkedList<>();
+        int current = endId;
+        path.add(tiles[current]);
+        while (current != startId) {
+            current = cameFrom[current];
+            path.add(tiles[current]);
+        }
+
+        // Since the path is from end to start, we use the opportunity to store a reversed version
+        memory.putPath(end, start, path);
+        Collections.reverse(path);
+        memory.putPath(start, end, path);
+        return path;
+    }
+
+    private int tileId(final SeaTile tile) {
+        return tile.getGridY() * width + tile.getGridX();
+    }
+
+    private void prepare(final NauticalMap map) {
+        if (graphMap != map) {
+            synchronized (this) {
+                if (graphMap != map)
+                    buildGraph(map);
+            }
+        }
+    }
+
+    private void buildGraph(final NauticalMap map) {
+        width = map.getWidth();
+        final int numberOfTiles = width * map.getHeight();
+        tiles = new SeaTile[numberOfTiles];
+        land = new boolean[numberOfTiles];
+        for (int id = 0; id < numberOfTiles; id++) {
+            tiles[id] = map.getSeaTile(id % width, id / width);
+            land[id] = tiles[id].isLand();
+        }
+
+        neighborStart = new int[numberOfTiles + 1];
+        int[] edges = new int[numberOfTiles * 8];
+        double[] costs = new double[edges.length];
+        int numberOfEdges = 0;
+        for (int id = 0; id < numberOfTiles; id++) {
+            neighborStart[id] = numberOfEdges;
+            final Bag mooreNeighbors = map.getMooreNeighbors(tiles[id], 1);
+            for (final Object next : mooreNeighbors) {
+                final SeaTile neighbor = (SeaTile) next;
+                if (numberOfEdges == edges.length) {
+                    edges = Arrays.copyOf(edges, edges.length * 2);
+                    costs = Arrays.copyOf(costs, costs.length * 2);
+                }
+                edges[numberOfEdges] = tileId(neighbor);
+                costs[numberOfEdges] = distanceFunction.distance(tiles[id], neighbor, map);
+                numberOfEdges++;
+            }
+        }
+        neighborStart[numberOfTiles] = numberOfEdges;
+        neighbors = Arrays.copyOf(edges, numberOfEdges);
+        stepCosts = Arrays.copyOf(costs, numberOfEdges);
+        graphMap = map;
+    }
+
+    /**
+     * The arrays a thread searches with, invalidated by bumping a generation stamp rather than cleared.
+     */
+    private static final class Search {
+        private double[] costSoFar = new double[0];
+        private int[] cameFrom;
+        private int[] cameFromGeneration;
+        private int generation = 0;
+        private IntMinHeap frontier;
+
+        private void resize(final int numberOfTiles) {
+            costSoFar = new double[numberOfTiles];
+            cameFrom = new int[numberOfTiles];
+            cameFromGeneration = new int[numberOfTiles];
+            generation = 0;
+            frontier = new IntMinHeap(numberOfTiles);
+        }
+
+        private int nextGeneration() {
+            if (generation == Integer.MAX_VALUE) {
+                Arrays.fill(cameFromGeneration, 0);
+                generation = 0;
+            }
+            return ++generation;
+        }
+    }
+}
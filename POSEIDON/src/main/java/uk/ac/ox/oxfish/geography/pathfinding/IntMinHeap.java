@@ -0,0 +1,107 @@
+/*
+ * POSEIDON: an agent-based model of fisheries
+ * Copyright (c) 2025, University of Oxford.
+ *
+ * University of Oxford means the Chancellor, Masters and Scholars of the
+ * University of Oxford, having an administrative office at Wellington
+ * Square, Oxford OX1 2JD, UK.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package uk.ac.ox.oxfish.geography.pathfinding;
+
+import java.util.Arrays;
+
+/**
+ * A binary min-heap of int values (typically tile ids) keyed by a double priority, backed by
+ * two parallel primitive arrays so that pushing and polling do not allocate. The same value
+ * can be pushed more than once: callers are expected to skip stale entries when polling.
+ */
+final class IntMinHeap {
+
+    private double[] keys;
+    private int[] values;
+    private int size = 0;
+
+    IntMinHeap(final int initialCapacity) {
+        keys = new double[Math.max(1, initialCapacity)];
+        values = new int[keys.length];
+    }
+
+    boolean isEmpty() {
+        return size == 0;
+    }
+
+    int size() {
+        return size;
+    }
+
+    void clear() {
+        size = 0;
+    }
+
+    void push(final int value, final double key) {
+        if (size == keys.length) {
+            keys = Arrays.copyOf(keys, size * 2);
+            values = Arrays.copyOf(values, size * 2);
+        }
+        int i = size++;
+        while (i > 0) {
+            final int parent = (i - 1) >>> 1;
+            if (keys[parent] <= key)
+                break;
+            keys[i] = keys[parent];
+            values[i] = values[parent];
+            i = parent;
+        }
+        keys[i] = key;
+        values[i] = value;
+    }
+
+    /**
+     * the key of the top element; only valid if the heap is not empty
+     */
+    double peekKey() {
+        return keys[0];
+    }
+
+    /**
+     * removes the top element and returns its value; only valid if the heap is not empty
+     */
+    int poll() {
+        final int top = values[0];
+        final int last = --size;
+        if (last > 0) {
+            final double key = keys[last];
+            final int value = values[last];
+            int i = 0;
+            while (true) {
+                int child = 2 * i + 1;
+                if (child >= last)
+                    break;
+                if (child + 1 < last && keys[child + 1] < keys[child])
+                    child++;
+                if (key <= keys[child])
+                    break;
+                keys[i] = keys[child];
+                values[i] = values[child];
+                i = child;
+            }
+            keys[i] = key;
+            values[i] = value;
+        }
+        return top;
+    }
+}
@@ -44,5 +44,14 @@ public interface Pathfinder {
      */
     Deque<SeaTile> getRoute(NauticalMap map, SeaTile start, SeaTile end);
 
+    /**
+     * called when the map using this pathfinder starts, giving it a chance to precompute routes.
+     * Does nothing by default.
+     *
+     * @param map the map being started
+     */
+    default void start(NauticalMap map) {
+    }
+
 
 }
@@ -0,0 +1,366 @@
+/*
+ * POSEIDON: an agent-based model of fisheries
+ * Copyright (c) 2025, University of Oxford.
+ *
+ * University of Oxford means the Chancellor, Masters and Scholars of the
+ * University of Oxford, having an administrative office at Wellington
+ * Square, Oxford OX1 2JD, UK.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package uk.ac.ox.oxfish.geography.pathfinding;
+
+import com.google.common.hash.Hasher;
+import com.google.common.hash.Hashing;
+import com.vividsolutions.jts.geom.Envelope;
+import uk.ac.ox.oxfish.geography.Distance;
+import uk.ac.ox.oxfish.geography.NauticalMap;
+import uk.ac.ox.oxfish.geography.SeaTile;
+import uk.ac.ox.oxfish.geography.ports.Port;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.FloatBuffer;
+import java.nio.IntBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.logging.Logger;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+import static java.nio.file.StandardOpenOption.READ;
+import static java.nio.file.StandardOpenOption.TRUNCATE_EXISTING;
+import static java.nio.file.StandardOpenOption.WRITE;
+
+/**
+ * A pathfinder that, when the map starts, runs Dijkstra once from every port over the water tiles
+ * and keeps the resulting predecessor and distance tables in flat arrays indexed by tile id
+ * ({@code gridY * width + gridX}). Routes from or to a port then become a walk through the
+ * predecessor table, and port-to-tile travel distances become a single array lookup.
+ * Queries that involve no port are delegated to another pathfinder.
+ * <p>
+ * If a cache directory is given, the tables are written to a file named after a hash of the map
+ * (size, land mask, ports, extent and distance function) and memory-mapped back on later runs
+ * on the same map, skipping the precomputation altogether.
+ * <p>
+ * Once built, the tables are only read, so the pathfinder can be shared by fishers stepped concurrently as long as
+ * its delegate can.
+ */
+public class PortRoutesPathfinder implements Pathfinder {
+
+    private static final Logger logger = Logger.getLogger(PortRoutesPathfinder.class.getName());
+
+    private static final int MAGIC_NUMBER = 0x504f5254; // "PORT"
+    private static final int FORMAT_VERSION = 1;
+    private static final int HEADER_INTS = 5;
+
+    private final Distance distanceFunction;
+    private final Pathfinder delegate;
+    private final Path cacheDirectory;
+
+    private volatile NauticalMap tableMap = null;
+    private int width;
+    private int numberOfTiles;
+    /**
+     * for each tile id, the index of the port on that tile or -1
+     */
+    private int[] portIndices;
+    /**
+     * [port * numberOfTiles + tile] -> id of the previous tile on the route from that port, or -1
+     */
+    private IntBuffer predecessors;
+    /**
+     * [port * numberOfTiles + tile] -> length of the route from that port, or +infinity if unreachable
+     */
+    private FloatBuffer distances;
+
+    public PortRoutesPathfinder(final Distance distanceFunction) {
+        this(distanceFunction, new AStarFallbackPathfinder(distanceFunction), null);
+    }
+
+    /**
+     * @param distanceFunction the distance used to compute the cost of moving between neighbouring tiles
+     * @param delegate         the pathfinder used for routes that neither start nor end at a port
+     * @param cacheDirectory   where to persist the precomputed tables; null to keep them in memory only
+     */
+    public PortRoutesPathfinder(
+        final Distance distanceFunction,
+        final Pathfinder delegate,
+        final Path cacheDirectory
+    ) {
+        this.distanceFunction = checkNotNull(distanceFunction);
+        this.delegate = checkNotNull(delegate);
+        this.cacheDirectory = cacheDirectory;
+    }
+
+    @Override
+    public void start(final NauticalMap map) {
+        prepare(map);
+        delegate.start(map);
+    }
+
+    @Override
+    public Deque<SeaTile> getRoute(
+        final NauticalMap map,
+        final SeaTile start,
+        final SeaTile end
+    ) {
+        checkNotNull(map);
+        checkNotNull(start);
+        checkNotNull(end);
+        checkArgument(start.isWater() || start.isPortHere());
+        checkArgument(end.isWater() || end.isPortHere());
+
+        prepare(map);
+        final int startPort = start.isPortHere() ? portIndices[tileId(start)] : -1;
+        if (startPort >= 0) {
+            // walking back from the end gives us the route the right way round
+            final LinkedList<SeaTile> route = walkBackFrom(map, startPort, end);
+            if (route != null) {
+                final LinkedList<SeaTile> reversed = new LinkedList<>();
+                route.forEach(reversed::addFirst);
+                return reversed;
+            }
+            return null;
+        }
+        final int endPort = end.isPortHere() ? portIndices[tileId(end)] : -1;
+        if (endPort >= 0)
+            return walkBackFrom(map, endPort, start);
+
+        return delegate.getRoute(map, start, end);
+    }
+
+    /**
+     * the length of the shortest route between a port and a tile, or +infinity if there is no such route
+     *
+     * @throws IllegalArgumentException if the port is not on this map
+     */
+    public double getDistance(
+        final NauticalMap map,
+        final Port port,
+        final SeaTile tile
+    ) {
+        prepare(map);
+        final int portIndex = portIndices[tileId(port.getLocation())];
+        checkArgument(portIndex >= 0, "Unknown port: %s", port);
+        return distances.get(portIndex * numberOfTiles + tileId(tile));
+    }
+
+    /**
+     * follows the predecessors of the given port from the tile back to the port itself
+     */
+    private LinkedList<SeaTile> walkBackFrom(
+        final NauticalMap map,
+        final int portIndex,
+        final SeaTile tile
+    ) {
+        final int offset = portIndex * numberOfTiles;
+        int current = tileId(tile);
+        if (distances.get(offset + current) == Float.POSITIVE_INFINITY)
+            return null;
+        final LinkedList<SeaTile> route = new LinkedList<>();
+        while (current >= 0) {
+            route.add(map.getSeaTile(current % width, current / width));
+            current = predecessors.get(offset + current);
+        }
+        return route;
+    }
+
+    private int tileId(final SeaTile tile) {
+        return tile.getGridY() * width + tile.getGridX();
+    }
+
+    private void prepare(final NauticalMap map) {
+        if (tableMap != map) {
+            synchronized (this) {
+                if (tableMap != map)
+                    buildTables(map);
+            }
+        }
+    }
+
+    private void buildTables(final NauticalMap map) {
+        width = map.getWidth();
+        numberOfTiles = width * map.getHeight();
+        final List<Port> ports = map.getPorts();
+        final int[] portTiles = new int[ports.size()];
+        portIndices = new int[numberOfTiles];
+        Arrays.fill(portIndices, -1);
+        for (int i = 0; i < portTiles.length; i++) {
+            portTiles[i] = tileId(ports.get(i).getLocation());
+            portIndices[portTiles[i]] = i;
+        }
+
+        final Path cacheFile = cacheDirectory == null ? null : cacheFile(map, portTiles);
+        if (cacheFile == null || !loadTables(cacheFile, portTiles)) {
+            computeTables(map, portTiles);
+            if (cacheFile != null)
+                saveTables(cacheFile, portTiles);
+        }
+        tableMap = map;
+    }
+
+    private void computeTables(
+        final NauticalMap map,
+        final int[] portTiles
+    ) {
+        final int[] predecessorArray = new int[portTiles.length * numberOfTiles];
+        final float[] distanceArray = new float[portTiles.length * numberOfTiles];
+        final double[] costSoFar = new double[numberOfTiles];
+        final boolean[] settled = new boolean[numberOfTiles];
+        final IntMinHeap frontier = new IntMinHeap(numberOfTiles);
+
+        for (int port = 0; port < portTiles.length; port++) {
+            Arrays.fill(costSoFar, Double.POSITIVE_INFINITY);
+            Arrays.fill(settled, false);
+            final int offset = port * numberOfTiles;
+            Arrays.fill(predecessorArray, offset, offset + numberOfTiles, -1);
+
+            final int source = portTiles[port];
+            costSoFar[source] = 0;
+            frontier.clear();
+            frontier.push(source, 0);
+            while (!frontier.isEmpty()) {
+                final int current = frontier.poll();
+                if (settled[current])
+                    continue;
+                settled[current] = true;
+                final SeaTile currentTile = map.getSeaTile(current % width, current / width);
+                // routes can end on land (at a port) but never go through it
+                if (current != source && currentTile.isLand())
+                    continue;
+                for (final Object next : map.getMooreNeighbors(currentTile, 1)) {
+                    final SeaTile neighbor = (SeaTile) next;
+                    final int neighborId = tileId(neighbor);
+                    if (settled[neighborId])
+                        continue;
+                    final double newCost =
+                        costSoFar[current] + distanceFunction.distance(currentTile, neighbor, map);
+                    if (newCost < costSoFar[neighborId]) {
+                        costSoFar[neighborId] = newCost;
+                        predecessorArray[offset + neighborId] = current;
+                        frontier.push(neighborId, newCost);
+                    }
+                }
+            }
+            for (int tile = 0; tile < numberOfTiles; tile++)
+                distanceArray[offset + tile] = (float) costSoFar[tile];
+        }
+        predecessors = IntBuffer.wrap(predecessorArray);
+        distances = FloatBuffer.wrap(distanceArray);
+    }
+
+    private Path cacheFile(
+        final NauticalMap map,
+        final int[] portTiles
+    ) {
+        final Hasher hasher = Hashing.murmur3_128().newHasher()
+            .putInt(map.getWidth())
+            .putInt(map.getHeight())
+            .putString(distanceFunction.getClass().getName(), StandardCharsets.UTF_8);
+        final Envelope mbr = map.getRasterBathymetry().getMBR();
+        hasher
+            .putDouble(mbr.getMinX()).putDouble(mbr.getMaxX())
+            .putDouble(mbr.getMinY()).putDouble(mbr.getMaxY());
+        for (int tile = 0; tile < numberOfTiles; tile++)
+            hasher.putBoolean(map.getSeaTile(tile % width, tile / width).isLand());
+        for (final int portTile : portTiles)
+            hasher.putInt(portTile);
+        // a couple of step costs, to tell apart differently parameterised distance functions
+        if (width > 1 && map.getHeight() > 1) {
+            final SeaTile origin = map.getSeaTile(0, 0);
+            hasher
+                .putDouble(distanceFunction.distance(origin, map.getSeaTile(1, 0), map))
+                .putDouble(distanceFunction.distance(origin, map.getSeaTile(1, 1), map));
+        }
+        return cacheDirectory.resolve("port-routes-" + hasher.hash() + ".bin");
+    }
+
+    private boolean loadTables(
+        final Path file,
+        final int[] portTiles
+    ) {
+        if (!Files.isRegularFile(file))
+            return false;
+        try (final FileChannel channel = FileChannel.open(file, READ)) {
+            final MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            final IntBuffer header = buffer.asIntBuffer();
+            final int tableSize = portTiles.length * numberOfTiles;
+            final long expectedSize = 4L * (HEADER_INTS + portTiles.length) + 8L * tableSize;
+            if (channel.size() != expectedSize ||
+                header.get(0) != MAGIC_NUMBER ||
+                header.get(1) != FORMAT_VERSION ||
+                header.get(2) != width ||
+                header.get(3) != numberOfTiles ||
+                header.get(4) != portTiles.length) {
+                logger.warning("Ignoring unexpected port routes cache file " + file);
+                return false;
+            }
+            for (int i = 0; i < portTiles.length; i++)
+                if (header.get(HEADER_INTS + i) != portTiles[i])
+                    return false;
+            buffer.position(4 * (HEADER_INTS + portTiles.length));
+            predecessors = buffer.slice().asIntBuffer();
+            predecessors.limit(tableSize);
+            buffer.position(buffer.position() + 4 * tableSize);
+            distances = buffer.slice().asFloatBuffer();
+            distances.limit(tableSize);
+            return true;
+        } catch (final IOException e) {
+            logger.warning("Could not read port routes cache file " + file + ": " + e);
+            return false;
+        }
+    }
+
+    private void saveTables(
+        final Path file,
+        final int[] portTiles
+    ) {
+        final int tableSize = portTiles.length * numberOfTiles;
+        try {
+            Files.createDirectories(cacheDirectory);
+            final Path temporaryFile = Files.createTempFile(cacheDirectory, "port-routes", ".tmp");
+            try (final FileChannel channel = FileChannel.open(temporaryFile, WRITE, TRUNCATE_EXISTING)) {
+                final ByteBuffer buffer = ByteBuffer.allocate(4 * (HEADER_INTS + portTiles.length) + 8 * tableSize);
+                buffer
+                    .putInt(MAGIC_NUMBER)
+                    .putInt(FORMAT_VERSION)
+                    .putInt(width)
+                    .putInt(numberOfTiles)
+                    .putInt(portTiles.length);
+                for (final int portTile : portTiles)
+                    buffer.putInt(portTile);
+                for (int i = 0; i < tableSize; i++)
+                    buffer.putInt(predecessors.get(i));
+                for (int i = 0; i < tableSize; i++)
+                    buffer.putFloat(distances.get(i));
+                buffer.flip();
+                while (buffer.hasRemaining())
+                    channel.write(buffer);
+            }
+            Files.move(temporaryFile, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (final IOException e) {
+            logger.warning("Could not write port routes cache file " + file + ": " + e);
+        }
+    }
+}
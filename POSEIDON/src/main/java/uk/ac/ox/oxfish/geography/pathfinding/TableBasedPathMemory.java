@@ -29,6 +29,9 @@ import uk.ac.ox.oxfish.geography.SeaTile;
 
 import java.util.Optional;
 
+/**
+ * An unbounded path memory. Synchronized, as fishers stepped concurrently share the pathfinder of the map.
+ */
 public class TableBasedPathMemory implements PathMemory {
 
     private final Table<SeaTile, SeaTile, Optional<ImmutableList<SeaTile>>> memory = HashBasedTable.create();
@@ -49,7 +52,7 @@ public class TableBasedPathMemory implements PathMemory {
      */
     @Override
     @SuppressWarnings("OptionalAssignedToNull")
-    public Optional<ImmutableList<SeaTile>> getPath(SeaTile start, SeaTile end) {
+    public synchronized Optional<ImmutableList<SeaTile>> getPath(SeaTile start, SeaTile end) {
         final Optional<ImmutableList<SeaTile>> knownPath = memory.get(start, end);
         if (knownPath != null)
             return knownPath;
@@ -67,12 +70,12 @@ public class TableBasedPathMemory implements PathMemory {
     }
 
     @Override
-    public void putPath(SeaTile start, SeaTile end, ImmutableList<SeaTile> path) {
+    public synchronized void putPath(SeaTile start, SeaTile end, ImmutableList<SeaTile> path) {
         memory.put(start, end, Optional.of(path));
     }
 
     @Override
-    public void putImpossiblePath(SeaTile start, SeaTile end) {
+    public synchronized void putImpossiblePath(SeaTile start, SeaTile end) {
         memory.put(start, end, Optional.empty());
     }
 
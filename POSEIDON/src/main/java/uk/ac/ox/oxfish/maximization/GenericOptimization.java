@@ -27,7 +27,10 @@ import uk.ac.ox.oxfish.maximization.generic.DataTarget;
 import uk.ac.ox.oxfish.maximization.generic.OptimizationParameter;
 import uk.ac.ox.oxfish.maximization.generic.SimpleOptimizationParameter;
 import uk.ac.ox.oxfish.model.FishState;
+import uk.ac.ox.oxfish.model.FishStateSnapshot;
 import uk.ac.ox.oxfish.model.scenario.Scenario;
+import uk.ac.ox.oxfish.model.scenario.ScenarioTemplate;
+import uk.ac.ox.oxfish.utility.InputCache;
 import uk.ac.ox.oxfish.utility.yaml.FishYAML;
 import uk.ac.ox.poseidon.common.core.yaml.YamlLoader;
 
@@ -41,6 +44,8 @@ import java.util.LinkedList;
 import java.util.List;
 import java.util.logging.Logger;
 
+import static com.google.common.base.Preconditions.checkArgument;
+
 public class GenericOptimization extends SimpleProblemDouble implements Serializable {
 
     private static final Logger logger = Logger.getLogger(GenericOptimization.class.getName());
@@ -62,6 +67,12 @@ public class GenericOptimization extends SimpleProblemDouble implements Serializ
     private List<DataTarget> targets = new LinkedList<>();
     private int runsPerSetting = 1;
     private int simulatedYears = 4;
+    private boolean forkingRuns = false;
+    private boolean racing = false;
+    private double racingThreshold = 1.5;
+    private int racingMinimumYears = 1;
+    // best error over the evaluations that ran to completion, used as the reference for racing
+    private volatile double bestError = Double.POSITIVE_INFINITY;
 
     public GenericOptimization() {
     }
@@ -125,9 +136,19 @@ public class GenericOptimization extends SimpleProblemDouble implements Serializ
         final Iterable<? extends OptimizationParameter> parameterList
     )
         throws FileNotFoundException {
-        final FishYAML yaml = new FishYAML();
-        final Scenario scenario = yaml.loadAs(new
-            FileReader(scenarioFile), Scenario.class);
+        if (!scenarioFile.isFile()) {
+            throw new FileNotFoundException(scenarioFile.toString());
+        }
+        final Scenario scenario = ScenarioTemplate.of(scenarioFile.toPath(), Scenario.class).get();
+        parametrize(scenario, x, parameterList);
+        return scenario;
+    }
+
+    private static void parametrize(
+        final Scenario scenario,
+        final double[] x,
+        final Iterable<? extends OptimizationParameter> parameterList
+    ) {
         int parameter = 0;
         for (final OptimizationParameter optimizationParameter : parameterList) {
             optimizationParameter.parametrize(
@@ -138,7 +159,6 @@ public class GenericOptimization extends SimpleProblemDouble implements Serializ
             );
             parameter += optimizationParameter.size();
         }
-        return scenario;
     }
 
     private static String formatDuration(final Duration duration) {
@@ -203,26 +223,46 @@ public class GenericOptimization extends SimpleProblemDouble implements Serializ
 
         // read in and modify parameters
         final Instant start = Instant.now();
-        final Scenario scenario;
-        try {
-            scenario = buildScenario(x, Paths.get(scenarioFile).toFile(), parameters);
-        } catch (final FileNotFoundException e) {
-            throw new RuntimeException(e);
-        }
+        final ScenarioTemplate<Scenario> scenarioTemplate =
+            ScenarioTemplate.of(Paths.get(scenarioFile), Scenario.class);
+        final Scenario scenario = scenarioTemplate.get();
+        final Duration copyDuration = Duration.between(start, Instant.now());
+        parametrize(scenario, x, parameters);
 
         double error = 0;
-        for (int i = 0; i < runsPerSetting; i++) {
+        int runs = 0;
+        boolean cutShort = false;
+        FishStateSnapshot snapshot = null;
+        while (runs < runsPerSetting && !cutShort) {
             try {
+                final FishState model;
+                if (forkingRuns && snapshot != null) {
+                    model = snapshot.fork(System.currentTimeMillis() + runs);
+                } else {
+                    model = new FishState(System.currentTimeMillis());
+                    model.setScenario(scenario);
+                    model.start();
+                    if (forkingRuns && runsPerSetting > 1)
+                        snapshot = FishStateSnapshot.of(model);
+                }
                 // run the model
-                error += computeErrorGivenScenario(scenario, simulatedYears);
+                final RunResult result = run(model, simulatedYears);
+                error += result.error;
+                cutShort = !result.complete;
             } catch (final Exception e) {
                 e.printStackTrace();
                 error += translateNANto;
             }
+            runs++;
+            // only spend more replicates on candidates that are still competitive
+            if (racingEnabled() && error / runs > racingCutoff())
+                cutShort = true;
         }
         final Instant finish = Instant.now();
 
-        double finalError = error / (double) runsPerSetting;
+        double finalError = error / (double) runs;
+        if (racingEnabled() && !cutShort && Double.isFinite(finalError))
+            recordError(finalError);
         if (maximization)
             finalError = finalError * (-1);
 
@@ -231,27 +271,70 @@ public class GenericOptimization extends SimpleProblemDouble implements Serializ
         }
 
         logger.info(String.format(
-            "%n  error: %.2f, runs: %d, duration: %s%n  solution: %s",
+            "%n  error: %.2f, runs: %d%s, duration: %s, scenario copied in %d ms (parsing took %d ms)" +
+                "%n  input cache: %s%n  solution: %s",
             finalError,
-            runsPerSetting,
+            runs,
+            cutShort ? " (cut short)" : "",
             formatDuration(Duration.between(start, finish)),
+            copyDuration.toMillis(),
+            scenarioTemplate.getParsingDuration().toMillis(),
+            InputCache.INSTANCE,
             Arrays.toString(Arrays.stream(x).mapToObj(v -> String.format("%.2f", v)).toArray())
         ));
         return new double[]{finalError};
     }
 
-    private double computeErrorGivenScenario(
-        final Scenario scenario,
+    private RunResult run(
+        final FishState model,
         final int simulatedYears
     ) {
-        final FishState model = new FishState(System.currentTimeMillis());
-        model.setScenario(scenario);
-        model.start();
+        int year = model.getYear();
+        boolean yearEnded = false;
         while (model.getYear() < simulatedYears) {
             model.schedule.step(model);
+            // like for the final error below, the yearly data is complete one step after the year changes
+            if (yearEnded && racingEnabled() && model.getYear() >= racingMinimumYears) {
+                final double partialError = computePartialError(model);
+                if (partialError > racingCutoff())
+                    return new RunResult(partialError, false);
+            }
+            yearEnded = model.getYear() > year;
+            year = model.getYear();
         }
         model.schedule.step(model);
-        return targets.stream().mapToDouble(t -> t.computeError(model)).sum();
+        return new RunResult(targets.stream().mapToDouble(t -> t.computeError(model)).sum(), true);
+    }
+
+    /**
+     * Targets that can't be scored on partial data are left out of the partial error, which can only make racing
+     * more lenient.
+     */
+    private double computePartialError(final FishState model) {
+        double partialError = 0;
+        for (final DataTarget target : targets) {
+            try {
+                final double targetError = target.computePartialError(model);
+                if (Double.isFinite(targetError))
+                    partialError += targetError;
+            } catch (final RuntimeException e) {
+                logger.fine("Can't compute partial error for " + target + ": " + e);
+            }
+        }
+        return partialError;
+    }
+
+    private boolean racingEnabled() {
+        return racing && !maximization;
+    }
+
+    private double racingCutoff() {
+        return bestError * racingThreshold;
+    }
+
+    private synchronized void recordError(final double error) {
+        if (error < bestError)
+            bestError = error;
     }
 
     @SuppressWarnings("WeakerAccess")
@@ -294,6 +377,60 @@ public class GenericOptimization extends SimpleProblemDouble implements Serializ
         this.simulatedYears = simulatedYears;
     }
 
+    @SuppressWarnings("unused")
+    public boolean isForkingRuns() {
+        return forkingRuns;
+    }
+
+    /**
+     * If true and there is more than one run per setting, the model is started only once per evaluation and the
+     * other runs are forked from a snapshot of the started model, with different seeds.
+     */
+    @SuppressWarnings("unused")
+    public void setForkingRuns(final boolean forkingRuns) {
+        this.forkingRuns = forkingRuns;
+    }
+
+    @SuppressWarnings("unused")
+    public boolean isRacing() {
+        return racing;
+    }
+
+    /**
+     * If true, runs are cut short as soon as the error computed at the end of a year exceeds the racing threshold
+     * times the best error found so far, and further runs per setting are only made for candidates whose mean error
+     * stays under that cutoff. The error of a candidate that is cut short is its partial error. Only applies to
+     * minimization problems.
+     */
+    @SuppressWarnings("unused")
+    public void setRacing(final boolean racing) {
+        this.racing = racing;
+    }
+
+    @SuppressWarnings("unused")
+    public double getRacingThreshold() {
+        return racingThreshold;
+    }
+
+    @SuppressWarnings("unused")
+    public void setRacingThreshold(final double racingThreshold) {
+        checkArgument(racingThreshold >= 1, "The racing threshold must be at least 1.");
+        this.racingThreshold = racingThreshold;
+    }
+
+    @SuppressWarnings("unused")
+    public int getRacingMinimumYears() {
+        return racingMinimumYears;
+    }
+
+    /**
+     * The number of simulated years before a run can be cut short.
+     */
+    @SuppressWarnings("unused")
+    public void setRacingMinimumYears(final int racingMinimumYears) {
+        this.racingMinimumYears = racingMinimumYears;
+    }
+
     /**
      * Getter for property 'maximization'.
      *
@@ -332,4 +469,17 @@ public class GenericOptimization extends SimpleProblemDouble implements Serializ
         this.translateNANto = translateNANto;
     }
 
+    private static final class RunResult {
+        private final double error;
+        private final boolean complete;
+
+        private RunResult(
+            final double error,
+            final boolean complete
+        ) {
+            this.error = error;
+            this.complete = complete;
+        }
+    }
+
 }
@@ -38,4 +38,15 @@ public interface DataTarget extends Serializable {
      * @return distance from target (0 best, the higher the number the further away from optimum we are)
      */
     public double computeError(FishState model);
+
+    /**
+     * computes the distance from target given what has been simulated so far, used to cut short hopeless runs. By
+     * default, this is the error computed on the data gathered so far.
+     *
+     * @param model model that is still running, at the end of a year
+     * @return distance from target given the data gathered so far
+     */
+    default double computePartialError(final FishState model) {
+        return computeError(model);
+    }
 }
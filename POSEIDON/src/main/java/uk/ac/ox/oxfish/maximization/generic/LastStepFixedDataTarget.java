@@ -90,6 +90,14 @@ public class LastStepFixedDataTarget implements FixedDataTarget {
         return error;
     }
 
+    /**
+     * The same as the final error, using the latest yearly value, but without printing it.
+     */
+    @Override
+    public double computePartialError(final FishState model) {
+        return errorMeasure.applyAsDouble(fixedTarget, getValue(model)) * weight;
+    }
+
     @Override
     public double getValue(final FishState fishState) {
         final DataColumn column = fishState.getYearlyDataSet().getColumn(columnName);
@@ -42,12 +42,22 @@ public class AggregateSteppable implements Steppable {
 
     private static final long serialVersionUID = 1437081239429619037L;
     List<Steppable> steppableList = new LinkedList<>();
+    private long lastStepDuration = 0;
 
 
     @Override
     public void step(final SimState simState) {
+        final long start = System.nanoTime();
         for (final Steppable steppable : steppableList)
             steppable.step(simState);
+        lastStepDuration = System.nanoTime() - start;
+    }
+
+    /**
+     * The wall time, in nanoseconds, taken by the last call to step.
+     */
+    public long getLastStepDuration() {
+        return lastStepDuration;
     }
 
 
@@ -0,0 +1,461 @@
+/*
+ * POSEIDON: an agent-based model of fisheries
+ * Copyright (c) 2025, University of Oxford.
+ *
+ * University of Oxford means the Chancellor, Masters and Scholars of the
+ * University of Oxford, having an administrative office at Wellington
+ * Square, Oxford OX1 2JD, UK.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+
+package uk.ac.ox.oxfish.model;
+
+import com.google.common.collect.ImmutableSet;
+import ec.util.MersenneTwisterFast;
+import sim.engine.SimState;
+import sim.engine.Steppable;
+import sim.engine.Stoppable;
+import sim.util.Bag;
+import uk.ac.ox.oxfish.fisher.Fisher;
+import uk.ac.ox.oxfish.fisher.purseseiner.fads.Fad;
+import uk.ac.ox.oxfish.fisher.purseseiner.fads.FadManager;
+import uk.ac.ox.oxfish.geography.NauticalMap;
+import uk.ac.ox.oxfish.geography.SeaTile;
+import uk.ac.ox.oxfish.geography.fads.FadMap;
+import uk.ac.ox.oxfish.model.market.FixedPriceMarket;
+import uk.ac.ox.oxfish.model.market.FixedYearlyPricesBiomassMarket;
+import uk.ac.ox.oxfish.model.market.Market;
+import uk.ac.ox.oxfish.model.regs.Anarchy;
+import uk.ac.ox.oxfish.model.regs.ITQCostManager;
+import uk.ac.ox.oxfish.model.regs.ProtectedAreasOnly;
+import uk.ac.ox.oxfish.model.regs.Regulation;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Function;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+/**
+ * Steps all the fishers of the {@link StepOrder#FISHER_PHASE} at once, spreading them over a number of threads while
+ * keeping the results identical, for a given seed, whatever that number is:
+ * <ul>
+ *     <li>the order of the fishers is shuffled every step with the model's own randomizer;</li>
+ *     <li>each fisher draws from its own random stream, seeded from the model seed and the fisher's id, through the
+ *     {@link ThreadRoutedRandom} of the model;</li>
+ *     <li>fishers that could touch the same state during the step are put in the same group, and stepped one after the
+ *     other in phase order. Two fishers conflict if they sell to the same market and that market's prices depend on
+ *     the trades made, if they share a regulation object (which can hold a fleet-wide quota; only {@link Anarchy} and
+ *     {@link ProtectedAreasOnly} are known to be stateless), if both trade quotas on ITQ markets, if one is the friend
+ *     of the other, if the areas they can reach within a step overlap (the local biologies they could fish, the tiles
+ *     they could observe and the FADs they could set on), if one owns a FAD within the reach of the other or if any
+ *     of the additional conflict keys gives them the same value;</li>
+ *     <li>groups run concurrently, and the state they all share is either updated under locks with order-independent
+ *     operations (the fisher grid, the trawl map and the neighbourhoods of the {@link NauticalMap}, the memory of its
+ *     pathfinder) or updated after the phase, group by group (see {@link #deferUntilAfterPhase}): the model counters,
+ *     the market counters, FADs joining or leaving the FAD map and what FAD managers report to shared observers.</li>
+ * </ul>
+ * Any other state shared by fishers during the phase (strategies reading tiles beyond the reach of the boat, custom
+ * shared objects, ...) needs an additional conflict key to keep runs reproducible.
+ */
+public class ConcurrentFisherPhase implements Steppable {
+
+    private static final long serialVersionUID = -6327905623165467208L;
+
+    /**
+     * The updates queued by the group being stepped on the current thread, if any.
+     */
+    private static final ThreadLocal<List<Runnable>> deferredUpdates = new ThreadLocal<>();
+
+    /**
+     * Markets whose prices do not depend on what was sold to them, so that fishers can sell to them in any order.
+     */
+    private static final Set<Class<?>> PRICED_REGARDLESS_OF_TRADES = ImmutableSet.of(
+        FixedPriceMarket.class,
+        FixedYearlyPricesBiomassMarket.class
+    );
+
+    private final int numberOfThreads;
+
+    private final List<Fisher> fishers = new ArrayList<>();
+
+    private final Map<Fisher, MersenneTwisterFast> randomStreams = new IdentityHashMap<>();
+
+    /**
+     * The model seed the random streams were derived from, which changes when a model is forked from a snapshot.
+     */
+    private long randomStreamsSeed;
+
+    private final List<Function<? super Fisher, ?>> conflictKeys = new ArrayList<>();
+
+    /**
+     * Created on first use, so that forks of the model (which {@link uk.ac.ox.oxfish.utility.DeepCopier} leaves
+     * without one) get their own threads and don't stop each other's when finishing.
+     */
+    private transient ExecutorService executor;
+
+    private double smallestCellSizeInKm = Double.NaN;
+
+    private int[] cellOwners;
+
+    private int numberOfGroups = 0;
+
+    public ConcurrentFisherPhase(final int numberOfThreads) {
+        checkArgument(numberOfThreads > 0);
+        this.numberOfThreads = numberOfThreads;
+    }
+
+    public Stoppable add(final Fisher fisher) {
+        fishers.add(fisher);
+        return () -> {
+            fishers.remove(fisher);
+            randomStreams.remove(fisher);
+        };
+    }
+
+    /**
+     * Fishers for which the function returns the same non-null value are always stepped in the same group.
+     */
+    public void addConflictKey(final Function<? super Fisher, ?> conflictKey) {
+        conflictKeys.add(conflictKey);
+    }
+
+    /**
+     * Queues an update of state shared by all the fishers, such as the model counters, if called while a group of
+     * fishers is being stepped on this thread. Queued updates are applied once every group is done, in group order, so
+     * they happen in the same order whatever the number of threads. Reading that state during the phase sees it as it
+     * was before the phase.
+     *
+     * @return false if no group is being stepped on this thread, in which case the caller should apply the update
+     */
+    public static boolean deferUntilAfterPhase(final Runnable update) {
+        final List<Runnable> updates = deferredUpdates.get();
+        if (updates == null)
+            return false;
+        updates.add(update);
+        return true;
+    }
+
+    public int getNumberOfThreads() {
+        return numberOfThreads;
+    }
+
+    /**
+     * The number of groups the fishers were split into at the last step, that is how many could run concurrently.
+     */
+    public int getNumberOfGroups() {
+        return numberOfGroups;
+    }
+
+    MersenneTwisterFast getRandomStream(final Fisher fisher) {
+        return randomStreams.get(fisher);
+    }
+
+    @Override
+    public void step(final SimState simState) {
+        final FishState model = (FishState) simState;
+        final ThreadRoutedRandom random = (ThreadRoutedRandom) model.getRandom();
+
+        final Fisher[] order = fishers.toArray(new Fisher[0]);
+        for (int i = order.length - 1; i > 0; i--) {
+            final int j = random.nextInt(i + 1);
+            final Fisher swapped = order[i];
+            order[i] = order[j];
+            order[j] = swapped;
+        }
+        if (model.seed() != randomStreamsSeed) {
+            randomStreams.clear();
+            randomStreamsSeed = model.seed();
+        }
+        for (final Fisher fisher : order)
+            randomStreams.computeIfAbsent(fisher, __ -> newRandomStream(model.seed(), fisher.getID()));
+
+        final List<List<Fisher>> groups = group(order, model);
+        numberOfGroups = groups.size();
+        final List<List<Runnable>> updates = new ArrayList<>(groups.size());
+        for (int i = 0; i < groups.size(); i++)
+            updates.add(new ArrayList<>());
+        if (numberOfThreads == 1 || groups.size() == 1) {
+            for (int i = 0; i < groups.size(); i++)
+                stepGroup(groups.get(i), updates.get(i), model, random);
+            updates.forEach(groupUpdates -> groupUpdates.forEach(Runnable::run));
+            return;
+        }
+        // what the workers allocate is reported to the schedule profiler, if it is counting
+        final boolean countingAllocations = ScheduleProfiler.isCountingAllocations();
+        final List<Future<Long>> futures = new ArrayList<>(groups.size());
+        for (int i = 0; i < groups.size(); i++) {
+            final List<Fisher> group = groups.get(i);
+            final List<Runnable> groupUpdates = updates.get(i);
+            futures.add(getExecutor().submit(() -> {
+                final long allocatedBefore = countingAllocations ? ScheduleProfiler.allocatedBytesOfCurrentThread() : 0;
+                stepGroup(group, groupUpdates, model, random);
+                return countingAllocations ? ScheduleProfiler.allocatedBytesOfCurrentThread() - allocatedBefore : 0;
+            }));
+        }
+        // failures are reported in group order, whichever thread failed first
+        RuntimeException failure = null;
+        long allocatedByWorkers = 0;
+        for (final Future<Long> future : futures) {
+            try {
+                allocatedByWorkers += future.get();
+            } catch (final ExecutionException e) {
+                if (failure == null)
+                    failure = e.getCause() instanceof RuntimeException
+                        ? (RuntimeException) e.getCause()
+                        : new IllegalStateException(e.getCause());
+            } catch (final InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException(e);
+            }
+        }
+        ScheduleProfiler.addAllocationsOfOtherThreads(allocatedByWorkers);
+        if (failure != null)
+            throw failure;
+        updates.forEach(groupUpdates -> groupUpdates.forEach(Runnable::run));
+    }
+
+    private void stepGroup(
+        final List<Fisher> group,
+        final List<Runnable> updates,
+        final FishState model,
+        final ThreadRoutedRandom random
+    ) {
+        deferredUpdates.set(updates);
+        try {
+            for (final Fisher fisher : group) {
+                random.setCurrentStream(randomStreams.get(fisher));
+                fisher.step(model);
+            }
+        } finally {
+            random.setCurrentStream(null);
+            deferredUpdates.remove();
+        }
+    }
+
+    private static MersenneTwisterFast newRandomStream(final long seed, final int id) {
+        return new MersenneTwisterFast(new int[]{(int) seed, (int) (seed >>> 32), id});
+    }
+
+    /**
+     * Splits the fishers, given in phase order, into groups that share no state. Groups are sorted by their first
+     * fisher and keep the phase order inside.
+     */
+    private List<List<Fisher>> group(final Fisher[] order, final FishState model) {
+        final int[] parents = new int[order.length];
+        for (int i = 0; i < parents.length; i++)
+            parents[i] = i;
+
+        final Map<Fisher, Integer> positions = new IdentityHashMap<>(order.length);
+        for (int i = 0; i < order.length; i++)
+            positions.put(order[i], i);
+
+        final Map<Object, Integer> keyOwners = new LinkedHashMap<>();
+        for (int i = 0; i < order.length; i++) {
+            final Fisher fisher = order[i];
+            final int position = i;
+            for (final Object sharedObject : sharedStateOf(fisher))
+                union(parents, i, keyOwners.computeIfAbsent(new IdentityKey(sharedObject), __ -> position));
+            for (int k = 0; k < conflictKeys.size(); k++) {
+                final Object key = conflictKeys.get(k).apply(fisher);
+                if (key != null)
+                    union(parents, i, keyOwners.computeIfAbsent(Arrays.asList(k, key), __ -> position));
+            }
+            final Collection<Fisher> friends = fisher.getDirectedFriends();
+            if (friends != null)
+                for (final Fisher friend : friends) {
+                    final Integer friendPosition = positions.get(friend);
+                    if (friendPosition != null)
+                        union(parents, i, friendPosition);
+                }
+        }
+        unionByReach(order, positions, parents, model);
+
+        final Map<Integer, List<Fisher>> groups = new LinkedHashMap<>();
+        for (int i = 0; i < order.length; i++)
+            groups.computeIfAbsent(find(parents, i), __ -> new ArrayList<>()).add(order[i]);
+        return new ArrayList<>(groups.values());
+    }
+
+    /**
+     * The objects with mutable state that the fisher can share with others during its step, told apart by identity.
+     * Markets only count when trades move their prices: what the others only count into (their daily counters) is
+     * updated after the phase.
+     */
+    private static List<Object> sharedStateOf(final Fisher fisher) {
+        final List<Object> sharedState = new ArrayList<>(4);
+        for (final Market market : fisher.getHomePort().getMarketMap(fisher).getMarkets())
+            if (market != null && !PRICED_REGARDLESS_OF_TRADES.contains(market.getClass()))
+                sharedState.add(market);
+        final Regulation regulation = fisher.getRegulation();
+        if (regulation != null && regulation.getClass() != Anarchy.class &&
+            regulation.getClass() != ProtectedAreasOnly.class)
+            sharedState.add(regulation);
+        // ITQ fishers price their quotas with the order books of the model, so they are all grouped
+        if (fisher.getOpportunityCosts().stream().anyMatch(ITQCostManager.class::isInstance))
+            sharedState.add(ITQCostManager.class);
+        return sharedState;
+    }
+
+    /**
+     * Fishers whose reachable boxes of cells overlap are grouped together. The reach of a fisher is what its boat can
+     * travel in one step, plus a cell. Fishers with FADs are also grouped with the owners of the FADs within their
+     * reach, since setting on a FAD changes its biology and, once the phase is over, the FADs of its owner.
+     */
+    private void unionByReach(
+        final Fisher[] order,
+        final Map<Fisher, Integer> positions,
+        final int[] parents,
+        final FishState model
+    ) {
+        final NauticalMap map = model.getMap();
+        final int width = map.getWidth();
+        final int height = map.getHeight();
+        if (cellOwners == null || cellOwners.length != width * height)
+            cellOwners = new int[width * height];
+        Arrays.fill(cellOwners, -1);
+        final double cellSize = smallestCellSizeInKm(map);
+        int wholeMapOwner = -1;
+        for (int i = 0; i < order.length; i++) {
+            final SeaTile location = order[i].getLocation();
+            final double reachInKm = order[i].getBoat().getSpeedInKph() * model.getHoursPerStep();
+            final int reach = cellSize > 0 && Double.isFinite(reachInKm / cellSize)
+                ? (int) Math.min(Math.max(width, height), Math.ceil(reachInKm / cellSize) + 1)
+                : Math.max(width, height);
+            final int minX = Math.max(0, location.getGridX() - reach);
+            final int maxX = Math.min(width - 1, location.getGridX() + reach);
+            final int minY = Math.max(0, location.getGridY() - reach);
+            final int maxY = Math.min(height - 1, location.getGridY() + reach);
+            if (minX == 0 && minY == 0 && maxX == width - 1 && maxY == height - 1) {
+                if (wholeMapOwner < 0)
+                    wholeMapOwner = i;
+                else
+                    union(parents, i, wholeMapOwner);
+                continue;
+            }
+            final FadMap fadMap = FadManager.maybeGetFadManager(order[i]).map(FadManager::getFadMap).orElse(null);
+            for (int x = minX; x <= maxX; x++)
+                for (int y = minY; y <= maxY; y++) {
+                    final int cell = x * height + y;
+                    if (cellOwners[cell] < 0)
+                        cellOwners[cell] = i;
+                    else
+                        union(parents, i, cellOwners[cell]);
+                    if (fadMap != null)
+                        unionWithFadOwners(fadMap.fadsAt(map.getSeaTile(x, y)), i, positions, parents);
+                }
+        }
+        if (wholeMapOwner >= 0)
+            for (int i = 0; i < order.length; i++)
+                union(parents, i, wholeMapOwner);
+    }
+
+    private static void unionWithFadOwners(
+        final Bag fads,
+        final int position,
+        final Map<Fisher, Integer> positions,
+        final int[] parents
+    ) {
+        for (int k = 0; k < fads.numObjs; k++) {
+            final FadManager owner = ((Fad) fads.objs[k]).getOwner();
+            final Integer ownerPosition = owner == null ? null : positions.get(owner.getFisher());
+            if (ownerPosition != null)
+                union(parents, position, ownerPosition);
+        }
+    }
+
+    private double smallestCellSizeInKm(final NauticalMap map) {
+        if (Double.isNaN(smallestCellSizeInKm)) {
+            double smallest = Double.POSITIVE_INFINITY;
+            for (int y = 0; y < map.getHeight(); y++) {
+                if (map.getWidth() > 1)
+                    smallest = Math.min(smallest, map.distance(0, y, 1, y));
+                if (y + 1 < map.getHeight())
+                    smallest = Math.min(smallest, map.distance(0, y, 0, y + 1));
+            }
+            smallestCellSizeInKm = smallest;
+        }
+        return smallestCellSizeInKm;
+    }
+
+    private static int find(final int[] parents, int i) {
+        while (parents[i] != i) {
+            parents[i] = parents[parents[i]];
+            i = parents[i];
+        }
+        return i;
+    }
+
+    private static void union(final int[] parents, final int a, final int b) {
+        final int rootA = find(parents, a);
+        final int rootB = find(parents, b);
+        // the lowest position becomes the root, which keeps groups ordered by their first fisher
+        if (rootA < rootB)
+            parents[rootB] = rootA;
+        else if (rootB < rootA)
+            parents[rootA] = rootB;
+    }
+
+    private ExecutorService getExecutor() {
+        if (executor == null) {
+            executor = Executors.newFixedThreadPool(numberOfThreads, runnable -> {
+                final Thread thread = new Thread(runnable, "fisher-phase");
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+        return executor;
+    }
+
+    public void shutdown() {
+        if (executor != null) {
+            executor.shutdownNow();
+            executor = null;
+        }
+    }
+
+    /**
+     * Market maps and other keys are told apart by identity, not by equality.
+     */
+    private static final class IdentityKey {
+        private final Object object;
+
+        private IdentityKey(final Object object) {
+            this.object = object;
+        }
+
+        @Override
+        public boolean equals(final Object other) {
+            return other instanceof IdentityKey && ((IdentityKey) other).object == object;
+        }
+
+        @Override
+        public int hashCode() {
+            return System.identityHashCode(object);
+        }
+    }
+
+}
@@ -162,6 +162,14 @@ public class FishState extends SimState implements ModelState {
      */
 
     private List<EntryPlugin> entryPlugins;
+    /**
+     * when not null, steps the fishers of the FISHER_PHASE concurrently instead of through the schedule
+     */
+    private ConcurrentFisherPhase concurrentFisherPhase = null;
+    /**
+     * when not null, everything scheduled through this object is wrapped so that its steps are timed
+     */
+    private ScheduleProfiler scheduleProfiler = null;
 
     public FishState() {
         this(System.currentTimeMillis(), 1);
@@ -249,6 +257,14 @@ public class FishState extends SimState implements ModelState {
             schedule.scheduleRepeating(steppable.getValue(), steppable.getKey().ordinal(), stepsPerDay * 365);
         for (final Entry<StepOrder, AggregateSteppable> steppable : aggregateDailySteppables.entrySet())
             schedule.scheduleRepeating(steppable.getValue(), steppable.getKey().ordinal(), stepsPerDay);
+        if (concurrentFisherPhase != null)
+            schedule.scheduleRepeating(
+                profiled(concurrentFisherPhase, StepOrder.FISHER_PHASE),
+                StepOrder.FISHER_PHASE.ordinal(),
+                1.0
+            );
+        if (scheduleProfiler != null)
+            scheduleProfiler.start(this);
 
         final ScenarioEssentials initialization = scenario.start(this);
 
@@ -293,6 +309,49 @@ public class FishState extends SimState implements ModelState {
 
     }
 
+    /**
+     * Steps the fishers on the given number of threads rather than one by one through the schedule (the default, or
+     * 0). Each fisher then draws from its own random stream and the results, for a given seed, are the same whatever
+     * the number of threads, though they differ from those of the default mode. Call before starting the model.
+     */
+    public void setFisherPhaseThreads(final int numberOfThreads) {
+        Preconditions.checkArgument(numberOfThreads >= 0);
+        Preconditions.checkState(!started, "Set the fisher phase threads before starting the model");
+        yearlyCounter.setSharedByConcurrentFishers(numberOfThreads > 0);
+        dailyCounter.setSharedByConcurrentFishers(numberOfThreads > 0);
+        if (numberOfThreads == 0)
+            concurrentFisherPhase = null;
+        else {
+            concurrentFisherPhase = new ConcurrentFisherPhase(numberOfThreads);
+            if (!(random instanceof ThreadRoutedRandom))
+                random = new ThreadRoutedRandom(random);
+        }
+    }
+
+    public int getFisherPhaseThreads() {
+        return concurrentFisherPhase == null ? 0 : concurrentFisherPhase.getNumberOfThreads();
+    }
+
+    /**
+     * The concurrent fisher phase, if the fisher phase threads have been set, or null.
+     */
+    public ConcurrentFisherPhase getConcurrentFisherPhase() {
+        return concurrentFisherPhase;
+    }
+
+    /**
+     * Gives a model, possibly already running, a new seed. The randomizer is reseeded in place, as many components hold
+     * on to it. The random streams derived from the seed (by the concurrent fisher phase or by a parallel FAD map) are
+     * derived again from the new one the next time they are needed.
+     */
+    public void reseed(final long seed) {
+        final MersenneTwisterFast randomizer = random;
+        // MASON replaces the randomizer along with the seed
+        setSeed(seed);
+        random = randomizer;
+        random.setSeed(seed());
+    }
+
     /**
      * a short-cut from map.getPorts()
      *
@@ -432,9 +491,9 @@ public class FishState extends SimState implements ModelState {
         final StepOrder order
     ) {
         if (order.isToRandomize())
-            return schedule.scheduleRepeating(steppable, order.ordinal(), 365 * stepsPerDay);
+            return schedule.scheduleRepeating(profiled(steppable, order), order.ordinal(), 365 * stepsPerDay);
         else
-            return aggregateYearlySteppables.get(order).add(steppable);
+            return aggregateYearlySteppables.get(order).add(profiled(steppable, order));
     }
 
     public Stoppable schedulePerPolicy(
@@ -462,7 +521,9 @@ public class FishState extends SimState implements ModelState {
         final Steppable steppable,
         final StepOrder order
     ) {
-        return schedule.scheduleRepeating(steppable, order.ordinal(), 1.0);
+        if (concurrentFisherPhase != null && order == StepOrder.FISHER_PHASE && steppable instanceof Fisher)
+            return concurrentFisherPhase.add((Fisher) steppable);
+        return schedule.scheduleRepeating(profiled(steppable, order), order.ordinal(), 1.0);
     }
 
     public Stoppable scheduleEveryDay(
@@ -470,9 +531,18 @@ public class FishState extends SimState implements ModelState {
         final StepOrder order
     ) {
         if (order.isToRandomize())
-            return schedule.scheduleRepeating(steppable, order.ordinal(), stepsPerDay);
+            return schedule.scheduleRepeating(profiled(steppable, order), order.ordinal(), stepsPerDay);
         else
-            return aggregateDailySteppables.get(order).add(steppable);
+            return aggregateDailySteppables.get(order).add(profiled(steppable, order));
+    }
+
+    /**
+     * The wall time, in nanoseconds, taken the last time the given daily phase was stepped. Only phases that are not
+     * randomized are timed, since the others are scheduled steppable by steppable.
+     */
+    public long getLastPhaseDuration(final StepOrder order) {
+        Preconditions.checkArgument(!order.isToRandomize(), "Randomized phases are not timed: " + order);
+        return aggregateDailySteppables.get(order).getLastStepDuration();
     }
 
     public Stoppable scheduleEveryXDay(
@@ -480,7 +550,35 @@ public class FishState extends SimState implements ModelState {
         final StepOrder order,
         final int periodInDays
     ) {
-        return schedule.scheduleRepeating(steppable, order.ordinal(), stepsPerDay * periodInDays);
+        return schedule.scheduleRepeating(profiled(steppable, order), order.ordinal(), stepsPerDay * periodInDays);
+    }
+
+    private Steppable profiled(
+        final Steppable steppable,
+        final StepOrder order
+    ) {
+        return scheduleProfiler == null ? steppable : scheduleProfiler.profile(steppable, order);
+    }
+
+    /**
+     * If true, everything scheduled to repeat through this object records its wall time, calls and allocations by
+     * phase and by class: see {@link ScheduleProfiler}. Call before starting the model; when false (the default)
+     * steppables are scheduled as they are.
+     */
+    public void setScheduleProfiling(final boolean scheduleProfiling) {
+        Preconditions.checkState(!started, "Turn on schedule profiling before starting the model");
+        scheduleProfiler = scheduleProfiling ? new ScheduleProfiler() : null;
+    }
+
+    public boolean isScheduleProfiling() {
+        return scheduleProfiler != null;
+    }
+
+    /**
+     * The schedule profiler, if schedule profiling is on, or null.
+     */
+    public ScheduleProfiler getScheduleProfiler() {
+        return scheduleProfiler;
     }
 
     /**
@@ -867,6 +965,8 @@ public class FishState extends SimState implements ModelState {
     @Override
     public void finish() {
         super.finish();
+        if (concurrentFisherPhase != null)
+            concurrentFisherPhase.shutdown();
         if (fishers != null) {
             for (final Fisher fisher : fishers)
                 fisher.turnOff();
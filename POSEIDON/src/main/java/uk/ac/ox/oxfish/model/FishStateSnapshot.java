@@ -0,0 +1,162 @@
+/*
+ * POSEIDON: an agent-based model of fisheries
+ * Copyright (c) 2025, University of Oxford.
+ *
+ * University of Oxford means the Chancellor, Masters and Scholars of the
+ * University of Oxford, having an administrative office at Wellington
+ * Square, Oxford OX1 2JD, UK.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+
+package uk.ac.ox.oxfish.model;
+
+import uk.ac.ox.oxfish.utility.DeepCopier;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.NotSerializableException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.logging.Logger;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+import static com.google.common.base.Preconditions.checkState;
+
+/**
+ * An image of a started {@link FishState} from which many runs can be forked, to avoid paying for
+ * {@link FishState#start()} (map, biology, fleet and FAD map set-up) over and over again. The model can optionally be
+ * stepped for a number of spin-up years before the image is taken.
+ * <p>
+ * Forks are deep copies of the image made in-process with {@link DeepCopier}, each reseeded with its own seed. The
+ * image can also be written to disk with Java serialization, like a MASON checkpoint, but that only works if
+ * everything reachable from the model is {@link java.io.Serializable}.
+ */
+public final class FishStateSnapshot {
+
+    private static final Logger logger = Logger.getLogger(FishStateSnapshot.class.getName());
+
+    private final FishState image;
+
+    private FishStateSnapshot(final FishState image) {
+        this.image = image;
+    }
+
+    /**
+     * Takes a snapshot of a started model. The model itself is left untouched and can keep running.
+     */
+    public static FishStateSnapshot of(final FishState fishState) {
+        return of(fishState, 0);
+    }
+
+    /**
+     * Steps a started model until it reaches the given year and takes a snapshot of it. The model can keep running
+     * afterwards.
+     */
+    public static FishStateSnapshot of(
+        final FishState fishState,
+        final int spinUpYears
+    ) {
+        checkNotNull(fishState);
+        checkArgument(fishState.isStarted(), "The model must be started before taking a snapshot.");
+        checkArgument(spinUpYears >= 0);
+        while (fishState.getYear() < spinUpYears) {
+            fishState.schedule.step(fishState);
+        }
+        final long start = System.currentTimeMillis();
+        final FishStateSnapshot snapshot = new FishStateSnapshot(copy(fishState));
+        logger.info(String.format(
+            "Took a snapshot of the model at step %d in %d ms.",
+            fishState.getStep(),
+            System.currentTimeMillis() - start
+        ));
+        return snapshot;
+    }
+
+    /**
+     * Reads a snapshot written with {@link #writeTo}, refusing it if it was written with another key.
+     *
+     * @param expectedKey describes what the snapshot should have been made from (scenario, spin-up, seed, build...)
+     */
+    public static FishStateSnapshot readFrom(
+        final Path file,
+        final String expectedKey
+    ) {
+        try (
+            final ObjectInputStream in =
+                new ObjectInputStream(new BufferedInputStream(Files.newInputStream(file)))
+        ) {
+            final Object key = in.readObject();
+            checkState(
+                expectedKey.equals(key),
+                "the snapshot in %s was not made from %s",
+                file,
+                expectedKey
+            );
+            return new FishStateSnapshot((FishState) in.readObject());
+        } catch (final IOException | ClassNotFoundException e) {
+            throw new IllegalStateException("Unable to read model snapshot from " + file, e);
+        }
+    }
+
+    private static FishState copy(final FishState fishState) {
+        return DeepCopier.deepCopy(fishState);
+    }
+
+    /**
+     * Creates a new, independent model from the snapshot, with the given seed. The randomizer and every random stream
+     * derived from the seed are reseeded, so forks with different seeds are uncorrelated. Many forks can be made
+     * concurrently.
+     */
+    public FishState fork(final long seed) {
+        final FishState fork = copy(image);
+        fork.reseed(seed);
+        return fork;
+    }
+
+    /**
+     * Writes the snapshot to disk, preceded by a key describing what it was made from, which is checked when reading
+     * it back.
+     */
+    public void writeTo(
+        final Path file,
+        final String key
+    ) {
+        try (
+            final ObjectOutputStream out =
+                new ObjectOutputStream(new BufferedOutputStream(Files.newOutputStream(file)))
+        ) {
+            out.writeObject(key);
+            out.writeObject(image);
+        } catch (final NotSerializableException e) {
+            throw new IllegalStateException(
+                "The model can't be written to disk because it holds a " + e.getMessage() +
+                    ", which is not serializable. Fork from the in-process snapshot instead.",
+                e
+            );
+        } catch (final IOException e) {
+            throw new IllegalStateException("Unable to write model snapshot to " + file, e);
+        }
+    }
+
+    public int getStep() {
+        return image.getStep();
+    }
+
+}
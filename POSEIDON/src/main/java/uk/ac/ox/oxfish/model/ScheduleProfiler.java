@@ -0,0 +1,457 @@
+/*
+ * POSEIDON: an agent-based model of fisheries
+ * Copyright (c) 2025, University of Oxford.
+ *
+ * University of Oxford means the Chancellor, Masters and Scholars of the
+ * University of Oxford, having an administrative office at Wellington
+ * Square, Oxford OX1 2JD, UK.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+
+package uk.ac.ox.oxfish.model;
+
+import sim.engine.SimState;
+import sim.engine.Steppable;
+import uk.ac.ox.oxfish.model.data.OutputPlugin;
+
+import java.io.Serializable;
+import java.lang.management.ManagementFactory;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Method;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.logging.Logger;
+
+/**
+ * Records the wall time, number of calls and bytes allocated by everything that goes through the scheduling methods of
+ * {@link FishState}, by {@link StepOrder} and by class of steppable. Steppables are wrapped when they are scheduled,
+ * so a model without a profiler steps them as they are.
+ * <p>
+ * The figures of each phase are added to the daily data set, and a summary of both phases and classes is written out at
+ * the end of the run. Each step is also emitted as a {@code uk.ac.ox.oxfish.ScheduleStep} flight recorder event when
+ * the JVM has flight recorder and a recording is on.
+ * <p>
+ * Allocations are counted only if the JVM supports it. They are counted on the thread that does the stepping, plus
+ * whatever steppables that hand work to other threads report through {@link #addAllocationsOfOtherThreads(long)}, as
+ * the concurrent fisher phase does.
+ */
+public class ScheduleProfiler implements OutputPlugin, Serializable {
+
+    private static final long serialVersionUID = -2906302624212103526L;
+
+    private static final ThreadAllocations ALLOCATIONS = ThreadAllocations.create();
+
+    private static final FlightRecorderEvents FLIGHT_RECORDER = FlightRecorderEvents.create();
+
+    /**
+     * on a thread stepping a profiled steppable, the bytes allocated on its behalf by other threads
+     */
+    private static final ThreadLocal<long[]> ALLOCATED_ELSEWHERE = new ThreadLocal<>();
+
+    private final Map<StepOrder, Statistics> phases = new EnumMap<>(StepOrder.class);
+
+    private final Map<Class<?>, Statistics> classes = new ConcurrentHashMap<>();
+
+    private String fileName = "schedule_profile.csv";
+
+    public ScheduleProfiler() {
+        for (final StepOrder order : StepOrder.values())
+            phases.put(order, new Statistics());
+    }
+
+    /**
+     * Wraps the steppable so that its steps are recorded under its phase and its class.
+     */
+    public Steppable profile(
+        final Steppable steppable,
+        final StepOrder order
+    ) {
+        return new ProfiledSteppable(
+            steppable,
+            order,
+            phases.get(order),
+            classes.computeIfAbsent(steppable.getClass(), __ -> new Statistics())
+        );
+    }
+
+    /**
+     * Adds daily columns with the time, calls and allocations of each phase, and registers the end of run summary.
+     */
+    public void start(final FishState model) {
+        for (final Map.Entry<StepOrder, Statistics> phase : phases.entrySet()) {
+            final Statistics statistics = phase.getValue();
+            registerDailyDifference(model, phase.getKey() + " Phase Time (ms)", statistics, Measure.TIME);
+            registerDailyDifference(model, phase.getKey() + " Phase Calls", statistics, Measure.CALLS);
+            if (ALLOCATIONS.isSupported())
+                registerDailyDifference(model, phase.getKey() + " Phase Allocations (MB)", statistics, Measure.ALLOCATIONS);
+        }
+        model.getOutputPlugins().add(this);
+    }
+
+    private static void registerDailyDifference(
+        final FishState model,
+        final String title,
+        final Statistics statistics,
+        final Measure measure
+    ) {
+        final double[] previous = {0};
+        model.getDailyDataSet().registerGatherer(
+            title,
+            fishState -> {
+                final double current = measure.of(statistics);
+                final double difference = current - previous[0];
+                previous[0] = current;
+                return difference;
+            },
+            Double.NaN
+        );
+    }
+
+    /**
+     * True if a profiled steppable is being stepped on this thread and allocations are counted. A steppable that hands
+     * work to other threads can then measure it there with {@link #allocatedBytesOfCurrentThread()}.
+     */
+    public static boolean isCountingAllocations() {
+        return ALLOCATED_ELSEWHERE.get() != null;
+    }
+
+    /**
+     * Bytes allocated so far by the current thread, or 0 if the JVM cannot tell.
+     */
+    public static long allocatedBytesOfCurrentThread() {
+        return ALLOCATIONS.currentThread();
+    }
+
+    /**
+     * Adds bytes allocated by other threads to the steppable being profiled on this thread, if any.
+     */
+    public static void addAllocationsOfOtherThreads(final long bytes) {
+        final long[] allocatedElsewhere = ALLOCATED_ELSEWHERE.get();
+        if (allocatedElsewhere != null)
+            allocatedElsewhere[0] += bytes;
+    }
+
+    public Map<StepOrder, Statistics> getPhases() {
+        return phases;
+    }
+
+    public Map<Class<?>, Statistics> getClasses() {
+        return classes;
+    }
+
+    @Override
+    public void reactToEndOfSimulation(final FishState state) {
+    }
+
+    @Override
+    public String getFileName() {
+        return fileName;
+    }
+
+    public void setFileName(final String fileName) {
+        this.fileName = fileName;
+    }
+
+    @Override
+    public String composeFileContents() {
+        final StringBuilder builder = new StringBuilder();
+        builder.append("type,name,calls,time_ms,allocated_mb\n");
+        phases.forEach((order, statistics) -> {
+            if (statistics.getCalls() > 0)
+                append(builder, "phase", order.name(), statistics);
+        });
+        // slowest classes first
+        classes.entrySet().stream()
+            .sorted(Comparator.comparingLong(
+                (Map.Entry<Class<?>, Statistics> entry) -> -entry.getValue().getNanoseconds()
+            ))
+            .forEach(entry -> append(builder, "class", entry.getKey().getName(), entry.getValue()));
+        return builder.toString();
+    }
+
+    private static void append(
+        final StringBuilder builder,
+        final String type,
+        final String name,
+        final Statistics statistics
+    ) {
+        builder.append(type).append(",")
+            .append(name).append(",")
+            .append(statistics.getCalls()).append(",")
+            .append(statistics.getNanoseconds() / 1E6).append(",")
+            .append(ALLOCATIONS.isSupported() ? statistics.getAllocatedBytes() / 1E6 : Double.NaN)
+            .append("\n");
+    }
+
+    private enum Measure {
+        TIME {
+            @Override
+            double of(final Statistics statistics) {
+                return statistics.getNanoseconds() / 1E6;
+            }
+        },
+        CALLS {
+            @Override
+            double of(final Statistics statistics) {
+                return statistics.getCalls();
+            }
+        },
+        ALLOCATIONS {
+            @Override
+            double of(final Statistics statistics) {
+                return statistics.getAllocatedBytes() / 1E6;
+            }
+        };
+
+        abstract double of(Statistics statistics);
+    }
+
+    /**
+     * Running totals for a phase or a class of steppables. Updates are synchronized since the steppables of a class
+     * can be stepped from several threads.
+     */
+    public static class Statistics implements Serializable {
+
+        private static final long serialVersionUID = 4781325526498140412L;
+        private long calls;
+        private long nanoseconds;
+        private long allocatedBytes;
+
+        private synchronized void record(
+            final long nanoseconds,
+            final long allocatedBytes
+        ) {
+            this.calls++;
+            this.nanoseconds += nanoseconds;
+            this.allocatedBytes += allocatedBytes;
+        }
+
+        public synchronized long getCalls() {
+            return calls;
+        }
+
+        public synchronized long getNanoseconds() {
+            return nanoseconds;
+        }
+
+        public synchronized long getAllocatedBytes() {
+            return allocatedBytes;
+        }
+    }
+
+    private static class ProfiledSteppable implements Steppable {
+
+        private static final long serialVersionUID = -4394213049005484452L;
+        private final Steppable steppable;
+        private final StepOrder order;
+        private final Statistics phase;
+        private final Statistics steppableClass;
+
+        private ProfiledSteppable(
+            final Steppable steppable,
+            final StepOrder order,
+            final Statistics phase,
+            final Statistics steppableClass
+        ) {
+            this.steppable = steppable;
+            this.order = order;
+            this.phase = phase;
+            this.steppableClass = steppableClass;
+        }
+
+        @Override
+        public void step(final SimState simState) {
+            final Object event = FLIGHT_RECORDER.begin();
+            final long[] outerAllocatedElsewhere = ALLOCATED_ELSEWHERE.get();
+            final long[] allocatedElsewhere = {0};
+            if (ALLOCATIONS.isSupported())
+                ALLOCATED_ELSEWHERE.set(allocatedElsewhere);
+            final long allocatedBefore = ALLOCATIONS.currentThread();
+            final long start = System.nanoTime();
+            try {
+                steppable.step(simState);
+            } finally {
+                if (outerAllocatedElsewhere == null)
+                    ALLOCATED_ELSEWHERE.remove();
+                else
+                    ALLOCATED_ELSEWHERE.set(outerAllocatedElsewhere);
+            }
+            final long duration = System.nanoTime() - start;
+            final long allocated = ALLOCATIONS.currentThread() - allocatedBefore + allocatedElsewhere[0];
+            // a steppable profiled inside another one also counts towards it
+            if (outerAllocatedElsewhere != null)
+                outerAllocatedElsewhere[0] += allocatedElsewhere[0];
+            phase.record(duration, allocated);
+            steppableClass.record(duration, allocated);
+            FLIGHT_RECORDER.commit(event, order, steppable.getClass(), allocated);
+        }
+    }
+
+    /**
+     * Bytes allocated by the current thread, through the HotSpot extension of the thread management bean when there is
+     * one.
+     */
+    private static class ThreadAllocations {
+
+        private final com.sun.management.ThreadMXBean bean;
+
+        private ThreadAllocations(final com.sun.management.ThreadMXBean bean) {
+            this.bean = bean;
+        }
+
+        static ThreadAllocations create() {
+            final java.lang.management.ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+            if (bean instanceof com.sun.management.ThreadMXBean) {
+                final com.sun.management.ThreadMXBean hotSpotBean = (com.sun.management.ThreadMXBean) bean;
+                if (hotSpotBean.isThreadAllocatedMemorySupported()) {
+                    if (!hotSpotBean.isThreadAllocatedMemoryEnabled())
+                        hotSpotBean.setThreadAllocatedMemoryEnabled(true);
+                    return new ThreadAllocations(hotSpotBean);
+                }
+            }
+            return new ThreadAllocations(null);
+        }
+
+        boolean isSupported() {
+            return bean != null;
+        }
+
+        long currentThread() {
+            return bean == null ? 0 : bean.getThreadAllocatedBytes(Thread.currentThread().getId());
+        }
+    }
+
+    /**
+     * Flight recorder events, created through reflection so that nothing of {@code jdk.jfr} is needed to compile or to
+     * run: on a JVM without it, or if the event type cannot be created, nothing is emitted.
+     */
+    private static class FlightRecorderEvents {
+
+        private static final Logger logger = Logger.getLogger(FlightRecorderEvents.class.getName());
+
+        private final Object factory;
+        private final Object eventType;
+        private final Method isEnabled;
+        private final Method newEvent;
+        private final Method begin;
+        private final Method end;
+        private final Method shouldCommit;
+        private final Method set;
+        private final Method commit;
+
+        private FlightRecorderEvents(
+            final Object factory,
+            final Object eventType,
+            final Method isEnabled,
+            final Method newEvent,
+            final Method begin,
+            final Method end,
+            final Method shouldCommit,
+            final Method set,
+            final Method commit
+        ) {
+            this.factory = factory;
+            this.eventType = eventType;
+            this.isEnabled = isEnabled;
+            this.newEvent = newEvent;
+            this.begin = begin;
+            this.end = end;
+            this.shouldCommit = shouldCommit;
+            this.set = set;
+            this.commit = commit;
+        }
+
+        static FlightRecorderEvents create() {
+            try {
+                final Constructor<?> annotation = Class.forName("jdk.jfr.AnnotationElement")
+                    .getConstructor(Class.class, Object.class);
+                final Constructor<?> field = Class.forName("jdk.jfr.ValueDescriptor")
+                    .getConstructor(Class.class, String.class);
+                final List<Object> annotations = Arrays.asList(
+                    annotation.newInstance(Class.forName("jdk.jfr.Name"), "uk.ac.ox.oxfish.ScheduleStep"),
+                    annotation.newInstance(Class.forName("jdk.jfr.Label"), "Schedule Step"),
+                    annotation.newInstance(Class.forName("jdk.jfr.Category"), new String[]{"POSEIDON"})
+                );
+                final List<Object> fields = Arrays.asList(
+                    field.newInstance(String.class, "phase"),
+                    field.newInstance(String.class, "steppableClass"),
+                    field.newInstance(long.class, "allocatedBytes")
+                );
+                final Class<?> eventFactoryClass = Class.forName("jdk.jfr.EventFactory");
+                final Object factory = eventFactoryClass.getMethod("create", List.class, List.class)
+                    .invoke(null, annotations, fields);
+                final Object eventType = eventFactoryClass.getMethod("getEventType").invoke(factory);
+                final Class<?> eventClass = Class.forName("jdk.jfr.Event");
+                return new FlightRecorderEvents(
+                    factory,
+                    eventType,
+                    eventType.getClass().getMethod("isEnabled"),
+                    eventFactoryClass.getMethod("newEvent"),
+                    eventClass.getMethod("begin"),
+                    eventClass.getMethod("end"),
+                    eventClass.getMethod("shouldCommit"),
+                    eventClass.getMethod("set", int.class, Object.class),
+                    eventClass.getMethod("commit")
+                );
+            } catch (final ReflectiveOperationException | RuntimeException e) {
+                logger.fine(() -> "No flight recorder events for the schedule profiler: " + e);
+                return new FlightRecorderEvents(null, null, null, null, null, null, null, null, null);
+            }
+        }
+
+        /**
+         * starts an event if a recording wants it, otherwise returns null
+         */
+        Object begin() {
+            if (factory == null)
+                return null;
+            try {
+                if (!(Boolean) isEnabled.invoke(eventType))
+                    return null;
+                final Object event = newEvent.invoke(factory);
+                begin.invoke(event);
+                return event;
+            } catch (final ReflectiveOperationException e) {
+                throw new IllegalStateException(e);
+            }
+        }
+
+        void commit(
+            final Object event,
+            final StepOrder order,
+            final Class<?> steppableClass,
+            final long allocatedBytes
+        ) {
+            if (event == null)
+                return;
+            try {
+                end.invoke(event);
+                if ((Boolean) shouldCommit.invoke(event)) {
+                    set.invoke(event, 0, order.name());
+                    set.invoke(event, 1, steppableClass.getName());
+                    set.invoke(event, 2, allocatedBytes);
+                    commit.invoke(event);
+                }
+            } catch (final ReflectiveOperationException e) {
+                throw new IllegalStateException(e);
+            }
+        }
+    }
+}
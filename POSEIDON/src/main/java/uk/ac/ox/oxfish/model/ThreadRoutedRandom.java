@@ -0,0 +1,204 @@
+/*
+ * POSEIDON: an agent-based model of fisheries
+ * Copyright (c) 2025, University of Oxford.
+ *
+ * University of Oxford means the Chancellor, Masters and Scholars of the
+ * University of Oxford, having an administrative office at Wellington
+ * Square, Oxford OX1 2JD, UK.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+
+package uk.ac.ox.oxfish.model;
+
+import ec.util.MersenneTwisterFast;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+
+/**
+ * A random generator that, on threads where a stream has been set with {@link #setCurrentStream}, draws from that
+ * stream instead of from its own state. The model uses it during the concurrent fisher phase so that code that asks
+ * the model for its randomizer, directly or through the fisher, draws from the stream of the agent being stepped.
+ * Everywhere else it behaves like the generator it was copied from.
+ */
+public class ThreadRoutedRandom extends MersenneTwisterFast {
+
+    private static final long serialVersionUID = 6049871468011391425L;
+
+    private transient ThreadLocal<MersenneTwisterFast> currentStreams;
+
+    /**
+     * Creates a generator in the same state as the given one.
+     */
+    public ThreadRoutedRandom(final MersenneTwisterFast original) {
+        super(0L);
+        try {
+            final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            original.writeState(new DataOutputStream(bytes));
+            readState(new DataInputStream(new ByteArrayInputStream(bytes.toByteArray())));
+        } catch (final IOException e) {
+            throw new IllegalStateException(e);
+        }
+        currentStreams = new ThreadLocal<>();
+    }
+
+    /**
+     * Routes the draws made on the calling thread to the given stream, or back to this generator if null.
+     */
+    public void setCurrentStream(final MersenneTwisterFast stream) {
+        if (stream == null)
+            currentStreams.remove();
+        else
+            currentStreams.set(stream);
+    }
+
+    private MersenneTwisterFast current() {
+        // null while the super constructor runs
+        return currentStreams == null ? null : currentStreams.get();
+    }
+
+    private void readObject(final ObjectInputStream in) throws IOException, ClassNotFoundException {
+        in.defaultReadObject();
+        currentStreams = new ThreadLocal<>();
+    }
+
+    @Override
+    public void setSeed(final long seed) {
+        final MersenneTwisterFast current = current();
+        if (current == null) super.setSeed(seed);
+        else current.setSeed(seed);
+    }
+
+    @Override
+    public void setSeed(final int[] array) {
+        final MersenneTwisterFast current = current();
+        if (current == null) super.setSeed(array);
+        else current.setSeed(array);
+    }
+
+    @Override
+    public int nextInt() {
+        final MersenneTwisterFast current = current();
+        return current == null ? super.nextInt() : current.nextInt();
+    }
+
+    @Override
+    public short nextShort() {
+        final MersenneTwisterFast current = current();
+        return current == null ? super.nextShort() : current.nextShort();
+    }
+
+    @Override
+    public char nextChar() {
+        final MersenneTwisterFast current = current();
+        return current == null ? super.nextChar() : current.nextChar();
+    }
+
+    @Override
+    public boolean nextBoolean() {
+        final MersenneTwisterFast current = current();
+        return current == null ? super.nextBoolean() : current.nextBoolean();
+    }
+
+    @Override
+    public boolean nextBoolean(final float probability) {
+        final MersenneTwisterFast current = current();
+        return current == null ? super.nextBoolean(probability) : current.nextBoolean(probability);
+    }
+
+    @Override
+    public boolean nextBoolean(final double probability) {
+        final MersenneTwisterFast current = current();
+        return current == null ? super.nextBoolean(probability) : current.nextBoolean(probability);
+    }
+
+    @Override
+    public byte nextByte() {
+        final MersenneTwisterFast current = current();
+        return current == null ? super.nextByte() : current.nextByte();
+    }
+
+    @Override
+    public void nextBytes(final byte[] bytes) {
+        final MersenneTwisterFast current = current();
+        if (current == null) super.nextBytes(bytes);
+        else current.nextBytes(bytes);
+    }
+
+    @Override
+    public long nextLong() {
+        final MersenneTwisterFast current = current();
+        return current == null ? super.nextLong() : current.nextLong();
+    }
+
+    @Override
+    public long nextLong(final long n) {
+        final MersenneTwisterFast current = current();
+        return current == null ? super.nextLong(n) : current.nextLong(n);
+    }
+
+    @Override
+    public double nextDouble() {
+        final MersenneTwisterFast current = current();
+        return current == null ? super.nextDouble() : current.nextDouble();
+    }
+
+    @Override
+    public double nextDouble(final boolean includeZero, final boolean includeOne) {
+        final MersenneTwisterFast current = current();
+        return current == null
+            ? super.nextDouble(includeZero, includeOne)
+            : current.nextDouble(includeZero, includeOne);
+    }
+
+    @Override
+    public void clearGaussian() {
+        final MersenneTwisterFast current = current();
+        if (current == null) super.clearGaussian();
+        else current.clearGaussian();
+    }
+
+    @Override
+    public double nextGaussian() {
+        final MersenneTwisterFast current = current();
+        return current == null ? super.nextGaussian() : current.nextGaussian();
+    }
+
+    @Override
+    public float nextFloat() {
+        final MersenneTwisterFast current = current();
+        return current == null ? super.nextFloat() : current.nextFloat();
+    }
+
+    @Override
+    public float nextFloat(final boolean includeZero, final boolean includeOne) {
+        final MersenneTwisterFast current = current();
+        return current == null
+            ? super.nextFloat(includeZero, includeOne)
+            : current.nextFloat(includeZero, includeOne);
+    }
+
+    @Override
+    public int nextInt(final int n) {
+        final MersenneTwisterFast current = current();
+        return current == null ? super.nextInt(n) : current.nextInt(n);
+    }
+
+}
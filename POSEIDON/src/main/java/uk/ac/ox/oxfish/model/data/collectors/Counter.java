@@ -26,37 +26,44 @@ import com.google.common.base.Preconditions;
 import sim.engine.SimState;
 import sim.engine.Steppable;
 import sim.engine.Stoppable;
+import uk.ac.ox.oxfish.model.ConcurrentFisherPhase;
 import uk.ac.ox.oxfish.model.FishState;
 import uk.ac.ox.oxfish.model.Startable;
 import uk.ac.ox.oxfish.model.StepOrder;
 
+import java.util.Arrays;
 import java.util.LinkedHashMap;
 import java.util.Map;
 import java.util.Set;
 
 /**
- * A simple map String--->Double that auto-resets once started
+ * A simple map String--->Double that auto-resets once started.
+ * Columns are registered once and get an int handle: counting through the handle is just an addition to a slot of a
+ * primitive array, and resetting is a fill. Counting by column name looks the handle up first.
  * Created by carrknight on 6/8/15.
  */
 public class Counter implements Startable, Steppable {
 
     private static final long serialVersionUID = 6991537107843888670L;
-    final private Map<String, Double> data;
+
+    /**
+     * the handle of each column, in the order they were added
+     */
+    final private Map<String, Integer> handles;
 
     final private IntervalPolicy policy;
 
+    private double[] values = new double[8];
+
     private Stoppable receipt = null;
 
-    //some counters spend an inordinate amount of time
-    //updating the same column over and over again
-    //we can speed up the processing a lot by not inserting
-    //the last column (and just track its counts separately)
-    //until we absolutely need it
-    private String lazyColumnToInsert = null;
-    private double lazyValueToAdd = 0;
+    /**
+     * when true, counts made by fishers stepped by the concurrent fisher phase are applied after the phase
+     */
+    private boolean sharedByConcurrentFishers = false;
 
     public Counter(final IntervalPolicy policy) {
-        this.data = new LinkedHashMap<>();
+        this.handles = new LinkedHashMap<>();
         this.policy = policy;
     }
 
@@ -70,17 +77,22 @@ public class Counter implements Startable, Steppable {
         /**
          * reset all stuff
          */
-        data.entrySet().forEach(datum -> datum.setValue(0d));
+        Arrays.fill(values, 0, handles.size(), 0d);
     }
 
     /**
      * adds a new data column, ready to be counted. It can't be already there
      *
      * @param columnName the name of the column
+     * @return the handle to count into the column with
      */
-    public void addColumn(final String columnName) {
+    public int addColumn(final String columnName) {
         Preconditions.checkArgument(!hasColumn(columnName), columnName + " column already exists!");
-        data.put(columnName, 0d);
+        final int handle = handles.size();
+        if (handle == values.length)
+            values = Arrays.copyOf(values, values.length * 2);
+        handles.put(columnName, handle);
+        return handle;
     }
 
     /**
@@ -90,7 +102,20 @@ public class Counter implements Startable, Steppable {
      * @return
      */
     public boolean hasColumn(final String columnName) {
-        return data.containsKey(columnName);
+        return handles.containsKey(columnName);
+    }
+
+    /**
+     * the handle of an existing column
+     *
+     * @param columnName the name of the column
+     * @return the handle to count into the column with
+     */
+    public int getHandle(final String columnName) {
+        final Integer handle = handles.get(columnName);
+        if (handle == null)
+            throw new NullPointerException("No column exists: " + columnName);
+        return handle;
     }
 
     /**
@@ -100,35 +125,30 @@ public class Counter implements Startable, Steppable {
      * @param add        by how much to increment
      */
     public void count(final String columnName, final double add) {
-
         if (add == 0)
             return;
-
-        if (lazyColumnToInsert != null && lazyColumnToInsert != columnName)
-            flushLazyValueInCounter();
-
-        lazyColumnToInsert = columnName;
-        lazyValueToAdd = lazyValueToAdd + add;
-
-
+        count(getHandle(columnName), add);
     }
 
-    private void flushLazyValueInCounter() {
-        assert lazyColumnToInsert != null;
-        assert Double.isFinite(lazyValueToAdd);
-        data.compute(
-            lazyColumnToInsert,
-            (s, oldValue) -> {
-                if (oldValue == null)
-                    throw new NullPointerException("No column exists");
-                else
-                    return oldValue + lazyValueToAdd;
-
-            }
-        );
-        lazyColumnToInsert = null;
-        lazyValueToAdd = 0;
+    /**
+     * increment column by this
+     *
+     * @param handle the handle of the column to increment, as returned when adding it
+     * @param add    by how much to increment
+     */
+    public void count(final int handle, final double add) {
+        assert handle < handles.size();
+        if (sharedByConcurrentFishers && ConcurrentFisherPhase.deferUntilAfterPhase(() -> values[handle] += add))
+            return;
+        values[handle] += add;
+    }
 
+    /**
+     * Set to true for counters that all fishers can count into, so that counts made during the concurrent fisher
+     * phase are applied in the same order whatever the number of threads.
+     */
+    public void setSharedByConcurrentFishers(final boolean sharedByConcurrentFishers) {
+        this.sharedByConcurrentFishers = sharedByConcurrentFishers;
     }
 
     /**
@@ -142,14 +162,18 @@ public class Counter implements Startable, Steppable {
 
 
     public Double getColumn(final String columnName) {
-        if (lazyColumnToInsert != null)
-            flushLazyValueInCounter();
-        return data.get(columnName);
+        final Integer handle = handles.get(columnName);
+        return handle == null ? null : values[handle];
+    }
+
+    public double getColumn(final int handle) {
+        assert handle < handles.size();
+        return values[handle];
     }
 
 
     public Set<String> getValidCounters() {
-        return data.keySet();
+        return handles.keySet();
     }
 
 }
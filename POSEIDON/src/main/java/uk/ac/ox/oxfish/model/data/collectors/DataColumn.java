@@ -19,31 +19,61 @@
  * You should have received a copy of the GNU General Public License
  * along with this program.  If not, see <http://www.gnu.org/licenses/>.
  */
-
 package uk.ac.ox.oxfish.model.data.collectors;
 
 import javax.measure.Unit;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.ObjectStreamField;
 import java.io.Serializable;
+import java.nio.DoubleBuffer;
+import java.util.Arrays;
+import java.util.BitSet;
 import java.util.Iterator;
 import java.util.LinkedList;
+import java.util.NoSuchElementException;
 import java.util.Spliterator;
+import java.util.Spliterators;
 import java.util.function.Consumer;
+import java.util.stream.DoubleStream;
 import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 import static tech.units.indriya.AbstractUnit.ONE;
 
 /**
- * basically a linked-list for double values that cannot be modified easily
+ * basically a list of double values that cannot be modified easily. Observations are kept in a growable primitive
+ * array, so that indexed access is O(1) and columns can be exported without boxing every value.
+ * <p>
+ * A null observation is recorded as missing: the boxed accessors return null for it, as they always did, while the
+ * primitive ones return NaN unless told otherwise (see {@link #toArray(double)}).
  * Created by carrknight on 6/9/15.
  */
 public class DataColumn implements Iterable<Double>, Serializable {
 
     private static final long serialVersionUID = 6931226317085531711L;
-    private final LinkedList<Double> data = new LinkedList<>();
 
-    private final String name;
-    private final Unit<?> unit;
-    private final String yLabel;
+    /**
+     * the serialized form is still the one of the linked list that used to back this class, with nulls for missing
+     * observations
+     */
+    private static final ObjectStreamField[] serialPersistentFields = {
+        new ObjectStreamField("data", LinkedList.class),
+        new ObjectStreamField("name", String.class),
+        new ObjectStreamField("unit", Unit.class),
+        new ObjectStreamField("yLabel", String.class)
+    };
+
+    private static final int INITIAL_CAPACITY = 16;
+
+    private String name;
+    private Unit<?> unit;
+    private String yLabel;
+
+    private transient double[] data = new double[INITIAL_CAPACITY];
+    private transient BitSet missing = new BitSet();
+    private transient int size = 0;
 
     public DataColumn(final String name) {
         this(name, null, null);
@@ -84,12 +114,27 @@ public class DataColumn implements Iterable<Double>, Serializable {
     }
 
     /**
-     * add latest observation
+     * add latest observation. A null observation is recorded as missing.
      *
      * @param newValue latest observation to add
      */
     public void add(final Double newValue) {
-        data.addLast(newValue);
+        if (newValue == null) {
+            missing.set(size);
+            add(Double.NaN);
+        } else
+            add(newValue.doubleValue());
+    }
+
+    /**
+     * add latest observation
+     *
+     * @param newValue latest observation to add
+     */
+    public void add(final double newValue) {
+        if (size == data.length)
+            data = Arrays.copyOf(data, data.length * 2);
+        data[size++] = newValue;
     }
 
     /**
@@ -98,22 +143,56 @@ public class DataColumn implements Iterable<Double>, Serializable {
      * @return the latest value added or NaN if there is none
      */
     public Double getLatest() {
-        return data.isEmpty() ? Double.NaN : data.peekLast();
+        return size == 0 ? Double.NaN : get(size - 1);
     }
 
     /**
      * Returns the element at the specified position in this list.
      *
      * @param index index of the element to return
-     * @return the element at the specified position in this list
-     * @throws IndexOutOfBoundsException {@inheritDoc}
+     * @return the element at the specified position in this list, or null if it is missing
+     * @throws IndexOutOfBoundsException if the index is out of range
      */
     public Double get(final int index) {
-        return data.get(index);
+        final double value = getAsDouble(index);
+        return missing.get(index) ? null : value;
+    }
+
+    /**
+     * Same as {@link #get(int)}, without boxing the value. Missing observations are NaN.
+     *
+     * @param index index of the element to return
+     * @return the element at the specified position in this list
+     * @throws IndexOutOfBoundsException if the index is out of range
+     */
+    public double getAsDouble(final int index) {
+        if (index < 0 || index >= size)
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+        return data[index];
+    }
+
+    /**
+     * true if the observation at this position was added as null
+     */
+    public boolean isMissing(final int index) {
+        getAsDouble(index);
+        return missing.get(index);
     }
 
     public Double getDatumXStepsAgo(final int daysAgo) {
-        return data.get(data.size() - daysAgo - 1);
+        return get(size - daysAgo - 1);
+    }
+
+    /**
+     * Sums the latest {@code numberOfObservations} values of the column (or all of them, if
+     * there are fewer observations than that), going from the latest to the oldest.
+     */
+    public double sumOfLatest(final int numberOfObservations) {
+        double sum = 0;
+        final int oldest = Math.max(0, size - numberOfObservations);
+        for (int i = size - 1; i >= oldest; i--)
+            sum += data[i];
+        return sum;
     }
 
     /**
@@ -122,7 +201,7 @@ public class DataColumn implements Iterable<Double>, Serializable {
      * @return the number of elements in this list
      */
     public int size() {
-        return data.size();
+        return size;
     }
 
     /**
@@ -132,15 +211,43 @@ public class DataColumn implements Iterable<Double>, Serializable {
      */
     @Override
     public Iterator<Double> iterator() {
-        return data.iterator();
+        return new Iterator<Double>() {
+            private int next = 0;
+
+            @Override
+            public boolean hasNext() {
+                return next < size;
+            }
+
+            @Override
+            public Double next() {
+                if (!hasNext())
+                    throw new NoSuchElementException();
+                return get(next++);
+            }
+        };
     }
 
 
     /**
-     * @since 1.6
+     * Iterates over the observations from the latest to the oldest.
      */
     public Iterator<Double> descendingIterator() {
-        return data.descendingIterator();
+        return new Iterator<Double>() {
+            private int next = size - 1;
+
+            @Override
+            public boolean hasNext() {
+                return next >= 0;
+            }
+
+            @Override
+            public Double next() {
+                if (!hasNext())
+                    throw new NoSuchElementException();
+                return get(next--);
+            }
+        };
     }
 
     /**
@@ -148,7 +255,8 @@ public class DataColumn implements Iterable<Double>, Serializable {
      */
     @Override
     public void forEach(final Consumer<? super Double> action) {
-        data.forEach(action);
+        for (int i = 0; i < size; i++)
+            action.accept(get(i));
     }
 
     /**
@@ -156,41 +264,97 @@ public class DataColumn implements Iterable<Double>, Serializable {
      */
     @Override
     public Spliterator<Double> spliterator() {
-        return data.spliterator();
+        return Spliterators.spliterator(iterator(), size, Spliterator.ORDERED);
+    }
+
+    private Spliterator.OfDouble doubleSpliterator() {
+        return Spliterators.spliterator(data, 0, size, Spliterator.ORDERED);
     }
 
 
     /**
      * Returns a sequential {@code Stream} with this collection as its source.
      *
-     * <p>This method should be overridden when the {@link #spliterator()}
-     * method cannot return a spliterator that is {@code IMMUTABLE},
-     * {@code CONCURRENT}, or <em>late-binding</em>. (See {@link #spliterator()}
-     * for details.)
-     *
      * @return a sequential {@code Stream} over the elements in this collection
-     * @implSpec The default implementation creates a sequential {@code Stream} from the
-     * collection's {@code Spliterator}.
-     * @since 1.8
      */
     public Stream<Double> stream() {
-        return data.stream();
+        return StreamSupport.stream(spliterator(), false);
+    }
+
+    /**
+     * Returns a sequential {@code DoubleStream} over the observations, without boxing them. Missing observations are
+     * NaN.
+     */
+    public DoubleStream doubleStream() {
+        return StreamSupport.doubleStream(doubleSpliterator(), false);
+    }
+
+    /**
+     * Returns a copy of the observations as a primitive array. Missing observations are NaN.
+     */
+    public double[] toArray() {
+        return Arrays.copyOf(data, size);
+    }
+
+    /**
+     * Returns a copy of the observations as a primitive array, with missing observations replaced by the given value
+     * (R's NA, for instance).
+     */
+    public double[] toArray(final double missingValue) {
+        final double[] array = toArray();
+        for (int i = missing.nextSetBit(0); i >= 0 && i < size; i = missing.nextSetBit(i + 1))
+            array[i] = missingValue;
+        return array;
     }
 
+    /**
+     * Returns a read-only view of the observations, without copying them. Missing observations are NaN. The view is
+     * only guaranteed to reflect the content of the column until the next call to {@link #add} or {@link #clear()}.
+     */
+    public DoubleBuffer asDoubleBuffer() {
+        return DoubleBuffer.wrap(data, 0, size).slice().asReadOnlyBuffer();
+    }
 
     public LinkedList<Double> copy() {
-        return new LinkedList<>(data);
+        final LinkedList<Double> copy = new LinkedList<>();
+        forEach(copy::add);
+        return copy;
     }
 
 
     @Override
     public String toString() {
-        final String sb = "DataColumn{" + "data=" + data +
+        final String sb = "DataColumn{" + "data=" + copy() +
             '}';
         return sb;
     }
 
     public void clear() {
-        data.clear();
+        data = new double[INITIAL_CAPACITY];
+        missing = new BitSet();
+        size = 0;
+    }
+
+    private void writeObject(final ObjectOutputStream out) throws IOException {
+        final ObjectOutputStream.PutField fields = out.putFields();
+        fields.put("data", copy());
+        fields.put("name", name);
+        fields.put("unit", unit);
+        fields.put("yLabel", yLabel);
+        out.writeFields();
+    }
+
+    @SuppressWarnings("unchecked")
+    private void readObject(final ObjectInputStream in) throws IOException, ClassNotFoundException {
+        final ObjectInputStream.GetField fields = in.readFields();
+        name = (String) fields.get("name", null);
+        unit = (Unit<?>) fields.get("unit", null);
+        yLabel = (String) fields.get("yLabel", null);
+        data = new double[INITIAL_CAPACITY];
+        missing = new BitSet();
+        size = 0;
+        final LinkedList<Double> observations = (LinkedList<Double>) fields.get("data", null);
+        if (observations != null)
+            observations.forEach(this::add);
     }
 }
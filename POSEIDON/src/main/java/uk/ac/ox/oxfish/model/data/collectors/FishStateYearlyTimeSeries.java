@@ -33,7 +33,6 @@ import uk.ac.ox.oxfish.model.market.AbstractMarket;
 import uk.ac.ox.oxfish.utility.FishStateUtilities;
 
 import java.util.DoubleSummaryStatistics;
-import java.util.Iterator;
 import java.util.List;
 import java.util.Optional;
 import java.util.stream.Collectors;
@@ -104,21 +103,12 @@ public class FishStateYearlyTimeSeries extends TimeSeries<FishState> {
 
                     final DataColumn numerator = originalGatherer.getColumn(catchesColumn);
                     final DataColumn denominator = originalGatherer.getColumn(effort);
-                    final Iterator<Double> numeratorIterator = numerator.descendingIterator();
-                    final Iterator<Double> denominatorIterator = denominator.descendingIterator();
-                    if (!numeratorIterator.hasNext()) //not ready/year 1
+                    if (numerator.size() == 0) //not ready/year 1
                         return Double.NaN;
-                    double sumNumerator = 0;
-                    double sumDenominator = 0;
-                    for (int i = 0; i < 365; i++) {
-                        //it should be stepped 365 times at most, but it's possible that this agent was added halfway through
-                        //and only has a partially filled collection
-                        if (numeratorIterator.hasNext()) {
-                            sumNumerator += numeratorIterator.next();
-                            sumDenominator += denominatorIterator.next();
-                        }
-                    }
-                    return sumNumerator / sumDenominator;
+                    //it should be stepped 365 times at most, but it's possible that this agent was added halfway through
+                    //and only has a partially filled collection
+                    final int observations = Math.min(365, numerator.size());
+                    return numerator.sumOfLatest(observations) / denominator.sumOfLatest(observations);
 
                 }, Double.NaN
             );
@@ -128,17 +118,9 @@ public class FishStateYearlyTimeSeries extends TimeSeries<FishState> {
                 (Gatherer<FishState>) fishState -> {
 
                     final DataColumn numerator = originalGatherer.getColumn(catchesColumn);
-                    final Iterator<Double> numeratorIterator = numerator.descendingIterator();
-                    if (!numeratorIterator.hasNext()) //not ready/year 1
+                    if (numerator.size() == 0) //not ready/year 1
                         return Double.NaN;
-                    double sumNumerator = 0;
-                    for (int i = 0; i < 365; i++) {
-                        //it should be stepped 365 times at most, but it's possible that this agent was added halfway through
-                        //and only has a partially filled collection
-                        if (numeratorIterator.hasNext()) {
-                            sumNumerator += numeratorIterator.next();
-                        }
-                    }
+                    final double sumNumerator = numerator.sumOfLatest(365);
                     final double sumDenominator = fishState.getFishers().stream().
                         mapToDouble(value -> value.getLatestYearlyObservation(
                             FisherYearlyTimeSeries.HOURS_OUT)).sum();
@@ -157,25 +139,15 @@ public class FishStateYearlyTimeSeries extends TimeSeries<FishState> {
                     registerGatherer(
                         price,
                         fishState -> {
-                            final Iterator<Double> numeratorIterator =
-                                numerator.descendingIterator();
-                            final Iterator<Double> denominatorIterator =
-                                denominator.descendingIterator();
-                            if (!numeratorIterator.hasNext()) { //not ready/year 1
+                            if (numerator.size() == 0) { //not ready/year 1
                                 return Double.NaN;
                             }
-                            double sumNumerator = 0;
-                            double sumDenominator = 0;
-                            for (int i = 0; i < 365; i++) {
-                                // it should be stepped 365 times at most, but it's possible
-                                // that this agent was added halfway through and only has
-                                // a partially filled collection
-                                if (numeratorIterator.hasNext()) {
-                                    sumNumerator += numeratorIterator.next();
-                                    sumDenominator += denominatorIterator.next();
-                                }
-                            }
-                            return sumNumerator / sumDenominator;
+                            // it should be stepped 365 times at most, but it's possible
+                            // that this agent was added halfway through and only has
+                            // a partially filled collection
+                            final int observations = Math.min(365, numerator.size());
+                            return numerator.sumOfLatest(observations) /
+                                denominator.sumOfLatest(observations);
                         },
                         Double.NaN,
                         currency,
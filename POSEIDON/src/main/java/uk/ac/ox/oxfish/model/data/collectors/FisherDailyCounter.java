@@ -41,14 +41,18 @@ public class FisherDailyCounter extends Counter {
 
     private final double[][][] landingsPerBin;
 
+    private final int cashFlowHandle;
+
+    private final int effortHandle;
+
     public FisherDailyCounter(final int numberOfSpecies) {
         super(IntervalPolicy.EVERY_DAY);
         landings = new double[numberOfSpecies];
         earnings = new double[numberOfSpecies];
         catches = new double[numberOfSpecies];
         landingsPerBin = new double[numberOfSpecies][][];
-        super.addColumn(FisherYearlyTimeSeries.CASH_FLOW_COLUMN);
-        super.addColumn(FisherYearlyTimeSeries.EFFORT);
+        cashFlowHandle = super.addColumn(FisherYearlyTimeSeries.CASH_FLOW_COLUMN);
+        effortHandle = super.addColumn(FisherYearlyTimeSeries.EFFORT);
     }
 
     @Override
@@ -67,6 +71,24 @@ public class FisherDailyCounter extends Counter {
         }
     }
 
+    /**
+     * increment the cash flow column by this
+     *
+     * @param add by how much to increment
+     */
+    public void countCashFlow(final double add) {
+        count(cashFlowHandle, add);
+    }
+
+    /**
+     * increment the effort column by this
+     *
+     * @param add by how much to increment
+     */
+    public void countEffort(final double add) {
+        count(effortHandle, add);
+    }
+
     /**
      * increment catch earnings column by this
      *
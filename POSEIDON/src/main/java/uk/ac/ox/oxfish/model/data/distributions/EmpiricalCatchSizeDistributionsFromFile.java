@@ -34,7 +34,7 @@ import static uk.ac.ox.poseidon.common.core.csv.CsvParserUtil.recordStream;
 public class EmpiricalCatchSizeDistributionsFromFile implements AlgorithmFactory<GroupedYearlyDistributions> {
 
     private static final CacheByFile<GroupedYearlyDistributions> cache =
-        new CacheByFile<>(path -> new MapBasedGroupedYearlyDistributions(
+        new CacheByFile<>(EmpiricalCatchSizeDistributionsFromFile.class, path -> new MapBasedGroupedYearlyDistributions(
             recordStream(path).collect(groupingBy(
                 record -> record.getString("species_code"),
                 groupingBy(
@@ -35,7 +35,10 @@ import uk.ac.ox.oxfish.model.Startable;
 import uk.ac.ox.oxfish.model.StepOrder;
 import uk.ac.ox.oxfish.model.data.monitors.loggers.RowProvider;
 
+import java.io.Serializable;
+import java.util.ArrayDeque;
 import java.util.Collections;
+import java.util.Deque;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
@@ -44,10 +47,19 @@ import java.util.function.Function;
 import java.util.function.ToDoubleFunction;
 import java.util.stream.Stream;
 
+import static com.google.common.base.Preconditions.checkState;
 import static com.google.common.collect.ImmutableList.toImmutableList;
 import static java.lang.Double.NaN;
 import static java.util.stream.IntStream.range;
 
+/**
+ * Gathers one value per tile every step and merges them over intervals of a fixed number of steps.
+ * <p>
+ * By default, the merged values are stored in a full grid per interval and kept until the end of the run. In
+ * streaming mode (see {@link #setStreaming(boolean)}), only water tiles are stored, in a primitive buffer indexed like
+ * {@link NauticalMap#getAllSeaTilesExcludingLandAsList()} and merged in place, and the rows of each completed interval
+ * are handed over, and then dropped, the next time {@link #getRows()} is called.
+ */
 public class HeatmapGatherer implements AdditionalStartable, Steppable, RowProvider {
 
     private static final List<String> HEADERS = ImmutableList.of("name", "step", "lon", "lat", "value", "unit");
@@ -58,10 +70,16 @@ public class HeatmapGatherer implements AdditionalStartable, Steppable, RowProvi
     private final ToDoubleFunction<SeaTile> numericExtractor;
     private final DoubleBinaryOperator merger;
     private final Map<Integer, DoubleGrid2D> grids = new LinkedHashMap<>();
+    private final Deque<CompletedInterval> completedIntervals = new ArrayDeque<>();
+    private final Deque<double[]> spareBuffers = new ArrayDeque<>();
     private int numObservations = 0;
     private int intervalStartDay = 0;
     private DoubleGrid2D currentGrid;
     private FishState fishState;
+    private boolean streaming = false;
+    private SeaTile[] waterTiles;
+    private double[] currentValues;
+    private double maxValueStreamed = NaN;
 
     HeatmapGatherer(
         final String name,
@@ -96,12 +114,19 @@ public class HeatmapGatherer implements AdditionalStartable, Steppable, RowProvi
     }
 
     public double maxValueSeen() {
+        if (streaming)
+            return maxValueStreamed;
         return grids.values().stream().mapToDouble(DoubleGrid2D::max).max().orElse(NaN);
     }
 
     @Override
     public void step(final SimState simState) {
 
+        if (streaming) {
+            stepWaterTiles();
+            return;
+        }
+
         final NauticalMap map = fishState.getMap();
 
         numObservations++;
@@ -123,6 +148,32 @@ public class HeatmapGatherer implements AdditionalStartable, Steppable, RowProvi
         }
     }
 
+    private void stepWaterTiles() {
+
+        numObservations++;
+        final double[] values = currentValues;
+        if (numObservations == 1) {
+            for (int i = 0; i < values.length; i++)
+                values[i] = numericExtractor.applyAsDouble(waterTiles[i]);
+            intervalStartDay = fishState.getDay();
+        } else {
+            for (int i = 0; i < values.length; i++)
+                values[i] = merger.applyAsDouble(values[i], numericExtractor.applyAsDouble(waterTiles[i]));
+        }
+
+        // Completed intervals wait for the next call to getRows, and the buffer
+        // is swapped for one that has already been written out, if there is one
+        if (numObservations == interval) {
+            for (final double value : values)
+                if (Double.isNaN(maxValueStreamed) || value > maxValueStreamed)
+                    maxValueStreamed = value;
+            completedIntervals.add(new CompletedInterval(intervalStartDay, values));
+            final double[] spare = spareBuffers.poll();
+            currentValues = spare == null ? new double[waterTiles.length] : spare;
+            numObservations = 0;
+        }
+    }
+
     private DoubleGrid2D extractValues(final NauticalMap map) {
         final DoubleGrid2D grid = new DoubleGrid2D(map.getWidth(), map.getHeight());
         for (int x = 0; x < grid.getWidth(); ++x) {
@@ -149,6 +200,10 @@ public class HeatmapGatherer implements AdditionalStartable, Steppable, RowProvi
         this.fishState = fishState;
         if (numericExtractor instanceof Startable)
             ((Startable) numericExtractor).start(fishState);
+        if (streaming) {
+            waterTiles = fishState.getMap().getAllSeaTilesExcludingLandAsList().toArray(new SeaTile[0]);
+            currentValues = new double[waterTiles.length];
+        }
         fishState.scheduleEveryStep(this, StepOrder.DAILY_DATA_GATHERING);
     }
 
@@ -159,6 +214,8 @@ public class HeatmapGatherer implements AdditionalStartable, Steppable, RowProvi
 
     @Override
     public Iterable<List<?>> getRows() {
+        if (streaming)
+            return drainCompletedIntervals();
         return getGrids().entrySet().stream().flatMap(entry -> {
             final Integer step = entry.getKey();
             final DoubleGrid2D grid = entry.getValue();
@@ -170,23 +227,44 @@ public class HeatmapGatherer implements AdditionalStartable, Steppable, RowProvi
         }).collect(toImmutableList());
     }
 
+    private List<List<?>> drainCompletedIntervals() {
+        final ImmutableList.Builder<List<?>> rows = ImmutableList.builder();
+        CompletedInterval completedInterval;
+        while ((completedInterval = completedIntervals.poll()) != null) {
+            final double[] values = completedInterval.values;
+            for (int i = 0; i < values.length; i++) {
+                if (values[i] != 0) {
+                    final SeaTile tile = waterTiles[i];
+                    rows.add(makeRow(completedInterval.startDay, tile.getGridX(), tile.getGridY(), values[i]));
+                }
+            }
+            spareBuffers.push(values);
+        }
+        return rows.build();
+    }
+
     public Map<Integer, DoubleGrid2D> getGrids() {
+        checkState(!streaming, "Grids are not kept in streaming mode");
         return Collections.unmodifiableMap(grids);
     }
 
     private Stream<List<?>> makeRow(final int step, final DoubleGrid2D grid, final int x, final int y) {
-        final Coordinate coordinates = fishState.getMap().getCoordinates(x, y);
         final double value = grid.get(x, y);
         return value == 0
             ? Stream.empty()
-            : Stream.of(ImmutableList.of(
+            : Stream.of(makeRow(step, x, y, value));
+    }
+
+    private List<?> makeRow(final int step, final int x, final int y, final double value) {
+        final Coordinate coordinates = fishState.getMap().getCoordinates(x, y);
+        return ImmutableList.of(
             getName(),
             step,
             coordinates.x,
             coordinates.y,
             value,
             getUnit()
-        ));
+        );
     }
 
     public String getName() {
@@ -197,4 +275,37 @@ public class HeatmapGatherer implements AdditionalStartable, Steppable, RowProvi
         return unit;
     }
 
+    /**
+     * In streaming mode, the gatherer is an every step row provider whose rows are only those of the intervals
+     * completed since the last call to {@link #getRows()}.
+     */
+    @Override
+    public boolean isEveryStep() {
+        return streaming;
+    }
+
+    @SuppressWarnings("unused")
+    public boolean isStreaming() {
+        return streaming;
+    }
+
+    /**
+     * Must be set before the gatherer is started.
+     */
+    public void setStreaming(final boolean streaming) {
+        checkState(fishState == null, "The gatherer has already been started");
+        this.streaming = streaming;
+    }
+
+    private static class CompletedInterval implements Serializable {
+        private static final long serialVersionUID = -2405851391536567187L;
+        private final int startDay;
+        private final double[] values;
+
+        private CompletedInterval(final int startDay, final double[] values) {
+            this.startDay = startDay;
+            this.values = values;
+        }
+    }
+
 }
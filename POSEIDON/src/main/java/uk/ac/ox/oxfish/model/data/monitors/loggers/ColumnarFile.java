@@ -0,0 +1,219 @@
+/*
+ * POSEIDON: an agent-based model of fisheries
+ * Copyright (c) 2025, University of Oxford.
+ *
+ * University of Oxford means the Chancellor, Masters and Scholars of the
+ * University of Oxford, having an administrative office at Wellington
+ * Square, Oxford OX1 2JD, UK.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+
+package uk.ac.ox.oxfish.model.data.monitors.loggers;
+
+import com.google.common.collect.ImmutableList;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.DataOutput;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+/**
+ * A compact binary format for rows of data. Files start with a header:
+ * <pre>
+ *     int     magic number
+ *     int     version
+ *     int     number of columns
+ *     UTF[]   column names
+ * </pre>
+ * followed by any number of blocks of rows, until the end of the file:
+ * <pre>
+ *     int     number of rows
+ *     for each column:
+ *         byte        NUMERIC: double[] values, with NaN for nulls
+ *                  or STRING:  int dictionary size, UTF[] dictionary, int[] indices, with -1 for nulls
+ * </pre>
+ * A column is numeric in a block if all its non-null values in that block are numbers. Because the blocks are self
+ * contained, files with the same columns can be merged by appending the blocks of one to the other.
+ */
+public final class ColumnarFile {
+
+    private static final int MAGIC_NUMBER = 0x50434F4C; // "PCOL"
+    private static final int VERSION = 1;
+    private static final byte NUMERIC = 0;
+    private static final byte STRING = 1;
+
+    private final List<String> headers;
+    private final List<List<Object>> rows;
+
+    private ColumnarFile(
+        final List<String> headers,
+        final List<List<Object>> rows
+    ) {
+        this.headers = headers;
+        this.rows = rows;
+    }
+
+    static void writeHeader(
+        final DataOutput out,
+        final List<String> headers
+    ) throws IOException {
+        out.writeInt(MAGIC_NUMBER);
+        out.writeInt(VERSION);
+        out.writeInt(headers.size());
+        for (final String header : headers) {
+            out.writeUTF(header);
+        }
+    }
+
+    static void writeBlock(
+        final DataOutput out,
+        final List<? extends List<?>> rows,
+        final int numberOfColumns
+    ) throws IOException {
+        out.writeInt(rows.size());
+        for (int column = 0; column < numberOfColumns; column++) {
+            boolean numeric = true;
+            for (final List<?> row : rows) {
+                final Object value = row.get(column);
+                if (value != null && !(value instanceof Number)) {
+                    numeric = false;
+                    break;
+                }
+            }
+            if (numeric) {
+                out.writeByte(NUMERIC);
+                for (final List<?> row : rows) {
+                    final Object value = row.get(column);
+                    out.writeDouble(value == null ? Double.NaN : ((Number) value).doubleValue());
+                }
+            } else {
+                writeStringColumn(out, rows, column);
+            }
+        }
+    }
+
+    private static void writeStringColumn(
+        final DataOutput out,
+        final List<? extends List<?>> rows,
+        final int column
+    ) throws IOException {
+        final Map<String, Integer> dictionary = new HashMap<>();
+        final List<String> entries = new ArrayList<>();
+        final int[] indices = new int[rows.size()];
+        for (int i = 0; i < indices.length; i++) {
+            final Object value = rows.get(i).get(column);
+            indices[i] = value == null ? -1 : dictionary.computeIfAbsent(value.toString(), string -> {
+                entries.add(string);
+                return entries.size() - 1;
+            });
+        }
+        out.writeByte(STRING);
+        out.writeInt(entries.size());
+        for (final String entry : entries) {
+            out.writeUTF(entry);
+        }
+        for (final int index : indices) {
+            out.writeInt(index);
+        }
+    }
+
+    /**
+     * Reads the header of a columnar file from an unbuffered stream, leaving the stream at the first block.
+     */
+    static List<String> readHeader(final DataInputStream in) throws IOException {
+        checkArgument(in.readInt() == MAGIC_NUMBER, "Not a columnar file.");
+        final int version = in.readInt();
+        checkArgument(version == VERSION, "Unsupported columnar file version: %s", version);
+        final int numberOfColumns = in.readInt();
+        final ImmutableList.Builder<String> headers = ImmutableList.builder();
+        for (int i = 0; i < numberOfColumns; i++) {
+            headers.add(in.readUTF());
+        }
+        return headers.build();
+    }
+
+    /**
+     * Reads a whole columnar file in memory. Numbers are read back as doubles.
+     */
+    public static ColumnarFile read(final Path file) throws IOException {
+        try (final InputStream inputStream = Files.newInputStream(file)) {
+            final DataInputStream in = new DataInputStream(new BufferedInputStream(inputStream));
+            final List<String> headers = readHeader(in);
+            final List<List<Object>> rows = new ArrayList<>();
+            while (true) {
+                final int numberOfRows;
+                try {
+                    numberOfRows = in.readInt();
+                } catch (final EOFException e) {
+                    break;
+                }
+                final Object[][] block = new Object[numberOfRows][headers.size()];
+                for (int column = 0; column < headers.size(); column++) {
+                    readColumn(in, block, column);
+                }
+                for (final Object[] row : block) {
+                    rows.add(Collections.unmodifiableList(Arrays.asList(row)));
+                }
+            }
+            return new ColumnarFile(headers, Collections.unmodifiableList(rows));
+        }
+    }
+
+    private static void readColumn(
+        final DataInputStream in,
+        final Object[][] block,
+        final int column
+    ) throws IOException {
+        final byte type = in.readByte();
+        if (type == NUMERIC) {
+            for (final Object[] row : block) {
+                final double value = in.readDouble();
+                row[column] = Double.isNaN(value) ? null : value;
+            }
+        } else if (type == STRING) {
+            final String[] dictionary = new String[in.readInt()];
+            for (int i = 0; i < dictionary.length; i++) {
+                dictionary[i] = in.readUTF();
+            }
+            for (final Object[] row : block) {
+                final int index = in.readInt();
+                row[column] = index < 0 ? null : dictionary[index];
+            }
+        } else {
+            throw new IOException("Unknown column type: " + type);
+        }
+    }
+
+    public List<String> getHeaders() {
+        return headers;
+    }
+
+    public List<List<Object>> getRows() {
+        return rows;
+    }
+}
@@ -0,0 +1,447 @@
+/*
+ * POSEIDON: an agent-based model of fisheries
+ * Copyright (c) 2025, University of Oxford.
+ *
+ * University of Oxford means the Chancellor, Masters and Scholars of the
+ * University of Oxford, having an administrative office at Wellington
+ * Square, Oxford OX1 2JD, UK.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+
+package uk.ac.ox.oxfish.model.data.monitors.loggers;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.io.CountingInputStream;
+import com.google.common.io.MoreFiles;
+import com.google.common.io.RecursiveDeleteOption;
+import com.univocity.parsers.csv.CsvWriter;
+import com.univocity.parsers.csv.CsvWriterSettings;
+
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Predicate;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkState;
+import static com.google.common.collect.Iterables.elementsEqual;
+import static com.google.common.collect.Lists.asList;
+import static com.google.common.collect.Streams.stream;
+import static com.google.common.io.Files.getNameWithoutExtension;
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.nio.file.StandardOpenOption.APPEND;
+import static java.nio.file.StandardOpenOption.CREATE;
+import static java.nio.file.StandardOpenOption.READ;
+import static java.nio.file.StandardOpenOption.TRUNCATE_EXISTING;
+import static java.nio.file.StandardOpenOption.WRITE;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static java.util.stream.Collectors.toList;
+
+/**
+ * Writes the rows of many concurrent runs without making the runs wait on each other. Each run hands copies of its
+ * rows to a bounded queue, which a single writer thread drains into one long-lived part file per run and output file.
+ * When the writer is closed, the parts of each output file are merged, in run order, into the final file.
+ */
+public final class StreamingRowWriter implements AutoCloseable {
+
+    private static final int QUEUE_CAPACITY = 64;
+    private static final long IDLE_PARK_NANOS = 10_000_000L;
+    private static final Batch END_OF_RUN = new Batch(null, null, null);
+
+    private final OutputFormat format;
+    private final CsvWriterSettings csvWriterSettings;
+    private final Predicate<? super Path> overwrite;
+    private final Path partsFolder;
+    private final Set<RunWriter> runs = ConcurrentHashMap.newKeySet();
+    private final Map<Path, NavigableMap<Integer, Path>> parts = new ConcurrentHashMap<>();
+    // only touched by the writer thread
+    private final Map<Path, Integer> outputIndices = new HashMap<>();
+    private final Thread writerThread;
+    private volatile boolean closed = false;
+    private volatile Throwable failure = null;
+
+    /**
+     * @param workFolder        where to put the folder holding the part files until they are merged
+     * @param format            the format of the output files
+     * @param csvWriterSettings used when the format is {@link OutputFormat#CSV}
+     * @param overwrite         whether a final file should be overwritten, rather than appended to
+     */
+    public StreamingRowWriter(
+        final Path workFolder,
+        final OutputFormat format,
+        final CsvWriterSettings csvWriterSettings,
+        final Predicate<? super Path> overwrite
+    ) {
+        this.format = format;
+        this.csvWriterSettings = csvWriterSettings;
+        this.overwrite = overwrite;
+        try {
+            Files.createDirectories(workFolder);
+            this.partsFolder = Files.createTempDirectory(workFolder, ".parts");
+        } catch (final IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        writerThread = new Thread(this::drainQueues, "streaming-row-writer");
+        writerThread.setDaemon(true);
+        writerThread.start();
+    }
+
+    private static long csvHeaderLength(final FileChannel channel) throws IOException {
+        final ByteBuffer buffer = ByteBuffer.allocate(4096);
+        long position = 0;
+        while (channel.read(buffer, position) > 0) {
+            buffer.flip();
+            while (buffer.hasRemaining()) {
+                position++;
+                if (buffer.get() == '\n') {
+                    return position;
+                }
+            }
+            buffer.clear();
+        }
+        return position;
+    }
+
+    private static long columnarHeaderLength(final FileChannel channel) throws IOException {
+        channel.position(0);
+        // not buffered, so that we only consume the header
+        final CountingInputStream in = new CountingInputStream(Channels.newInputStream(channel));
+        ColumnarFile.readHeader(new DataInputStream(in));
+        return in.getCount();
+    }
+
+    private static void transfer(
+        final FileChannel source,
+        long position,
+        long count,
+        final FileChannel target
+    ) throws IOException {
+        while (count > 0) {
+            final long transferred = source.transferTo(position, count, target);
+            position += transferred;
+            count -= transferred;
+        }
+    }
+
+    /**
+     * The final file where the rows for the given output file end up, with the extension of the output format.
+     */
+    public Path finalFileFor(final Path outputFile) {
+        return outputFile.resolveSibling(
+            getNameWithoutExtension(outputFile.getFileName().toString()) + "." + format.getExtension()
+        );
+    }
+
+    public RunWriter openRun(final int runNumber) {
+        checkState(!closed, "The writer is closed.");
+        final RunWriter runWriter = new RunWriter(runNumber);
+        runs.add(runWriter);
+        return runWriter;
+    }
+
+    private void drainQueues() {
+        try {
+            while (true) {
+                boolean drainedSomething = false;
+                for (final RunWriter run : runs) {
+                    drainedSomething |= run.drain();
+                }
+                if (!drainedSomething) {
+                    if (closed) break;
+                    LockSupport.parkNanos(this, IDLE_PARK_NANOS);
+                }
+            }
+        } catch (final IOException | RuntimeException e) {
+            failure = e;
+        } finally {
+            for (final RunWriter run : runs) {
+                run.closeParts();
+            }
+        }
+    }
+
+    private void checkNotFailed() {
+        if (failure != null) {
+            throw new IllegalStateException("Writing output failed.", failure);
+        }
+    }
+
+    /**
+     * Waits for everything to be written and merges the parts into the final files.
+     */
+    @Override
+    public void close() {
+        if (closed) return;
+        closed = true;
+        LockSupport.unpark(writerThread);
+        try {
+            writerThread.join();
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        }
+        checkNotFailed();
+        try {
+            for (final Map.Entry<Path, NavigableMap<Integer, Path>> entry : parts.entrySet()) {
+                final Path finalFile = finalFileFor(entry.getKey());
+                merge(entry.getValue().values(), finalFile, !overwrite.test(finalFile));
+            }
+            MoreFiles.deleteRecursively(partsFolder, RecursiveDeleteOption.ALLOW_INSECURE);
+        } catch (final IOException e) {
+            throw new UncheckedIOException("Merging output files failed.", e);
+        }
+    }
+
+    private void merge(
+        final Collection<Path> partFiles,
+        final Path finalFile,
+        final boolean append
+    ) throws IOException {
+        if (finalFile.getParent() != null) {
+            Files.createDirectories(finalFile.getParent());
+        }
+        try (
+            final FileChannel out = append
+                ? FileChannel.open(finalFile, CREATE, WRITE, APPEND)
+                : FileChannel.open(finalFile, CREATE, WRITE, TRUNCATE_EXISTING)
+        ) {
+            boolean headerWritten = append;
+            for (final Path partFile : partFiles) {
+                try (final FileChannel in = FileChannel.open(partFile, READ)) {
+                    final long headerLength =
+                        format == OutputFormat.CSV ? csvHeaderLength(in) : columnarHeaderLength(in);
+                    if (!headerWritten) {
+                        transfer(in, 0, headerLength, out);
+                        headerWritten = true;
+                    }
+                    transfer(in, headerLength, in.size() - headerLength, out);
+                }
+            }
+        }
+    }
+
+    private PartWriter makePartWriter(final Path partFile) throws IOException {
+        return format == OutputFormat.CSV
+            ? new CsvPartWriter(partFile, csvWriterSettings)
+            : new ColumnarPartWriter(partFile);
+    }
+
+    private interface PartWriter {
+        void write(
+            List<String> headers,
+            List<List<?>> rows
+        ) throws IOException;
+
+        void close() throws IOException;
+    }
+
+    private static final class Batch {
+        private final Path outputFile;
+        private final List<String> headers;
+        private final List<List<?>> rows;
+
+        private Batch(
+            final Path outputFile,
+            final List<String> headers,
+            final List<List<?>> rows
+        ) {
+            this.outputFile = outputFile;
+            this.headers = headers;
+            this.rows = rows;
+        }
+    }
+
+    private static final class CsvPartWriter implements PartWriter {
+        private final CsvWriter csvWriter;
+        private boolean headersWritten = false;
+
+        private CsvPartWriter(
+            final Path file,
+            final CsvWriterSettings settings
+        ) throws IOException {
+            csvWriter = new CsvWriter(Files.newBufferedWriter(file, UTF_8), settings);
+        }
+
+        @Override
+        public void write(
+            final List<String> headers,
+            final List<List<?>> rows
+        ) {
+            if (!headersWritten) {
+                csvWriter.writeHeaders(headers);
+                headersWritten = true;
+            }
+            rows.forEach(csvWriter::writeRow);
+        }
+
+        @Override
+        public void close() {
+            csvWriter.close();
+        }
+    }
+
+    private static final class ColumnarPartWriter implements PartWriter {
+        private final DataOutputStream out;
+        private boolean headersWritten = false;
+
+        private ColumnarPartWriter(final Path file) throws IOException {
+            out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(file), 1 << 16));
+        }
+
+        @Override
+        public void write(
+            final List<String> headers,
+            final List<List<?>> rows
+        ) throws IOException {
+            if (!headersWritten) {
+                ColumnarFile.writeHeader(out, headers);
+                headersWritten = true;
+            }
+            if (!rows.isEmpty()) {
+                ColumnarFile.writeBlock(out, rows, headers.size());
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            out.close();
+        }
+    }
+
+    /**
+     * Where a single run sends its rows. Not thread safe: each run should only write from one thread.
+     */
+    public final class RunWriter implements AutoCloseable {
+
+        private final int runNumber;
+        private final BlockingQueue<Batch> queue = new ArrayBlockingQueue<>(QUEUE_CAPACITY);
+        // only touched by the writer thread
+        private final Map<Path, PartWriter> partWriters = new HashMap<>();
+
+        private RunWriter(final int runNumber) {
+            this.runNumber = runNumber;
+        }
+
+        /**
+         * Copies the current rows of the providers, adding the run number as a first column, and queues them to be
+         * written. The providers must all have the same headers.
+         */
+        public void write(
+            final Path outputFile,
+            final Collection<? extends RowProvider> rowProviders
+        ) {
+            checkArgument(!rowProviders.isEmpty());
+            final List<String> headers = rowProviders.iterator().next().getHeaders();
+            checkArgument(rowProviders.stream().allMatch(provider -> elementsEqual(provider.getHeaders(), headers)));
+            final List<List<?>> rows = rowProviders
+                .stream()
+                .flatMap(provider -> stream(provider.getRows()))
+                .map(values -> asList(runNumber, values.toArray()))
+                .collect(toList());
+            enqueue(new Batch(
+                outputFile,
+                ImmutableList.<String>builder().add("run").addAll(headers).build(),
+                rows
+            ));
+        }
+
+        private void enqueue(final Batch batch) {
+            checkState(!closed, "The writer is closed.");
+            try {
+                while (!queue.offer(batch, 100, MILLISECONDS)) {
+                    checkNotFailed();
+                }
+            } catch (final InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException(e);
+            }
+            checkNotFailed();
+            LockSupport.unpark(writerThread);
+        }
+
+        /**
+         * Signals the end of the run, so its part files can be closed.
+         */
+        @Override
+        public void close() {
+            enqueue(END_OF_RUN);
+        }
+
+        private boolean drain() throws IOException {
+            final List<Batch> batches = new ArrayList<>();
+            queue.drainTo(batches);
+            for (final Batch batch : batches) {
+                if (batch == END_OF_RUN) {
+                    closeParts();
+                    runs.remove(this);
+                } else {
+                    partWriter(batch.outputFile).write(batch.headers, batch.rows);
+                }
+            }
+            return !batches.isEmpty();
+        }
+
+        private PartWriter partWriter(final Path outputFile) throws IOException {
+            PartWriter partWriter = partWriters.get(outputFile);
+            if (partWriter == null) {
+                final NavigableMap<Integer, Path> outputParts =
+                    parts.computeIfAbsent(outputFile, __ -> new ConcurrentSkipListMap<>());
+                final Path partFile = partsFolder.resolve(
+                    String.format(
+                        "%d_%d_%s",
+                        outputIndices.computeIfAbsent(outputFile, __ -> outputIndices.size()),
+                        runNumber,
+                        outputFile.getFileName()
+                    )
+                );
+                partWriter = makePartWriter(partFile);
+                partWriters.put(outputFile, partWriter);
+                outputParts.put(runNumber, partFile);
+            }
+            return partWriter;
+        }
+
+        private void closeParts() {
+            for (final PartWriter partWriter : partWriters.values()) {
+                try {
+                    partWriter.close();
+                } catch (final IOException e) {
+                    if (failure == null) failure = e;
+                }
+            }
+            partWriters.clear();
+        }
+    }
+}
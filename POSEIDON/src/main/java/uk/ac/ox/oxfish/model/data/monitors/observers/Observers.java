@@ -60,17 +60,21 @@ public class Observers {
         this.observers.remove(observedClass, observer);
     }
 
-    @SuppressWarnings("unchecked")
     public <O> void reactTo(final O observable) {
-        reactTo(
-            this.observers
-                .entries()
-                .stream()
-                .filter(entry -> entry.getKey().isInstance(observable))
-                .map(entry -> (Observer<O>) entry.getValue())
-                .collect(Collectors.toList()),
-            observable
-        );
+        reactTo(getObserversOf(observable), observable);
+    }
+
+    /**
+     * The observers that {@link #reactTo(Object)} notifies for the given observable.
+     */
+    @SuppressWarnings("unchecked")
+    public <O> List<Observer<O>> getObserversOf(final O observable) {
+        return this.observers
+            .entries()
+            .stream()
+            .filter(entry -> entry.getKey().isInstance(observable))
+            .map(entry -> (Observer<O>) entry.getValue())
+            .collect(Collectors.toList());
     }
 
     public <O> void reactTo(
@@ -84,20 +88,27 @@ public class Observers {
      * This method will only construct the observable if it's class is one we're interested in.
      * Useful when observable construction is costly.
      */
-    @SuppressWarnings("unchecked")
     public <O> void reactTo(
         final Class<O> observedClass,
         final Supplier<? extends O> observableSupplier
     ) {
-        final List<Observer<O>> relevantObservers = this.observers
+        final List<Observer<O>> relevantObservers = getRelevantObservers(observedClass);
+        if (!relevantObservers.isEmpty()) {
+            reactTo(relevantObservers, observableSupplier.get());
+        }
+    }
+
+    /**
+     * The observers that {@link #reactTo(Class, Supplier)} notifies for the given class.
+     */
+    @SuppressWarnings("unchecked")
+    public <O> List<Observer<O>> getRelevantObservers(final Class<O> observedClass) {
+        return this.observers
             .entries()
             .stream()
             .filter(entry -> observedClass.isAssignableFrom(entry.getKey()))
             .map(entry -> (Observer<O>) entry.getValue())
             .collect(toImmutableList());
-        if (!relevantObservers.isEmpty()) {
-            reactTo(relevantObservers, observableSupplier.get());
-        }
     }
 
     public Multimap<Class<?>, Observer<?>> view() {
@@ -51,6 +51,12 @@ public abstract class AbstractMarket implements MarketWithCounter {
 
     private final Counter dailyCounter;
 
+    /**
+     * handles of the earnings and landings columns of the daily counter, set when the market starts
+     */
+    private int earningsHandle = -1;
+    private int landingsHandle = -1;
+
 
     private final TimeSeries<Market> dailyObservations = new TimeSeries<>(IntervalPolicy.EVERY_DAY);
 
@@ -66,6 +72,8 @@ public abstract class AbstractMarket implements MarketWithCounter {
 
     public AbstractMarket() {
         dailyCounter = new Counter(IntervalPolicy.EVERY_DAY);
+        // fishers selling here can be stepped concurrently
+        dailyCounter.setSharedByConcurrentFishers(true);
     }
 
     public Species getSpecies() {
@@ -89,20 +97,20 @@ public abstract class AbstractMarket implements MarketWithCounter {
 
         //start the counter
         dailyCounter.start(state);
-        dailyCounter.addColumn(EARNINGS_COLUMN_NAME);
-        dailyCounter.addColumn(LANDINGS_COLUMN_NAME);
+        earningsHandle = dailyCounter.addColumn(EARNINGS_COLUMN_NAME);
+        landingsHandle = dailyCounter.addColumn(LANDINGS_COLUMN_NAME);
         dailyCounter.addColumn(PRICE_COLUMN_NAME);
 
         //start the data-set where we are going to store the history of the counter
         dailyObservations.start(state, this);
         //the gatherers reset the counters as a side effect
         dailyObservations.registerGatherer(EARNINGS_COLUMN_NAME,
-            (Gatherer<Market>) market -> dailyCounter.getColumn(EARNINGS_COLUMN_NAME),
+            (Gatherer<Market>) market -> dailyCounter.getColumn(earningsHandle),
             Double.NaN, dailyObservations.getCurrency(), "Earnings"
         );
 
         dailyObservations.registerGatherer(LANDINGS_COLUMN_NAME,
-            (Gatherer<Market>) market -> dailyCounter.getColumn(LANDINGS_COLUMN_NAME),
+            (Gatherer<Market>) market -> dailyCounter.getColumn(landingsHandle),
             Double.NaN, KILOGRAM, "Biomass"
         );
 
@@ -153,8 +161,8 @@ public abstract class AbstractMarket implements MarketWithCounter {
     public void recordTrade(final TradeInfo info) {
         if (info.getBiomassTraded() > 0)
             Logger.getGlobal().fine(() -> "recorded the following trade: " + info);
-        dailyCounter.count(EARNINGS_COLUMN_NAME, info.getMoneyExchanged());
-        dailyCounter.count(LANDINGS_COLUMN_NAME, info.getBiomassTraded());
+        dailyCounter.count(earningsHandle, info.getMoneyExchanged());
+        dailyCounter.count(landingsHandle, info.getBiomassTraded());
 
 
     }
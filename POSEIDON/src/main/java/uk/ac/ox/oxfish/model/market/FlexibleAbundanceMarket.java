@@ -43,6 +43,12 @@ public class FlexibleAbundanceMarket extends AbstractMarket {
      */
     private PricingStrategy pricingStrategy;
 
+    /**
+     * daily counter handles of the landings and earnings of each age bin, set when the market starts
+     */
+    private int[] landingsPerBinHandles;
+    private int[] earningsPerBinHandles;
+
 
     public FlexibleAbundanceMarket(PricingStrategy pricingStrategy) {
 
@@ -98,9 +104,9 @@ public class FlexibleAbundanceMarket extends AbstractMarket {
                 soldThisBin
             );
 
-            getDailyCounter().count(LANDINGS_COLUMN_NAME + " - age bin " + age, soldThisBin);
+            getDailyCounter().count(landingsPerBinHandles[age], soldThisBin);
             earnings += soldThisBin * priceForThisBin;
-            getDailyCounter().count(EARNINGS_COLUMN_NAME + " - age bin " + age, soldThisBin * priceForThisBin);
+            getDailyCounter().count(earningsPerBinHandles[age], soldThisBin * priceForThisBin);
 
             sold += soldThisBin;
         }
@@ -124,21 +130,23 @@ public class FlexibleAbundanceMarket extends AbstractMarket {
     public void start(FishState state) {
         super.start(state);
 
+        landingsPerBinHandles = new int[getSpecies().getNumberOfBins()];
+        earningsPerBinHandles = new int[getSpecies().getNumberOfBins()];
         for (int age = 0; age < getSpecies().getNumberOfBins(); age++) {
             String columnName = LANDINGS_COLUMN_NAME + AGE_BIN_PREFIX + age;
-            getDailyCounter().addColumn(columnName);
-            String finalColumnName1 = columnName;
+            final int landingsHandle = getDailyCounter().addColumn(columnName);
+            landingsPerBinHandles[age] = landingsHandle;
             getData().registerGatherer(columnName,
-                (Gatherer<Market>) market -> getDailyCounter().getColumn(finalColumnName1),
+                (Gatherer<Market>) market -> getDailyCounter().getColumn(landingsHandle),
                 0
             );
 
 
-            columnName = EARNINGS_COLUMN_NAME + " - age bin " + age;
-            getDailyCounter().addColumn(columnName);
-            String finalColumnName = columnName;
+            columnName = EARNINGS_COLUMN_NAME + AGE_BIN_PREFIX + age;
+            final int earningsHandle = getDailyCounter().addColumn(columnName);
+            earningsPerBinHandles[age] = earningsHandle;
             getData().registerGatherer(columnName,
-                (Gatherer<Market>) market -> getDailyCounter().getColumn(finalColumnName),
+                (Gatherer<Market>) market -> getDailyCounter().getColumn(earningsHandle),
                 0
             );
         }
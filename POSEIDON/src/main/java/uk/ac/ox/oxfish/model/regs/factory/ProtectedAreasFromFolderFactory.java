@@ -48,7 +48,7 @@ import static uk.ac.ox.poseidon.common.core.csv.CsvParserUtil.recordStream;
 public class ProtectedAreasFromFolderFactory implements AlgorithmFactory<MultipleRegulations> {
 
     private static final CacheByFile<Map<String, AlgorithmFactory<? extends Regulation>>> factoriesCache =
-        new CacheByFile<>(ProtectedAreasFromFolderFactory::loadShapeFiles);
+        new CacheByFile<>(ProtectedAreasFromFolderFactory.class, ProtectedAreasFromFolderFactory::loadShapeFiles);
     private InputPath shapefilesInputPath;
     private InputPath tagsFile;
 
@@ -0,0 +1,105 @@
+/*
+ * POSEIDON: an agent-based model of fisheries
+ * Copyright (c) 2025, University of Oxford.
+ *
+ * University of Oxford means the Chancellor, Masters and Scholars of the
+ * University of Oxford, having an administrative office at Wellington
+ * Square, Oxford OX1 2JD, UK.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+
+package uk.ac.ox.oxfish.model.scenario;
+
+import uk.ac.ox.oxfish.utility.DeepCopier;
+import uk.ac.ox.oxfish.utility.InputCache;
+import uk.ac.ox.oxfish.utility.yaml.FishYAML;
+
+import java.io.FileReader;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.function.Supplier;
+import java.util.logging.Logger;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+/**
+ * A scenario file parsed once, from which independent scenarios can be copied. Templates are kept in the
+ * {@link InputCache}, so all the callers asking for the same file get the same template until the file changes.
+ * Copies are made by {@link DeepCopier} rather than by parsing the YAML again, and can safely be made from many threads
+ * at once since the template itself is never handed out.
+ *
+ * @param <S> the type of scenario
+ */
+public final class ScenarioTemplate<S extends Scenario> implements Supplier<S> {
+
+    private static final Logger logger = Logger.getLogger(ScenarioTemplate.class.getName());
+
+    private final S template;
+    private final Duration parsingDuration;
+
+    private ScenarioTemplate(
+        final S template,
+        final Duration parsingDuration
+    ) {
+        this.template = template;
+        this.parsingDuration = parsingDuration;
+    }
+
+    public static <S extends Scenario> ScenarioTemplate<S> of(
+        final Path scenarioFile,
+        final Class<S> scenarioClass
+    ) {
+        checkArgument(Files.isRegularFile(scenarioFile), "Can't find scenario file: %s", scenarioFile);
+        return InputCache.INSTANCE.get(
+            scenarioFile,
+            path -> parse(path, scenarioClass),
+            ScenarioTemplate.class,
+            scenarioClass
+        );
+    }
+
+    private static <S extends Scenario> ScenarioTemplate<S> parse(
+        final Path scenarioFile,
+        final Class<S> scenarioClass
+    ) {
+        final long start = System.nanoTime();
+        try (final FileReader fileReader = new FileReader(scenarioFile.toFile())) {
+            final S scenario = new FishYAML().loadAs(fileReader, scenarioClass);
+            final Duration parsingDuration = Duration.ofNanos(System.nanoTime() - start);
+            logger.fine(() -> "Parsed " + scenarioFile + " in " + parsingDuration.toMillis() + " ms");
+            return new ScenarioTemplate<>(scenario, parsingDuration);
+        } catch (final IOException e) {
+            throw new IllegalStateException("Error while reading file: " + scenarioFile, e);
+        }
+    }
+
+    /**
+     * Returns a new copy of the scenario, which the caller is free to modify.
+     */
+    @Override
+    public S get() {
+        return DeepCopier.deepCopy(template);
+    }
+
+    /**
+     * How long it took to parse the scenario file, i.e., roughly what each copy saves.
+     */
+    public Duration getParsingDuration() {
+        return parsingDuration;
+    }
+}
@@ -0,0 +1,716 @@
+/*
+ * POSEIDON: an agent-based model of fisheries
+ * Copyright (c) 2025, University of Oxford.
+ *
+ * University of Oxford means the Chancellor, Masters and Scholars of the
+ * University of Oxford, having an administrative office at Wellington
+ * Square, Oxford OX1 2JD, UK.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+
+package uk.ac.ox.oxfish.utility;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheLoader;
+import com.google.common.cache.LoadingCache;
+import com.google.common.collect.ImmutableCollection;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.ImmutableSortedMap;
+import com.google.common.collect.ImmutableSortedSet;
+import com.google.common.collect.Multimap;
+import uk.ac.ox.poseidon.common.core.geography.MapExtent;
+
+import java.lang.reflect.Array;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.Deque;
+import java.util.Currency;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.SortedMap;
+import java.util.SortedSet;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.UUID;
+import java.util.concurrent.Executor;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+/**
+ * Makes deep copies of object graphs by walking their fields, as a much cheaper alternative to a YAML round-trip
+ * for things like scenarios.
+ * <p>
+ * Objects are allocated without calling their constructors and all their fields, including final and transient ones,
+ * are copied. Shared references and cycles are preserved. The graph is walked with a work list rather than recursively,
+ * so long chains of references don't overflow the stack. JDK and Guava collections, maps and multimaps, as well as
+ * arrays, are rebuilt with copied elements once these are complete, so hash-based containers are rehashed. So are
+ * project classes that extend them (e.g., {@link FixedMap}): the fields of the container come from a new empty one and
+ * those of the subclass are copied. Guava caches are rebuilt empty, with the same settings and a copy of their loader,
+ * since their entries can't be rehashed and are meant to be recomputed anyway; they don't record statistics. Other
+ * hash tables that can't be rebuilt are refused rather than copied with a stale layout. Strings, boxed primitives, enums, units of measure, {@link MapExtent} and JDK objects that are immutable or global (time, I/O,
+ * logging, reflection and threads) are shared with the original. Executors are neither shared nor copied: they are
+ * left out of the copy (as null), since shutting down the pool of one copy would stop those of all the others, so
+ * their owners must create them lazily. Other JDK objects, like atomic counters or random generators, are copied
+ * field by field, which makes it possible to copy a running simulation. The original graph is only read, so many
+ * threads can copy it at the same time as long as nothing modifies it.
+ */
+public final class DeepCopier {
+
+    private static final ClassValue<Field[]> fields = new ClassValue<Field[]>() {
+        @Override
+        protected Field[] computeValue(final Class<?> type) {
+            final List<Field> instanceFields = new ArrayList<>();
+            for (Class<?> c = type; c != null; c = c.getSuperclass()) {
+                for (final Field field : c.getDeclaredFields()) {
+                    if (!Modifier.isStatic(field.getModifiers())) {
+                        field.setAccessible(true);
+                        instanceFields.add(field);
+                    }
+                }
+            }
+            return instanceFields.toArray(new Field[0]);
+        }
+    };
+
+    // Guava containers that can't be created empty (e.g., EvictingQueue) are copied field by field instead.
+    private static final ClassValue<Boolean> rebuildable = new ClassValue<Boolean>() {
+        @Override
+        protected Boolean computeValue(final Class<?> type) {
+            if (type.getName().startsWith("java.util.")) {
+                return true;
+            }
+            if (!type.getName().startsWith("com.google.common.collect.")) {
+                return false;
+            }
+            try {
+                type.getMethod("create");
+                return true;
+            } catch (final NoSuchMethodException e) {
+                return false;
+            }
+        }
+    };
+
+    // The closest concrete superclass that can be rebuilt, for project classes that extend a container.
+    private static final ClassValue<Optional<Class<?>>> rebuildableSuperclass = new ClassValue<Optional<Class<?>>>() {
+        @Override
+        protected Optional<Class<?>> computeValue(final Class<?> type) {
+            for (Class<?> c = type.getSuperclass(); c != null; c = c.getSuperclass()) {
+                if (rebuildable.get(c) && !Modifier.isAbstract(c.getModifiers())) {
+                    return Optional.of(c);
+                }
+            }
+            return Optional.empty();
+        }
+    };
+    private static final String GUAVA_CACHE_PACKAGE = "com.google.common.cache.";
+    private static final String[] SHARED_PACKAGE_PREFIXES = {
+        "java.io.", "java.lang.invoke.", "java.lang.ref.", "java.lang.reflect.", "java.math.", "java.net.",
+        "java.nio.", "java.security.", "java.text.", "java.time.", "java.util.logging.", "java.util.regex.",
+        "java.util.stream.", "javax.", "jdk.", "sun.", "com.sun.", "tech.units.", "si.uom."
+    };
+    private static final Set<Class<?>> SHARED_CLASSES = ImmutableSet.<Class<?>>of(
+        String.class, Boolean.class, Character.class, Byte.class, Short.class, Integer.class, Long.class,
+        Float.class, Double.class, Class.class, UUID.class, Locale.class, Currency.class
+    );
+
+    // Objects are allocated through sun.misc.Unsafe, looked up reflectively so that
+    // we don't depend on it at compile time. This is how serialization libraries
+    // create objects that don't have a no-arg constructor.
+    private static final Object unsafe;
+    private static final Method allocateInstance;
+
+    static {
+        try {
+            final Class<?> unsafeClass = Class.forName("sun.misc.Unsafe");
+            final Field theUnsafe = unsafeClass.getDeclaredField("theUnsafe");
+            theUnsafe.setAccessible(true);
+            unsafe = theUnsafe.get(null);
+            allocateInstance = unsafeClass.getMethod("allocateInstance", Class.class);
+        } catch (final ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    private final Map<Object, Object> copies = new IdentityHashMap<>();
+
+    // Objects and arrays that have been allocated but whose fields or elements are still to be copied.
+    private final Deque<Runnable> pendingFills = new ArrayDeque<>();
+
+    // Containers to build or fill once all the objects they hold are complete, in the order they were met.
+    private final List<Runnable> pendingContainers = new ArrayList<>();
+
+    private DeepCopier() {
+    }
+
+    @SuppressWarnings("unchecked")
+    public static <T> T deepCopy(final T original) {
+        final DeepCopier copier = new DeepCopier();
+        final Object copy = copier.copy(original);
+        copier.finish();
+        return (T) copier.resolve(copy);
+    }
+
+    /**
+     * Copies all the pending objects, one at a time, and then the containers. Containers are filled in reverse order,
+     * so the ones held by the keys or elements of another container (and which could take part in their hash codes or
+     * comparisons) are complete before it is filled.
+     */
+    private void finish() {
+        while (!pendingFills.isEmpty()) {
+            pendingFills.pop().run();
+        }
+        for (int i = pendingContainers.size() - 1; i >= 0; i--) {
+            pendingContainers.get(i).run();
+        }
+    }
+
+    private static boolean isShared(final Object object) {
+        return SHARED_CLASSES.contains(object.getClass()) ||
+            object instanceof Enum ||
+            object instanceof MapExtent ||
+            object instanceof ClassLoader ||
+            object instanceof Thread ||
+            isFrom(object, SHARED_PACKAGE_PREFIXES);
+    }
+
+    private static boolean isFrom(
+        final Object object,
+        final String[] packagePrefixes
+    ) {
+        final String className = object.getClass().getName();
+        for (final String prefix : packagePrefixes) {
+            if (className.startsWith(prefix)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Comparator<Object> comparator(final Comparator<?> comparator) {
+        return (Comparator<Object>) comparator;
+    }
+
+    /**
+     * Returns the copy of an object, which may not be complete yet: fields and elements are copied later on, when the
+     * pending work is processed. Immutable containers, optionals and caches can only be created once their content is
+     * complete, so they are returned as placeholders until then.
+     */
+    private Object copy(final Object original) {
+        if (original == null || original instanceof Executor) {
+            return null;
+        }
+        final Object existingCopy = copies.get(original);
+        if (existingCopy != null) {
+            return existingCopy;
+        }
+        if (original.getClass().isArray()) {
+            return copyArray(original);
+        } else if (original instanceof ImmutableCollection || original instanceof ImmutableMap) {
+            return copyImmutable(original);
+        } else if (
+            (original instanceof Cache || original instanceof Map) &&
+                original.getClass().getName().startsWith(GUAVA_CACHE_PACKAGE)
+        ) {
+            return copyCache(original);
+        } else if (isContainer(original) && rebuildable.get(original.getClass())) {
+            return copyContainer(original, original.getClass());
+        } else if (isContainer(original) && rebuildableSuperclass.get(original.getClass()).isPresent()) {
+            return copyExtendedContainer(original, rebuildableSuperclass.get(original.getClass()).get());
+        } else if (original instanceof Optional) {
+            return copyOptional((Optional<?>) original);
+        } else if (original instanceof Date) {
+            return register(original, ((Date) original).clone());
+        } else if (isShared(original)) {
+            return original;
+        } else {
+            return copyFields(original);
+        }
+    }
+
+    private static boolean isContainer(final Object object) {
+        return object instanceof Map || object instanceof Collection || object instanceof Multimap;
+    }
+
+    private Object copyContainer(
+        final Object original,
+        final Class<?> type
+    ) {
+        if (original instanceof Map) {
+            return copyMap((Map<?, ?>) original, type);
+        } else if (original instanceof Collection) {
+            return copyCollection((Collection<?>) original, type);
+        } else {
+            return copyMultimap((Multimap<?, ?>) original, type);
+        }
+    }
+
+    /**
+     * Copies a project class that extends a container: the copy is allocated without calling its constructors, the
+     * fields of the container are taken from a new empty one and those of the subclass are copied. The content is then
+     * put back into it like for any other container.
+     */
+    private Object copyExtendedContainer(
+        final Object original,
+        final Class<?> containerClass
+    ) {
+        final Object emptyContainer = newInstanceOrElse(containerClass, () -> {
+            throw new IllegalStateException("Unable to rebuild " + original.getClass());
+        });
+        final Object copy = allocate(original);
+        try {
+            for (final Field field : fields.get(containerClass)) {
+                field.set(copy, field.get(emptyContainer));
+            }
+        } catch (final IllegalAccessException e) {
+            throw new IllegalStateException("Unable to copy " + original.getClass(), e);
+        }
+        pendingFills.push(() -> copyFieldsInto(
+            copy,
+            original,
+            field -> !field.getDeclaringClass().isAssignableFrom(containerClass)
+        ));
+        if (original instanceof Map) {
+            return fillMap((Map<?, ?>) original, uncheckedCast(copy));
+        } else if (original instanceof Collection) {
+            return fillCollection((Collection<?>) original, uncheckedCast(copy));
+        } else {
+            return fillMultimap((Multimap<?, ?>) original, uncheckedCast(copy));
+        }
+    }
+
+    /**
+     * Rebuilds a Guava cache from the settings it would be serialized with, which include its loader, weigher and
+     * removal listener. These are copied along with the rest of the graph and the cache is built once they are
+     * complete. Other objects from Guava's cache package, like the map view of a cache, can't be rebuilt.
+     */
+    private Object copyCache(final Object original) {
+        if (!(original instanceof Cache)) {
+            throw new IllegalStateException("Unable to rebuild " + original.getClass());
+        }
+        final Object settings;
+        try {
+            settings = accessibleMethod(original.getClass(), "writeReplace").invoke(original);
+        } catch (final ReflectiveOperationException e) {
+            throw new IllegalStateException("Unable to rebuild " + original.getClass(), e);
+        }
+        final Placeholder placeholder = new Placeholder(original, content -> buildCache(original, content.get(0)));
+        register(original, placeholder);
+        pendingContainers.add(placeholder::build);
+        // the settings are themselves a cache, so they must be copied field by field
+        pendingFills.push(() -> placeholder.content.add(copyFields(settings)));
+        return placeholder;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Cache<Object, Object> buildCache(
+        final Object original,
+        final Object settings
+    ) {
+        try {
+            final CacheBuilder<Object, Object> builder = (CacheBuilder<Object, Object>)
+                accessibleMethod(settings.getClass(), "recreateCacheBuilder").invoke(settings);
+            if (original instanceof LoadingCache) {
+                return builder.build((CacheLoader<Object, Object>) accessibleField(settings.getClass(), "loader")
+                    .get(settings));
+            }
+            return builder.build();
+        } catch (final ReflectiveOperationException e) {
+            throw new IllegalStateException("Unable to rebuild " + original.getClass(), e);
+        }
+    }
+
+    private static Method accessibleMethod(
+        final Class<?> type,
+        final String name
+    ) throws NoSuchMethodException {
+        for (Class<?> c = type; c != null; c = c.getSuperclass()) {
+            try {
+                final Method method = c.getDeclaredMethod(name);
+                method.setAccessible(true);
+                return method;
+            } catch (final NoSuchMethodException e) {
+                // look in the superclass
+            }
+        }
+        throw new NoSuchMethodException(type.getName() + "." + name);
+    }
+
+    private static Field accessibleField(
+        final Class<?> type,
+        final String name
+    ) throws NoSuchFieldException {
+        for (final Field field : fields.get(type)) {
+            if (field.getName().equals(name)) {
+                return field;
+            }
+        }
+        throw new NoSuchFieldException(type.getName() + "." + name);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> T uncheckedCast(final Object object) {
+        return (T) object;
+    }
+
+    private Object resolve(final Object copy) {
+        return copy instanceof Placeholder ? ((Placeholder) copy).build() : copy;
+    }
+
+    private Object register(
+        final Object original,
+        final Object copy
+    ) {
+        copies.put(original, copy);
+        return copy;
+    }
+
+    private Object copyArray(final Object original) {
+        final int length = Array.getLength(original);
+        final Class<?> componentType = original.getClass().getComponentType();
+        if (componentType.isPrimitive()) {
+            final Object copy = Array.newInstance(componentType, length);
+            System.arraycopy(original, 0, copy, 0, length);
+            return register(original, copy);
+        }
+        final Object[] copy = (Object[]) register(original, Array.newInstance(componentType, length));
+        pendingFills.push(() -> {
+            for (int i = 0; i < length; i++) {
+                final Object element = copy(((Object[]) original)[i]);
+                if (element instanceof Placeholder) {
+                    final int index = i;
+                    ((Placeholder) element).references.add(built -> copy[index] = built);
+                } else {
+                    copy[i] = element;
+                }
+            }
+        });
+        return copy;
+    }
+
+    private Object copyImmutable(final Object original) {
+        final Function<List<Object>, Object> builder;
+        if (original instanceof ImmutableSortedMap) {
+            final Comparator<Object> comparator = comparator(((ImmutableSortedMap<?, ?>) original).comparator());
+            builder = entries -> ImmutableSortedMap.copyOfSorted(putEntries(new TreeMap<>(comparator), entries));
+        } else if (original instanceof ImmutableMap) {
+            builder = entries -> ImmutableMap.copyOf(putEntries(new LinkedHashMap<>(), entries));
+        } else if (original instanceof ImmutableSortedSet) {
+            final Comparator<Object> comparator = comparator(((ImmutableSortedSet<?>) original).comparator());
+            builder = elements -> {
+                final TreeSet<Object> set = new TreeSet<>(comparator);
+                set.addAll(elements);
+                return ImmutableSortedSet.copyOfSorted(set);
+            };
+        } else if (original instanceof ImmutableSet) {
+            builder = elements -> ImmutableSet.copyOf(elements);
+        } else {
+            builder = elements -> ImmutableList.copyOf(elements);
+        }
+        final Placeholder placeholder = new Placeholder(original, builder);
+        register(original, placeholder);
+        pendingContainers.add(placeholder::build);
+        if (original instanceof Map) {
+            pendingFills.push(() -> copyEntries(placeholder.content, (Map<?, ?>) original));
+        } else {
+            pendingFills.push(() -> copyElements(placeholder.content, (Collection<?>) original));
+        }
+        return placeholder;
+    }
+
+    private Object copyOptional(final Optional<?> original) {
+        if (!original.isPresent()) {
+            return original;
+        }
+        final Placeholder placeholder = new Placeholder(original, content -> Optional.of(content.get(0)));
+        register(original, placeholder);
+        pendingContainers.add(placeholder::build);
+        pendingFills.push(() -> placeholder.content.add(copy(original.get())));
+        return placeholder;
+    }
+
+    private Map<Object, Object> copyMap(
+        final Map<?, ?> original,
+        final Class<?> type
+    ) {
+        final Map<Object, Object> copy;
+        if (original instanceof EnumMap) {
+            // there is no public way to get the key type of an empty enum map
+            @SuppressWarnings({"unchecked", "rawtypes"})
+            final Map<Object, Object> enumMap = new EnumMap((EnumMap) original);
+            enumMap.clear();
+            copy = enumMap;
+        } else if (original instanceof SortedMap) {
+            final Comparator<Object> comparator = comparator(((SortedMap<?, ?>) original).comparator());
+            copy = newSortedInstanceOrElse(type, comparator, () -> new TreeMap<>(comparator));
+        } else if (original instanceof IdentityHashMap) {
+            copy = new IdentityHashMap<>();
+        } else {
+            copy = newInstanceOrElse(type, LinkedHashMap::new);
+        }
+        return fillMap(original, copy);
+    }
+
+    private Map<Object, Object> fillMap(
+        final Map<?, ?> original,
+        final Map<Object, Object> copy
+    ) {
+        register(original, copy);
+        final List<Object> entries = new ArrayList<>(2 * original.size());
+        pendingContainers.add(() -> putEntries(copy, entries));
+        pendingFills.push(() -> copyEntries(entries, original));
+        return copy;
+    }
+
+    private void copyEntries(
+        final List<Object> entries,
+        final Map<?, ?> original
+    ) {
+        original.forEach((key, value) -> {
+            entries.add(copy(key));
+            entries.add(copy(value));
+        });
+    }
+
+    private <M extends Map<Object, Object>> M putEntries(
+        final M copy,
+        final List<Object> entries
+    ) {
+        for (int i = 0; i < entries.size(); i += 2) {
+            copy.put(resolve(entries.get(i)), resolve(entries.get(i + 1)));
+        }
+        return copy;
+    }
+
+    private Collection<?> copyCollection(
+        final Collection<?> original,
+        final Class<?> type
+    ) {
+        final Collection<Object> copy;
+        if (original instanceof EnumSet) {
+            // enum constants are shared, so a clone is a full copy
+            return (Collection<?>) register(original, ((EnumSet<?>) original).clone());
+        } else if (original instanceof SortedSet) {
+            final Comparator<Object> comparator = comparator(((SortedSet<?>) original).comparator());
+            copy = newSortedInstanceOrElse(type, comparator, () -> new TreeSet<>(comparator));
+        } else if (original instanceof PriorityQueue) {
+            final Comparator<Object> comparator = comparator(((PriorityQueue<?>) original).comparator());
+            copy = new PriorityQueue<>(Math.max(1, original.size()), comparator);
+        } else if (original instanceof Set) {
+            copy = newInstanceOrElse(type, LinkedHashSet::new);
+        } else {
+            copy = newInstanceOrElse(type, ArrayList::new);
+        }
+        return fillCollection(original, copy);
+    }
+
+    private Collection<?> fillCollection(
+        final Collection<?> original,
+        final Collection<Object> copy
+    ) {
+        register(original, copy);
+        final List<Object> elements = new ArrayList<>(original.size());
+        pendingContainers.add(() -> {
+            for (final Object element : elements) {
+                copy.add(resolve(element));
+            }
+        });
+        pendingFills.push(() -> copyElements(elements, original));
+        return copy;
+    }
+
+    private void copyElements(
+        final List<Object> elements,
+        final Collection<?> original
+    ) {
+        for (final Object element : original) {
+            elements.add(copy(element));
+        }
+    }
+
+    private Multimap<Object, Object> copyMultimap(
+        final Multimap<?, ?> original,
+        final Class<?> type
+    ) {
+        final Multimap<Object, Object> copy = newInstanceOrElse(type, () -> {
+            throw new IllegalStateException("Unable to copy " + original.getClass());
+        });
+        return fillMultimap(original, copy);
+    }
+
+    private Multimap<Object, Object> fillMultimap(
+        final Multimap<?, ?> original,
+        final Multimap<Object, Object> copy
+    ) {
+        register(original, copy);
+        final List<Object> entries = new ArrayList<>(2 * original.size());
+        pendingContainers.add(() -> {
+            for (int i = 0; i < entries.size(); i += 2) {
+                copy.put(resolve(entries.get(i)), resolve(entries.get(i + 1)));
+            }
+        });
+        pendingFills.push(() -> original.forEach((key, value) -> {
+            entries.add(copy(key));
+            entries.add(copy(value));
+        }));
+        return copy;
+    }
+
+    /**
+     * Creates an empty container of the given class if it has a public no-arg constructor (e.g., {@code ArrayList} or
+     * {@code HashMap}) or, for Guava containers, a static {@code create()} method. Falls back on the given default for
+     * wrappers like unmodifiable views.
+     */
+    @SuppressWarnings("unchecked")
+    private static <T> T newInstanceOrElse(
+        final Class<?> type,
+        final Supplier<? extends T> defaultContainer
+    ) {
+        try {
+            return (T) type.getConstructor().newInstance();
+        } catch (final ReflectiveOperationException | SecurityException e) {
+            try {
+                return (T) type.getMethod("create").invoke(null);
+            } catch (final ReflectiveOperationException | SecurityException e2) {
+                return defaultContainer.get();
+            }
+        }
+    }
+
+    /**
+     * Like {@link #newInstanceOrElse}, for sorted containers that take a comparator (e.g., {@code TreeMap} or
+     * {@code ConcurrentSkipListSet}).
+     */
+    @SuppressWarnings("unchecked")
+    private static <T> T newSortedInstanceOrElse(
+        final Class<?> type,
+        final Comparator<Object> comparator,
+        final Supplier<? extends T> defaultContainer
+    ) {
+        try {
+            return (T) type.getConstructor(Comparator.class).newInstance(comparator);
+        } catch (final ReflectiveOperationException | SecurityException e) {
+            return defaultContainer.get();
+        }
+    }
+
+    private Object copyFields(final Object original) {
+        final Object copy = register(original, allocate(original));
+        pendingFills.push(() -> copyFieldsInto(copy, original, field -> true));
+        return copy;
+    }
+
+    private static Object allocate(final Object original) {
+        try {
+            return allocateInstance.invoke(unsafe, original.getClass());
+        } catch (final ReflectiveOperationException e) {
+            throw new IllegalStateException("Unable to copy " + original.getClass(), e);
+        }
+    }
+
+    private void copyFieldsInto(
+        final Object copy,
+        final Object original,
+        final Predicate<Field> fieldsToCopy
+    ) {
+        try {
+            for (final Field field : fields.get(original.getClass())) {
+                if (!fieldsToCopy.test(field)) {
+                    continue;
+                }
+                final Object value = field.get(original);
+                final Object valueCopy = field.getType().isPrimitive() ? value : copy(value);
+                if (valueCopy instanceof Placeholder) {
+                    ((Placeholder) valueCopy).references.add(built -> setField(field, copy, built));
+                } else {
+                    field.set(copy, valueCopy);
+                }
+            }
+        } catch (final IllegalAccessException e) {
+            throw new IllegalStateException("Unable to copy " + original.getClass(), e);
+        }
+    }
+
+    private static void setField(
+        final Field field,
+        final Object object,
+        final Object value
+    ) {
+        try {
+            field.set(object, value);
+        } catch (final IllegalAccessException e) {
+            throw new IllegalStateException("Unable to copy " + object.getClass(), e);
+        }
+    }
+
+    /**
+     * Stands for the copy of an immutable container, of an optional or of a cache until the objects it holds are
+     * complete. The fields and array elements that were given the placeholder are set to the actual copy once it is
+     * built.
+     */
+    private final class Placeholder {
+
+        private final Object original;
+        private final Function<List<Object>, Object> builder;
+        private final List<Object> content = new ArrayList<>();
+        private final List<Consumer<Object>> references = new ArrayList<>();
+        private Object built = null;
+
+        private Placeholder(
+            final Object original,
+            final Function<List<Object>, Object> builder
+        ) {
+            this.original = original;
+            this.builder = builder;
+        }
+
+        private Object build() {
+            if (built == null) {
+                final List<Object> resolvedContent = new ArrayList<>(content.size());
+                for (final Object element : content) {
+                    resolvedContent.add(resolve(element));
+                }
+                built = builder.apply(resolvedContent);
+                register(original, built);
+                references.forEach(reference -> reference.accept(built));
+                references.clear();
+            }
+            return built;
+        }
+    }
+
+}
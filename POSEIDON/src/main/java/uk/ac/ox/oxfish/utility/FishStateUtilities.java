@@ -45,6 +45,7 @@ import uk.ac.ox.oxfish.model.data.collectors.DataColumn;
 import uk.ac.ox.oxfish.model.data.collectors.FisherYearlyTimeSeries;
 import uk.ac.ox.oxfish.model.data.collectors.TowHeatmapGatherer;
 import uk.ac.ox.oxfish.model.scenario.Scenario;
+import uk.ac.ox.oxfish.model.scenario.ScenarioTemplate;
 import uk.ac.ox.oxfish.utility.adaptation.Sensor;
 import uk.ac.ox.poseidon.common.api.parameters.DoubleParameter;
 import uk.ac.ox.oxfish.utility.yaml.FishYAML;
@@ -1179,10 +1180,8 @@ public class FishStateUtilities {
 
         System.out.println("seed " + seed);
         // create scenario and files
-        final String fullScenario = String.join("\n", Files.readAllLines(scenarioYaml));
-
         final FishYAML yaml = new FishYAML();
-        final Scenario scenario = yaml.loadAs(fullScenario, Scenario.class);
+        final Scenario scenario = ScenarioTemplate.of(scenarioYaml, Scenario.class).get();
 
         if (outputFolder != null) {
             outputFolder.toFile().mkdirs();
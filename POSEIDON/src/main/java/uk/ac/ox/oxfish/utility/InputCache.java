@@ -0,0 +1,218 @@
+/*
+ * POSEIDON: an agent-based model of fisheries
+ * Copyright (c) 2025, University of Oxford.
+ *
+ * University of Oxford means the Chancellor, Masters and Scholars of the
+ * University of Oxford, having an administrative office at Wellington
+ * Square, Oxford OX1 2JD, UK.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+
+package uk.ac.ox.oxfish.utility;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.RemovalNotification;
+import com.google.common.collect.ImmutableList;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.logging.Logger;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+
+/**
+ * A JVM-wide cache for values read from input files, shared by all the scenarios running in the same JVM.
+ * <p>
+ * Entries are keyed by the canonical path of the file, its size and its last modification time, so a file that
+ * changes on disk is read again, plus a list of qualifiers (e.g., the reading class or the {@code MapExtent}) that
+ * distinguish different values read from the same file. The cache is bounded by the total size of the files backing
+ * its entries, which is only a proxy for the memory used by the parsed values. The bound can be set in megabytes with
+ * the {@value #MAX_MEGABYTES_PROPERTY} system property and defaults to a quarter of the maximum heap size. Hits and
+ * misses are counted, so callers can log how much reading the cache saved.
+ */
+public final class InputCache {
+
+    public static final String MAX_MEGABYTES_PROPERTY = "poseidon.inputCache.maxMegabytes";
+
+    public static final InputCache INSTANCE = new InputCache(maxBytesFromSystemProperties());
+
+    private static final Logger logger = Logger.getLogger(InputCache.class.getName());
+
+    private final Cache<Key, Object> cache;
+    private final AtomicLong bytesHeld = new AtomicLong();
+
+    InputCache(final long maxBytes) {
+        checkArgument(maxBytes >= 0);
+        this.cache = CacheBuilder.newBuilder()
+            .maximumWeight(maxBytes)
+            .recordStats()
+            .weigher((final Key key, final Object value) -> key.weight())
+            .removalListener((final RemovalNotification<Key, Object> notification) ->
+                bytesHeld.addAndGet(-notification.getKey().weight())
+            )
+            .build();
+    }
+
+    private static long maxBytesFromSystemProperties() {
+        final Long maxMegabytes = Long.getLong(MAX_MEGABYTES_PROPERTY);
+        return maxMegabytes == null
+            ? Runtime.getRuntime().maxMemory() / 4
+            : maxMegabytes * 1024 * 1024;
+    }
+
+    /**
+     * Returns the value read from {@code path} by {@code reader}, reading it only if no value is cached for the
+     * current state of the file and the given qualifiers. Callers are responsible for choosing qualifiers that
+     * determine the type of the cached value.
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T get(
+        final Path path,
+        final Function<? super Path, ? extends T> reader,
+        final Object... qualifiers
+    ) {
+        checkNotNull(path);
+        checkNotNull(reader);
+        final Key key = Key.of(path, qualifiers);
+        try {
+            return (T) cache.get(key, () -> {
+                removeStaleEntries(key);
+                final T value = checkNotNull(reader.apply(path), "Nothing read from %s", path);
+                bytesHeld.addAndGet(key.weight());
+                logger.fine(() -> "Read " + key);
+                return value;
+            });
+        } catch (final ExecutionException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    /**
+     * Drops entries read from an earlier version of the same file, instead of waiting for them to be evicted.
+     */
+    private void removeStaleEntries(final Key key) {
+        cache.asMap().keySet().removeIf(other -> other.isOlderVersionOf(key));
+    }
+
+    /**
+     * The total size, in bytes, of the files backing the cached values.
+     */
+    public long getBytesHeld() {
+        return bytesHeld.get();
+    }
+
+    public long getHitCount() {
+        return cache.stats().hitCount();
+    }
+
+    public long getMissCount() {
+        return cache.stats().missCount();
+    }
+
+    public long size() {
+        return cache.size();
+    }
+
+    public void invalidateAll() {
+        cache.invalidateAll();
+    }
+
+    @Override
+    public String toString() {
+        return String.format(
+            "%d entries, %.1f MB held, %d hits, %d misses",
+            size(),
+            getBytesHeld() / (1024.0 * 1024.0),
+            getHitCount(),
+            getMissCount()
+        );
+    }
+
+    private static final class Key {
+
+        private final String canonicalPath;
+        private final long size;
+        private final long lastModified;
+        private final List<Object> qualifiers;
+
+        private Key(
+            final String canonicalPath,
+            final long size,
+            final long lastModified,
+            final List<Object> qualifiers
+        ) {
+            this.canonicalPath = canonicalPath;
+            this.size = size;
+            this.lastModified = lastModified;
+            this.qualifiers = qualifiers;
+        }
+
+        static Key of(final Path path, final Object... qualifiers) {
+            final File file = path.toFile();
+            try {
+                return new Key(
+                    file.getCanonicalPath(),
+                    file.length(),
+                    file.lastModified(),
+                    ImmutableList.copyOf(qualifiers)
+                );
+            } catch (final IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        int weight() {
+            // at least one byte, so that directories and empty files still count towards the bound
+            return (int) Math.max(1, Math.min(size, Integer.MAX_VALUE));
+        }
+
+        boolean isOlderVersionOf(final Key other) {
+            return canonicalPath.equals(other.canonicalPath)
+                && qualifiers.equals(other.qualifiers)
+                && (size != other.size || lastModified != other.lastModified);
+        }
+
+        @Override
+        public boolean equals(final Object o) {
+            if (this == o) return true;
+            if (o == null || getClass() != o.getClass()) return false;
+            final Key key = (Key) o;
+            return size == key.size &&
+                lastModified == key.lastModified &&
+                canonicalPath.equals(key.canonicalPath) &&
+                qualifiers.equals(key.qualifiers);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(canonicalPath, size, lastModified, qualifiers);
+        }
+
+        @Override
+        public String toString() {
+            return canonicalPath + " (" + size + " bytes, modified " + lastModified + ") " + qualifiers;
+        }
+    }
+}
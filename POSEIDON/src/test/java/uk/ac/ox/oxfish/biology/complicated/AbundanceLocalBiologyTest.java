@@ -22,6 +22,7 @@
 
 package uk.ac.ox.oxfish.biology.complicated;
 
+import com.google.common.collect.ImmutableList;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
 import uk.ac.ox.oxfish.biology.GlobalBiology;
@@ -108,4 +109,37 @@ public class AbundanceLocalBiologyTest {
 
     }
 
+    @Test
+    public void viewsAndAggregatesShareTheSpeciesSlots() {
+
+        Species longspine = new Species("Longspine", longspineTestInput);
+        Species shortspine = new Species("Shortspine", longspineTestInput);
+        GlobalBiology biology = new GlobalBiology(longspine, shortspine);
+
+        AbundanceLocalBiology first = new AbundanceLocalBiology(biology);
+        AbundanceLocalBiology second = new AbundanceLocalBiology(biology);
+
+        // the map view and the structured abundance expose the same live arrays
+        first.getAbundance().get(shortspine)[FishStateUtilities.MALE][5] = 100;
+        Assertions.assertEquals(100, first.getAbundance(shortspine).getAbundance(FishStateUtilities.MALE, 5), 0);
+        second.getStructuredAbundance().get(shortspine).asMatrix()[FishStateUtilities.MALE][5] = 50;
+        second.getAbundance(longspine).asMatrix()[FishStateUtilities.FEMALE][6] = 10;
+
+        AbundanceLocalBiology aggregate = AbundanceLocalBiology.aggregate(biology, ImmutableList.of(first, second));
+        Assertions.assertEquals(150, aggregate.getAbundance(shortspine).getAbundance(FishStateUtilities.MALE, 5), 0);
+        Assertions.assertEquals(10, aggregate.getAbundance(longspine).getAbundance(FishStateUtilities.FEMALE, 6), 0);
+
+        // biomass comes out in species index order
+        double[] biomass = aggregate.getCurrentBiomass();
+        Assertions.assertEquals(2, biomass.length);
+        Assertions.assertEquals(aggregate.getBiomass(longspine), biomass[longspine.getIndex()], 0);
+        Assertions.assertEquals(aggregate.getBiomass(shortspine), biomass[shortspine.getIndex()], 0);
+        Assertions.assertEquals(150 * 0.019880139, biomass[shortspine.getIndex()], .001);
+
+        // copies don't share arrays
+        AbundanceLocalBiology copy = new AbundanceLocalBiology(aggregate);
+        copy.getAbundance(shortspine).asMatrix()[FishStateUtilities.MALE][5] = 0;
+        Assertions.assertEquals(150, aggregate.getAbundance(shortspine).getAbundance(FishStateUtilities.MALE, 5), 0);
+    }
+
 }
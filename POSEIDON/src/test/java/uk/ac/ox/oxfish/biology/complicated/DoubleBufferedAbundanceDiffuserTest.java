@@ -0,0 +1,120 @@
+/*
+ * POSEIDON: an agent-based model of fisheries
+ * Copyright (c) 2025, University of Oxford.
+ *
+ * University of Oxford means the Chancellor, Masters and Scholars of the
+ * University of Oxford, having an administrative office at Wellington
+ * Square, Oxford OX1 2JD, UK.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+
+package uk.ac.ox.oxfish.biology.complicated;
+
+import ec.util.MersenneTwisterFast;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import sim.util.Bag;
+import uk.ac.ox.oxfish.biology.GlobalBiology;
+import uk.ac.ox.oxfish.biology.Species;
+import uk.ac.ox.oxfish.geography.NauticalMap;
+import uk.ac.ox.oxfish.geography.SeaTile;
+import uk.ac.ox.oxfish.geography.habitat.TileHabitat;
+import uk.ac.ox.oxfish.model.FishState;
+
+import java.util.HashMap;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class DoubleBufferedAbundanceDiffuserTest {
+
+    private static final int SIZE = 30;
+
+    private final Species species = new Species("only", new FromListMeristics(new double[]{10d, 20d, 30d}, 2));
+
+    /**
+     * Runs 20 steps on a square of tiles that starts with all fish in one corner and returns the abundance matrices.
+     */
+    private double[][][][] diffuse(final boolean parallel) {
+        final GlobalBiology biology = new GlobalBiology(species);
+        final SeaTile[][] tiles = new SeaTile[SIZE][SIZE];
+        final HashMap<SeaTile, AbundanceLocalBiology> biologies = new HashMap<>();
+        for (int x = 0; x < SIZE; x++)
+            for (int y = 0; y < SIZE; y++) {
+                tiles[x][y] = new SeaTile(x, y, -1, new TileHabitat(0d));
+                final AbundanceLocalBiology local = new AbundanceLocalBiology(biology);
+                tiles[x][y].setBiology(local);
+                biologies.put(tiles[x][y], local);
+            }
+        biologies.get(tiles[0][0]).getAbundance(species).asMatrix()[0][0] = 100000;
+        biologies.get(tiles[0][0]).getAbundance(species).asMatrix()[1][2] = 5000;
+
+        final NauticalMap map = mock(NauticalMap.class);
+        for (int x = 0; x < SIZE; x++)
+            for (int y = 0; y < SIZE; y++) {
+                final Bag neighbours = new Bag();
+                for (int i = Math.max(0, x - 1); i <= Math.min(SIZE - 1, x + 1); i++)
+                    for (int j = Math.max(0, y - 1); j <= Math.min(SIZE - 1, y + 1); j++)
+                        if (i != x || j != y)
+                            neighbours.add(tiles[i][j]);
+                when(map.getMooreNeighbors(tiles[x][y], 1)).thenReturn(neighbours);
+            }
+        final FishState state = mock(FishState.class);
+        when(state.getMap()).thenReturn(map);
+        when(state.getRandom()).thenReturn(new MersenneTwisterFast(42));
+
+        final DoubleBufferedAbundanceDiffuser diffuser = new DoubleBufferedAbundanceDiffuser(1, .2, 0, 100, true);
+        diffuser.setParallel(parallel);
+        for (int step = 0; step < 20; step++)
+            diffuser.step(species, biologies, state);
+
+        final double[][][][] abundances = new double[SIZE][SIZE][][];
+        for (int x = 0; x < SIZE; x++)
+            for (int y = 0; y < SIZE; y++)
+                abundances[x][y] = biologies.get(tiles[x][y]).getAbundance(species).asMatrix();
+        return abundances;
+    }
+
+    @Test
+    public void conservesFishAndSpreadsThem() {
+        final double[][][][] abundances = diffuse(true);
+        double total = 0;
+        double otherBins = 0;
+        for (final double[][][] column : abundances)
+            for (final double[][] matrix : column) {
+                Assertions.assertTrue(matrix[0][0] >= 0);
+                Assertions.assertEquals(matrix[0][0], Math.rint(matrix[0][0]), 0d);
+                total += matrix[0][0];
+                otherBins += matrix[1][2];
+            }
+        Assertions.assertEquals(100000, total, 0d);
+        Assertions.assertEquals(5000, otherBins, 0d);
+        Assertions.assertTrue(abundances[0][0][0][0] < 100000);
+        Assertions.assertTrue(abundances[1][1][0][0] > 0);
+        Assertions.assertTrue(abundances[1][1][0][0] > abundances[5][5][0][0]);
+    }
+
+    @Test
+    public void parallelAndSerialRunsAreIdentical() {
+        final double[][][][] serial = diffuse(false);
+        final double[][][][] parallel = diffuse(true);
+        for (int x = 0; x < SIZE; x++)
+            for (int y = 0; y < SIZE; y++)
+                for (int subdivision = 0; subdivision < 2; subdivision++)
+                    Assertions.assertArrayEquals(serial[x][y][subdivision], parallel[x][y][subdivision], 0d);
+    }
+
+}
@@ -33,9 +33,11 @@ import uk.ac.ox.oxfish.biology.complicated.Meristics;
 import uk.ac.ox.oxfish.biology.tuna.SmallLargeAllocationGridsSupplier.Key;
 import uk.ac.ox.oxfish.biology.tuna.SmallLargeAllocationGridsSupplier.SizeGroup;
 import uk.ac.ox.oxfish.geography.NauticalMap;
+import uk.ac.ox.oxfish.geography.SeaTile;
 
 import java.nio.file.Paths;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.function.BiFunction;
 
@@ -97,6 +99,17 @@ public class AbundanceReallocatorTest {
             .0000001
         );
 
+        // reallocating again over the same tiles reuses the weights computed the first time
+        final List<SeaTile> seaTiles = nauticalMap.getAllSeaTilesAsList();
+        reallocator.reallocate(grids.get(0), globalBiology, seaTiles, aggregatedBiology);
+        aggregatedBiology.getAbundance(species1).asMatrix()[0][0] = 20;
+        reallocator.reallocate(grids.get(0), globalBiology, seaTiles, aggregatedBiology);
+        Assertions.assertEquals(
+            2 * 0.991991733,
+            seaTiles.get(0).getAbundance(species1).asMatrix()[0][0],
+            .0000001
+        );
+
     }
 
 }
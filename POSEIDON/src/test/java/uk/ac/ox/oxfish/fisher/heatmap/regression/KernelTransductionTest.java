@@ -0,0 +1,137 @@
+/*
+ * POSEIDON: an agent-based model of fisheries
+ * Copyright (c) 2025, University of Oxford.
+ *
+ * University of Oxford means the Chancellor, Masters and Scholars of the
+ * University of Oxford, having an administrative office at Wellington
+ * Square, Oxford OX1 2JD, UK.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+
+package uk.ac.ox.oxfish.fisher.heatmap.regression;
+
+import ec.util.MersenneTwisterFast;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import uk.ac.ox.oxfish.fisher.actions.MovingTest;
+import uk.ac.ox.oxfish.fisher.heatmap.regression.extractors.GridXExtractor;
+import uk.ac.ox.oxfish.fisher.heatmap.regression.extractors.GridYExtractor;
+import uk.ac.ox.oxfish.fisher.heatmap.regression.extractors.ObservationTimeExtractor;
+import uk.ac.ox.oxfish.fisher.heatmap.regression.numerical.GeographicalObservation;
+import uk.ac.ox.oxfish.fisher.heatmap.regression.numerical.KernelTilePredictor;
+import uk.ac.ox.oxfish.fisher.heatmap.regression.numerical.KernelTransduction;
+import uk.ac.ox.oxfish.fisher.heatmap.regression.numerical.TileFeatureMatrix;
+import uk.ac.ox.oxfish.geography.NauticalMap;
+import uk.ac.ox.oxfish.geography.SeaTile;
+import uk.ac.ox.oxfish.model.FishState;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.mockito.Mockito.mock;
+import static uk.ac.ox.oxfish.utility.FishStateUtilities.entry;
+
+@SuppressWarnings("unchecked")
+public class KernelTransductionTest {
+
+    @Test
+    public void matchesOnePredictorPerTile() {
+
+        final FishState state = MovingTest.generateSimple50x50Map();
+        final NauticalMap map = state.getMap();
+        final KernelTransduction transduction = new KernelTransduction(
+            map,
+            .9,
+            entry(new GridXExtractor(), 20d),
+            entry(new GridYExtractor(), 30d),
+            entry(new ObservationTimeExtractor(), 5d)
+        );
+        final List<KernelTilePredictor> predictors = new ArrayList<>();
+        for (final SeaTile tile : map.getAllSeaTilesExcludingLandAsList())
+            predictors.add(new KernelTilePredictor(
+                .9,
+                tile,
+                entry(new GridXExtractor(), 20d),
+                entry(new GridYExtractor(), 30d),
+                entry(new ObservationTimeExtractor(), 5d)
+            ));
+
+        final MersenneTwisterFast random = new MersenneTwisterFast(0);
+        for (int i = 0; i < 20; i++) {
+            final GeographicalObservation<Double> observation = new GeographicalObservation<>(
+                map.getSeaTile(random.nextInt(50), random.nextInt(50)),
+                i,
+                random.nextDouble() * 100
+            );
+            transduction.addObservation(observation, null, mock(FishState.class));
+            for (final KernelTilePredictor predictor : predictors)
+                predictor.addObservation(observation, null, mock(FishState.class));
+        }
+
+        for (final KernelTilePredictor predictor : predictors)
+            Assertions.assertEquals(
+                predictor.getCurrentPrediction(),
+                transduction.predict(predictor.getWhereAmIPredicting(), 20, null, null),
+                1e-8
+            );
+    }
+
+    @Test
+    public void parallelMatchesSerial() {
+
+        final FishState state = MovingTest.generateSimple50x50Map();
+        final NauticalMap map = state.getMap();
+        final KernelTransduction serial = new KernelTransduction(
+            map, .95, entry(new GridXExtractor(), 10d), entry(new GridYExtractor(), 10d)
+        );
+        final KernelTransduction parallel = new KernelTransduction(
+            map, .95, entry(new GridXExtractor(), 10d), entry(new GridYExtractor(), 10d)
+        );
+        parallel.setParallel(true);
+
+        final MersenneTwisterFast random = new MersenneTwisterFast(0);
+        for (int i = 0; i < 10; i++) {
+            final GeographicalObservation<Double> observation = new GeographicalObservation<>(
+                map.getSeaTile(random.nextInt(50), random.nextInt(50)),
+                i,
+                random.nextDouble() * 100
+            );
+            serial.addObservation(observation, null, null);
+            parallel.addObservation(observation, null, null);
+        }
+
+        for (final SeaTile tile : map.getAllSeaTilesExcludingLandAsList())
+            Assertions.assertEquals(
+                serial.predict(tile, 10, null, null),
+                parallel.predict(tile, 10, null, null)
+            );
+    }
+
+    @Test
+    public void tileFeaturesAreSharedByRegressionsOnTheSameMap() {
+
+        final NauticalMap map = MovingTest.generateSimple50x50Map().getMap();
+        final TileFeatureMatrix matrix = TileFeatureMatrix.of(map);
+        Assertions.assertSame(matrix, TileFeatureMatrix.of(map));
+        final GridXExtractor extractor = new GridXExtractor();
+        Assertions.assertSame(matrix.getColumn(extractor), matrix.getColumn(extractor));
+        //columns belong to extractor instances, not to their classes
+        Assertions.assertNotSame(matrix.getColumn(extractor), matrix.getColumn(new GridXExtractor()));
+        Assertions.assertEquals(map.getAllSeaTilesExcludingLandAsList().size(), matrix.size());
+        Assertions.assertEquals(-1, matrix.indexOf(new SeaTile(60, 60, 0, null)));
+    }
+
+}
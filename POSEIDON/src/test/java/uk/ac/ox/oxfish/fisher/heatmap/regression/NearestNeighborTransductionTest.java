@@ -25,6 +25,8 @@ package uk.ac.ox.oxfish.fisher.heatmap.regression;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
 import uk.ac.ox.oxfish.fisher.actions.MovingTest;
+import uk.ac.ox.oxfish.fisher.heatmap.regression.distance.CartesianRegressionDistance;
+import uk.ac.ox.oxfish.fisher.heatmap.regression.extractors.ObservationExtractor;
 import uk.ac.ox.oxfish.fisher.heatmap.regression.factory.NearestNeighborTransductionFactory;
 import uk.ac.ox.oxfish.fisher.heatmap.regression.numerical.GeographicalObservation;
 import uk.ac.ox.oxfish.fisher.heatmap.regression.numerical.NearestNeighborTransduction;
@@ -56,4 +58,25 @@ public class NearestNeighborTransductionTest {
 
     }
 
+    @Test
+    public void neighborFeaturesAreExtractedAgainAtEachObservation() {
+
+        final FishState state = MovingTest.generateSimple50x50Map();
+        //distance from a point that moves, like the distance from a fisher's port would
+        final int[] pivot = {0};
+        final NearestNeighborTransduction regression = new NearestNeighborTransduction(
+            state.getMap(),
+            new ObservationExtractor[]{(tile, time, fisher, model) -> Math.abs(tile.getGridX() - pivot[0])},
+            new double[]{1},
+            new CartesianRegressionDistance(0)
+        );
+        regression.addObservation(new GeographicalObservation<>(state.getMap().getSeaTile(30, 0), 0, 1d), null, null);
+        pivot[0] = 20;
+        regression.addObservation(new GeographicalObservation<>(state.getMap().getSeaTile(45, 0), 1, 2d), null, null);
+        //with the pivot at 20 the first observation is the one with the same features as tile 30
+        Assertions.assertEquals(1d, regression.predict(state.getMap().getSeaTile(30, 0), 1, null, null), .001);
+        Assertions.assertEquals(2d, regression.predict(state.getMap().getSeaTile(45, 0), 1, null, null), .001);
+
+    }
+
 }
@@ -70,21 +70,21 @@ class FadTest {
         // generate failed attempt to release the FAD's fish into the tile biology
         final MersenneTwisterFast rng = mock(MersenneTwisterFast.class);
         when(rng.nextDouble()).thenReturn(1.0);
-        fad.maybeReleaseFishIntoTile(tileBiology, rng);
+        fad.maybeReleaseFishIntoTile(tileBiology, rng::nextDouble);
         // check that the FAD is still full and the tile biology is still empty
         assertEquals(Arrays.stream(fad.getBiomass()).sum(), fad.getCarryingCapacity().getTotal(), 0.0);
         assertTrue(tileBiology.isEmpty());
 
         // release the FAD's fish into the tile biology
         when(rng.nextDouble()).thenReturn(0.0);
-        fad.maybeReleaseFishIntoTile(tileBiology, rng);
+        fad.maybeReleaseFishIntoTile(tileBiology, rng::nextDouble);
         // Check that the FAD is now empty and the tile has received the fish
         assertTrue(fadBiology.isEmpty());
         assertEquals(tileBiology.getTotalBiomass(), fad.getCarryingCapacity().getTotal(), 0);
 
         // Refill the FAD and release another batch of FAD fish into the tile biology
         fillBiomassFad(fad);
-        fad.maybeReleaseFishIntoTile(tileBiology, rng);
+        fad.maybeReleaseFishIntoTile(tileBiology, rng::nextDouble);
 
         // Check that the FAD is now empty and the tile is now at full carrying capacity
         assertTrue(fadBiology.isEmpty());
@@ -93,10 +93,10 @@ class FadTest {
         // Fill the FAD one last time and release the fish to nowhere
         fillBiomassFad(fad);
         when(rng.nextDouble()).thenReturn(1.0);
-        fad.maybeReleaseFishIntoTheVoid(rng);
+        fad.maybeReleaseFishIntoTheVoid(rng::nextDouble);
         Assertions.assertFalse(fadBiology.isEmpty());
         when(rng.nextDouble()).thenReturn(0.0);
-        fad.maybeReleaseFishIntoTheVoid(rng);
+        fad.maybeReleaseFishIntoTheVoid(rng::nextDouble);
         assertTrue(fadBiology.isEmpty());
 
     }
@@ -127,7 +127,7 @@ class FadTest {
         // See what happens when fish "A" is released, "B" is not
         final MersenneTwisterFast rng = mock(MersenneTwisterFast.class);
         when(rng.nextDouble()).thenReturn(0.2);
-        fad.maybeReleaseFishIntoTile(tileBiology, rng);
+        fad.maybeReleaseFishIntoTile(tileBiology, rng::nextDouble);
         // check that the FAD lost half the biomass and the tile biology is also half returned
         assertEquals(Arrays.stream(fad.getBiomass()).sum(), fad.getCarryingCapacity().getTotal() * 0.5, 0.0);
         assertEquals(tileBiology.getTotalBiomass(), fad.getCarryingCapacity().getTotal() * 0.5, 0.0);
@@ -137,7 +137,7 @@ class FadTest {
 
         // See what happens when both fish are released
         when(rng.nextDouble()).thenReturn(0.05);
-        fad.maybeReleaseFishIntoTile(tileBiology, rng);
+        fad.maybeReleaseFishIntoTile(tileBiology, rng::nextDouble);
         // check that the FAD lost the biomass and the tile biology is full
         assertTrue(fadBiology.isEmpty());
         assertEquals(tileBiology.getTotalBiomass(), 1.75, 0.0);
@@ -145,10 +145,10 @@ class FadTest {
         // Fill the FAD one last time and release the fish to nowhere
         fillBiomassFad(fad);
         when(rng.nextDouble()).thenReturn(1.0);
-        fad.maybeReleaseFishIntoTheVoid(rng);
+        fad.maybeReleaseFishIntoTheVoid(rng::nextDouble);
         Assertions.assertFalse(fadBiology.isEmpty());
         when(rng.nextDouble()).thenReturn(0.0);
-        fad.maybeReleaseFishIntoTheVoid(rng);
+        fad.maybeReleaseFishIntoTheVoid(rng::nextDouble);
         assertTrue(fadBiology.isEmpty());
 
     }
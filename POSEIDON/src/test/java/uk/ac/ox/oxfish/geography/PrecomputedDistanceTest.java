@@ -0,0 +1,93 @@
+/*
+ * POSEIDON: an agent-based model of fisheries
+ * Copyright (c) 2025, University of Oxford.
+ *
+ * University of Oxford means the Chancellor, Masters and Scholars of the
+ * University of Oxford, having an administrative office at Wellington
+ * Square, Oxford OX1 2JD, UK.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+
+package uk.ac.ox.oxfish.geography;
+
+import com.vividsolutions.jts.geom.Envelope;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import sim.field.geo.GeomGridField;
+import sim.field.geo.GeomVectorField;
+import sim.field.grid.ObjectGrid2D;
+import uk.ac.ox.oxfish.geography.habitat.TileHabitat;
+import uk.ac.ox.oxfish.geography.pathfinding.StraightLinePathfinder;
+
+public class PrecomputedDistanceTest {
+
+    private static NauticalMap makeMap(final int width, final int height, final Distance distance) {
+        final ObjectGrid2D grid = new ObjectGrid2D(width, height);
+        for (int x = 0; x < width; x++)
+            for (int y = 0; y < height; y++)
+                grid.field[x][y] = new SeaTile(x, y, x == 1 && y == 1 ? 100 : -100, new TileHabitat(0d));
+        final GeomGridField field = new GeomGridField(grid);
+        field.setMBR(new Envelope(-150, -110, -20, 15));
+        return new NauticalMap(field, new GeomVectorField(), distance, new StraightLinePathfinder());
+    }
+
+    private static void assertSameDistances(final NauticalMap map, final Distance original) {
+        for (final SeaTile start : map.getAllSeaTilesAsList())
+            for (final SeaTile end : map.getAllSeaTilesAsList()) {
+                final double expected = original.distance(start, end, map);
+                Assertions.assertEquals(expected, map.distance(start, end), 1e-9 * Math.max(1, expected));
+                Assertions.assertEquals(
+                    expected,
+                    map.distance(start.getGridX(), start.getGridY(), end.getGridX(), end.getGridY()),
+                    1e-9 * Math.max(1, expected)
+                );
+            }
+    }
+
+    @Test
+    public void equirectangularByOffset() {
+        final Distance original = new EquirectangularDistance(-20, 2);
+        final NauticalMap map = makeMap(9, 7, original);
+        map.precomputeDistances(0);
+        Assertions.assertTrue(map.getDistance() instanceof PrecomputedDistance);
+        assertSameDistances(map, original);
+    }
+
+    @Test
+    public void byCoordinateWithAndWithoutDenseMatrix() {
+        final Distance original = new EquirectangularDistanceByCoordinate();
+        final NauticalMap map = makeMap(9, 7, original);
+
+        map.precomputeDistances(0);
+        Assertions.assertFalse(((PrecomputedDistance) map.getDistance()).hasDenseMatrix());
+        assertSameDistances(map, original);
+
+        map.precomputeDistances(1024 * 1024);
+        Assertions.assertTrue(((PrecomputedDistance) map.getDistance()).hasDenseMatrix());
+        assertSameDistances(map, original);
+    }
+
+    @Test
+    public void otherDistancesUseTheDenseMatrixOrFallBack() {
+        final Distance original = (start, end, map) ->
+            start.getGridX() * 10 + end.getGridY() + 0.5 * start.getGridY();
+        final NauticalMap map = makeMap(5, 4, original);
+        map.precomputeDistances(1024 * 1024);
+        Assertions.assertTrue(((PrecomputedDistance) map.getDistance()).hasDenseMatrix());
+        assertSameDistances(map, original);
+    }
+
+}
@@ -35,6 +35,8 @@ import java.util.TreeMap;
 
 import static java.util.stream.IntStream.range;
 import static uk.ac.ox.oxfish.geography.currents.CurrentPattern.NEUTRAL;
+import static uk.ac.ox.oxfish.geography.currents.CurrentPattern.Y2021;
+import static uk.ac.ox.oxfish.geography.currents.CurrentPattern.Y2022;
 import static uk.ac.ox.oxfish.geography.currents.CurrentVectorsEPO.getInterpolatedVector;
 
 public class CurrentVectorsTest {
@@ -84,4 +86,71 @@ public class CurrentVectorsTest {
             Assertions.assertEquals(expectedVectors.get(i), currentVectors.getVector(i, gridLocation))
         );
     }
+
+    @Test
+    public void denseVectorsMatchSparseOnes() {
+        final TreeMap<Integer, EnumMap<CurrentPattern, Map<Int2D, Double2D>>> vectorMaps = new TreeMap<>();
+        vectorMaps.put(1, new EnumMap<>(ImmutableMap.of(NEUTRAL, ImmutableMap.of(
+            new Int2D(0, 0), new Double2D(0, 0.5),
+            new Int2D(1, 1), new Double2D(-1, 1)
+        ))));
+        vectorMaps.put(5, new EnumMap<>(ImmutableMap.of(NEUTRAL, ImmutableMap.of(
+            new Int2D(0, 0), new Double2D(1, 0),
+            new Int2D(1, 1), new Double2D(0.3, 0.1)
+        ))));
+        final CurrentVectorsEPO currentVectors = new CurrentVectorsEPO(vectorMaps, __ -> NEUTRAL, 2, 2, 1);
+        final DenseCurrentVectors denseCurrentVectors = currentVectors.toDense();
+        for (int step = 0; step < 10; step++)
+            for (int x = 0; x < 2; x++)
+                for (int y = 0; y < 2; y++) {
+                    final Double2D expected = currentVectors.getVector(step, new Int2D(x, y));
+                    Assertions.assertEquals(expected.x, denseCurrentVectors.getU(step, x, y), 1E-6);
+                    Assertions.assertEquals(expected.y, denseCurrentVectors.getV(step, x, y), 1E-6);
+                }
+    }
+
+    @Test
+    public void denseFieldsAreSharedOncePatternsStopChanging() {
+        final Int2D gridLocation = new Int2D(0, 0);
+        final TreeMap<Integer, EnumMap<CurrentPattern, Map<Int2D, Double2D>>> vectorMaps = new TreeMap<>();
+        vectorMaps.put(1, new EnumMap<>(ImmutableMap.of(
+            Y2021, ImmutableMap.of(gridLocation, new Double2D(0, 0)),
+            Y2022, ImmutableMap.of(gridLocation, new Double2D(1, 1))
+        )));
+        vectorMaps.put(100, new EnumMap<>(ImmutableMap.of(
+            Y2021, ImmutableMap.of(gridLocation, new Double2D(1, 0)),
+            Y2022, ImmutableMap.of(gridLocation, new Double2D(0, 1))
+        )));
+        final CurrentVectorsEPO currentVectors =
+            new CurrentVectorsEPO(vectorMaps, step -> step < 365 ? Y2021 : Y2022, 1, 1, 1);
+        final DenseCurrentVectors denseCurrentVectors = currentVectors.toDense();
+        // steps near the change of pattern have their own fields
+        Assertions.assertNotSame(denseCurrentVectors.getFieldAt(300), denseCurrentVectors.getFieldAt(665));
+        // later years share theirs
+        Assertions.assertSame(denseCurrentVectors.getFieldAt(800), denseCurrentVectors.getFieldAt(1165));
+        Assertions.assertSame(denseCurrentVectors.getFieldAt(800), denseCurrentVectors.getFieldAt(3720));
+        for (final int step : new int[]{300, 665, 800, 1165, 3720}) {
+            final Double2D expected = currentVectors.getVector(step, gridLocation);
+            Assertions.assertEquals(expected.x, denseCurrentVectors.getU(step, 0, 0), 1E-6);
+            Assertions.assertEquals(expected.y, denseCurrentVectors.getV(step, 0, 0), 1E-6);
+        }
+    }
+
+    @Test
+    public void denseFieldsAreBounded() {
+        final DenseCurrentVectors denseCurrentVectors = new DenseCurrentVectors(
+            2,
+            2,
+            (step, location) -> new Double2D(step, location.x),
+            Integer::valueOf,
+            3
+        );
+        for (int step = 0; step < 10; step++)
+            Assertions.assertEquals(step, denseCurrentVectors.getU(step, 1, 1), 1E-6);
+        Assertions.assertEquals(3, denseCurrentVectors.getNumberOfFields());
+        // dropped fields are computed again
+        Assertions.assertEquals(0, denseCurrentVectors.getU(0, 0, 0), 1E-6);
+        Assertions.assertEquals(1, denseCurrentVectors.getV(0, 1, 0), 1E-6);
+        Assertions.assertEquals(3, denseCurrentVectors.getNumberOfFields());
+    }
 }
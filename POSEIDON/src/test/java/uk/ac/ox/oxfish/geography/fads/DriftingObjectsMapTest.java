@@ -0,0 +1,118 @@
+/*
+ * POSEIDON: an agent-based model of fisheries
+ * Copyright (c) 2025, University of Oxford.
+ *
+ * University of Oxford means the Chancellor, Masters and Scholars of the
+ * University of Oxford, having an administrative office at Wellington
+ * Square, Oxford OX1 2JD, UK.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package uk.ac.ox.oxfish.geography.fads;
+
+import ec.util.MersenneTwisterFast;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import sim.field.continuous.Continuous2D;
+import sim.util.Bag;
+import sim.util.Double2D;
+import sim.util.Int2D;
+import uk.ac.ox.oxfish.geography.NauticalMap;
+import uk.ac.ox.oxfish.geography.currents.DenseCurrentVectors;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static uk.ac.ox.oxfish.geography.TestUtilities.makeMap;
+
+public class DriftingObjectsMapTest {
+
+    /**
+     * Drifts the same objects in a {@link DriftingObjectsMap} and in a MASON {@link Continuous2D}, checking that
+     * both keep the objects in the same order and in the same cells, and that only cell crossings and removals
+     * are reported.
+     */
+    @Test
+    public void keepsTheSameOrderAsContinuous2D() {
+        final int size = 12;
+        final NauticalMap map = makeMap(size, size);
+        final DenseCurrentVectors currentVectors = new DenseCurrentVectors(
+            size,
+            size,
+            (step, location) -> new Double2D(
+                Math.sin(step + location.x * 0.7) * 0.8,
+                Math.cos(step * 1.3 + location.y) * 0.8
+            )
+        );
+        final DriftingObjectsMap driftingObjectsMap = new DriftingObjectsMap(currentVectors, map);
+        final Continuous2D reference = new Continuous2D(1.0, size, size);
+        final List<Object> removedFromMap = new ArrayList<>();
+        final int[] numberOfEvents = {0};
+
+        final MersenneTwisterFast random = new MersenneTwisterFast(0);
+        for (int step = 0; step < 50; step++) {
+            for (int i = 0; i < 5; i++) {
+                final Object object = new Object();
+                final Double2D location = new Double2D(random.nextDouble() * size, random.nextDouble() * size);
+                driftingObjectsMap.add(object, location, (oldLocation, newLocation) -> {
+                    numberOfEvents[0]++;
+                    if (!newLocation.isPresent())
+                        removedFromMap.add(object);
+                });
+                reference.setObjectLocation(object, location);
+            }
+            if (reference.allObjects.size() > 0 && random.nextBoolean()) {
+                final Object object = reference.allObjects.get(random.nextInt(reference.allObjects.size()));
+                driftingObjectsMap.remove(object);
+                reference.remove(object);
+            }
+
+            numberOfEvents[0] = 0;
+            driftingObjectsMap.applyDrift(step);
+            int expectedEvents = 0;
+            for (final Object object : reference.allObjects.toArray()) {
+                final Double2D oldLocation = reference.getObjectLocation(object);
+                final Double2D vector = currentVectors.getVector(
+                    step,
+                    new Int2D((int) oldLocation.x, (int) oldLocation.y)
+                );
+                final Double2D newLocation = oldLocation.add(vector);
+                if (newLocation.x >= 0 && newLocation.x < size && newLocation.y >= 0 && newLocation.y < size) {
+                    if ((int) newLocation.x != (int) oldLocation.x || (int) newLocation.y != (int) oldLocation.y)
+                        expectedEvents++;
+                    reference.setObjectLocation(object, newLocation);
+                } else {
+                    expectedEvents++;
+                    reference.remove(object);
+                }
+            }
+
+            Assertions.assertArrayEquals(reference.allObjects.toArray(), driftingObjectsMap.objects().toArray());
+            for (int x = 0; x < size; x++)
+                for (int y = 0; y < size; y++) {
+                    final Bag expected = reference.getObjectsAtDiscretizedLocation(new Int2D(x, y));
+                    final Bag actual = driftingObjectsMap.getObjectsInCell(x, y);
+                    if (expected == null || expected.isEmpty())
+                        Assertions.assertNull(actual);
+                    else
+                        Assertions.assertArrayEquals(expected.toArray(), actual.toArray());
+                }
+            for (final Object object : reference.allObjects)
+                Assertions.assertEquals(reference.getObjectLocation(object), driftingObjectsMap.getObjectLocation(object));
+            Assertions.assertEquals(expectedEvents, numberOfEvents[0]);
+        }
+        Assertions.assertFalse(removedFromMap.isEmpty());
+    }
+}
@@ -36,8 +36,12 @@ import uk.ac.ox.oxfish.geography.SeaTile;
 import uk.ac.ox.oxfish.geography.currents.CurrentVectors;
 import uk.ac.ox.oxfish.model.FishState;
 
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.Stream;
 
 import static com.google.common.collect.ImmutableMap.toImmutableMap;
 import static java.util.function.Function.identity;
@@ -136,4 +140,88 @@ public class FadMapTest {
         Assertions.assertTrue(startTileBiology.isFull());
     }
 
+    @Test
+    public void parallelStepDoesNotDependOnTheNumberOfThreads() throws Exception {
+        Assertions.assertArrayEquals(runInParallel(1), runInParallel(4));
+    }
+
+    /**
+     * Steps a FAD map in parallel mode inside a pool with the given number of threads and returns the biomass left in
+     * each tile and each FAD, followed by the biomass lost by the FADs, in the order it was reported. FADs lose fish
+     * in the last columns of the map, which have no biomass biology.
+     */
+    private static double[] runInParallel(final int numberOfThreads) throws Exception {
+        final int[][] altitudes = new int[6][6];
+        for (final int[] row : altitudes) {
+            Arrays.fill(row, -1);
+        }
+        final NauticalMap nauticalMap = makeMap(altitudes);
+        final GlobalBiology globalBiology = new GlobalBiology(new Species("A"), new Species("B"));
+        for (final SeaTile tile : nauticalMap.getAllSeaTilesAsList()) {
+            if (tile.getGridX() >= 4) {
+                tile.setBiology(new EmptyLocalBiology());
+                continue;
+            }
+            final BiomassLocalBiology biology = makeBiology(globalBiology, 100.0);
+            globalBiology.getSpecies().forEach(species -> biology.setCurrentBiomass(species, 50.0));
+            tile.setBiology(biology);
+        }
+        final MersenneTwisterFast rng = new MersenneTwisterFast(42);
+        final BiomassFadInitializer fadInitializer = new BiomassFadInitializer(
+            globalBiology,
+            new LinearFishBiomassAttractor(
+                globalBiology.getSpecies(),
+                new ConstantAttractionProbabilityFunction(0.5),
+                new double[]{0.1, 0.2},
+                rng
+            ),
+            () -> 0,
+            new FixedGlobalCarryingCapacitySupplier(30.0),
+            globalBiology.getSpecies().stream().collect(toImmutableMap(identity(), __ -> 0.2))
+        );
+        final FadMap fadMap = new FadMap(
+            nauticalMap,
+            TestUtilities.makeUniformCurrentVectors(nauticalMap, new Double2D(0.15, 0.1), 1),
+            globalBiology,
+            BiomassLocalBiology.class
+        );
+        fadMap.setParallel(true);
+
+        final FishState fishState = mock(FishState.class);
+        when(fishState.getRandom()).thenReturn(rng);
+        when(fishState.getBiology()).thenReturn(globalBiology);
+        final FadManager fadManager =
+            new FadManager(fadMap, fadInitializer, null, new ReliableFishValueCalculator(globalBiology));
+        fadManager.setNumFadsInStock(50);
+        final List<Double> biomassLost = new ArrayList<>();
+        fadManager.registerObserver(
+            BiomassLostEvent.class,
+            event -> biomassLost.add(event.getBiomassLost().values().stream().mapToDouble(Double::doubleValue).sum())
+        );
+        final BiomassAggregatingFad[] fads = new BiomassAggregatingFad[50];
+        for (int i = 0; i < fads.length; i++) {
+            final SeaTile seaTile = nauticalMap.getSeaTile(rng.nextInt(3), rng.nextInt(3));
+            fads[i] = (BiomassAggregatingFad) fadManager.deployFad(seaTile, rng);
+        }
+
+        final ForkJoinPool pool = new ForkJoinPool(numberOfThreads);
+        try {
+            for (int step = 1; step <= 10; step++) {
+                when(fishState.getStep()).thenReturn(step);
+                pool.submit(() -> fadMap.step(fishState)).get();
+            }
+        } finally {
+            pool.shutdown();
+        }
+
+        return Stream.of(
+            nauticalMap.getAllSeaTilesAsList().stream()
+                .map(SeaTile::getBiology)
+                .filter(BiomassLocalBiology.class::isInstance)
+                .map(biology -> ((BiomassLocalBiology) biology).getCurrentBiomass()),
+            Arrays.stream(fads).map(BiomassAggregatingFad::getBiomass),
+            Stream.of(biomassLost.stream().mapToDouble(Double::doubleValue).toArray())
+        ).flatMap(identity()).flatMapToDouble(Arrays::stream).toArray();
+    }
+
 }
@@ -0,0 +1,70 @@
+/*
+ * POSEIDON: an agent-based model of fisheries
+ * Copyright (c) 2025, University of Oxford.
+ *
+ * University of Oxford means the Chancellor, Masters and Scholars of the
+ * University of Oxford, having an administrative office at Wellington
+ * Square, Oxford OX1 2JD, UK.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package uk.ac.ox.oxfish.geography.pathfinding;
+
+import com.google.common.collect.ImmutableList;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import uk.ac.ox.oxfish.geography.NauticalMap;
+import uk.ac.ox.oxfish.geography.SeaTile;
+
+import static uk.ac.ox.oxfish.geography.TestUtilities.makeMap;
+
+public class BoundedPathMemoryTest {
+
+    @Test
+    public void remembersAndReversesPaths() {
+        final NauticalMap map = makeMap(5, 5);
+        final BoundedPathMemory memory = new BoundedPathMemory(map, 100);
+        final SeaTile start = map.getSeaTile(0, 0);
+        final SeaTile middle = map.getSeaTile(1, 1);
+        final SeaTile end = map.getSeaTile(2, 2);
+
+        Assertions.assertNull(memory.getPath(start, end));
+        memory.putPath(start, end, ImmutableList.of(start, middle, end));
+        Assertions.assertEquals(ImmutableList.of(start, middle, end), memory.getPath(start, end).get());
+        Assertions.assertEquals(ImmutableList.of(end, middle, start), memory.getPath(end, start).get());
+
+        final SeaTile corner = map.getSeaTile(4, 4);
+        memory.putImpossiblePath(start, corner);
+        Assertions.assertFalse(memory.getPath(start, corner).isPresent());
+
+        Assertions.assertEquals(3, memory.getHits());
+        Assertions.assertEquals(1, memory.getMisses());
+    }
+
+    @Test
+    public void evictsWhenFull() {
+        final NauticalMap map = makeMap(5, 5);
+        // room for about two 3-step routes (each costs 4 with the overhead)
+        final BoundedPathMemory memory = new BoundedPathMemory(map, 8);
+        for (int x = 0; x < 5; x++) {
+            final SeaTile start = map.getSeaTile(x, 0);
+            final SeaTile end = map.getSeaTile(x, 2);
+            memory.putPath(start, end, ImmutableList.of(start, map.getSeaTile(x, 1), end));
+        }
+        Assertions.assertTrue(memory.getSize() <= 2);
+        Assertions.assertTrue(memory.getEvictions() >= 3);
+        Assertions.assertNull(memory.getPath(map.getSeaTile(0, 0), map.getSeaTile(0, 2)));
+    }
+}
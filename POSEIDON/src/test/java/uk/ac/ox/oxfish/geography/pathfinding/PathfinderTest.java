@@ -23,15 +23,27 @@
 package uk.ac.ox.oxfish.geography.pathfinding;
 
 import com.google.common.collect.ImmutableList;
+import ec.util.MersenneTwisterFast;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
 import uk.ac.ox.oxfish.geography.CartesianDistance;
+import uk.ac.ox.oxfish.geography.Distance;
 import uk.ac.ox.oxfish.geography.NauticalMap;
 import uk.ac.ox.oxfish.geography.SeaTile;
+import uk.ac.ox.oxfish.geography.ports.Port;
+import uk.ac.ox.oxfish.model.market.MarketMap;
 
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.stream.Stream;
 
 import static com.google.common.collect.Iterables.elementsEqual;
+import static org.mockito.Mockito.mock;
 import static uk.ac.ox.oxfish.geography.TestUtilities.makeMap;
 
 /**
@@ -142,4 +154,97 @@ public class PathfinderTest {
         Assertions.assertNotNull(straightLinePathfinder.getRoute(impassableMap, start, end));
     }
 
+    @Test
+    public void portRoutesPathfindingTest(@TempDir final Path cacheDirectory) throws IOException {
+
+        final NauticalMap map = makeMap(new int[][]{
+            {-1, 10, -1, -1},
+            {-1, 10, -1, -1},
+            {-1, -1, -1, 10},
+            {-1, -1, -1, -1}
+        });
+        final Port port = new Port("Port 0", map.getSeaTile(0, 1), mock(MarketMap.class), 0);
+        map.addPort(port);
+
+        final CartesianDistance distance = new CartesianDistance(1);
+        final AStarPathfinder aStarPathfinder = new AStarPathfinder(distance);
+        final PortRoutesPathfinder portRoutesPathfinder =
+            new PortRoutesPathfinder(distance, aStarPathfinder, cacheDirectory);
+        portRoutesPathfinder.start(map);
+
+        for (final SeaTile tile : map.getAllSeaTilesExcludingLandAsList()) {
+            final Deque<SeaTile> outbound = portRoutesPathfinder.getRoute(map, port.getLocation(), tile);
+            final Deque<SeaTile> expected = aStarPathfinder.getRoute(map, port.getLocation(), tile);
+            Assertions.assertEquals(port.getLocation(), outbound.peekFirst());
+            Assertions.assertEquals(tile, outbound.peekLast());
+            Assertions.assertEquals(routeLength(map, distance, expected), routeLength(map, distance, outbound), .0001);
+            Assertions.assertEquals(
+                routeLength(map, distance, outbound),
+                portRoutesPathfinder.getDistance(map, port, tile),
+                .0001
+            );
+
+            final Deque<SeaTile> inbound = portRoutesPathfinder.getRoute(map, tile, port.getLocation());
+            Assertions.assertEquals(tile, inbound.peekFirst());
+            Assertions.assertEquals(port.getLocation(), inbound.peekLast());
+            Assertions.assertEquals(routeLength(map, distance, outbound), routeLength(map, distance, inbound), .0001);
+        }
+
+        // a second pathfinder reads the tables back from the cache
+        try (final Stream<Path> files = Files.list(cacheDirectory)) {
+            Assertions.assertEquals(1, files.count());
+        }
+        final PortRoutesPathfinder cachedPathfinder =
+            new PortRoutesPathfinder(distance, aStarPathfinder, cacheDirectory);
+        final SeaTile farCorner = map.getSeaTile(3, 3);
+        Assertions.assertTrue(elementsEqual(
+            portRoutesPathfinder.getRoute(map, port.getLocation(), farCorner),
+            cachedPathfinder.getRoute(map, port.getLocation(), farCorner)
+        ));
+    }
+
+    @Test
+    public void indexedAStarMatchesAStar() {
+
+        // a random map with roughly a quarter of land tiles
+        final MersenneTwisterFast random = new MersenneTwisterFast(42);
+        final int[][] altitudes = new int[12][9];
+        for (final int[] row : altitudes)
+            for (int j = 0; j < row.length; j++)
+                row[j] = random.nextDouble() < .25 ? 10 : -1;
+        final NauticalMap map = makeMap(altitudes);
+
+        final CartesianDistance distance = new CartesianDistance(1);
+        final AStarPathfinder aStarPathfinder = new AStarPathfinder(distance, new DiscardingPathMemory());
+        final IndexedAStarPathfinder indexedPathfinder =
+            new IndexedAStarPathfinder(distance, new DiscardingPathMemory());
+
+        final List<SeaTile> waterTiles = map.getAllSeaTilesExcludingLandAsList();
+        for (final SeaTile start : waterTiles)
+            for (final SeaTile end : waterTiles) {
+                final Deque<SeaTile> expected = aStarPathfinder.getRoute(map, start, end);
+                final Deque<SeaTile> actual = indexedPathfinder.getRoute(map, start, end);
+                if (expected == null)
+                    Assertions.assertNull(actual);
+                else
+                    Assertions.assertTrue(elementsEqual(expected, actual));
+            }
+    }
+
+    private static double routeLength(
+        final NauticalMap map,
+        final Distance distance,
+        final Iterable<SeaTile> route
+    ) {
+        double length = 0;
+        final Iterator<SeaTile> iterator = route.iterator();
+        SeaTile previous = iterator.next();
+        while (iterator.hasNext()) {
+            final SeaTile next = iterator.next();
+            length += distance.distance(previous, next, map);
+            previous = next;
+        }
+        return length;
+    }
+
 }
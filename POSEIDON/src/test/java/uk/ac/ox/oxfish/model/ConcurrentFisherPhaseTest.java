@@ -0,0 +1,132 @@
+/*
+ * POSEIDON: an agent-based model of fisheries
+ * Copyright (c) 2025, University of Oxford.
+ *
+ * University of Oxford means the Chancellor, Masters and Scholars of the
+ * University of Oxford, having an administrative office at Wellington
+ * Square, Oxford OX1 2JD, UK.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+
+package uk.ac.ox.oxfish.model;
+
+import ec.util.MersenneTwisterFast;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import uk.ac.ox.oxfish.model.data.collectors.DataColumn;
+import uk.ac.ox.oxfish.model.network.EmptyNetworkBuilder;
+import uk.ac.ox.oxfish.model.regs.factory.TACMonoFactory;
+import uk.ac.ox.oxfish.model.scenario.PrototypeScenario;
+import uk.ac.ox.poseidon.common.core.parameters.FixedDoubleParameter;
+
+import java.util.IntSummaryStatistics;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.DoubleStream;
+
+import static java.util.stream.Collectors.toList;
+
+public class ConcurrentFisherPhaseTest {
+
+    private static Map<String, double[]> run(final int numberOfThreads, final PrototypeScenario scenario) {
+        return run(numberOfThreads, scenario, new IntSummaryStatistics());
+    }
+
+    private static Map<String, double[]> run(
+        final int numberOfThreads,
+        final PrototypeScenario scenario,
+        final IntSummaryStatistics numbersOfGroups
+    ) {
+        scenario.setPorts(4);
+        scenario.setFishers(40);
+        scenario.setSpeedInKmh(new FixedDoubleParameter(1));
+        scenario.setNetworkBuilder(new EmptyNetworkBuilder());
+        final FishState fishState = new FishState(42L);
+        fishState.setScenario(scenario);
+        fishState.setFisherPhaseThreads(numberOfThreads);
+        fishState.start();
+        for (int i = 0; i < 100; i++) {
+            fishState.schedule.step(fishState);
+            numbersOfGroups.accept(fishState.getConcurrentFisherPhase().getNumberOfGroups());
+        }
+        final Map<String, double[]> dailyData = new LinkedHashMap<>();
+        for (final DataColumn column : fishState.getDailyDataSet().getColumns())
+            dailyData.put(column.getName(), column.toArray());
+        fishState.finish();
+        return dailyData;
+    }
+
+    @Test
+    public void resultsDoNotDependOnTheNumberOfThreads() {
+        // the ports share a fixed price market, which fishers can sell to in any order, so only their reach and
+        // the areas they can reach group them
+        final IntSummaryStatistics numbersOfGroups = new IntSummaryStatistics();
+        final Map<String, double[]> serialData = run(1, new PrototypeScenario());
+        final Map<String, double[]> concurrentData = run(4, new PrototypeScenario(), numbersOfGroups);
+        Assertions.assertTrue(numbersOfGroups.getMax() > 1, "the fishers never ran concurrently");
+        Assertions.assertEquals(serialData.keySet(), concurrentData.keySet());
+        // bit for bit, NaNs included
+        serialData.forEach((name, column) ->
+            Assertions.assertArrayEquals(column, concurrentData.get(name), 0d, name)
+        );
+    }
+
+    @Test
+    public void fleetWideQuotasDoNotDependOnTheNumberOfThreads() {
+        final PrototypeScenario serialScenario = new PrototypeScenario();
+        serialScenario.setRegulation(new TACMonoFactory());
+        final PrototypeScenario concurrentScenario = new PrototypeScenario();
+        concurrentScenario.setRegulation(new TACMonoFactory());
+        final Map<String, double[]> serialData = run(1, serialScenario);
+        final Map<String, double[]> concurrentData = run(4, concurrentScenario);
+        serialData.forEach((name, column) ->
+            Assertions.assertArrayEquals(column, concurrentData.get(name), 0d, name)
+        );
+    }
+
+    @Test
+    public void updatesAreOnlyDeferredDuringThePhase() {
+        Assertions.assertFalse(ConcurrentFisherPhase.deferUntilAfterPhase(() -> {}));
+    }
+
+    @Test
+    public void threadsMustBeSetBeforeStarting() {
+        final FishState fishState = new FishState(1L);
+        fishState.start();
+        Assertions.assertThrows(IllegalStateException.class, () -> fishState.setFisherPhaseThreads(2));
+    }
+
+    @Test
+    public void routedRandomDrawsFromTheCurrentStreamOnly() throws InterruptedException {
+        final ThreadRoutedRandom random = new ThreadRoutedRandom(new MersenneTwisterFast(1L));
+        final MersenneTwisterFast reference = new MersenneTwisterFast(1L);
+        final Thread other = new Thread(() -> {
+            random.setCurrentStream(new MersenneTwisterFast(2L));
+            for (int i = 0; i < 100; i++)
+                random.nextDouble();
+            random.setCurrentStream(null);
+        });
+        other.start();
+        other.join();
+        final List<Double> expected = DoubleStream.generate(reference::nextDouble)
+            .limit(10).boxed().collect(toList());
+        final List<Double> actual = DoubleStream.generate(random::nextDouble)
+            .limit(10).boxed().collect(toList());
+        Assertions.assertEquals(expected, actual);
+    }
+
+}
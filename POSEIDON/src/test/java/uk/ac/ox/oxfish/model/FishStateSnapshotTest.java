@@ -0,0 +1,217 @@
+/*
+ * POSEIDON: an agent-based model of fisheries
+ * Copyright (c) 2025, University of Oxford.
+ *
+ * University of Oxford means the Chancellor, Masters and Scholars of the
+ * University of Oxford, having an administrative office at Wellington
+ * Square, Oxford OX1 2JD, UK.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+
+package uk.ac.ox.oxfish.model;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import sim.util.Double2D;
+import uk.ac.ox.oxfish.biology.BiomassLocalBiology;
+import uk.ac.ox.oxfish.biology.GlobalBiology;
+import uk.ac.ox.oxfish.biology.initializer.factory.FromLeftToRightFactory;
+import uk.ac.ox.oxfish.fisher.Fisher;
+import uk.ac.ox.oxfish.fisher.purseseiner.fads.ConstantAttractionProbabilityFunction;
+import uk.ac.ox.oxfish.fisher.purseseiner.fads.FadManager;
+import uk.ac.ox.oxfish.fisher.purseseiner.fads.FixedGlobalCarryingCapacitySupplier;
+import uk.ac.ox.oxfish.fisher.purseseiner.fads.LinearFishBiomassAttractor;
+import uk.ac.ox.oxfish.fisher.purseseiner.utils.ReliableFishValueCalculator;
+import uk.ac.ox.oxfish.geography.NauticalMap;
+import uk.ac.ox.oxfish.geography.fads.BiomassFadInitializer;
+import uk.ac.ox.oxfish.geography.fads.FadMap;
+import uk.ac.ox.oxfish.geography.mapmakers.SimpleMapInitializerFactory;
+import uk.ac.ox.oxfish.model.scenario.PrototypeScenario;
+import uk.ac.ox.poseidon.common.core.parameters.FixedDoubleParameter;
+
+import java.util.List;
+
+import static com.google.common.collect.ImmutableMap.toImmutableMap;
+import static java.util.function.Function.identity;
+import static java.util.stream.Collectors.toList;
+import static uk.ac.ox.oxfish.fisher.purseseiner.fads.TestUtilities.makeUniformCurrentVectors;
+
+public class FishStateSnapshotTest {
+
+    private static FishState startModel() {
+        return startModel(0);
+    }
+
+    private static FishState startModel(final int fisherPhaseThreads) {
+        final PrototypeScenario scenario = new PrototypeScenario();
+        scenario.setBiologyInitializer(new FromLeftToRightFactory());
+        final SimpleMapInitializerFactory mapInitializer = new SimpleMapInitializerFactory();
+        mapInitializer.setWidth(new FixedDoubleParameter(20));
+        mapInitializer.setHeight(new FixedDoubleParameter(5));
+        scenario.setMapInitializer(mapInitializer);
+        scenario.setFishers(4);
+        final FishState fishState = new FishState(1L);
+        fishState.setScenario(scenario);
+        fishState.setFisherPhaseThreads(fisherPhaseThreads);
+        fishState.start();
+        return fishState;
+    }
+
+    /**
+     * Adds a FAD map stepped in parallel to a started model, with a few FADs that stay put.
+     */
+    private static void addParallelFadMap(final FishState fishState) {
+        final NauticalMap map = fishState.getMap();
+        final GlobalBiology globalBiology = fishState.getBiology();
+        final FadMap fadMap = new FadMap(
+            map,
+            makeUniformCurrentVectors(map, new Double2D(0, 0), 1),
+            globalBiology,
+            BiomassLocalBiology.class
+        );
+        fadMap.setParallel(true);
+        fadMap.start(fishState);
+        final BiomassFadInitializer fadInitializer = new BiomassFadInitializer(
+            globalBiology,
+            new LinearFishBiomassAttractor(
+                globalBiology.getSpecies(),
+                new ConstantAttractionProbabilityFunction(0.5),
+                globalBiology.getSpecies().stream().mapToDouble(__ -> 0.1).toArray(),
+                fishState.getRandom()
+            ),
+            () -> 0,
+            new FixedGlobalCarryingCapacitySupplier(30.0),
+            globalBiology.getSpecies().stream().collect(toImmutableMap(identity(), __ -> 0.2))
+        );
+        final FadManager fadManager =
+            new FadManager(fadMap, fadInitializer, null, new ReliableFishValueCalculator(globalBiology));
+        fadManager.setNumFadsInStock(5);
+        map.getAllSeaTilesExcludingLandAsList()
+            .stream()
+            .limit(5)
+            .forEach(seaTile -> fadManager.deployFad(seaTile, fishState.getRandom()));
+    }
+
+    private static List<Double> fadDraws(final FishState fishState) {
+        return fishState.getFadMap()
+            .allFads()
+            .map(fad -> fad.getRandomStream().nextDouble())
+            .collect(toList());
+    }
+
+    private static List<Double> fisherPhaseDraws(final FishState fishState) {
+        return fishState.getFishers()
+            .stream()
+            .map(fisher -> fishState.getConcurrentFisherPhase().getRandomStream(fisher).nextDouble())
+            .collect(toList());
+    }
+
+    private static Object bankBalances(final FishState fishState) {
+        return fishState.getFishers().stream().map(Fisher::getBankBalance).collect(toList());
+    }
+
+    private static void stepDays(
+        final FishState fishState,
+        final int days
+    ) {
+        for (int i = 0; i < days; i++)
+            fishState.schedule.step(fishState);
+    }
+
+    @Test
+    public void forksWithTheSameSeedAreIdentical() {
+        final FishStateSnapshot snapshot = FishStateSnapshot.of(startModel());
+        final FishState fork1 = snapshot.fork(42L);
+        final FishState fork2 = snapshot.fork(42L);
+        stepDays(fork1, 60);
+        stepDays(fork2, 60);
+        Assertions.assertEquals(bankBalances(fork1), bankBalances(fork2));
+        Assertions.assertEquals(fork1.getStep(), fork2.getStep());
+    }
+
+    @Test
+    public void forksWithDifferentSeedsDrawFromDifferentStreams() {
+        final FishState original = startModel(2);
+        addParallelFadMap(original);
+        // the FADs and the fishers get their random streams from the original seed
+        stepDays(original, 1);
+        final FishStateSnapshot snapshot = FishStateSnapshot.of(original);
+        final FishState fork1 = snapshot.fork(1L);
+        final FishState fork2 = snapshot.fork(2L);
+        Assertions.assertNotEquals(fork1.seed(), fork2.seed());
+        final FishState fork3 = snapshot.fork(1L);
+        stepDays(fork1, 1);
+        stepDays(fork2, 1);
+        stepDays(fork3, 1);
+        final List<Double> fadDraws1 = fadDraws(fork1);
+        Assertions.assertEquals(5, fadDraws1.size());
+        Assertions.assertNotEquals(fadDraws1, fadDraws(fork2));
+        Assertions.assertEquals(fadDraws1, fadDraws(fork3));
+        final List<Double> fisherPhaseDraws1 = fisherPhaseDraws(fork1);
+        Assertions.assertNotEquals(fisherPhaseDraws1, fisherPhaseDraws(fork2));
+        Assertions.assertEquals(fisherPhaseDraws1, fisherPhaseDraws(fork3));
+    }
+
+    @Test
+    public void forksAreIndependentFromTheOriginal() {
+        final FishState original = startModel();
+        final FishStateSnapshot snapshot = FishStateSnapshot.of(original);
+        final Object balancesBefore = bankBalances(original);
+        final FishState fork = snapshot.fork(1L);
+        Assertions.assertNotSame(original.getFishers().get(0), fork.getFishers().get(0));
+        stepDays(fork, 30);
+        Assertions.assertEquals(balancesBefore, bankBalances(original));
+        Assertions.assertEquals(0, original.getStep());
+        Assertions.assertEquals(0, snapshot.getStep());
+        Assertions.assertSame(fork, fork.getFishers().get(0).grabState());
+    }
+
+    @Test
+    public void spinUpAdvancesTheModelBeforeTheSnapshot() {
+        final FishStateSnapshot snapshot = FishStateSnapshot.of(startModel(), 1);
+        final FishState fork = snapshot.fork(1L);
+        Assertions.assertEquals(1, fork.getYear());
+        Assertions.assertEquals(snapshot.getStep(), fork.getStep());
+    }
+
+    @Test
+    public void finishingAForkDoesNotStopTheThreadsOfAnother() {
+        final PrototypeScenario scenario = new PrototypeScenario();
+        scenario.setPorts(4);
+        scenario.setFishers(40);
+        scenario.setSpeedInKmh(new FixedDoubleParameter(1));
+        final FishState original = new FishState(1L);
+        original.setScenario(scenario);
+        original.setFisherPhaseThreads(4);
+        original.start();
+        stepDays(original, 1);
+        final FishStateSnapshot snapshot = FishStateSnapshot.of(original);
+        original.finish();
+
+        final FishState fork1 = snapshot.fork(1L);
+        final FishState fork2 = snapshot.fork(2L);
+        stepDays(fork1, 1);
+        fork1.finish();
+        int mostGroups = 0;
+        for (int i = 0; i < 10; i++) {
+            stepDays(fork2, 1);
+            mostGroups = Math.max(mostGroups, fork2.getConcurrentFisherPhase().getNumberOfGroups());
+        }
+        Assertions.assertTrue(mostGroups > 1, "the fishers of the fork never ran concurrently");
+        fork2.finish();
+    }
+
+}
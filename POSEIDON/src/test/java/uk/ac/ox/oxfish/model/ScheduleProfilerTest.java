@@ -0,0 +1,101 @@
+/*
+ * POSEIDON: an agent-based model of fisheries
+ * Copyright (c) 2025, University of Oxford.
+ *
+ * University of Oxford means the Chancellor, Masters and Scholars of the
+ * University of Oxford, having an administrative office at Wellington
+ * Square, Oxford OX1 2JD, UK.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+
+package uk.ac.ox.oxfish.model;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import sim.engine.Steppable;
+import uk.ac.ox.oxfish.fisher.Fisher;
+import uk.ac.ox.oxfish.model.data.collectors.DataColumn;
+import uk.ac.ox.oxfish.model.scenario.PrototypeScenario;
+
+public class ScheduleProfilerTest {
+
+    private static FishState run(final boolean profiling) {
+        final PrototypeScenario scenario = new PrototypeScenario();
+        scenario.setFishers(10);
+        final FishState fishState = new FishState(1L);
+        fishState.setScenario(scenario);
+        fishState.setScheduleProfiling(profiling);
+        fishState.start();
+        for (int i = 0; i < 10; i++)
+            fishState.schedule.step(fishState);
+        return fishState;
+    }
+
+    @Test
+    public void recordsPhasesAndClasses() {
+        final FishState fishState = run(true);
+        final ScheduleProfiler profiler = fishState.getScheduleProfiler();
+        // ten fishers stepped every day for ten days
+        Assertions.assertEquals(100, profiler.getClasses().get(Fisher.class).getCalls());
+        Assertions.assertTrue(profiler.getPhases().get(StepOrder.FISHER_PHASE).getCalls() >= 100);
+        Assertions.assertTrue(profiler.getPhases().get(StepOrder.FISHER_PHASE).getNanoseconds() > 0);
+
+        // the daily columns add up to the totals recorded so far, minus whatever ran after the last gathering
+        final DataColumn calls = fishState.getDailyDataSet().getColumn("FISHER_PHASE Phase Calls");
+        Assertions.assertNotNull(calls);
+        Assertions.assertEquals(10, calls.size());
+        double sum = 0;
+        for (final Double value : calls)
+            sum += value;
+        Assertions.assertEquals(profiler.getPhases().get(StepOrder.FISHER_PHASE).getCalls(), sum, 0d);
+
+        Assertions.assertTrue(fishState.getOutputPlugins().contains(profiler));
+        Assertions.assertTrue(profiler.composeFileContents().contains("phase,FISHER_PHASE,"));
+        Assertions.assertTrue(profiler.composeFileContents().contains("class," + Fisher.class.getName() + ","));
+    }
+
+    @Test
+    public void nothingIsRecordedByDefault() {
+        final FishState fishState = run(false);
+        Assertions.assertNull(fishState.getScheduleProfiler());
+        Assertions.assertNull(fishState.getDailyDataSet().getColumn("FISHER_PHASE Phase Calls"));
+    }
+
+    @Test
+    public void allocationsOfOtherThreadsAreAddedToTheSteppable() {
+        final ScheduleProfiler profiler = new ScheduleProfiler();
+        final boolean[] counting = {false};
+        final Steppable steppable = profiler.profile(
+            simState -> {
+                counting[0] = ScheduleProfiler.isCountingAllocations();
+                ScheduleProfiler.addAllocationsOfOtherThreads(1_000_000_000L);
+            },
+            StepOrder.DAWN
+        );
+        steppable.step(null);
+        Assertions.assertFalse(ScheduleProfiler.isCountingAllocations());
+        if (counting[0])
+            Assertions.assertTrue(profiler.getPhases().get(StepOrder.DAWN).getAllocatedBytes() >= 1_000_000_000L);
+        Assertions.assertEquals(1, profiler.getPhases().get(StepOrder.DAWN).getCalls());
+    }
+
+    @Test
+    public void profilingMustBeTurnedOnBeforeStarting() {
+        final FishState fishState = run(false);
+        Assertions.assertThrows(IllegalStateException.class, () -> fishState.setScheduleProfiling(true));
+    }
+
+}
@@ -55,6 +55,29 @@ public class CounterTest {
         Assertions.assertEquals(0, counter.getColumn("Variable2"), .0001);
     }
 
+    @Test
+    public void countByHandleAndReset() {
+
+        final Counter counter = new Counter(IntervalPolicy.EVERY_DAY);
+        counter.start(mock(FishState.class));
+        final int first = counter.addColumn("Variable1");
+        final int second = counter.addColumn("Variable2");
+        Assertions.assertEquals(first, counter.getHandle("Variable1"));
+        Assertions.assertEquals(second, counter.getHandle("Variable2"));
+        //handles and names share the same slots
+        counter.count(first, 100);
+        counter.count("Variable1", 1);
+        counter.count(second, 5);
+        Assertions.assertEquals(101, counter.getColumn(first), .0001);
+        Assertions.assertEquals(5, counter.getColumn("Variable2"), .0001);
+        //reset keeps the handles valid
+        counter.step(mock(FishState.class));
+        Assertions.assertEquals(0, counter.getColumn(first), .0001);
+        Assertions.assertEquals(0, counter.getColumn(second), .0001);
+        counter.count(second, 2);
+        Assertions.assertEquals(2, counter.getColumn("Variable2"), .0001);
+    }
+
 
     public void registerTwiceTheSameColumn() {
         Assertions.assertThrows(IllegalArgumentException.class, () -> {
@@ -0,0 +1,131 @@
+/*
+ * POSEIDON: an agent-based model of fisheries
+ * Copyright (c) 2025, University of Oxford.
+ *
+ * University of Oxford means the Chancellor, Masters and Scholars of the
+ * University of Oxford, having an administrative office at Wellington
+ * Square, Oxford OX1 2JD, UK.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package uk.ac.ox.oxfish.model.data.collectors;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.ObjectStreamClass;
+import java.nio.DoubleBuffer;
+import java.util.Iterator;
+
+public class DataColumnTest {
+
+    @Test
+    public void growsPastInitialCapacity() {
+        final DataColumn column = new DataColumn("test");
+        for (int i = 0; i < 1000; i++)
+            column.add((double) i);
+
+        Assertions.assertEquals(1000, column.size());
+        Assertions.assertEquals(0d, column.get(0), .0001);
+        Assertions.assertEquals(999d, column.getLatest(), .0001);
+        Assertions.assertEquals(500d, column.getAsDouble(500), .0001);
+        Assertions.assertEquals(990d, column.getDatumXStepsAgo(9), .0001);
+        Assertions.assertThrows(IndexOutOfBoundsException.class, () -> column.get(1000));
+    }
+
+    @Test
+    public void iteratesInBothDirections() {
+        final DataColumn column = new DataColumn("test");
+        column.add(1d);
+        column.add(2d);
+        column.add(3d);
+
+        final Iterator<Double> descending = column.descendingIterator();
+        Assertions.assertEquals(3d, descending.next(), .0001);
+        Assertions.assertEquals(2d, descending.next(), .0001);
+        Assertions.assertEquals(1d, descending.next(), .0001);
+        Assertions.assertFalse(descending.hasNext());
+
+        Assertions.assertEquals(6d, column.stream().mapToDouble(Double::doubleValue).sum(), .0001);
+        Assertions.assertEquals(5d, column.sumOfLatest(2), .0001);
+        Assertions.assertEquals(6d, column.sumOfLatest(365), .0001);
+        Assertions.assertEquals("DataColumn{data=[1.0, 2.0, 3.0]}", column.toString());
+    }
+
+    @Test
+    public void nullsAreKeptApartFromNaN() {
+        final DataColumn column = new DataColumn("test");
+        column.add(1d);
+        column.add((Double) null);
+        column.add(Double.NaN);
+
+        Assertions.assertNull(column.get(1));
+        Assertions.assertTrue(column.isMissing(1));
+        Assertions.assertFalse(column.isMissing(2));
+        Assertions.assertTrue(Double.isNaN(column.getLatest()));
+        Assertions.assertTrue(Double.isNaN(column.getAsDouble(1)));
+        Assertions.assertEquals("DataColumn{data=[1.0, null, NaN]}", column.toString());
+
+        final double[] array = column.toArray(-1);
+        Assertions.assertEquals(-1d, array[1], .0001);
+        Assertions.assertTrue(Double.isNaN(array[2]));
+    }
+
+    @Test
+    public void serializesAsBefore() throws Exception {
+        final DataColumn column = new DataColumn("test");
+        column.add(1d);
+        column.add((Double) null);
+
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (final ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+            out.writeObject(column);
+        }
+        final DataColumn copy;
+        try (final ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(bytes.toByteArray()))) {
+            copy = (DataColumn) in.readObject();
+        }
+
+        Assertions.assertEquals(6931226317085531711L, ObjectStreamClass.lookup(DataColumn.class).getSerialVersionUID());
+        Assertions.assertEquals("test", copy.getName());
+        Assertions.assertEquals(column.copy(), copy.copy());
+        copy.add(2d);
+        Assertions.assertEquals(3, copy.size());
+    }
+
+    @Test
+    public void exportsWithoutBoxing() {
+        final DataColumn column = new DataColumn("test");
+        for (int i = 0; i < 20; i++)
+            column.add(i * 2d);
+
+        final double[] array = column.toArray();
+        Assertions.assertEquals(20, array.length);
+        Assertions.assertEquals(38d, array[19], .0001);
+
+        final DoubleBuffer buffer = column.asDoubleBuffer();
+        Assertions.assertEquals(20, buffer.remaining());
+        Assertions.assertEquals(10d, buffer.get(5), .0001);
+        Assertions.assertTrue(buffer.isReadOnly());
+
+        column.clear();
+        Assertions.assertEquals(0, column.size());
+        Assertions.assertTrue(Double.isNaN(column.getLatest()));
+    }
+}
@@ -0,0 +1,86 @@
+/*
+ * POSEIDON: an agent-based model of fisheries
+ * Copyright (c) 2025, University of Oxford.
+ *
+ * University of Oxford means the Chancellor, Masters and Scholars of the
+ * University of Oxford, having an administrative office at Wellington
+ * Square, Oxford OX1 2JD, UK.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+
+package uk.ac.ox.oxfish.model.data.heatmaps;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMultiset;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import uk.ac.ox.oxfish.fisher.actions.MovingTest;
+import uk.ac.ox.oxfish.geography.NauticalMap;
+import uk.ac.ox.oxfish.model.FishState;
+import uk.ac.ox.oxfish.model.data.heatmaps.mergers.IterativeAverageMerger;
+
+import java.util.List;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class HeatmapGathererTest {
+
+    @Test
+    public void streamingProducesTheSameRowsAsKeepingGrids() {
+
+        final NauticalMap map = MovingTest.generateSimple4x4Map().getMap();
+        final FishState fishState = mock(FishState.class);
+        when(fishState.getMap()).thenReturn(map);
+
+        final int[] step = {0};
+        final HeatmapGatherer keeping = makeGatherer(step);
+        final HeatmapGatherer streaming = makeGatherer(step);
+        streaming.setStreaming(true);
+        keeping.start(fishState);
+        streaming.start(fishState);
+        Assertions.assertFalse(keeping.isEveryStep());
+        Assertions.assertTrue(streaming.isEveryStep());
+
+        final ImmutableList.Builder<List<?>> streamedRows = ImmutableList.builder();
+        for (step[0] = 0; step[0] < 9; step[0]++) {
+            when(fishState.getDay()).thenReturn(step[0]);
+            keeping.step(fishState);
+            streaming.step(fishState);
+            streamedRows.addAll(streaming.getRows());
+        }
+
+        Assertions.assertEquals(
+            ImmutableMultiset.copyOf(keeping.getRows()),
+            ImmutableMultiset.copyOf(streamedRows.build())
+        );
+        Assertions.assertEquals(keeping.maxValueSeen(), streaming.maxValueSeen());
+        // rows that have been handed over are not returned again
+        Assertions.assertFalse(streaming.getRows().iterator().hasNext());
+        Assertions.assertThrows(IllegalStateException.class, streaming::getGrids);
+    }
+
+    private static HeatmapGatherer makeGatherer(final int[] step) {
+        return new HeatmapGatherer(
+            "test",
+            "unit",
+            3,
+            tile -> tile.getGridX() * step[0] + tile.getGridY(),
+            gatherer -> new IterativeAverageMerger(gatherer::getNumObservations)
+        );
+    }
+
+}
@@ -0,0 +1,123 @@
+/*
+ * POSEIDON: an agent-based model of fisheries
+ * Copyright (c) 2025, University of Oxford.
+ *
+ * University of Oxford means the Chancellor, Masters and Scholars of the
+ * University of Oxford, having an administrative office at Wellington
+ * Square, Oxford OX1 2JD, UK.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+
+package uk.ac.ox.oxfish.model.data.monitors.loggers;
+
+import com.google.common.collect.ImmutableList;
+import com.univocity.parsers.csv.CsvWriterSettings;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static java.util.stream.Collectors.toList;
+
+public class StreamingRowWriterTest {
+
+    private static RowProvider logger(final Object[]... rows) {
+        return new RowProvider() {
+            @Override
+            public List<String> getHeaders() {
+                return ImmutableList.of("name", "value");
+            }
+
+            @Override
+            public Iterable<? extends List<?>> getRows() {
+                return Arrays.stream(rows).map(Arrays::asList).collect(toList());
+            }
+        };
+    }
+
+    @Test
+    public void csvPartsAreMergedInRunOrder(@TempDir final Path folder) throws IOException {
+        final Path outputFile = folder.resolve("out.csv");
+        final CsvWriterSettings settings = new CsvWriterSettings();
+        settings.getFormat().setLineSeparator("\n");
+        try (final StreamingRowWriter writer = new StreamingRowWriter(folder, OutputFormat.CSV, settings, __ -> true)) {
+            final StreamingRowWriter.RunWriter run2 = writer.openRun(2);
+            final StreamingRowWriter.RunWriter run1 = writer.openRun(1);
+            run2.write(outputFile, ImmutableList.of(logger(new Object[]{"b", 2})));
+            run1.write(outputFile, ImmutableList.of(logger(new Object[]{"a", 1})));
+            run2.write(outputFile, ImmutableList.of(logger(new Object[]{"c", 3})));
+            run1.close();
+            run2.close();
+        }
+        Assertions.assertEquals(
+            ImmutableList.of("run,name,value", "1,a,1", "2,b,2", "2,c,3"),
+            Files.readAllLines(outputFile)
+        );
+        // the parts are gone
+        try (final Stream<Path> files = Files.list(folder)) {
+            Assertions.assertEquals(1, files.count());
+        }
+    }
+
+    @Test
+    public void csvRowsAreAppendedWhenNotOverwriting(@TempDir final Path folder) throws IOException {
+        final Path outputFile = folder.resolve("out.csv");
+        Files.write(outputFile, ImmutableList.of("run,name,value", "0,z,0"));
+        final CsvWriterSettings settings = new CsvWriterSettings();
+        settings.getFormat().setLineSeparator("\n");
+        try (final StreamingRowWriter writer = new StreamingRowWriter(folder, OutputFormat.CSV, settings, __ -> false)) {
+            try (final StreamingRowWriter.RunWriter run = writer.openRun(1)) {
+                run.write(outputFile, ImmutableList.of(logger(new Object[]{"a", 1})));
+            }
+        }
+        Assertions.assertEquals(
+            ImmutableList.of("run,name,value", "0,z,0", "1,a,1"),
+            Files.readAllLines(outputFile)
+        );
+    }
+
+    @Test
+    public void columnarFilesRoundTrip(@TempDir final Path folder) throws IOException {
+        final Path outputFile = folder.resolve("out.csv");
+        final StreamingRowWriter writer =
+            new StreamingRowWriter(folder, OutputFormat.COLUMNAR, new CsvWriterSettings(), __ -> true);
+        try (final StreamingRowWriter.RunWriter run = writer.openRun(1)) {
+            run.write(outputFile, ImmutableList.of(logger(new Object[]{"a", 1.5}, new Object[]{null, 2})));
+            run.write(outputFile, ImmutableList.of(logger(new Object[]{"a", "x"})));
+        }
+        try (final StreamingRowWriter.RunWriter run = writer.openRun(2)) {
+            run.write(outputFile, ImmutableList.of(logger(new Object[]{"b", null})));
+        }
+        writer.close();
+        final Path finalFile = writer.finalFileFor(outputFile);
+        Assertions.assertEquals(folder.resolve("out.cols"), finalFile);
+        final ColumnarFile columnarFile = ColumnarFile.read(finalFile);
+        Assertions.assertEquals(ImmutableList.of("run", "name", "value"), columnarFile.getHeaders());
+        final List<List<Object>> expectedRows = ImmutableList.of(
+            Arrays.asList(1.0, "a", 1.5),
+            Arrays.asList(1.0, null, 2.0),
+            Arrays.asList(1.0, "a", "x"),
+            Arrays.asList(2.0, "b", null)
+        );
+        Assertions.assertEquals(expectedRows, columnarFile.getRows());
+    }
+}
@@ -0,0 +1,207 @@
+/*
+ * POSEIDON: an agent-based model of fisheries
+ * Copyright (c) 2025, University of Oxford.
+ *
+ * University of Oxford means the Chancellor, Masters and Scholars of the
+ * University of Oxford, having an administrative office at Wellington
+ * Square, Oxford OX1 2JD, UK.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+
+package uk.ac.ox.oxfish.utility;
+
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheLoader;
+import com.google.common.cache.LoadingCache;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import uk.ac.ox.oxfish.fisher.purseseiner.caches.CacheByFishState;
+import uk.ac.ox.oxfish.model.FishState;
+import uk.ac.ox.oxfish.model.StepOrder;
+import uk.ac.ox.oxfish.model.scenario.PrototypeScenario;
+import uk.ac.ox.oxfish.utility.yaml.FishYAML;
+import uk.ac.ox.poseidon.common.core.parameters.FixedDoubleParameter;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.mockito.Mockito.mock;
+
+public class DeepCopierTest {
+
+    @Test
+    public void copiedScenariosAreEquivalentButIndependent() {
+        final PrototypeScenario original = new PrototypeScenario();
+        final PrototypeScenario copy = DeepCopier.deepCopy(original);
+        final FishYAML yaml = new FishYAML();
+        final String originalYaml = yaml.dump(original);
+        Assertions.assertEquals(originalYaml, yaml.dump(copy));
+
+        Assertions.assertNotSame(original.getSpeedInKmh(), copy.getSpeedInKmh());
+        copy.setSpeedInKmh(new FixedDoubleParameter(123));
+        Assertions.assertEquals(originalYaml, yaml.dump(original));
+    }
+
+    @Test
+    public void sharedReferencesAndCyclesArePreserved() {
+        final Node node = new Node(StepOrder.DAWN);
+        final Node other = new Node(StepOrder.DUSK);
+        node.neighbours.add(other);
+        node.neighbours.add(node);
+        other.neighbours.add(node);
+        node.byName = ImmutableMap.of("other", other);
+
+        final Node copy = DeepCopier.deepCopy(node);
+        Assertions.assertNotSame(node, copy);
+        Assertions.assertSame(StepOrder.DAWN, copy.order);
+        Assertions.assertSame(copy, copy.neighbours.get(1));
+        final Node otherCopy = copy.neighbours.get(0);
+        Assertions.assertNotSame(other, otherCopy);
+        Assertions.assertSame(copy, otherCopy.neighbours.get(0));
+        Assertions.assertSame(otherCopy, copy.byName.get("other"));
+        Assertions.assertSame(copy, copy.self.get());
+        Assertions.assertEquals(ImmutableList.of(1.0, 2.0), ImmutableList.of(copy.values[0], copy.values[1]));
+        Assertions.assertNotSame(node.values, copy.values);
+    }
+
+    @Test
+    public void longChainsDoNotOverflowTheStack() {
+        Link head = null;
+        for (int i = 0; i < 1_000_000; i++)
+            head = new Link(i, head);
+        final Link copy = DeepCopier.deepCopy(head);
+        int length = 0;
+        for (Link link = copy; link != null; link = link.next) {
+            Assertions.assertNotSame(head, link);
+            length++;
+        }
+        Assertions.assertEquals(1_000_000, length);
+        Assertions.assertEquals(999_999, copy.value);
+    }
+
+    @Test
+    public void hashedContainersAreFilledWithCompleteKeys() {
+        final Key key = new Key("key", new ArrayList<>(ImmutableList.of(1, 2)));
+        final Map<Key, Integer> counts = new HashMap<>();
+        counts.put(key, 1);
+        final List<Object> graph = ImmutableList.of(counts, ImmutableMap.of(key, 2), key);
+
+        final List<Object> copy = DeepCopier.deepCopy(graph);
+        final Key keyCopy = (Key) copy.get(2);
+        Assertions.assertNotSame(key, keyCopy);
+        Assertions.assertEquals(1, ((Map<?, ?>) copy.get(0)).get(keyCopy));
+        Assertions.assertEquals(2, ((Map<?, ?>) copy.get(1)).get(keyCopy));
+    }
+
+    @Test
+    public void identityKeyedCachesAreRebuiltEmpty() {
+        final FishState fishState = mock(FishState.class);
+        final CountingFactory factory = new CountingFactory();
+        Assertions.assertEquals(1, factory.apply(fishState));
+
+        final CountingFactory copy = DeepCopier.deepCopy(factory);
+        Assertions.assertEquals(2, copy.apply(fishState));
+        Assertions.assertEquals(2, copy.apply(fishState));
+        Assertions.assertEquals(3, copy.apply(mock(FishState.class)));
+        Assertions.assertEquals(1, factory.apply(fishState));
+        Assertions.assertEquals(1, factory.calls.get());
+    }
+
+    @Test
+    public void subclassesOfHashedContainersAreRehashed() {
+        final List<Object> keys = new ArrayList<>();
+        for (int i = 0; i < 100; i++)
+            keys.add(new Object());
+        final FixedMap<Object, Integer> map = new FixedMap<>(7, keys);
+        final List<Object> graph = ImmutableList.of(map, keys);
+
+        final List<Object> copy = DeepCopier.deepCopy(graph);
+        @SuppressWarnings("unchecked") final FixedMap<Object, Integer> mapCopy = (FixedMap<Object, Integer>) copy.get(0);
+        final List<?> keysCopy = (List<?>) copy.get(1);
+        Assertions.assertEquals(100, mapCopy.size());
+        Assertions.assertEquals(7, mapCopy.defaultValue);
+        for (final Object key : keysCopy)
+            Assertions.assertEquals(7, mapCopy.get(key));
+        Assertions.assertNull(mapCopy.get(keys.get(0)));
+    }
+
+    @Test
+    public void cacheViewsAreRefused() {
+        final LoadingCache<Object, Object> cache = CacheBuilder.newBuilder().build(CacheLoader.from(key -> key));
+        Assertions.assertThrows(IllegalStateException.class, () -> DeepCopier.deepCopy(cache.asMap()));
+    }
+
+    /**
+     * Like the scenario factories that build their product once per simulation.
+     */
+    private static class CountingFactory implements AlgorithmFactory<Integer> {
+        private final AtomicInteger calls = new AtomicInteger();
+        private final CacheByFishState<Integer> cache = new CacheByFishState<>(__ -> calls.incrementAndGet());
+
+        @Override
+        public Integer apply(final FishState fishState) {
+            return cache.get(fishState);
+        }
+    }
+
+    private static class Link {
+        private final int value;
+        private final Link next;
+
+        Link(final int value, final Link next) {
+            this.value = value;
+            this.next = next;
+        }
+    }
+
+    private static class Key {
+        private final String name;
+        private final List<Integer> parts;
+
+        Key(final String name, final List<Integer> parts) {
+            this.name = name;
+            this.parts = parts;
+        }
+
+        @Override
+        public boolean equals(final Object o) {
+            return o instanceof Key && ((Key) o).name.equals(name) && ((Key) o).parts.equals(parts);
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * name.hashCode() + parts.hashCode();
+        }
+    }
+
+    private static class Node {
+        private final StepOrder order;
+        private final List<Node> neighbours = new ArrayList<>();
+        private final double[] values = {1, 2};
+        private final Supplier<Node> self = () -> this;
+        private Map<String, Node> byName;
+
+        Node(final StepOrder order) {
+            this.order = order;
+        }
+    }
+}
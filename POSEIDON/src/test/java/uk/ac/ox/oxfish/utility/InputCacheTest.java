@@ -0,0 +1,88 @@
+/*
+ * POSEIDON: an agent-based model of fisheries
+ * Copyright (c) 2025, University of Oxford.
+ *
+ * University of Oxford means the Chancellor, Masters and Scholars of the
+ * University of Oxford, having an administrative office at Wellington
+ * Square, Oxford OX1 2JD, UK.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+
+package uk.ac.ox.oxfish.utility;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+public class InputCacheTest {
+
+    private static String read(final Path path) {
+        try {
+            return new String(Files.readAllBytes(path));
+        } catch (final IOException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    @Test
+    public void valuesAreReadOncePerVersionOfTheFile(@TempDir final Path directory) throws IOException {
+        final InputCache inputCache = new InputCache(1024);
+        final AtomicInteger reads = new AtomicInteger();
+        final Function<Path, String> reader = path -> {
+            reads.incrementAndGet();
+            return read(path);
+        };
+        final Path path = Files.write(directory.resolve("input.txt"), "abc".getBytes());
+
+        Assertions.assertEquals("abc", inputCache.get(path, reader, "qualifier"));
+        Assertions.assertEquals("abc", inputCache.get(directory.resolve(".").resolve("input.txt"), reader, "qualifier"));
+        Assertions.assertEquals(1, reads.get());
+        Assertions.assertEquals(1, inputCache.getHitCount());
+        Assertions.assertEquals(1, inputCache.getMissCount());
+        Assertions.assertEquals(3, inputCache.getBytesHeld());
+
+        Assertions.assertEquals("abc", inputCache.get(path, reader, "other qualifier"));
+        Assertions.assertEquals(2, reads.get());
+        Assertions.assertEquals(6, inputCache.getBytesHeld());
+
+        Files.write(path, "abcde".getBytes());
+        Assertions.assertEquals("abcde", inputCache.get(path, reader, "qualifier"));
+        Assertions.assertEquals(3, reads.get());
+        Assertions.assertEquals(2, inputCache.size());
+        Assertions.assertEquals(8, inputCache.getBytesHeld());
+
+        inputCache.invalidateAll();
+        Assertions.assertEquals(0, inputCache.size());
+        Assertions.assertEquals(0, inputCache.getBytesHeld());
+    }
+
+    @Test
+    public void entriesAreEvictedWhenTheBoundIsExceeded(@TempDir final Path directory) throws IOException {
+        final InputCache inputCache = new InputCache(10);
+        final Path pathA = Files.write(directory.resolve("a.txt"), "123456".getBytes());
+        final Path pathB = Files.write(directory.resolve("b.txt"), "123456".getBytes());
+        inputCache.get(pathA, InputCacheTest::read);
+        inputCache.get(pathB, InputCacheTest::read);
+        Assertions.assertEquals(1, inputCache.size());
+        Assertions.assertEquals(6, inputCache.getBytesHeld());
+    }
+}
@@ -0,0 +1,235 @@
+/*
+ * POSEIDON: an agent-based model of fisheries
+ * Copyright (c) 2025, University of Oxford.
+ *
+ * University of Oxford means the Chancellor, Masters and Scholars of the
+ * University of Oxford, having an administrative office at Wellington
+ * Square, Oxford OX1 2JD, UK.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package uk.ac.ox.oxfish.benchmarks;
+
+import com.vividsolutions.jts.geom.Envelope;
+import ec.util.MersenneTwisterFast;
+import sim.field.geo.GeomGridField;
+import sim.field.geo.GeomVectorField;
+import sim.field.grid.ObjectGrid2D;
+import sim.util.Double2D;
+import sim.util.Int2D;
+import uk.ac.ox.oxfish.biology.BiomassLocalBiology;
+import uk.ac.ox.oxfish.biology.EmptyLocalBiology;
+import uk.ac.ox.oxfish.biology.GlobalBiology;
+import uk.ac.ox.oxfish.biology.Species;
+import uk.ac.ox.oxfish.biology.complicated.AbundanceLocalBiology;
+import uk.ac.ox.oxfish.biology.complicated.FromListMeristics;
+import uk.ac.ox.oxfish.geography.EquirectangularDistanceByCoordinate;
+import uk.ac.ox.oxfish.geography.NauticalMap;
+import uk.ac.ox.oxfish.geography.SeaTile;
+import uk.ac.ox.oxfish.geography.currents.CurrentPattern;
+import uk.ac.ox.oxfish.geography.currents.CurrentVectorsEPO;
+import uk.ac.ox.oxfish.geography.habitat.TileHabitat;
+import uk.ac.ox.oxfish.geography.pathfinding.Pathfinder;
+import uk.ac.ox.oxfish.geography.ports.Port;
+import uk.ac.ox.oxfish.model.market.FixedPriceMarket;
+import uk.ac.ox.oxfish.model.market.MarketMap;
+
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.stream.IntStream;
+
+/**
+ * Synthetic inputs for the benchmarks. Everything is generated from a seed so that runs on
+ * different commits see exactly the same maps, biologies and current fields. The defaults
+ * approximate the EPO scenario: a 1° map spanning 150°W-50°W and 50°S-50°N, with a continent
+ * along the eastern edge, a few islands offshore, and ports dotted along the coast.
+ */
+public final class EpoScaleFixtures {
+
+    public static final int EPO_WIDTH = 101;
+    public static final int EPO_HEIGHT = 101;
+    public static final double WEST_LONGITUDE = -150;
+    public static final double SOUTH_LATITUDE = -50;
+
+    private static final double LAND_ALTITUDE = 100;
+    private static final double WATER_ALTITUDE = -1000;
+
+    private EpoScaleFixtures() {
+    }
+
+    /**
+     * Makes a 1°x1° map of the given size with land east of a wavy coastline, a number of
+     * small islands, and {@code numberOfPorts} ports evenly spread along the coastline.
+     */
+    public static NauticalMap makeMap(
+        final int width,
+        final int height,
+        final int numberOfIslands,
+        final int numberOfPorts,
+        final Pathfinder pathfinder,
+        final GlobalBiology globalBiology,
+        final long seed
+    ) {
+        final MersenneTwisterFast rng = new MersenneTwisterFast(seed);
+        final double[][] altitude = new double[width][height];
+        for (int y = 0; y < height; y++) {
+            final int coast = coastline(width, y);
+            for (int x = 0; x < width; x++) {
+                altitude[x][y] = x >= coast ? LAND_ALTITUDE : WATER_ALTITUDE;
+            }
+        }
+        // islands are kept well away from the coast so that they never block a port
+        for (int i = 0; i < numberOfIslands; i++) {
+            final int cx = 2 + rng.nextInt((int) (width * 0.6));
+            final int cy = 2 + rng.nextInt(height - 4);
+            final int radius = 1 + rng.nextInt(3);
+            for (int x = Math.max(0, cx - radius); x <= Math.min(width - 1, cx + radius); x++)
+                for (int y = Math.max(0, cy - radius); y <= Math.min(height - 1, cy + radius); y++)
+                    if ((x - cx) * (x - cx) + (y - cy) * (y - cy) <= radius * radius)
+                        altitude[x][y] = LAND_ALTITUDE;
+        }
+
+        final ObjectGrid2D grid = new ObjectGrid2D(width, height);
+        for (int x = 0; x < width; x++)
+            for (int y = 0; y < height; y++)
+                grid.set(x, y, new SeaTile(x, y, altitude[x][y], new TileHabitat(0d)));
+        final GeomGridField gridField = new GeomGridField(grid);
+        gridField.setMBR(new Envelope(
+            WEST_LONGITUDE,
+            WEST_LONGITUDE + width,
+            SOUTH_LATITUDE,
+            SOUTH_LATITUDE + height
+        ));
+        final NauticalMap map = new NauticalMap(
+            gridField,
+            new GeomVectorField(),
+            new EquirectangularDistanceByCoordinate(),
+            pathfinder
+        );
+        map.getAllSeaTilesAsList().forEach(tile -> tile.setBiology(new EmptyLocalBiology()));
+
+        final MarketMap marketMap = new MarketMap(globalBiology);
+        globalBiology.getSpecies().forEach(species -> marketMap.addMarket(species, new FixedPriceMarket(1)));
+        for (int i = 0; i < numberOfPorts; i++) {
+            final int y = (int) ((i + 0.5) * height / numberOfPorts);
+            final SeaTile portTile = map.getSeaTile(coastline(width, y), y);
+            map.addPort(new Port("Port " + i, portTile, marketMap, 0));
+        }
+        return map;
+    }
+
+    private static int coastline(final int width, final int y) {
+        return (int) (width * 0.85 + 4 * Math.sin(y / 7.0));
+    }
+
+    public static SeaTile[] waterTiles(final NauticalMap map) {
+        return map.getAllSeaTilesExcludingLandAsList().toArray(new SeaTile[0]);
+    }
+
+    /**
+     * Makes a global biology with species whose meristics have the given number of
+     * subdivisions and bins, with weights growing linearly with the bin index.
+     */
+    public static GlobalBiology makeAbundanceGlobalBiology(
+        final int numberOfSpecies,
+        final int subdivisions,
+        final int bins
+    ) {
+        final double[] weights = IntStream.range(0, bins).mapToDouble(bin -> 0.1 * (bin + 1)).toArray();
+        return new GlobalBiology(
+            IntStream
+                .range(0, numberOfSpecies)
+                .mapToObj(i -> new Species("Species " + i, new FromListMeristics(weights, subdivisions)))
+                .toArray(Species[]::new)
+        );
+    }
+
+    public static AbundanceLocalBiology makeAbundanceBiology(
+        final GlobalBiology globalBiology,
+        final MersenneTwisterFast rng
+    ) {
+        final AbundanceLocalBiology biology = new AbundanceLocalBiology(globalBiology);
+        biology.getAbundance().values().forEach(matrix -> {
+            for (final double[] row : matrix)
+                for (int bin = 0; bin < row.length; bin++)
+                    row[bin] = rng.nextDouble() * 1000;
+        });
+        return biology;
+    }
+
+    /**
+     * Puts a fresh {@link BiomassLocalBiology} with a random amount of fish on every water tile.
+     */
+    public static void fillWithBiomass(
+        final NauticalMap map,
+        final GlobalBiology globalBiology,
+        final double carryingCapacity,
+        final MersenneTwisterFast rng
+    ) {
+        for (final SeaTile tile : map.getAllSeaTilesExcludingLandAsList()) {
+            tile.setBiology(new BiomassLocalBiology(
+                carryingCapacity,
+                globalBiology.getSize(),
+                rng
+            ));
+        }
+    }
+
+    /**
+     * Makes a current field with a vector map every {@code daysBetweenMaps} days of the year
+     * (the days in between being interpolated by {@link CurrentVectorsEPO}) for each of the
+     * three patterns used by the default EPO step-to-pattern function. The currents form a
+     * gyre around the center of the map, with some noise added, so that most FADs stay on
+     * the map for a long time while some of them eventually drift ashore.
+     */
+    public static CurrentVectorsEPO makeCurrentVectors(
+        final NauticalMap map,
+        final int daysBetweenMaps,
+        final long seed
+    ) {
+        final MersenneTwisterFast rng = new MersenneTwisterFast(seed);
+        final int width = map.getWidth();
+        final int height = map.getHeight();
+        final List<SeaTile> waterTiles = map.getAllSeaTilesExcludingLandAsList();
+        final TreeMap<Integer, EnumMap<CurrentPattern, Map<Int2D, Double2D>>> vectorMaps = new TreeMap<>();
+        for (int day = 1; day <= 365; day += daysBetweenMaps) {
+            final EnumMap<CurrentPattern, Map<Int2D, Double2D>> mapsOnDay = new EnumMap<>(CurrentPattern.class);
+            for (final CurrentPattern pattern : new CurrentPattern[]{
+                CurrentPattern.Y2021, CurrentPattern.Y2022, CurrentPattern.Y2023
+            }) {
+                final Map<Int2D, Double2D> vectors = new HashMap<>(waterTiles.size() * 2);
+                for (final SeaTile tile : waterTiles) {
+                    final double dx = tile.getGridX() - width / 2.0;
+                    final double dy = tile.getGridY() - height / 2.0;
+                    final double norm = Math.max(1, Math.sqrt(dx * dx + dy * dy));
+                    vectors.put(
+                        tile.getGridLocation(),
+                        new Double2D(
+                            -0.3 * dy / norm + (rng.nextDouble() - 0.5) * 0.2,
+                            0.3 * dx / norm + (rng.nextDouble() - 0.5) * 0.2
+                        )
+                    );
+                }
+                mapsOnDay.put(pattern, vectors);
+            }
+            vectorMaps.put(day, mapsOnDay);
+        }
+        return new CurrentVectorsEPO(vectorMaps, 1, width, height);
+    }
+
+}
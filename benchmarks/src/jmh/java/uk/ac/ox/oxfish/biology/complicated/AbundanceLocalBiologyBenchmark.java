@@ -0,0 +1,101 @@
+/*
+ * POSEIDON: an agent-based model of fisheries
+ * Copyright (c) 2025, University of Oxford.
+ *
+ * University of Oxford means the Chancellor, Masters and Scholars of the
+ * University of Oxford, having an administrative office at Wellington
+ * Square, Oxford OX1 2JD, UK.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package uk.ac.ox.oxfish.biology.complicated;
+
+import ec.util.MersenneTwisterFast;
+import org.openjdk.jmh.annotations.*;
+import uk.ac.ox.oxfish.biology.GlobalBiology;
+import uk.ac.ox.oxfish.biology.Species;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static uk.ac.ox.oxfish.benchmarks.EpoScaleFixtures.makeAbundanceBiology;
+import static uk.ac.ox.oxfish.benchmarks.EpoScaleFixtures.makeAbundanceGlobalBiology;
+
+/**
+ * Measures the biomass computations of {@link AbundanceLocalBiology}, both when the cached
+ * biomass is valid and when it has been invalidated by a call to
+ * {@link AbundanceLocalBiology#getAbundance(Species)} (which is what the biology processes do
+ * all the time), as well as the aggregation used to merge the biologies of many tiles.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AbundanceLocalBiologyBenchmark {
+
+    @Param({"3"})
+    private int numberOfSpecies;
+
+    @Param({"1", "2"})
+    private int subdivisions;
+
+    @Param({"20", "120"})
+    private int bins;
+
+    @Param({"100"})
+    private int biologiesToAggregate;
+
+    private GlobalBiology globalBiology;
+    private AbundanceLocalBiology biology;
+    private Species species;
+    private List<AbundanceLocalBiology> biologies;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        final MersenneTwisterFast rng = new MersenneTwisterFast(0);
+        globalBiology = makeAbundanceGlobalBiology(numberOfSpecies, subdivisions, bins);
+        species = globalBiology.getSpecie(numberOfSpecies - 1);
+        biology = makeAbundanceBiology(globalBiology, rng);
+        biologies = new ArrayList<>(biologiesToAggregate);
+        for (int i = 0; i < biologiesToAggregate; i++)
+            biologies.add(makeAbundanceBiology(globalBiology, rng));
+    }
+
+    @Benchmark
+    public double getBiomassCached() {
+        return biology.getBiomass(species);
+    }
+
+    @Benchmark
+    public double getBiomassAfterAbundanceAccess() {
+        biology.getAbundance(species);
+        return biology.getBiomass(species);
+    }
+
+    @Benchmark
+    public double[] getCurrentBiomass() {
+        biology.getAbundance(species);
+        return biology.getCurrentBiomass();
+    }
+
+    @Benchmark
+    public AbundanceLocalBiology aggregate() {
+        return AbundanceLocalBiology.aggregate(globalBiology, biologies);
+    }
+
+}
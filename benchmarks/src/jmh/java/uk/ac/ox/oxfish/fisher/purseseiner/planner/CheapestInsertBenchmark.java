@@ -0,0 +1,92 @@
+/*
+ * POSEIDON: an agent-based model of fisheries
+ * Copyright (c) 2025, University of Oxford.
+ *
+ * University of Oxford means the Chancellor, Masters and Scholars of the
+ * University of Oxford, having an administrative office at Wellington
+ * Square, Oxford OX1 2JD, UK.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package uk.ac.ox.oxfish.fisher.purseseiner.planner;
+
+import ec.util.MersenneTwisterFast;
+import org.openjdk.jmh.annotations.*;
+import uk.ac.ox.oxfish.biology.GlobalBiology;
+import uk.ac.ox.oxfish.geography.NauticalMap;
+import uk.ac.ox.oxfish.geography.SeaTile;
+import uk.ac.ox.oxfish.geography.pathfinding.StraightLinePathfinder;
+
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+import static uk.ac.ox.oxfish.benchmarks.EpoScaleFixtures.*;
+
+/**
+ * Measures {@link DrawThenCheapestInsertionPlanner#cheapestInsert} for plans of increasing
+ * length. The candidate actions are evaluated without being inserted, so the plan stays the
+ * same throughout the benchmark.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CheapestInsertBenchmark {
+
+    private static final int NUMBER_OF_CANDIDATES = 1024;
+    private static final double SPEED_IN_KPH = 20;
+
+    @Param({"5", "20", "50"})
+    private int planLength;
+
+    private NauticalMap map;
+    private Plan plan;
+    private PlannedAction[] candidates;
+    private int candidate;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        map = makeMap(EPO_WIDTH, EPO_HEIGHT, 20, 8, new StraightLinePathfinder(), new GlobalBiology(), 0);
+        final MersenneTwisterFast rng = new MersenneTwisterFast(0);
+        final SeaTile[] waterTiles = waterTiles(map);
+        final SeaTile port = map.getPorts().getFirst().getLocation();
+        plan = new Plan(port, port);
+        for (int i = 0; i < planLength; i++) {
+            plan.insertAction(
+                new PlannedAction.Fishing(waterTiles[rng.nextInt(waterTiles.length)], 0),
+                1 + rng.nextInt(plan.numberOfStepsInPath() - 1)
+            );
+        }
+        candidates = new PlannedAction[NUMBER_OF_CANDIDATES];
+        for (int i = 0; i < NUMBER_OF_CANDIDATES; i++)
+            candidates[i] = new PlannedAction.Fishing(waterTiles[rng.nextInt(waterTiles.length)], 0);
+    }
+
+    @Benchmark
+    public Optional<Double> cheapestInsert() {
+        candidate = (candidate + 1) % NUMBER_OF_CANDIDATES;
+        return DrawThenCheapestInsertionPlanner.cheapestInsert(
+            plan,
+            candidates[candidate],
+            Double.MAX_VALUE,
+            SPEED_IN_KPH,
+            map,
+            false
+        );
+    }
+
+}
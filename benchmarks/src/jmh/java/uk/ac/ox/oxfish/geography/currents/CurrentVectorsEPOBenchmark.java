@@ -0,0 +1,96 @@
+/*
+ * POSEIDON: an agent-based model of fisheries
+ * Copyright (c) 2025, University of Oxford.
+ *
+ * University of Oxford means the Chancellor, Masters and Scholars of the
+ * University of Oxford, having an administrative office at Wellington
+ * Square, Oxford OX1 2JD, UK.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package uk.ac.ox.oxfish.geography.currents;
+
+import ec.util.MersenneTwisterFast;
+import org.openjdk.jmh.annotations.*;
+import sim.util.Double2D;
+import sim.util.Int2D;
+import uk.ac.ox.oxfish.biology.GlobalBiology;
+import uk.ac.ox.oxfish.geography.NauticalMap;
+import uk.ac.ox.oxfish.geography.SeaTile;
+import uk.ac.ox.oxfish.geography.pathfinding.StraightLinePathfinder;
+
+import java.util.concurrent.TimeUnit;
+
+import static uk.ac.ox.oxfish.benchmarks.EpoScaleFixtures.*;
+
+/**
+ * Measures {@link CurrentVectorsEPO#getVector} over random water locations. The
+ * {@code firstLookup} benchmark uses a fresh instance on every iteration and cycles through
+ * all the days of three years, so most lookups need to be computed (and, for days without
+ * a vector map, interpolated); {@code repeatedLookup} always asks for the same day, which is
+ * what happens for all the FADs within a single step.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class CurrentVectorsEPOBenchmark {
+
+    private static final int NUMBER_OF_LOCATIONS = 4096;
+
+    @Param({"1", "5"})
+    private int daysBetweenMaps;
+
+    private NauticalMap map;
+    private CurrentVectorsEPO currentVectors;
+    private Int2D[] locations;
+    private int query;
+    private int step;
+
+    @Setup(Level.Trial)
+    public void setUpMap() {
+        map = makeMap(EPO_WIDTH, EPO_HEIGHT, 20, 8, new StraightLinePathfinder(), new GlobalBiology(), 0);
+        final MersenneTwisterFast rng = new MersenneTwisterFast(0);
+        final SeaTile[] waterTiles = waterTiles(map);
+        locations = new Int2D[NUMBER_OF_LOCATIONS];
+        for (int i = 0; i < NUMBER_OF_LOCATIONS; i++)
+            locations[i] = waterTiles[rng.nextInt(waterTiles.length)].getGridLocation();
+    }
+
+    @Setup(Level.Iteration)
+    public void setUpCurrents() {
+        currentVectors = makeCurrentVectors(map, daysBetweenMaps, 0);
+        step = 0;
+    }
+
+    @Benchmark
+    public Double2D firstLookup() {
+        query++;
+        if (query == NUMBER_OF_LOCATIONS) {
+            query = 0;
+            step = (step + 1) % (365 * 3);
+        }
+        return currentVectors.getVector(step, locations[query]);
+    }
+
+    @Benchmark
+    public Double2D repeatedLookup() {
+        query = (query + 1) % NUMBER_OF_LOCATIONS;
+        return currentVectors.getVector(0, locations[query]);
+    }
+
+}
@@ -0,0 +1,151 @@
+/*
+ * POSEIDON: an agent-based model of fisheries
+ * Copyright (c) 2025, University of Oxford.
+ *
+ * University of Oxford means the Chancellor, Masters and Scholars of the
+ * University of Oxford, having an administrative office at Wellington
+ * Square, Oxford OX1 2JD, UK.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package uk.ac.ox.oxfish.geography.fads;
+
+import com.google.common.collect.ImmutableMap;
+import ec.util.MersenneTwisterFast;
+import org.openjdk.jmh.annotations.*;
+import uk.ac.ox.oxfish.biology.BiomassLocalBiology;
+import uk.ac.ox.oxfish.biology.GlobalBiology;
+import uk.ac.ox.oxfish.biology.Species;
+import uk.ac.ox.oxfish.fisher.purseseiner.fads.ConstantAttractionProbabilityFunction;
+import uk.ac.ox.oxfish.fisher.purseseiner.fads.FadManager;
+import uk.ac.ox.oxfish.fisher.purseseiner.fads.FixedGlobalCarryingCapacitySupplier;
+import uk.ac.ox.oxfish.fisher.purseseiner.fads.LinearFishBiomassAttractor;
+import uk.ac.ox.oxfish.fisher.purseseiner.utils.ReliableFishValueCalculator;
+import uk.ac.ox.oxfish.geography.NauticalMap;
+import uk.ac.ox.oxfish.geography.SeaTile;
+import uk.ac.ox.oxfish.geography.currents.CurrentVectors;
+import uk.ac.ox.oxfish.geography.pathfinding.StraightLinePathfinder;
+import uk.ac.ox.oxfish.model.FishState;
+
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+import static com.google.common.collect.ImmutableMap.toImmutableMap;
+import static java.util.function.Function.identity;
+import static uk.ac.ox.oxfish.benchmarks.EpoScaleFixtures.*;
+
+/**
+ * Measures one daily {@link FadMap#step}: drifting all the FADs, then having each of them
+ * aggregate and release fish. A new FAD field is deployed at the start of each iteration, so
+ * that the number of FADs on the map stays roughly constant. The steps wrap around the year
+ * to keep the memory used by the current vectors caches bounded. The FADs are either stepped one
+ * after the other or in parallel, tile by tile.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class FadMapBenchmark {
+
+    @Param({"5000", "20000"})
+    private int numberOfFads;
+
+    @Param({"3"})
+    private int numberOfSpecies;
+
+    @Param({"false", "true"})
+    private boolean parallel;
+
+    private NauticalMap map;
+    private GlobalBiology globalBiology;
+    private CurrentVectors currentVectors;
+    private SteppedFishState fishState;
+    private FadMap fadMap;
+
+    @Setup(Level.Trial)
+    public void setUpMap() {
+        globalBiology = makeAbundanceGlobalBiology(numberOfSpecies, 1, 1);
+        map = makeMap(EPO_WIDTH, EPO_HEIGHT, 20, 8, new StraightLinePathfinder(), globalBiology, 0);
+        currentVectors = makeCurrentVectors(map, 5, 0);
+        fishState = new SteppedFishState(0);
+    }
+
+    @Setup(Level.Iteration)
+    public void deployFads() {
+        final MersenneTwisterFast rng = new MersenneTwisterFast(0);
+        fillWithBiomass(map, globalBiology, 1_000_000, rng);
+        fadMap = new FadMap(map, currentVectors, globalBiology, BiomassLocalBiology.class);
+        fadMap.setParallel(parallel);
+        final double[] attractionRates = new double[numberOfSpecies];
+        Arrays.fill(attractionRates, 0.05);
+        final ImmutableMap<Species, Double> releaseProbabilities =
+            globalBiology.getSpecies().stream().collect(toImmutableMap(identity(), __ -> 0.01));
+        final BiomassFadInitializer fadInitializer = new BiomassFadInitializer(
+            globalBiology,
+            new LinearFishBiomassAttractor(
+                globalBiology.getSpecies(),
+                new ConstantAttractionProbabilityFunction(0.5),
+                attractionRates,
+                rng
+            ),
+            fishState::getStep,
+            new FixedGlobalCarryingCapacitySupplier(100_000),
+            releaseProbabilities
+        );
+        final FadManager fadManager = new FadManager(
+            fadMap,
+            fadInitializer,
+            null,
+            new ReliableFishValueCalculator(globalBiology)
+        );
+        fadManager.setNumFadsInStock(numberOfFads);
+        final SeaTile[] waterTiles = waterTiles(map);
+        for (int i = 0; i < numberOfFads; i++) {
+            fadManager.deployFad(waterTiles[rng.nextInt(waterTiles.length)], rng);
+        }
+    }
+
+    @Benchmark
+    public FadMap step() {
+        fishState.advance();
+        fadMap.step(fishState);
+        return fadMap;
+    }
+
+    /**
+     * A model state that is never started but whose step we can move forward by hand.
+     */
+    private static class SteppedFishState extends FishState {
+
+        private static final long serialVersionUID = -2206421957307311372L;
+        private int step = 0;
+
+        SteppedFishState(final long seed) {
+            super(seed);
+        }
+
+        void advance() {
+            step = (step + 1) % 365;
+        }
+
+        @Override
+        public int getStep() {
+            return step;
+        }
+    }
+
+}
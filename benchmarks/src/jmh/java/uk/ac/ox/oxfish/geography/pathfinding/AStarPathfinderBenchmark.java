@@ -0,0 +1,100 @@
+/*
+ * POSEIDON: an agent-based model of fisheries
+ * Copyright (c) 2025, University of Oxford.
+ *
+ * University of Oxford means the Chancellor, Masters and Scholars of the
+ * University of Oxford, having an administrative office at Wellington
+ * Square, Oxford OX1 2JD, UK.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package uk.ac.ox.oxfish.geography.pathfinding;
+
+import ec.util.MersenneTwisterFast;
+import org.openjdk.jmh.annotations.*;
+import uk.ac.ox.oxfish.biology.GlobalBiology;
+import uk.ac.ox.oxfish.geography.EquirectangularDistanceByCoordinate;
+import uk.ac.ox.oxfish.geography.NauticalMap;
+import uk.ac.ox.oxfish.geography.SeaTile;
+
+import java.util.Deque;
+import java.util.concurrent.TimeUnit;
+
+import static uk.ac.ox.oxfish.benchmarks.EpoScaleFixtures.*;
+
+/**
+ * Measures {@link AStarPathfinder#getRoute} and {@link IndexedAStarPathfinder#getRoute} between
+ * ports and random water tiles. With the discarding memory, every query runs the full search; with
+ * the table-based memory, this measures the steady state of a long run, where most routes have
+ * already been seen.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class AStarPathfinderBenchmark {
+
+    private static final int NUMBER_OF_QUERIES = 1024;
+
+    @Param({"50", "101"})
+    private int mapSize;
+
+    @Param({"discarding", "table"})
+    private String memory;
+
+    @Param({"astar", "indexed"})
+    private String algorithm;
+
+    private NauticalMap map;
+    private Pathfinder pathfinder;
+    private SeaTile[] starts;
+    private SeaTile[] ends;
+    private int query;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        final EquirectangularDistanceByCoordinate distance = new EquirectangularDistanceByCoordinate();
+        final PathMemory pathMemory =
+            memory.equals("table") ? new TableBasedPathMemory() : new DiscardingPathMemory();
+        pathfinder = algorithm.equals("indexed") ?
+            new IndexedAStarPathfinder(distance, pathMemory) :
+            new AStarPathfinder(distance, pathMemory);
+        map = makeMap(mapSize, mapSize, mapSize / 5, 8, pathfinder, new GlobalBiology(), 0);
+        pathfinder.start(map);
+        final MersenneTwisterFast rng = new MersenneTwisterFast(0);
+        final SeaTile[] waterTiles = waterTiles(map);
+        starts = new SeaTile[NUMBER_OF_QUERIES];
+        ends = new SeaTile[NUMBER_OF_QUERIES];
+        for (int i = 0; i < NUMBER_OF_QUERIES; i++) {
+            starts[i] = map.getPorts().get(rng.nextInt(map.getPorts().size())).getLocation();
+            ends[i] = waterTiles[rng.nextInt(waterTiles.length)];
+        }
+    }
+
+    @Benchmark
+    public Deque<SeaTile> portToTile() {
+        query = (query + 1) % NUMBER_OF_QUERIES;
+        return pathfinder.getRoute(map, starts[query], ends[query]);
+    }
+
+    @Benchmark
+    public Deque<SeaTile> tileToPort() {
+        query = (query + 1) % NUMBER_OF_QUERIES;
+        return pathfinder.getRoute(map, ends[query], starts[query]);
+    }
+
+}
@@ -0,0 +1,501 @@
+/*
+ * POSEIDON: an agent-based model of fisheries
+ * Copyright (c) 2025, University of Oxford.
+ *
+ * University of Oxford means the Chancellor, Masters and Scholars of the
+ * University of Oxford, having an administrative office at Wellington
+ * Square, Oxford OX1 2JD, UK.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+
+package uk.ac.ox.poseidon.common.core.geography;
+
+import com.google.common.collect.ImmutableList;
+import com.univocity.parsers.common.record.Record;
+import com.vividsolutions.jts.geom.Envelope;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.DoubleBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+import java.util.logging.Logger;
+import java.util.stream.Stream;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkElementIndex;
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.nio.file.StandardCopyOption.ATOMIC_MOVE;
+import static java.nio.file.StandardCopyOption.REPLACE_EXISTING;
+import static java.nio.file.StandardOpenOption.READ;
+import static uk.ac.ox.poseidon.common.core.csv.CsvParserUtil.recordStream;
+
+/**
+ * A compact binary alternative to the long CSV files used for gridded inputs, where each row holds a date, some key
+ * columns, a longitude, a latitude and one or more values.
+ * <p>
+ * A grid stack file starts with a header holding the map extent, the dates, the keys and the names of the value
+ * columns. It is followed by one plane of {@code double} values per date, key and value column, laid out like the
+ * {@code field} of a {@code DoubleGrid2D} (i.e., x-major). Cells for which the CSV file had no record hold
+ * {@code NaN}, so a {@code NaN} in the CSV file itself is read back as a missing record. Files are memory-mapped when
+ * read, so opening one only costs parsing the header.
+ * <p>
+ * Readers that find no up-to-date grid stack file read the CSV file instead. If the
+ * {@value #CONVERT_ON_FALLBACK_PROPERTY} system property is set to true, they then convert it, so that the grid stack
+ * is read from then on.
+ */
+public final class GridStack {
+
+    public static final String FILE_EXTENSION = "grids";
+    public static final String CONVERT_ON_FALLBACK_PROPERTY = "poseidon.gridStacks.convertOnFallback";
+
+    private static final int MAGIC_NUMBER = 0x50475331; // "PGS1"
+    private static final int FORMAT_VERSION = 2; // version 1 held floats
+
+    private static final Logger logger = Logger.getLogger(GridStack.class.getName());
+
+    private final MapExtent mapExtent;
+    private final List<LocalDate> dates;
+    private final List<String> keyColumns;
+    private final List<List<String>> keys;
+    private final List<String> valueColumns;
+    private final boolean[] planesPresent;
+    private final DoubleBuffer planes;
+
+    private GridStack(
+        final MapExtent mapExtent,
+        final List<LocalDate> dates,
+        final List<String> keyColumns,
+        final List<List<String>> keys,
+        final List<String> valueColumns,
+        final boolean[] planesPresent,
+        final DoubleBuffer planes
+    ) {
+        this.mapExtent = mapExtent;
+        this.dates = dates;
+        this.keyColumns = keyColumns;
+        this.keys = keys;
+        this.valueColumns = valueColumns;
+        this.planesPresent = planesPresent;
+        this.planes = planes;
+    }
+
+    /**
+     * Whether readers that had to read a CSV file should convert it to a grid stack file.
+     */
+    public static boolean isConvertingOnFallback() {
+        return Boolean.getBoolean(CONVERT_ON_FALLBACK_PROPERTY);
+    }
+
+    /**
+     * The grid stack file sitting next to {@code csvFile}, with the same name but the {@value #FILE_EXTENSION}
+     * extension.
+     */
+    public static Path gridStackFileFor(final Path csvFile) {
+        final String fileName = csvFile.getFileName().toString();
+        final int dot = fileName.lastIndexOf('.');
+        final String baseName = dot > 0 ? fileName.substring(0, dot) : fileName;
+        return csvFile.resolveSibling(baseName + "." + FILE_EXTENSION);
+    }
+
+    /**
+     * Reads the grid stack file sitting next to {@code csvFile} if it exists, is at least as recent as the CSV file,
+     * is in the current format and covers the given map extent. Callers should read the CSV file otherwise.
+     */
+    public static Optional<GridStack> readIfUpToDate(
+        final Path csvFile,
+        final MapExtent mapExtent
+    ) {
+        final Path gridStackFile = gridStackFileFor(csvFile);
+        if (!Files.isRegularFile(gridStackFile) ||
+            gridStackFile.toFile().lastModified() < csvFile.toFile().lastModified()) {
+            return Optional.empty();
+        }
+        if (!hasCurrentFormat(gridStackFile)) {
+            logger.warning(() -> gridStackFile + " is in an old format; reading " + csvFile + " instead.");
+            return Optional.empty();
+        }
+        final GridStack gridStack = read(gridStackFile);
+        if (!gridStack.getMapExtent().equals(mapExtent)) {
+            logger.warning(() -> gridStackFile + " does not match the map extent; reading " + csvFile + " instead.");
+            return Optional.empty();
+        }
+        return Optional.of(gridStack);
+    }
+
+    private static boolean hasCurrentFormat(final Path gridStackFile) {
+        try (final FileChannel channel = FileChannel.open(gridStackFile, READ)) {
+            final ByteBuffer header = ByteBuffer.allocate(8);
+            while (header.hasRemaining() && channel.read(header) >= 0) {
+                // keep reading
+            }
+            header.flip();
+            return header.remaining() == 8 && header.getInt() == MAGIC_NUMBER && header.getInt() == FORMAT_VERSION;
+        } catch (final IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    public static GridStack read(final Path gridStackFile) {
+        try (final FileChannel channel = FileChannel.open(gridStackFile, READ)) {
+            checkArgument(
+                channel.size() <= Integer.MAX_VALUE,
+                "%s is too large to be mapped in one buffer",
+                gridStackFile
+            );
+            final MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            checkArgument(
+                buffer.getInt() == MAGIC_NUMBER && buffer.getInt() == FORMAT_VERSION,
+                "%s is not a grid stack file",
+                gridStackFile
+            );
+            final int gridWidth = buffer.getInt();
+            final int gridHeight = buffer.getInt();
+            final Envelope envelope = new Envelope(
+                buffer.getDouble(),
+                buffer.getDouble(),
+                buffer.getDouble(),
+                buffer.getDouble()
+            );
+            final ImmutableList.Builder<LocalDate> dates = ImmutableList.builder();
+            final int numberOfDates = buffer.getInt();
+            for (int i = 0; i < numberOfDates; i++) {
+                dates.add(LocalDate.ofEpochDay(buffer.getLong()));
+            }
+            final List<String> keyColumns = readStrings(buffer, buffer.getInt());
+            final ImmutableList.Builder<List<String>> keys = ImmutableList.builder();
+            final int numberOfKeys = buffer.getInt();
+            for (int i = 0; i < numberOfKeys; i++) {
+                keys.add(readStrings(buffer, buffer.getInt()));
+            }
+            final List<String> valueColumns = readStrings(buffer, buffer.getInt());
+            final boolean[] planesPresent = new boolean[numberOfDates * numberOfKeys];
+            for (int i = 0; i < planesPresent.length; i++) {
+                planesPresent[i] = buffer.get() != 0;
+            }
+            buffer.position(buffer.getInt());
+            final DoubleBuffer planes = buffer.slice().asDoubleBuffer();
+            checkArgument(
+                planes.capacity() == planesPresent.length * valueColumns.size() * gridWidth * gridHeight,
+                "%s is truncated",
+                gridStackFile
+            );
+            return new GridStack(
+                MapExtent.from(gridWidth, gridHeight, envelope),
+                dates.build(),
+                keyColumns,
+                keys.build(),
+                valueColumns,
+                planesPresent,
+                planes
+            );
+        } catch (final IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static List<String> readStrings(
+        final ByteBuffer buffer,
+        final int numberOfStrings
+    ) {
+        final ImmutableList.Builder<String> strings = ImmutableList.builder();
+        for (int i = 0; i < numberOfStrings; i++) {
+            final byte[] bytes = new byte[buffer.getInt()];
+            buffer.get(bytes);
+            strings.add(new String(bytes, UTF_8));
+        }
+        return strings.build();
+    }
+
+    /**
+     * Converts a tidy CSV file to a grid stack file. Records are placed on the grid the same way as when reading the
+     * CSV file directly: records falling outside the map extent are dropped and, when many records fall in the same
+     * cell, the last one wins. Dates are kept in the order in which they first appear in the CSV file. The file is
+     * written next to its destination first and then moved in place, so readers never see a partial file.
+     */
+    public static void convert(
+        final Path csvFile,
+        final Path gridStackFile,
+        final MapExtent mapExtent,
+        final Function<? super Record, LocalDate> dateReader,
+        final List<String> keyColumns,
+        final String longitudeColumn,
+        final String latitudeColumn,
+        final List<String> valueColumns
+    ) {
+        convert(
+            csvFile,
+            gridStackFile,
+            mapExtent,
+            dateReader,
+            keyColumns,
+            longitudeColumn,
+            latitudeColumn,
+            valueColumns,
+            (record, values) -> {
+                for (int v = 0; v < valueColumns.size(); v++) {
+                    values[v] = record.getDouble(valueColumns.get(v));
+                }
+            }
+        );
+    }
+
+    /**
+     * Same as {@link #convert(Path, Path, MapExtent, Function, List, String, String, List)}, but the values stored for
+     * a record are computed by {@code valuesReader}, which fills an array with one value per value column. This allows
+     * storing values derived from the record, e.g., converted to other units at the record's own coordinates.
+     */
+    public static void convert(
+        final Path csvFile,
+        final Path gridStackFile,
+        final MapExtent mapExtent,
+        final Function<? super Record, LocalDate> dateReader,
+        final List<String> keyColumns,
+        final String longitudeColumn,
+        final String latitudeColumn,
+        final List<String> valueColumns,
+        final BiConsumer<? super Record, double[]> valuesReader
+    ) {
+        final int gridWidth = mapExtent.getGridWidth();
+        final int gridHeight = mapExtent.getGridHeight();
+        final Map<LocalDate, Map<List<String>, double[][]>> planesByDateAndKey = new LinkedHashMap<>();
+        final double[] values = new double[valueColumns.size()];
+        final Map<List<String>, Integer> keyIndices = new LinkedHashMap<>();
+        try (final Stream<Record> records = recordStream(csvFile)) {
+            records.forEach(record -> {
+                final List<String> key = keyColumns.stream()
+                    .map(record::getString)
+                    .collect(ImmutableList.toImmutableList());
+                keyIndices.putIfAbsent(key, keyIndices.size());
+                final double[][] planes = planesByDateAndKey
+                    .computeIfAbsent(dateReader.apply(record), __ -> new LinkedHashMap<>())
+                    .computeIfAbsent(key, __ -> {
+                        final double[][] newPlanes = new double[valueColumns.size()][gridWidth * gridHeight];
+                        for (final double[] plane : newPlanes) Arrays.fill(plane, Double.NaN);
+                        return newPlanes;
+                    });
+                final int x = mapExtent.toGridX(record.getDouble(longitudeColumn));
+                final int y = mapExtent.toGridY(record.getDouble(latitudeColumn));
+                if (x >= 0 && y >= 0 && x < gridWidth && y < gridHeight) {
+                    valuesReader.accept(record, values);
+                    for (int v = 0; v < valueColumns.size(); v++) {
+                        planes[v][x * gridHeight + y] = values[v];
+                    }
+                }
+            });
+        }
+        checkArgument(!planesByDateAndKey.isEmpty(), "No records found in file %s", csvFile);
+        final List<List<String>> keys = ImmutableList.copyOf(keyIndices.keySet());
+        final Envelope envelope = mapExtent.getEnvelope();
+        final Path temporaryFile;
+        try {
+            temporaryFile = Files.createTempFile(
+                gridStackFile.toAbsolutePath().getParent(),
+                gridStackFile.getFileName().toString(),
+                ".tmp"
+            );
+        } catch (final IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        try (
+            final DataOutputStream out = new DataOutputStream(new BufferedOutputStream(
+                Files.newOutputStream(temporaryFile)
+            ))
+        ) {
+            out.writeInt(MAGIC_NUMBER);
+            out.writeInt(FORMAT_VERSION);
+            out.writeInt(gridWidth);
+            out.writeInt(gridHeight);
+            out.writeDouble(envelope.getMinX());
+            out.writeDouble(envelope.getMaxX());
+            out.writeDouble(envelope.getMinY());
+            out.writeDouble(envelope.getMaxY());
+            out.writeInt(planesByDateAndKey.size());
+            for (final LocalDate date : planesByDateAndKey.keySet()) {
+                out.writeLong(date.toEpochDay());
+            }
+            writeStrings(out, keyColumns);
+            out.writeInt(keys.size());
+            for (final List<String> key : keys) {
+                writeStrings(out, key);
+            }
+            writeStrings(out, valueColumns);
+            for (final Map<List<String>, double[][]> planesByKey : planesByDateAndKey.values()) {
+                for (final List<String> key : keys) {
+                    out.writeByte(planesByKey.containsKey(key) ? 1 : 0);
+                }
+            }
+            // the planes start on an eight-byte boundary, right after the offset we are about to write
+            final int dataOffset = (out.size() + 4 + 7) & ~7;
+            out.writeInt(dataOffset);
+            while (out.size() < dataOffset) out.writeByte(0);
+            final double[] missingPlane = new double[gridWidth * gridHeight];
+            Arrays.fill(missingPlane, Double.NaN);
+            for (final Map<List<String>, double[][]> planesByKey : planesByDateAndKey.values()) {
+                for (final List<String> key : keys) {
+                    final double[][] planes = planesByKey.get(key);
+                    for (int v = 0; v < valueColumns.size(); v++) {
+                        for (final double value : planes == null ? missingPlane : planes[v]) {
+                            out.writeDouble(value);
+                        }
+                    }
+                }
+            }
+        } catch (final IOException e) {
+            deleteQuietly(temporaryFile);
+            throw new UncheckedIOException(e);
+        }
+        try {
+            try {
+                Files.move(temporaryFile, gridStackFile, ATOMIC_MOVE, REPLACE_EXISTING);
+            } catch (final AtomicMoveNotSupportedException e) {
+                Files.move(temporaryFile, gridStackFile, REPLACE_EXISTING);
+            }
+        } catch (final IOException e) {
+            deleteQuietly(temporaryFile);
+            throw new UncheckedIOException(e);
+        }
+        logger.info(() -> "Converted " + csvFile + " to " + gridStackFile);
+    }
+
+    private static void deleteQuietly(final Path file) {
+        try {
+            Files.deleteIfExists(file);
+        } catch (final IOException e) {
+            logger.warning(() -> "Unable to delete " + file + ": " + e.getMessage());
+        }
+    }
+
+    private static void writeStrings(
+        final DataOutputStream out,
+        final List<String> strings
+    ) throws IOException {
+        out.writeInt(strings.size());
+        for (final String string : strings) {
+            final byte[] bytes = string.getBytes(UTF_8);
+            out.writeInt(bytes.length);
+            out.write(bytes);
+        }
+    }
+
+    public MapExtent getMapExtent() {
+        return mapExtent;
+    }
+
+    public List<LocalDate> getDates() {
+        return dates;
+    }
+
+    public List<String> getKeyColumns() {
+        return keyColumns;
+    }
+
+    /**
+     * The keys found in the CSV file, each holding one value per key column.
+     */
+    public List<List<String>> getKeys() {
+        return keys;
+    }
+
+    public List<String> getValueColumns() {
+        return valueColumns;
+    }
+
+    /**
+     * Whether the CSV file had any record for this date and key.
+     */
+    public boolean hasPlane(
+        final int dateIndex,
+        final int keyIndex
+    ) {
+        checkElementIndex(dateIndex, dates.size());
+        checkElementIndex(keyIndex, keys.size());
+        return planesPresent[dateIndex * keys.size() + keyIndex];
+    }
+
+    /**
+     * Returns the value in a cell of an existing plane, or {@code NaN} if the CSV file had no record for the cell (or
+     * if the record's value was {@code NaN}).
+     */
+    public double get(
+        final int dateIndex,
+        final int keyIndex,
+        final int valueIndex,
+        final int x,
+        final int y
+    ) {
+        return planes.get(planeOffset(dateIndex, keyIndex, valueIndex) + x * mapExtent.getGridHeight() + y);
+    }
+
+    /**
+     * Copies the cells of a plane that had a record in the CSV file into {@code target}, leaving the others untouched.
+     * Copying many planes in a row into the same target thus has the same effect as reading all their records, except
+     * for records whose value is {@code NaN}, which are treated as missing and leave the target untouched.
+     */
+    public void copyInto(
+        final double[][] target,
+        final int dateIndex,
+        final int keyIndex,
+        final int valueIndex
+    ) {
+        final int gridWidth = mapExtent.getGridWidth();
+        final int gridHeight = mapExtent.getGridHeight();
+        checkArgument(target.length == gridWidth);
+        final DoubleBuffer plane = planes.duplicate();
+        plane.position(planeOffset(dateIndex, keyIndex, valueIndex));
+        final double[] column = new double[gridHeight];
+        for (int x = 0; x < gridWidth; x++) {
+            plane.get(column);
+            final double[] targetColumn = target[x];
+            for (int y = 0; y < gridHeight; y++) {
+                if (!Double.isNaN(column[y])) {
+                    targetColumn[y] = column[y];
+                }
+            }
+        }
+    }
+
+    private int planeOffset(
+        final int dateIndex,
+        final int keyIndex,
+        final int valueIndex
+    ) {
+        checkElementIndex(valueIndex, valueColumns.size());
+        checkArgument(
+            hasPlane(dateIndex, keyIndex),
+            "No records for %s and %s",
+            dates.get(dateIndex),
+            keys.get(keyIndex)
+        );
+        return ((dateIndex * keys.size() + keyIndex) * valueColumns.size() + valueIndex) *
+            mapExtent.getGridWidth() * mapExtent.getGridHeight();
+    }
+
+}
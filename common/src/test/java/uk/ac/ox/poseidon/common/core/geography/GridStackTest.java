@@ -0,0 +1,139 @@
+/*
+ * POSEIDON: an agent-based model of fisheries
+ * Copyright (c) 2025, University of Oxford.
+ *
+ * University of Oxford means the Chancellor, Masters and Scholars of the
+ * University of Oxford, having an administrative office at Wellington
+ * Square, Oxford OX1 2JD, UK.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+
+package uk.ac.ox.poseidon.common.core.geography;
+
+import com.google.common.collect.ImmutableList;
+import com.vividsolutions.jts.geom.Envelope;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class GridStackTest {
+
+    private final MapExtent mapExtent = MapExtent.from(4, 2, new Envelope(0, 4, 0, 2));
+
+    @Test
+    void convertedFilesHoldTheValuesOfTheCsvFile(@TempDir final Path directory) throws IOException {
+        final Path csvFile = Files.write(
+            directory.resolve("grids.csv"),
+            ("date,species,lon,lat,value\n" +
+                "2020-01-02,A,0.5,1.5,1.0\n" +
+                "2020-01-02,A,3.5,0.5,2.0\n" +
+                "2020-01-02,A,3.5,0.5,3.0\n" +
+                "2020-01-01,B,1.5,0.5,4.0\n" +
+                "2020-01-01,B,9.5,0.5,5.0\n").getBytes()
+        );
+        final Path gridStackFile = GridStack.gridStackFileFor(csvFile);
+        assertEquals(directory.resolve("grids.grids"), gridStackFile);
+        assertFalse(GridStack.readIfUpToDate(csvFile, mapExtent).isPresent());
+
+        GridStack.convert(
+            csvFile,
+            gridStackFile,
+            mapExtent,
+            record -> LocalDate.parse(record.getString("date")),
+            ImmutableList.of("species"),
+            "lon",
+            "lat",
+            ImmutableList.of("value")
+        );
+        final GridStack gridStack = GridStack.readIfUpToDate(csvFile, mapExtent).orElseThrow(AssertionError::new);
+
+        assertEquals(mapExtent, gridStack.getMapExtent());
+        assertEquals(ImmutableList.of(LocalDate.of(2020, 1, 2), LocalDate.of(2020, 1, 1)), gridStack.getDates());
+        assertEquals(ImmutableList.of(ImmutableList.of("A"), ImmutableList.of("B")), gridStack.getKeys());
+        assertTrue(gridStack.hasPlane(0, 0));
+        assertFalse(gridStack.hasPlane(0, 1));
+        assertFalse(gridStack.hasPlane(1, 0));
+        assertEquals(1.0, gridStack.get(0, 0, 0, 0, 0));
+        assertEquals(3.0, gridStack.get(0, 0, 0, 3, 1));
+        assertTrue(Double.isNaN(gridStack.get(0, 0, 0, 1, 1)));
+
+        final double[][] grid = new double[4][2];
+        grid[1][1] = -1;
+        grid[2][1] = -1;
+        gridStack.copyInto(grid, 1, 1, 0);
+        assertArrayEquals(new double[][]{{0, 0}, {0, 4}, {0, -1}, {0, 0}}, grid);
+    }
+
+    @Test
+    void valuesKeepTheirPrecisionAndNoTemporaryFileIsLeft(@TempDir final Path directory) throws IOException {
+        final Path csvFile = Files.write(
+            directory.resolve("grids.csv"),
+            "date,lon,lat,value\n2020-01-01,0.5,0.5,0.1\n2020-01-01,1.5,0.5,2\n".getBytes()
+        );
+        final Path gridStackFile = GridStack.gridStackFileFor(csvFile);
+        GridStack.convert(
+            csvFile,
+            gridStackFile,
+            mapExtent,
+            record -> LocalDate.parse(record.getString("date")),
+            ImmutableList.of(),
+            "lon",
+            "lat",
+            ImmutableList.of("value", "scaled"),
+            (record, values) -> {
+                values[0] = record.getDouble("value");
+                values[1] = record.getDouble("value") * record.getDouble("lon");
+            }
+        );
+        final GridStack gridStack = GridStack.readIfUpToDate(csvFile, mapExtent).orElseThrow(AssertionError::new);
+        assertEquals(0.1, gridStack.get(0, 0, 0, 0, 1));
+        assertEquals(0.1 * 0.5, gridStack.get(0, 0, 1, 0, 1));
+        assertEquals(3.0, gridStack.get(0, 0, 1, 1, 1));
+        try (final Stream<Path> files = Files.list(directory)) {
+            assertEquals(2, files.count());
+        }
+    }
+
+    @Test
+    void staleOrMismatchedFilesAreIgnored(@TempDir final Path directory) throws IOException {
+        final Path csvFile = Files.write(
+            directory.resolve("grids.csv"),
+            "date,lon,lat,value\n2020-01-01,0.5,0.5,1\n".getBytes()
+        );
+        GridStack.convert(
+            csvFile,
+            GridStack.gridStackFileFor(csvFile),
+            mapExtent,
+            record -> LocalDate.parse(record.getString("date")),
+            ImmutableList.of(),
+            "lon",
+            "lat",
+            ImmutableList.of("value")
+        );
+        assertTrue(GridStack.readIfUpToDate(csvFile, mapExtent).isPresent());
+        assertFalse(GridStack.readIfUpToDate(csvFile, MapExtent.from(2, 2, new Envelope(0, 4, 0, 2))).isPresent());
+        final long gridStackLastModified = GridStack.gridStackFileFor(csvFile).toFile().lastModified();
+        assertTrue(csvFile.toFile().setLastModified(gridStackLastModified + 2000));
+        assertFalse(GridStack.readIfUpToDate(csvFile, mapExtent).isPresent());
+    }
+}
@@ -41,6 +41,8 @@ import eva2.optimization.strategies.ParticleSwarmOptimizationGCPSO;
 import eva2.problems.SimpleProblemWrapper;
 import uk.ac.ox.oxfish.maximization.FileAndScreenWriter;
 import uk.ac.ox.oxfish.maximization.GenericOptimization;
+import uk.ac.ox.poseidon.epo.workers.WorkerAddressConverter;
+import uk.ac.ox.poseidon.epo.workers.WorkerPool;
 import uk.ac.ox.oxfish.maximization.generic.LastStepFixedDataTarget;
 import uk.ac.ox.oxfish.maximization.generic.SimpleOptimizationParameter;
 import uk.ac.ox.oxfish.model.scenario.Scenario;
@@ -49,6 +51,7 @@ import uk.ac.ox.oxfish.utility.yaml.FishYAML;
 import java.io.FileReader;
 import java.io.FileWriter;
 import java.io.IOException;
+import java.net.InetSocketAddress;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.text.SimpleDateFormat;
@@ -90,6 +93,16 @@ public class Calibrator implements JCommanderRunnable {
     private List<Path> seedScenarios = ImmutableList.of();
     @Parameter(names = {"-o", "--optimizer"}, converter = OptimizerInitializerConverter.class)
     private OptimizerInitializer optimizerInitializer = new ClusterBasedNichingEAInitializer();
+    @Parameter(names = "--racing", arity = 1)
+    private boolean racing = false;
+    @Parameter(names = "--racing_threshold")
+    private double racingThreshold = 1.5;
+    @Parameter(names = "--racing_minimum_years")
+    private int racingMinimumYears = 1;
+    @Parameter(names = "--workers", description = "Number of worker JVMs to fork; 0 evaluates in this JVM.")
+    private int numberOfWorkers = 0;
+    @Parameter(names = "--remote_workers", converter = WorkerAddressConverter.class)
+    private List<InetSocketAddress> remoteWorkers = ImmutableList.of();
 
     public Calibrator() {
     }
@@ -173,6 +186,56 @@ public class Calibrator implements JCommanderRunnable {
         this.parallelThreads = parallelThreads;
     }
 
+    @SuppressWarnings("unused")
+    public boolean isRacing() {
+        return racing;
+    }
+
+    @SuppressWarnings("unused")
+    public void setRacing(final boolean racing) {
+        this.racing = racing;
+    }
+
+    @SuppressWarnings("unused")
+    public double getRacingThreshold() {
+        return racingThreshold;
+    }
+
+    @SuppressWarnings("unused")
+    public void setRacingThreshold(final double racingThreshold) {
+        this.racingThreshold = racingThreshold;
+    }
+
+    @SuppressWarnings("unused")
+    public int getRacingMinimumYears() {
+        return racingMinimumYears;
+    }
+
+    @SuppressWarnings("unused")
+    public void setRacingMinimumYears(final int racingMinimumYears) {
+        this.racingMinimumYears = racingMinimumYears;
+    }
+
+    @SuppressWarnings("unused")
+    public int getNumberOfWorkers() {
+        return numberOfWorkers;
+    }
+
+    @SuppressWarnings("unused")
+    public void setNumberOfWorkers(final int numberOfWorkers) {
+        this.numberOfWorkers = numberOfWorkers;
+    }
+
+    @SuppressWarnings("unused")
+    public List<InetSocketAddress> getRemoteWorkers() {
+        return remoteWorkers;
+    }
+
+    @SuppressWarnings("unused")
+    public void setRemoteWorkers(final List<InetSocketAddress> remoteWorkers) {
+        this.remoteWorkers = checkNotNull(remoteWorkers);
+    }
+
     @Override
     public void run() {
         calibrate();
@@ -230,28 +293,45 @@ public class Calibrator implements JCommanderRunnable {
             .filter(LastStepFixedDataTarget.class::isInstance)
             .forEach(target -> ((LastStepFixedDataTarget) target).setVerbose(verbose));
 
-        final SimpleProblemWrapper problemWrapper = new ProblemWrapper();
-        problemWrapper.setSimpleProblem(optimizationProblem);
-        problemWrapper.setParallelThreads(parallelThreads);
+        if (racing) {
+            optimizationProblem.setRacing(true);
+            optimizationProblem.setRacingThreshold(racingThreshold);
+            optimizationProblem.setRacingMinimumYears(racingMinimumYears);
+        }
 
-        final AbstractOptimizer optimizer = optimizerInitializer.apply(populationSize);
-        problemWrapper.setDefaultRange(parameterRange);
+        try (
+            final WorkerPool workerPool = numberOfWorkers > 0 || !remoteWorkers.isEmpty()
+                ? WorkerPool.of(numberOfWorkers, remoteWorkers)
+                : null
+        ) {
+            final SimpleProblemWrapper problemWrapper = new ProblemWrapper(optimizationProblem);
+            if (workerPool == null) {
+                problemWrapper.setSimpleProblem(optimizationProblem);
+                problemWrapper.setParallelThreads(parallelThreads);
+            } else {
+                problemWrapper.setSimpleProblem(new DistributedOptimization(optimizationProblem, workerPool));
+                problemWrapper.setParallelThreads(workerPool.size());
+            }
 
-        final OptimizationParameters optimizationParameters =
-            OptimizerFactory.makeParams(
-                optimizer,
-                populationSize,
-                problemWrapper,
-                System.currentTimeMillis(),
-                new EvaluationTerminator(maxFitnessCalls)
-            );
-        final OptimizerRunnable runnable =
-            makeOptimizerRunnable(
-                optimizationParameters,
-                logFile
-            );
+            final AbstractOptimizer optimizer = optimizerInitializer.apply(populationSize);
+            problemWrapper.setDefaultRange(parameterRange);
+
+            final OptimizationParameters optimizationParameters =
+                OptimizerFactory.makeParams(
+                    optimizer,
+                    populationSize,
+                    problemWrapper,
+                    System.currentTimeMillis(),
+                    new EvaluationTerminator(maxFitnessCalls)
+                );
+            final OptimizerRunnable runnable =
+                makeOptimizerRunnable(
+                    optimizationParameters,
+                    logFile
+                );
 
-        return runnable.getDoubleSolution();
+            return runnable.getDoubleSolution();
+        }
     }
 
     private void saveCalibratedScenario(
@@ -451,6 +531,11 @@ public class Calibrator implements JCommanderRunnable {
     private class ProblemWrapper extends SimpleProblemWrapper {
 
         private static final long serialVersionUID = -3771406229118693099L;
+        private final transient GenericOptimization optimizationProblem;
+
+        private ProblemWrapper(final GenericOptimization optimizationProblem) {
+            this.optimizationProblem = optimizationProblem;
+        }
 
         @Override
         public void initializePopulation(final Population population) {
@@ -459,7 +544,7 @@ public class Calibrator implements JCommanderRunnable {
             population.clear();
 
             final List<SimpleOptimizationParameter> parameters =
-                ((GenericOptimization) this.getSimpleProblem())
+                optimizationProblem
                     .getParameters()
                     .stream()
                     .map(SimpleOptimizationParameter.class::cast)
@@ -0,0 +1,71 @@
+/*
+ * POSEIDON: an agent-based model of fisheries
+ * Copyright (c) 2025, University of Oxford.
+ *
+ * University of Oxford means the Chancellor, Masters and Scholars of the
+ * University of Oxford, having an administrative office at Wellington
+ * Square, Oxford OX1 2JD, UK.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+
+package uk.ac.ox.poseidon.epo.calibration;
+
+import eva2.problems.simple.SimpleProblemDouble;
+import uk.ac.ox.oxfish.maximization.GenericOptimization;
+import uk.ac.ox.oxfish.utility.yaml.FishYAML;
+import uk.ac.ox.poseidon.epo.workers.WorkerPool;
+
+import java.io.Serializable;
+import java.util.UUID;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+/**
+ * A {@link GenericOptimization} whose evaluations are sent to a {@link WorkerPool} instead of running in this JVM.
+ */
+public class DistributedOptimization extends SimpleProblemDouble implements Serializable {
+
+    private static final long serialVersionUID = -6062733361936233113L;
+    private final String problemId = UUID.randomUUID().toString();
+    private final String problemYaml;
+    private final int problemDimension;
+    private final transient GenericOptimization problem;
+    private final transient WorkerPool workerPool;
+
+    public DistributedOptimization(
+        final GenericOptimization problem,
+        final WorkerPool workerPool
+    ) {
+        this.problem = checkNotNull(problem);
+        this.workerPool = checkNotNull(workerPool);
+        this.problemYaml = new FishYAML().dump(problem);
+        this.problemDimension = problem.getProblemDimension();
+    }
+
+    public GenericOptimization getProblem() {
+        return problem;
+    }
+
+    @Override
+    public double[] evaluate(final double[] x) {
+        return workerPool.invoke(new EvaluationTask(problemId, problemYaml, x));
+    }
+
+    @Override
+    public int getProblemDimension() {
+        return problemDimension;
+    }
+}
@@ -0,0 +1,63 @@
+/*
+ * POSEIDON: an agent-based model of fisheries
+ * Copyright (c) 2025, University of Oxford.
+ *
+ * University of Oxford means the Chancellor, Masters and Scholars of the
+ * University of Oxford, having an administrative office at Wellington
+ * Square, Oxford OX1 2JD, UK.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+
+package uk.ac.ox.poseidon.epo.calibration;
+
+import uk.ac.ox.oxfish.maximization.GenericOptimization;
+import uk.ac.ox.oxfish.utility.yaml.FishYAML;
+import uk.ac.ox.poseidon.epo.workers.WorkerTask;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Evaluates a parameter vector on a worker. The optimization problem travels as YAML, the same way it is saved in
+ * calibration files, and is only parsed the first time a worker sees it, so its state (e.g., the best error used for
+ * racing) carries over between evaluations on the same worker.
+ */
+final class EvaluationTask implements WorkerTask<double[]> {
+
+    private static final long serialVersionUID = 4417306335917207513L;
+    private static final Map<String, GenericOptimization> problems = new ConcurrentHashMap<>();
+
+    private final String problemId;
+    private final String problemYaml;
+    private final double[] x;
+
+    EvaluationTask(
+        final String problemId,
+        final String problemYaml,
+        final double[] x
+    ) {
+        this.problemId = problemId;
+        this.problemYaml = problemYaml;
+        this.x = x.clone();
+    }
+
+    @Override
+    public double[] call() {
+        return problems
+            .computeIfAbsent(problemId, __ -> new FishYAML().loadAs(problemYaml, GenericOptimization.class))
+            .evaluate(x);
+    }
+}
@@ -0,0 +1,77 @@
+/*
+ * POSEIDON: an agent-based model of fisheries
+ * Copyright (c) 2025, University of Oxford.
+ *
+ * University of Oxford means the Chancellor, Masters and Scholars of the
+ * University of Oxford, having an administrative office at Wellington
+ * Square, Oxford OX1 2JD, UK.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+
+package uk.ac.ox.poseidon.epo.policies;
+
+import com.google.common.collect.ImmutableSet;
+import uk.ac.ox.poseidon.epo.workers.WorkerTask;
+
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+/**
+ * Runs a single named policy of {@link PolicyRuns} on a worker. Paths are sent as strings because {@link Path} isn't
+ * serializable.
+ */
+final class PolicyRunTask implements WorkerTask<String> {
+
+    private static final long serialVersionUID = -4185129860125622529L;
+    private final String policyName;
+    private final String scenarioFile;
+    private final String outputFolder;
+    private final int numberOfRunsPerPolicy;
+    private final int numberOfYearsToRun;
+    private final boolean forkingFromSnapshots;
+    private final int spinUpYears;
+    private final String snapshotsFolder;
+
+    PolicyRunTask(
+        final PolicyRuns policyRuns,
+        final String policyName
+    ) {
+        this.policyName = policyName;
+        this.scenarioFile = policyRuns.getScenarioFile().toString();
+        this.outputFolder = policyRuns.getOutputFolder().toString();
+        this.numberOfRunsPerPolicy = policyRuns.getNumberOfRunsPerPolicy();
+        this.numberOfYearsToRun = policyRuns.getNumberOfYearsToRun();
+        this.forkingFromSnapshots = policyRuns.isForkingFromSnapshots();
+        this.spinUpYears = policyRuns.getSpinUpYears();
+        this.snapshotsFolder =
+            policyRuns.getSnapshotsFolder() == null ? null : policyRuns.getSnapshotsFolder().toString();
+    }
+
+    @Override
+    public String call() {
+        final PolicyRuns policyRuns = new PolicyRuns();
+        policyRuns.setPoliciesToRun(ImmutableSet.of(policyName));
+        policyRuns.setScenarioFile(Paths.get(scenarioFile));
+        policyRuns.setOutputFolder(Paths.get(outputFolder));
+        policyRuns.setNumberOfRunsPerPolicy(numberOfRunsPerPolicy);
+        policyRuns.setNumberOfYearsToRun(numberOfYearsToRun);
+        policyRuns.setForkingFromSnapshots(forkingFromSnapshots);
+        policyRuns.setSpinUpYears(spinUpYears);
+        policyRuns.setSnapshotsFolder(snapshotsFolder == null ? null : Paths.get(snapshotsFolder));
+        policyRuns.run();
+        return policyName;
+    }
+}
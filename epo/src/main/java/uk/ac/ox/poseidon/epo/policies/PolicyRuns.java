@@ -35,13 +35,19 @@ import uk.ac.ox.oxfish.model.data.monitors.loggers.PurseSeineActionsLogger;
 import uk.ac.ox.oxfish.model.data.monitors.loggers.PurseSeineTripLogger;
 import uk.ac.ox.poseidon.epo.scenarios.EpoPathPlannerAbundanceScenario;
 import uk.ac.ox.poseidon.epo.scenarios.EpoScenario;
+import uk.ac.ox.poseidon.epo.workers.WorkerAddressConverter;
+import uk.ac.ox.poseidon.epo.workers.WorkerPool;
 
+import java.net.InetSocketAddress;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.util.Collection;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
 import java.util.logging.Logger;
 
 import static com.google.common.collect.ImmutableMap.toImmutableMap;
@@ -76,6 +82,20 @@ public class PolicyRuns implements Runnable {
     private int numberOfRunsPerPolicy = 3;
     @Parameter(names = {"-y", "--years_to_run"})
     private int numberOfYearsToRun = 3;
+    @Parameter(names = "--fork_from_snapshots", arity = 1)
+    private boolean forkingFromSnapshots = false;
+    @Parameter(names = "--spin_up_years")
+    private int spinUpYears = 0;
+    @Parameter(names = "--snapshots_folder", converter = PathConverter.class)
+    private Path snapshotsFolder = null;
+    @Parameter(names = "--snapshot_seed")
+    private Long snapshotSeed = null;
+    @Parameter(names = "--fisher_phase_threads", description = "Threads stepping the fishers of each run; 0 for none.")
+    private int fisherPhaseThreads = 0;
+    @Parameter(names = "--workers", description = "Number of worker JVMs to fork; 0 runs everything in this JVM.")
+    private int numberOfWorkers = 0;
+    @Parameter(names = "--remote_workers", converter = WorkerAddressConverter.class)
+    private List<InetSocketAddress> remoteWorkers = ImmutableList.of();
 
     public static void main(final String[] args) {
         final Runnable policyRuns = new PolicyRuns();
@@ -136,9 +156,83 @@ public class PolicyRuns implements Runnable {
         this.numberOfYearsToRun = numberOfYearsToRun;
     }
 
+    @SuppressWarnings("unused")
+    public boolean isForkingFromSnapshots() {
+        return forkingFromSnapshots;
+    }
+
+    @SuppressWarnings("unused")
+    public void setForkingFromSnapshots(final boolean forkingFromSnapshots) {
+        this.forkingFromSnapshots = forkingFromSnapshots;
+    }
+
+    @SuppressWarnings("unused")
+    public int getSpinUpYears() {
+        return spinUpYears;
+    }
+
+    @SuppressWarnings("unused")
+    public void setSpinUpYears(final int spinUpYears) {
+        this.spinUpYears = spinUpYears;
+    }
+
+    @SuppressWarnings("unused")
+    public Path getSnapshotsFolder() {
+        return snapshotsFolder;
+    }
+
+    @SuppressWarnings("unused")
+    public void setSnapshotsFolder(final Path snapshotsFolder) {
+        this.snapshotsFolder = snapshotsFolder;
+    }
+
+    @SuppressWarnings("unused")
+    public Long getSnapshotSeed() {
+        return snapshotSeed;
+    }
+
+    @SuppressWarnings("unused")
+    public void setSnapshotSeed(final Long snapshotSeed) {
+        this.snapshotSeed = snapshotSeed;
+    }
+
+    @SuppressWarnings("unused")
+    public int getFisherPhaseThreads() {
+        return fisherPhaseThreads;
+    }
+
+    @SuppressWarnings("unused")
+    public void setFisherPhaseThreads(final int fisherPhaseThreads) {
+        this.fisherPhaseThreads = fisherPhaseThreads;
+    }
+
+    @SuppressWarnings("unused")
+    public int getNumberOfWorkers() {
+        return numberOfWorkers;
+    }
+
+    @SuppressWarnings("unused")
+    public void setNumberOfWorkers(final int numberOfWorkers) {
+        this.numberOfWorkers = numberOfWorkers;
+    }
+
+    @SuppressWarnings("unused")
+    public List<InetSocketAddress> getRemoteWorkers() {
+        return remoteWorkers;
+    }
+
+    @SuppressWarnings("unused")
+    public void setRemoteWorkers(final List<InetSocketAddress> remoteWorkers) {
+        this.remoteWorkers = remoteWorkers;
+    }
+
     @Override
     public void run() {
         final Map<String, List<Policy<EpoScenario<?>>>> policies = makePolicies();
+        if (numberOfWorkers > 0 || !remoteWorkers.isEmpty()) {
+            runOnWorkers(policies.keySet());
+            return;
+        }
 
         final int numberOfPolicies = policies.values().stream().mapToInt(List::size).sum();
         logger.info(String.format(
@@ -160,6 +254,11 @@ public class PolicyRuns implements Runnable {
                         .setPolicies(entry.getValue())
                         .setParallel(true)
                         .setWriteScenarioToFile(true)
+                        .setForkingFromSnapshots(forkingFromSnapshots)
+                        .setSpinUpYears(spinUpYears)
+                        .setSnapshotsFolder(snapshotsFolder == null ? null : snapshotsFolder.resolve(policyName))
+                        .setSnapshotSeed(snapshotSeed)
+                        .setFisherPhaseThreads(fisherPhaseThreads)
                         .requestFisherDailyData(columnName -> columnName.equals(
                             "Number of active FADs"))
                         .requestFisherYearlyData()
@@ -171,6 +270,28 @@ public class PolicyRuns implements Runnable {
             });
     }
 
+    private void runOnWorkers(final Collection<String> policyNames) {
+        try (final WorkerPool workerPool = WorkerPool.of(numberOfWorkers, remoteWorkers)) {
+            logger.info(String.format(
+                "About to run %d policy sets on %d workers",
+                policyNames.size(),
+                workerPool.size()
+            ));
+            final List<Future<String>> results = policyNames
+                .stream()
+                .map(policyName -> workerPool.submit(new PolicyRunTask(this, policyName)))
+                .collect(toList());
+            for (final Future<String> result : results) {
+                logger.info("Finished running " + result.get());
+            }
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        } catch (final ExecutionException e) {
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
     private Map<String, List<Policy<EpoScenario<?>>>> makePolicies() {
         final List<Integer> yearsActive = ImmutableList.of(2023);
         final ImmutableList<Double> proportions =
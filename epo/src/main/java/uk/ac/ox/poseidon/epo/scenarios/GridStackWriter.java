@@ -0,0 +1,81 @@
+/*
+ * POSEIDON: an agent-based model of fisheries
+ * Copyright (c) 2025, University of Oxford.
+ *
+ * University of Oxford means the Chancellor, Masters and Scholars of the
+ * University of Oxford, having an administrative office at Wellington
+ * Square, Oxford OX1 2JD, UK.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+
+package uk.ac.ox.poseidon.epo.scenarios;
+
+import com.beust.jcommander.Parameter;
+import com.beust.jcommander.converters.PathConverter;
+import uk.ac.ox.oxfish.model.FishState;
+import uk.ac.ox.oxfish.model.scenario.Scenario;
+import uk.ac.ox.oxfish.model.scenario.ScenarioTemplate;
+import uk.ac.ox.poseidon.common.core.geography.GridStack;
+import uk.ac.ox.poseidon.epo.calibration.JCommanderRunnable;
+
+import java.nio.file.Path;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+/**
+ * Converts the gridded inputs of a scenario (allocation grids, environmental grids and current vectors) from CSV to
+ * grid stack files, which later runs read instead. The scenario is started once with
+ * {@value GridStack#CONVERT_ON_FALLBACK_PROPERTY} turned on, so every such file it reads from CSV is converted, with
+ * the map extent and columns it is read with. Files that already have an up-to-date grid stack are left alone.
+ */
+public class GridStackWriter implements JCommanderRunnable {
+
+    @Parameter(description = "The YAML scenario file whose inputs to convert.", converter = PathConverter.class)
+    private Path scenarioFile;
+
+    public static void main(final String[] args) {
+        new GridStackWriter().run(args);
+    }
+
+    @SuppressWarnings("unused")
+    public Path getScenarioFile() {
+        return scenarioFile;
+    }
+
+    @SuppressWarnings("unused")
+    public void setScenarioFile(final Path scenarioFile) {
+        this.scenarioFile = checkNotNull(scenarioFile);
+    }
+
+    @Override
+    public void run() {
+        checkNotNull(scenarioFile, "A scenario file is needed");
+        final Scenario scenario = ScenarioTemplate.of(scenarioFile, Scenario.class).get();
+        final String previousValue = System.setProperty(GridStack.CONVERT_ON_FALLBACK_PROPERTY, "true");
+        try {
+            final FishState fishState = new FishState();
+            fishState.setScenario(scenario);
+            fishState.start();
+            fishState.finish();
+        } finally {
+            if (previousValue == null) {
+                System.clearProperty(GridStack.CONVERT_ON_FALLBACK_PROPERTY);
+            } else {
+                System.setProperty(GridStack.CONVERT_ON_FALLBACK_PROPERTY, previousValue);
+            }
+        }
+    }
+}
@@ -0,0 +1,90 @@
+/*
+ * POSEIDON: an agent-based model of fisheries
+ * Copyright (c) 2025, University of Oxford.
+ *
+ * University of Oxford means the Chancellor, Masters and Scholars of the
+ * University of Oxford, having an administrative office at Wellington
+ * Square, Oxford OX1 2JD, UK.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+
+package uk.ac.ox.poseidon.epo.workers;
+
+import com.google.common.collect.ImmutableSet;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InvalidClassException;
+import java.io.ObjectInputStream;
+import java.io.ObjectStreamClass;
+import java.util.Set;
+
+/**
+ * An object stream that only resolves the classes workers and coordinators actually exchange: project classes (tasks,
+ * including serialized lambdas, and responses), plus strings, boxed primitives and arrays of these. Anything else is
+ * refused before it is instantiated, as are dynamic proxies, so that a connection can't be used to build arbitrary objects from the classpath.
+ */
+final class AllowListObjectInputStream extends ObjectInputStream {
+
+    private static final String ALLOWED_PACKAGE_PREFIX = "uk.ac.ox.";
+    private static final Set<String> ALLOWED_CLASSES = ImmutableSet.of(
+        Object.class.getName(),
+        String.class.getName(),
+        Number.class.getName(),
+        Enum.class.getName(),
+        Boolean.class.getName(),
+        Character.class.getName(),
+        Byte.class.getName(),
+        Short.class.getName(),
+        Integer.class.getName(),
+        Long.class.getName(),
+        Float.class.getName(),
+        Double.class.getName(),
+        java.lang.invoke.SerializedLambda.class.getName()
+    );
+
+    AllowListObjectInputStream(final InputStream in) throws IOException {
+        super(in);
+    }
+
+    static boolean isAllowed(final String className) {
+        String componentName = className;
+        while (componentName.startsWith("[")) {
+            componentName = componentName.substring(1);
+        }
+        if (componentName.length() == 1 && className.startsWith("[")) {
+            return true; // an array of primitives
+        }
+        if (componentName.startsWith("L") && componentName.endsWith(";")) {
+            componentName = componentName.substring(1, componentName.length() - 1);
+        }
+        return componentName.startsWith(ALLOWED_PACKAGE_PREFIX) || ALLOWED_CLASSES.contains(componentName);
+    }
+
+    @Override
+    protected Class<?> resolveClass(final ObjectStreamClass descriptor) throws IOException, ClassNotFoundException {
+        if (!isAllowed(descriptor.getName())) {
+            throw new InvalidClassException(descriptor.getName(), "Not allowed between workers and coordinators");
+        }
+        return super.resolveClass(descriptor);
+    }
+
+    @Override
+    protected Class<?> resolveProxyClass(final String[] interfaces) throws InvalidClassException {
+        throw new InvalidClassException("Proxies are not allowed between workers and coordinators");
+    }
+
+}
@@ -0,0 +1,126 @@
+/*
+ * POSEIDON: an agent-based model of fisheries
+ * Copyright (c) 2025, University of Oxford.
+ *
+ * University of Oxford means the Chancellor, Masters and Scholars of the
+ * University of Oxford, having an administrative office at Wellington
+ * Square, Oxford OX1 2JD, UK.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+
+package uk.ac.ox.poseidon.epo.workers;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.net.Socket;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+/**
+ * The challenge a {@link Worker} puts to each new connection before it reads any object from it: the worker sends a
+ * random nonce and the coordinator must answer with the HMAC of that nonce under the secret shared by the workers of
+ * its pool. The secret itself never goes over the wire. Workers read it from the {@value #SECRET_ENVIRONMENT_VARIABLE}
+ * environment variable, which local workers get from their pool.
+ */
+final class Handshake {
+
+    static final String SECRET_ENVIRONMENT_VARIABLE = "POSEIDON_WORKER_SECRET";
+    private static final String ALGORITHM = "HmacSHA256";
+    private static final int NONCE_LENGTH = 32;
+    private static final SecureRandom random = new SecureRandom();
+
+    private Handshake() {
+    }
+
+    /**
+     * The secret set in the environment, or null if there is none.
+     */
+    static String secretFromEnvironment() {
+        final String secret = System.getenv(SECRET_ENVIRONMENT_VARIABLE);
+        return secret == null || secret.isEmpty() ? null : secret;
+    }
+
+    /**
+     * A random secret, which can be passed to local workers through their environment.
+     */
+    static String newSecret() {
+        final byte[] bytes = new byte[NONCE_LENGTH];
+        random.nextBytes(bytes);
+        final StringBuilder secret = new StringBuilder();
+        for (final byte b : bytes) {
+            secret.append(String.format("%02x", b));
+        }
+        return secret.toString();
+    }
+
+    /**
+     * Run by the worker: returns whether the other end of the socket proved that it knows the secret.
+     */
+    static boolean challenge(
+        final Socket socket,
+        final String secret
+    ) throws IOException {
+        final byte[] nonce = new byte[NONCE_LENGTH];
+        random.nextBytes(nonce);
+        final DataOutputStream out = new DataOutputStream(socket.getOutputStream());
+        out.write(nonce);
+        out.flush();
+        final byte[] answer = new byte[NONCE_LENGTH];
+        new DataInputStream(socket.getInputStream()).readFully(answer);
+        final boolean accepted = MessageDigest.isEqual(answer, hmac(secret, nonce));
+        out.writeBoolean(accepted);
+        out.flush();
+        return accepted;
+    }
+
+    /**
+     * Run by the coordinator: answers the challenge of the worker at the other end of the socket.
+     */
+    static void answer(
+        final Socket socket,
+        final String secret
+    ) throws IOException {
+        final DataInputStream in = new DataInputStream(socket.getInputStream());
+        final byte[] nonce = new byte[NONCE_LENGTH];
+        in.readFully(nonce);
+        final DataOutputStream out = new DataOutputStream(socket.getOutputStream());
+        out.write(hmac(secret, nonce));
+        out.flush();
+        if (!in.readBoolean()) {
+            throw new IOException("The worker rejected the secret of this pool");
+        }
+    }
+
+    private static byte[] hmac(
+        final String secret,
+        final byte[] nonce
+    ) {
+        try {
+            final Mac mac = Mac.getInstance(ALGORITHM);
+            mac.init(new SecretKeySpec(secret.getBytes(UTF_8), ALGORITHM));
+            return mac.doFinal(nonce);
+        } catch (final GeneralSecurityException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+}
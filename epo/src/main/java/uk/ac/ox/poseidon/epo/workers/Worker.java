@@ -0,0 +1,166 @@
+/*
+ * POSEIDON: an agent-based model of fisheries
+ * Copyright (c) 2025, University of Oxford.
+ *
+ * University of Oxford means the Chancellor, Masters and Scholars of the
+ * University of Oxford, having an administrative office at Wellington
+ * Square, Oxford OX1 2JD, UK.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+
+package uk.ac.ox.poseidon.epo.workers;
+
+import com.beust.jcommander.JCommander;
+import com.beust.jcommander.Parameter;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.UncheckedIOException;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+import static com.google.common.base.Preconditions.checkState;
+
+/**
+ * A worker process that runs {@link WorkerTask}s sent by a {@link WorkerPool}, one at a time, for as long as it lives.
+ * Because the process is reused, its input caches stay warm from one task to the next.
+ * <p>
+ * Local workers are started by the pool itself. To use workers on other hosts, start them with, e.g.,
+ * {@code --bind_address 0.0.0.0 --port 5000} and give their addresses to the coordinator. Workers only accept
+ * connections from coordinators that know their secret, which is read from the
+ * {@value Handshake#SECRET_ENVIRONMENT_VARIABLE} environment variable and must be the same on all the hosts. Tasks
+ * are Java-serialized objects, so the classes a worker resolves are also restricted, but workers should still only
+ * be reachable from a trusted network.
+ */
+public final class Worker implements Runnable {
+
+    static final String PORT_ANNOUNCEMENT = "POSEIDON worker listening on port ";
+    private static final int HANDSHAKE_TIMEOUT_MILLIS = 30_000;
+    private static final Logger logger = Logger.getLogger(Worker.class.getName());
+
+    @Parameter(names = "--port", description = "Port to listen on; 0 picks a free one.")
+    private int port = 0;
+    @Parameter(names = "--bind_address")
+    private String bindAddress = InetAddress.getLoopbackAddress().getHostAddress();
+
+    public static void main(final String[] args) {
+        final Worker worker = new Worker();
+        JCommander.newBuilder()
+            .addObject(worker)
+            .build()
+            .parse(args);
+        worker.run();
+    }
+
+    /**
+     * Serves coordinator connections one after the other until the server socket is closed.
+     */
+    static void serve(
+        final ServerSocket serverSocket,
+        final String secret
+    ) {
+        checkNotNull(secret);
+        while (!serverSocket.isClosed()) {
+            try (final Socket socket = serverSocket.accept()) {
+                serve(socket, secret);
+            } catch (final IOException e) {
+                if (!serverSocket.isClosed()) {
+                    logger.log(Level.WARNING, "Lost connection to coordinator", e);
+                }
+            }
+        }
+    }
+
+    private static void serve(
+        final Socket socket,
+        final String secret
+    ) throws IOException {
+        // don't let a silent connection hold up the worker
+        socket.setSoTimeout(HANDSHAKE_TIMEOUT_MILLIS);
+        if (!Handshake.challenge(socket, secret)) {
+            logger.warning("Rejected a connection from " + socket.getRemoteSocketAddress() + ": wrong secret");
+            return;
+        }
+        socket.setSoTimeout(0);
+        final ObjectOutputStream out = new ObjectOutputStream(new BufferedOutputStream(socket.getOutputStream()));
+        out.flush();
+        final ObjectInputStream in =
+            new AllowListObjectInputStream(new BufferedInputStream(socket.getInputStream()));
+        while (true) {
+            final Object task;
+            try {
+                task = in.readObject();
+            } catch (final EOFException e) {
+                return; // the coordinator closed the connection
+            } catch (final ClassNotFoundException e) {
+                throw new IOException("Worker and coordinator classpaths differ", e);
+            }
+            WorkerResponse response;
+            try {
+                response = WorkerResponse.success(((WorkerTask<?>) task).call());
+            } catch (final Exception e) {
+                response = WorkerResponse.failure(e);
+            }
+            out.writeObject(response);
+            // don't keep references to everything we've ever sent
+            out.reset();
+            out.flush();
+        }
+    }
+
+    @SuppressWarnings("unused")
+    public int getPort() {
+        return port;
+    }
+
+    @SuppressWarnings("unused")
+    public void setPort(final int port) {
+        this.port = port;
+    }
+
+    @SuppressWarnings("unused")
+    public String getBindAddress() {
+        return bindAddress;
+    }
+
+    @SuppressWarnings("unused")
+    public void setBindAddress(final String bindAddress) {
+        this.bindAddress = bindAddress;
+    }
+
+    @Override
+    public void run() {
+        final String secret = Handshake.secretFromEnvironment();
+        checkState(secret != null, "Workers need a secret: set %s", Handshake.SECRET_ENVIRONMENT_VARIABLE);
+        try (final ServerSocket serverSocket = new ServerSocket(port, 0, InetAddress.getByName(bindAddress))) {
+            // The pool reads this line to find out which port to connect to.
+            System.out.println(PORT_ANNOUNCEMENT + serverSocket.getLocalPort());
+            System.out.flush();
+            serve(serverSocket, secret);
+        } catch (final IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+}
@@ -0,0 +1,40 @@
+/*
+ * POSEIDON: an agent-based model of fisheries
+ * Copyright (c) 2025, University of Oxford.
+ *
+ * University of Oxford means the Chancellor, Masters and Scholars of the
+ * University of Oxford, having an administrative office at Wellington
+ * Square, Oxford OX1 2JD, UK.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+
+package uk.ac.ox.poseidon.epo.workers;
+
+import com.beust.jcommander.IStringConverter;
+import com.google.common.net.HostAndPort;
+
+import java.net.InetSocketAddress;
+
+/**
+ * Converts a {@code host:port} command line argument to the address of a remote {@link Worker}.
+ */
+public class WorkerAddressConverter implements IStringConverter<InetSocketAddress> {
+    @Override
+    public InetSocketAddress convert(final String value) {
+        final HostAndPort hostAndPort = HostAndPort.fromString(value);
+        return new InetSocketAddress(hostAndPort.getHost(), hostAndPort.getPort());
+    }
+}
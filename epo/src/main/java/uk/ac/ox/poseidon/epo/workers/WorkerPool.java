@@ -0,0 +1,368 @@
+/*
+ * POSEIDON: an agent-based model of fisheries
+ * Copyright (c) 2025, University of Oxford.
+ *
+ * University of Oxford means the Chancellor, Masters and Scholars of the
+ * University of Oxford, having an administrative office at Wellington
+ * Square, Oxford OX1 2JD, UK.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+
+package uk.ac.ox.poseidon.epo.workers;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.Serializable;
+import java.io.UncheckedIOException;
+import java.lang.management.ManagementFactory;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.nio.file.Paths;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.logging.Logger;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+import static com.google.common.collect.ImmutableList.toImmutableList;
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+/**
+ * Hands {@link WorkerTask}s to a set of {@link Worker} processes, each running one task at a time. Workers can be JVMs
+ * forked on this machine, which the pool restarts if they crash, or workers already listening on other hosts, which
+ * the pool reconnects to. A task that fails because its worker went away is retried on the restarted worker.
+ * <p>
+ * The pool proves to each worker that it knows their shared secret before sending anything. Local workers are given
+ * a random secret, unless one is set in the {@value Handshake#SECRET_ENVIRONMENT_VARIABLE} environment variable,
+ * which remote workers need.
+ */
+public final class WorkerPool implements AutoCloseable {
+
+    private static final Logger logger = Logger.getLogger(WorkerPool.class.getName());
+    private static final int MAX_ATTEMPTS = 3;
+    private static final int CONNECTION_TIMEOUT_MILLIS = 30_000;
+
+    private final List<Connection> connections;
+    private final BlockingQueue<Connection> idleConnections;
+    private final ExecutorService executor;
+
+    private WorkerPool(final List<Connection> connections) {
+        checkArgument(!connections.isEmpty(), "A worker pool needs at least one worker.");
+        this.connections = connections;
+        this.idleConnections = new LinkedBlockingQueue<>(connections);
+        this.executor = Executors.newFixedThreadPool(
+            connections.size(),
+            new ThreadFactoryBuilder().setNameFormat("worker-pool-%d").setDaemon(true).build()
+        );
+    }
+
+    /**
+     * Forks worker JVMs on this machine, using the same classpath and JVM arguments as this one.
+     */
+    public static WorkerPool local(final int numberOfWorkers) {
+        return of(numberOfWorkers, ImmutableList.of());
+    }
+
+    /**
+     * Connects to workers that are already listening at the given addresses and share the given secret.
+     */
+    public static WorkerPool remote(
+        final List<InetSocketAddress> addresses,
+        final String secret
+    ) {
+        return of(0, addresses, secret);
+    }
+
+    /**
+     * Uses the secret from the environment, which is only optional if all the workers are local.
+     */
+    public static WorkerPool of(
+        final int numberOfLocalWorkers,
+        final List<InetSocketAddress> remoteAddresses
+    ) {
+        final String secret = Handshake.secretFromEnvironment();
+        checkArgument(
+            remoteAddresses.isEmpty() || secret != null,
+            "Remote workers need a shared secret: set %s here and on their hosts",
+            Handshake.SECRET_ENVIRONMENT_VARIABLE
+        );
+        return of(
+            numberOfLocalWorkers,
+            remoteAddresses,
+            secret == null ? Handshake.newSecret() : secret
+        );
+    }
+
+    public static WorkerPool of(
+        final int numberOfLocalWorkers,
+        final List<InetSocketAddress> remoteAddresses,
+        final String secret
+    ) {
+        checkArgument(!checkNotNull(secret).isEmpty(), "The secret can't be empty");
+        final List<String> jvmArguments = ManagementFactory
+            .getRuntimeMXBean()
+            .getInputArguments()
+            .stream()
+            // a forked debugger agent would try to listen on the same port
+            .filter(argument -> !argument.startsWith("-agentlib:jdwp") && !argument.startsWith("-Xrunjdwp"))
+            .collect(toImmutableList());
+        final List<Connection> connections = Stream.concat(
+            IntStream.range(0, numberOfLocalWorkers).mapToObj(i -> new LocalConnection(i, jvmArguments, secret)),
+            remoteAddresses.stream().map(address -> new RemoteConnection(address, secret))
+        ).collect(toImmutableList());
+        final WorkerPool workerPool = new WorkerPool(connections);
+        try {
+            for (final Connection connection : connections) {
+                connection.connect();
+            }
+        } catch (final IOException e) {
+            workerPool.close();
+            throw new UncheckedIOException("Unable to start worker pool", e);
+        }
+        return workerPool;
+    }
+
+    public int size() {
+        return connections.size();
+    }
+
+    public <R extends Serializable> Future<R> submit(final WorkerTask<R> task) {
+        return executor.submit(() -> execute(task));
+    }
+
+    /**
+     * Runs a task on the next available worker and waits for its result.
+     */
+    public <R extends Serializable> R invoke(final WorkerTask<R> task) {
+        try {
+            return submit(task).get();
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        } catch (final ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    private <R extends Serializable> R execute(final WorkerTask<R> task) throws InterruptedException {
+        final Connection connection = idleConnections.take();
+        try {
+            IOException lastFailure = null;
+            for (int attempt = 1; attempt <= MAX_ATTEMPTS; attempt++) {
+                try {
+                    if (lastFailure != null) {
+                        connection.connect();
+                    }
+                    return connection.send(task);
+                } catch (final IOException e) {
+                    lastFailure = e;
+                    logger.warning(String.format(
+                        "Lost %s (attempt %d / %d): %s",
+                        connection,
+                        attempt,
+                        MAX_ATTEMPTS,
+                        e
+                    ));
+                }
+            }
+            throw new UncheckedIOException(connection + " keeps failing", lastFailure);
+        } finally {
+            idleConnections.add(connection);
+        }
+    }
+
+    @Override
+    public void close() {
+        executor.shutdownNow();
+        connections.forEach(Connection::close);
+    }
+
+    private abstract static class Connection {
+
+        final String secret;
+        private Socket socket;
+        private ObjectOutputStream out;
+        private ObjectInputStream in;
+
+        Connection(final String secret) {
+            this.secret = secret;
+        }
+
+        /**
+         * Makes sure that the worker is running and returns its address.
+         */
+        abstract InetSocketAddress startWorker() throws IOException;
+
+        /**
+         * (Re)connects to the worker, restarting it if needed.
+         */
+        void connect() throws IOException {
+            disconnect();
+            final InetSocketAddress address = startWorker();
+            socket = new Socket();
+            socket.connect(address, CONNECTION_TIMEOUT_MILLIS);
+            socket.setSoTimeout(CONNECTION_TIMEOUT_MILLIS);
+            Handshake.answer(socket, secret);
+            socket.setSoTimeout(0);
+            out = new ObjectOutputStream(new BufferedOutputStream(socket.getOutputStream()));
+            out.flush();
+            in = new AllowListObjectInputStream(new BufferedInputStream(socket.getInputStream()));
+        }
+
+        @SuppressWarnings("unchecked")
+        <R extends Serializable> R send(final WorkerTask<R> task) throws IOException {
+            out.writeObject(task);
+            out.reset();
+            out.flush();
+            try {
+                return (R) ((WorkerResponse) in.readObject()).getResult();
+            } catch (final ClassNotFoundException e) {
+                throw new IOException("Worker and coordinator classpaths differ", e);
+            }
+        }
+
+        void disconnect() {
+            if (socket != null) {
+                try {
+                    socket.close();
+                } catch (final IOException ignored) {
+                    // we're throwing it away anyway
+                }
+                socket = null;
+            }
+        }
+
+        void close() {
+            disconnect();
+        }
+    }
+
+    private static final class LocalConnection extends Connection {
+
+        private final int id;
+        private final List<String> jvmArguments;
+        private Process process;
+
+        private LocalConnection(
+            final int id,
+            final List<String> jvmArguments,
+            final String secret
+        ) {
+            super(secret);
+            this.id = id;
+            this.jvmArguments = jvmArguments;
+        }
+
+        @Override
+        InetSocketAddress startWorker() throws IOException {
+            if (process != null) {
+                process.destroyForcibly();
+            }
+            final String java = Paths.get(System.getProperty("java.home"), "bin", "java").toString();
+            final ProcessBuilder processBuilder = new ProcessBuilder(
+                ImmutableList.<String>builder()
+                    .add(java)
+                    .addAll(jvmArguments)
+                    .add("-cp", System.getProperty("java.class.path"))
+                    .add(Worker.class.getName())
+                    .build()
+            ).redirectErrorStream(true);
+            // passed through the environment rather than the command line, which other users can see
+            processBuilder.environment().put(Handshake.SECRET_ENVIRONMENT_VARIABLE, secret);
+            process = processBuilder.start();
+            final BufferedReader output = new BufferedReader(new InputStreamReader(process.getInputStream(), UTF_8));
+            String line;
+            while ((line = output.readLine()) != null && !line.startsWith(Worker.PORT_ANNOUNCEMENT)) {
+                System.out.println("[" + this + "] " + line);
+            }
+            if (line == null) {
+                throw new IOException(this + " exited before listening for tasks");
+            }
+            final int port = Integer.parseInt(line.substring(Worker.PORT_ANNOUNCEMENT.length()).trim());
+            final Thread outputForwarder = new Thread(() -> forwardOutput(output), this + " output");
+            outputForwarder.setDaemon(true);
+            outputForwarder.start();
+            return new InetSocketAddress(InetAddress.getLoopbackAddress(), port);
+        }
+
+        private void forwardOutput(final BufferedReader output) {
+            try {
+                String line;
+                while ((line = output.readLine()) != null) {
+                    System.out.println("[" + this + "] " + line);
+                }
+            } catch (final IOException ignored) {
+                // the worker is gone
+            }
+        }
+
+        @Override
+        void close() {
+            super.close();
+            if (process != null) {
+                process.destroy();
+            }
+        }
+
+        @Override
+        public String toString() {
+            return "local worker " + id;
+        }
+    }
+
+    private static final class RemoteConnection extends Connection {
+
+        private final InetSocketAddress address;
+
+        private RemoteConnection(
+            final InetSocketAddress address,
+            final String secret
+        ) {
+            super(secret);
+            this.address = address;
+        }
+
+        @Override
+        InetSocketAddress startWorker() {
+            return address;
+        }
+
+        @Override
+        public String toString() {
+            return "worker at " + address;
+        }
+    }
+
+}
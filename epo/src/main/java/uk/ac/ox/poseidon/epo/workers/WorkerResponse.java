@@ -0,0 +1,63 @@
+/*
+ * POSEIDON: an agent-based model of fisheries
+ * Copyright (c) 2025, University of Oxford.
+ *
+ * University of Oxford means the Chancellor, Masters and Scholars of the
+ * University of Oxford, having an administrative office at Wellington
+ * Square, Oxford OX1 2JD, UK.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+
+package uk.ac.ox.poseidon.epo.workers;
+
+import com.google.common.base.Throwables;
+
+import java.io.Serializable;
+
+/**
+ * What a {@link Worker} sends back for each task: either its result or, if it failed, the stack trace of the failure,
+ * which is sent as a string because exceptions aren't always serializable.
+ */
+final class WorkerResponse implements Serializable {
+
+    private static final long serialVersionUID = -1838419366542813154L;
+    private final Serializable result;
+    private final String failure;
+
+    private WorkerResponse(
+        final Serializable result,
+        final String failure
+    ) {
+        this.result = result;
+        this.failure = failure;
+    }
+
+    static WorkerResponse success(final Serializable result) {
+        return new WorkerResponse(result, null);
+    }
+
+    static WorkerResponse failure(final Throwable throwable) {
+        return new WorkerResponse(null, Throwables.getStackTraceAsString(throwable));
+    }
+
+    Serializable getResult() {
+        if (failure != null) {
+            throw new IllegalStateException("Task failed on worker:\n" + failure);
+        }
+        return result;
+    }
+
+}
@@ -0,0 +1,39 @@
+/*
+ * POSEIDON: an agent-based model of fisheries
+ * Copyright (c) 2025, University of Oxford.
+ *
+ * University of Oxford means the Chancellor, Masters and Scholars of the
+ * University of Oxford, having an administrative office at Wellington
+ * Square, Oxford OX1 2JD, UK.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+
+package uk.ac.ox.poseidon.epo.workers;
+
+import java.io.Serializable;
+
+/**
+ * A unit of work sent by a {@link WorkerPool} to a {@link Worker}. Tasks are sent with Java serialization, so their
+ * classes must be on the worker's classpath. Only project classes, strings, boxed primitives and arrays of these are
+ * accepted on either side (see {@link AllowListObjectInputStream}), so results should be of those types too. Static
+ * state set by a task, like caches, survives from one task to the next in the same worker.
+ *
+ * @param <R> the type of result sent back to the coordinator
+ */
+@FunctionalInterface
+public interface WorkerTask<R extends Serializable> extends Serializable {
+    R call() throws Exception;
+}
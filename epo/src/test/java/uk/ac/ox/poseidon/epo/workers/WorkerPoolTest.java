@@ -0,0 +1,150 @@
+/*
+ * POSEIDON: an agent-based model of fisheries
+ * Copyright (c) 2025, University of Oxford.
+ *
+ * University of Oxford means the Chancellor, Masters and Scholars of the
+ * University of Oxford, having an administrative office at Wellington
+ * Square, Oxford OX1 2JD, UK.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+
+package uk.ac.ox.poseidon.epo.workers;
+
+import com.google.common.collect.ImmutableList;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InvalidClassException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.Serializable;
+import java.io.UncheckedIOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.util.ArrayList;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Uses a worker running in a thread of this JVM and listening on localhost, as a stand-in for a remote worker.
+ */
+public class WorkerPoolTest {
+
+    private static final String SECRET = "test secret";
+    private static final AtomicInteger counter = new AtomicInteger();
+    private static final AtomicBoolean crashed = new AtomicBoolean();
+
+    private ServerSocket serverSocket;
+    private WorkerPool workerPool;
+
+    @BeforeEach
+    public void setUp() throws IOException {
+        serverSocket = new ServerSocket(0, 0, InetAddress.getLoopbackAddress());
+        startWorker(serverSocket);
+        workerPool = WorkerPool.remote(ImmutableList.of(addressOf(serverSocket)), SECRET);
+    }
+
+    private static void startWorker(final ServerSocket serverSocket) {
+        final Thread worker = new Thread(() -> Worker.serve(serverSocket, SECRET));
+        worker.setDaemon(true);
+        worker.start();
+    }
+
+    private static InetSocketAddress addressOf(final ServerSocket serverSocket) {
+        return new InetSocketAddress(InetAddress.getLoopbackAddress(), serverSocket.getLocalPort());
+    }
+
+    @AfterEach
+    public void tearDown() throws IOException {
+        workerPool.close();
+        serverSocket.close();
+    }
+
+    @Test
+    public void tasksRunOnTheWorker() {
+        Assertions.assertEquals("hello", workerPool.invoke(() -> "hello"));
+        // static state is kept between tasks
+        final int before = counter.get();
+        workerPool.invoke(() -> counter.incrementAndGet());
+        Assertions.assertEquals(before + 2, (int) workerPool.invoke(() -> counter.incrementAndGet()));
+    }
+
+    @Test
+    public void failuresAreReportedWithoutLosingTheWorker() {
+        final IllegalStateException e = Assertions.assertThrows(
+            IllegalStateException.class,
+            () -> workerPool.invoke(() -> {
+                throw new IllegalArgumentException("boom");
+            })
+        );
+        Assertions.assertTrue(e.getMessage().contains("boom"));
+        Assertions.assertEquals(42, (int) workerPool.invoke(() -> 42));
+    }
+
+    @Test
+    public void tasksAreRetriedWhenTheConnectionIsLost() {
+        crashed.set(false);
+        // The first attempt breaks the connection by sending back something that can't be serialized.
+        final Serializable result = workerPool.invoke(() ->
+            crashed.getAndSet(true) ? "recovered" : new Unserializable()
+        );
+        Assertions.assertEquals("recovered", result);
+    }
+
+    @Test
+    public void coordinatorsWithoutTheSecretAreRejected() throws IOException {
+        try (final ServerSocket otherServerSocket = new ServerSocket(0, 0, InetAddress.getLoopbackAddress())) {
+            startWorker(otherServerSocket);
+            Assertions.assertThrows(
+                UncheckedIOException.class,
+                () -> WorkerPool.remote(ImmutableList.of(addressOf(otherServerSocket)), "wrong secret")
+            );
+            // the worker is still there for coordinators that know the secret
+            try (final WorkerPool otherWorkerPool =
+                     WorkerPool.remote(ImmutableList.of(addressOf(otherServerSocket)), SECRET)) {
+                Assertions.assertEquals("hello", otherWorkerPool.invoke(() -> "hello"));
+            }
+        }
+    }
+
+    @Test
+    public void onlyAllowedClassesAreDeserialized() throws IOException {
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (final ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+            out.writeObject(new double[]{1, 2});
+            out.writeObject("hello");
+            out.writeObject(new ArrayList<>());
+        }
+        try (final ObjectInputStream in =
+                 new AllowListObjectInputStream(new ByteArrayInputStream(bytes.toByteArray()))) {
+            Assertions.assertDoesNotThrow(in::readObject);
+            Assertions.assertDoesNotThrow(in::readObject);
+            Assertions.assertThrows(InvalidClassException.class, in::readObject);
+        }
+    }
+
+    private static class Unserializable implements Serializable {
+        private static final long serialVersionUID = 1L;
+        @SuppressWarnings("unused")
+        private final Object notSerializable = new Object();
+    }
+}
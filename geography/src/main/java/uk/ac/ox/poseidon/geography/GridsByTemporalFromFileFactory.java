@@ -22,16 +22,24 @@
 
 package uk.ac.ox.poseidon.geography;
 
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.Maps;
 import uk.ac.ox.poseidon.common.api.ComponentFactory;
 import uk.ac.ox.poseidon.common.api.ModelState;
 import uk.ac.ox.poseidon.common.core.csv.GroupedRecordProcessorFactory;
+import uk.ac.ox.poseidon.common.core.geography.GridStack;
+import uk.ac.ox.poseidon.common.core.geography.MapExtent;
 import uk.ac.ox.poseidon.common.core.geography.MapExtentFactory;
 import uk.ac.ox.poseidon.common.core.parameters.InputPath;
 import uk.ac.ox.poseidon.common.core.parameters.StringParameter;
 import uk.ac.ox.poseidon.common.core.temporal.NavigableTemporalMap;
 import uk.ac.ox.poseidon.common.core.temporal.NavigableTemporalMapFromFileFactory;
 
+import java.time.LocalDate;
 import java.time.temporal.TemporalAccessor;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 
 public abstract class GridsByTemporalFromFileFactory<T>
     implements ComponentFactory<NavigableTemporalMap<T, DoubleGrid>> {
@@ -127,8 +135,66 @@ public abstract class GridsByTemporalFromFileFactory<T>
         this.filePath = filePath;
     }
 
+    /**
+     * Reads the grids from the grid stack file next to the CSV file if there is an up-to-date one, and from the CSV
+     * file otherwise.
+     */
     @Override
     public NavigableTemporalMap<T, DoubleGrid> apply(final ModelState modelState) {
+        final MapExtent mapExtent = mapExtentFactory.apply(modelState);
+        return GridStack.readIfUpToDate(filePath.get(), mapExtent)
+            .filter(gridStack -> gridStack.getKeyColumns().isEmpty())
+            .filter(gridStack -> gridStack.getValueColumns().equals(ImmutableList.of(valueColumnName.getValue())))
+            .map(gridStack -> new NavigableTemporalMap<>(readGrids(gridStack, mapExtent), this::temporalToKey))
+            .orElseGet(() -> {
+                final NavigableTemporalMap<T, DoubleGrid> grids = readGridsFromFile(modelState);
+                if (GridStack.isConvertingOnFallback())
+                    writeGridStack(modelState);
+                return grids;
+            });
+    }
+
+    /**
+     * Converts the CSV file to a grid stack file, which will be read instead of the CSV file from now on. The group
+     * column must hold ISO dates.
+     */
+    public void writeGridStack(final ModelState modelState) {
+        GridStack.convert(
+            filePath.get(),
+            GridStack.gridStackFileFor(filePath.get()),
+            mapExtentFactory.apply(modelState),
+            record -> LocalDate.parse(record.getString(groupColumnName.getValue())),
+            ImmutableList.of(),
+            longitudeColumnName.getValue(),
+            latitudeColumnName.getValue(),
+            ImmutableList.of(valueColumnName.getValue())
+        );
+    }
+
+    private Map<T, DoubleGrid> readGrids(
+        final GridStack gridStack,
+        final MapExtent mapExtent
+    ) {
+        // dates falling in the same group are overlaid in order, like their records would be
+        final Map<T, double[][]> valuesByGroup = new LinkedHashMap<>();
+        final List<LocalDate> dates = gridStack.getDates();
+        for (int d = 0; d < dates.size(); d++) {
+            if (gridStack.hasPlane(d, 0)) {
+                gridStack.copyInto(
+                    valuesByGroup.computeIfAbsent(
+                        readGroupColumn(dates.get(d).toString()),
+                        __ -> new double[mapExtent.getGridWidth()][mapExtent.getGridHeight()]
+                    ),
+                    d,
+                    0,
+                    0
+                );
+            }
+        }
+        return Maps.transformValues(valuesByGroup, values -> DoubleGrid.from(mapExtent, values));
+    }
+
+    private NavigableTemporalMap<T, DoubleGrid> readGridsFromFile(final ModelState modelState) {
         return new NavigableTemporalMapFromFileFactory<>(
             this::temporalToKey,
             filePath,
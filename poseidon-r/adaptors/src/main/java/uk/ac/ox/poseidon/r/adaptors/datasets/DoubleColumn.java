@@ -29,7 +29,7 @@ import java.util.stream.Stream;
 
 public class DoubleColumn extends RColumn<Double> {
 
-    protected static final double NA_REAL = Double.longBitsToDouble(0x7ff00000000007a2L);
+    public static final double NA_REAL = Double.longBitsToDouble(0x7ff00000000007a2L);
     private final double[] doubles;
 
     public DoubleColumn(
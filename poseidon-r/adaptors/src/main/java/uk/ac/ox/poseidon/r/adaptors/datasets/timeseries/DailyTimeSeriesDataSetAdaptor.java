@@ -42,7 +42,7 @@ class DailyTimeSeriesDataSetAdaptor extends TimeSeriesDataSetAdaptor {
     @Override
     TableAdaptor makeTable(final DataColumn dataColumn) {
         final DoubleColumn valueColumn =
-            new DoubleColumn("value", dataColumn);
+            new DoubleColumn("value", dataColumn.toArray(DoubleColumn.NA_REAL));
         return new TableAdaptor(
             new DailyIndexColumn<>(
                 getIndexColumnName(),
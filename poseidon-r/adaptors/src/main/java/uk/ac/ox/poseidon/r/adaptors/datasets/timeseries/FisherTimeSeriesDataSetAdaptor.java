@@ -31,6 +31,7 @@ import uk.ac.ox.poseidon.r.adaptors.datasets.ArrayColumn;
 import uk.ac.ox.poseidon.r.adaptors.datasets.DoubleColumn;
 import uk.ac.ox.poseidon.r.adaptors.datasets.RColumn;
 
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.List;
 import java.util.Map;
@@ -88,9 +89,9 @@ public abstract class FisherTimeSeriesDataSetAdaptor implements Dataset {
                     ),
                     new DoubleColumn(
                         "value",
-                        entries.stream().flatMap(fisherDataColumnEntry ->
-                            fisherDataColumnEntry.getValue().stream()
-                        )
+                        entries.stream().flatMapToDouble(fisherDataColumnEntry ->
+                            Arrays.stream(fisherDataColumnEntry.getValue().toArray(DoubleColumn.NA_REAL))
+                        ).toArray()
                     )
                 )
             )
@@ -41,7 +41,7 @@ class YearlyTimeSeriesDataSetAdaptor extends TimeSeriesDataSetAdaptor {
     @Override
     Table makeTable(final DataColumn dataColumn) {
         final DoubleColumn valueColumn =
-            new DoubleColumn("value", dataColumn);
+            new DoubleColumn("value", dataColumn.toArray(DoubleColumn.NA_REAL));
         return new TableAdaptor(
             new YearlyIndexColumn(
                 getIndexColumnName(), valueColumn, startYear
@@ -46,6 +46,11 @@ public class ForbiddenAreasFromShapeFiles implements ComponentFactory<Regulation
 
     private InputPath shapeFilesFolder;
     private InputPath tagsFile;
+    /**
+     * If true, the areas are rasterized onto the map grid (see {@link RasterizedConditionFactory}): faster, but every
+     * coordinate within a cell gets the answer for the cell's own coordinates. Off by default.
+     */
+    private boolean rasterized = false;
 
     public ForbiddenAreasFromShapeFiles() {
     }
@@ -87,7 +92,7 @@ public class ForbiddenAreasFromShapeFiles implements ComponentFactory<Regulation
                     )
                 );
 
-        return new ForbiddenIfFactory(
+        final ComponentFactory<Condition> condition =
             new AnyOfFactory(
                 tagsByNameByYear.entrySet().stream().map(yearAndTagsByName ->
                     new AllOfFactory(
@@ -102,7 +107,12 @@ public class ForbiddenAreasFromShapeFiles implements ComponentFactory<Regulation
                         )
                     )
                 )
-            )
+            );
+
+        // The tree only has year, tag and area leaves, so when rasterized, it is folded into one bitmap of cells per
+        // year and tags
+        return new ForbiddenIfFactory(
+            rasterized ? new RasterizedConditionFactory(condition) : condition
         ).apply(modelState);
 
     }
@@ -129,4 +139,12 @@ public class ForbiddenAreasFromShapeFiles implements ComponentFactory<Regulation
         this.tagsFile = tagsFile;
     }
 
+    public boolean isRasterized() {
+        return rasterized;
+    }
+
+    public void setRasterized(final boolean rasterized) {
+        this.rasterized = rasterized;
+    }
+
 }
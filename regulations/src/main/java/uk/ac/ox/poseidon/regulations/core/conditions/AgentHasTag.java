@@ -32,6 +32,10 @@ public class AgentHasTag implements Condition {
         this.tag = tag;
     }
 
+    public String getTag() {
+        return tag;
+    }
+
     @Override
     public boolean test(final Action action) {
         return action.getAgent().getTags().contains(tag);
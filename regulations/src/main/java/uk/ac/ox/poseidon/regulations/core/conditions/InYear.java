@@ -32,6 +32,10 @@ public class InYear extends AbstractDateCondition {
         this.year = year;
     }
 
+    public int getYear() {
+        return year;
+    }
+
     @Override
     boolean test(final LocalDate date) {
         return date.getYear() == year;
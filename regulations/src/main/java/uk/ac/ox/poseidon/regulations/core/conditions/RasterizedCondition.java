@@ -0,0 +1,237 @@
+/*
+ * POSEIDON: an agent-based model of fisheries
+ * Copyright (c) 2025, University of Oxford.
+ *
+ * University of Oxford means the Chancellor, Masters and Scholars of the
+ * University of Oxford, having an administrative office at Wellington
+ * Square, Oxford OX1 2JD, UK.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+
+package uk.ac.ox.poseidon.regulations.core.conditions;
+
+import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.Sets;
+import com.vividsolutions.jts.geom.Coordinate;
+import uk.ac.ox.poseidon.agents.api.Action;
+import uk.ac.ox.poseidon.common.core.geography.MapExtent;
+import uk.ac.ox.poseidon.regulations.api.Condition;
+
+import java.time.LocalDateTime;
+import java.util.BitSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+import static com.google.common.collect.ImmutableList.toImmutableList;
+import static com.google.common.collect.ImmutableSet.toImmutableSet;
+import static uk.ac.ox.poseidon.common.core.Entry.entry;
+
+/**
+ * A condition made of coordinate, year and tag leaves combined with {@link AnyOf}, {@link AllOf} and {@link Not},
+ * compiled onto the cells of a {@link MapExtent}. Each coordinate leaf is evaluated once per cell, at the cell's
+ * coordinates, and the year and tag leaves are folded into one bitmap of cells per year and set of agent tags, so
+ * testing an action is a map lookup and a bit lookup.
+ * <p>
+ * Actions are tested at the resolution of the grid: all coordinates within a cell get the result of the cell's own
+ * coordinates. Actions outside the extent, or without an agent, are tested against the original condition.
+ */
+public class RasterizedCondition implements Condition {
+
+    private final Condition condition;
+    private final MapExtent mapExtent;
+    private final int numberOfCells;
+    /**
+     * the tags the condition looks at: agent tags are narrowed down to these before looking up the bitmaps
+     */
+    private final Set<String> tags;
+    private final Node root;
+    /**
+     * one bitmap per year and set of tags, with a bit per cell and a last bit for actions without coordinates
+     */
+    private final Map<Map.Entry<Integer, Set<String>>, BitSet> bitmaps = new ConcurrentHashMap<>();
+
+    private RasterizedCondition(
+        final Condition condition,
+        final MapExtent mapExtent
+    ) {
+        this.condition = condition;
+        this.mapExtent = checkNotNull(mapExtent);
+        this.numberOfCells = mapExtent.getGridWidth() * mapExtent.getGridHeight();
+        final ImmutableSet.Builder<String> tags = ImmutableSet.builder();
+        this.root = fold(condition, tags);
+        this.tags = tags.build();
+    }
+
+    /**
+     * Rasterizes the largest subtrees of the condition that can be folded and that look at coordinates, and rebuilds
+     * the operators above them. Leaves that can't be folded (dates, action codes, quantities...) are kept as they are.
+     */
+    public static Condition compile(
+        final Condition condition,
+        final MapExtent mapExtent
+    ) {
+        if (isFoldable(condition))
+            return isSpatial(condition) ? new RasterizedCondition(condition, mapExtent) : condition;
+        else if (condition instanceof AnyOf)
+            return new AnyOf(compileAll(condition.getSubConditions(), mapExtent));
+        else if (condition instanceof AllOf)
+            return new AllOf(compileAll(condition.getSubConditions(), mapExtent));
+        else if (condition instanceof Not)
+            return new Not(compile(((Not) condition).getSubCondition(), mapExtent));
+        else
+            return condition;
+    }
+
+    private static Set<Condition> compileAll(
+        final Set<Condition> conditions,
+        final MapExtent mapExtent
+    ) {
+        return conditions.stream().map(condition -> compile(condition, mapExtent)).collect(toImmutableSet());
+    }
+
+    private static boolean isFoldable(final Condition condition) {
+        if (condition instanceof AnyOf || condition instanceof AllOf || condition instanceof Not)
+            return condition.getSubConditions().stream().allMatch(RasterizedCondition::isFoldable);
+        return condition instanceof CachedCoordinateCondition ||
+            condition instanceof InYear ||
+            condition instanceof AgentHasTag ||
+            condition instanceof True ||
+            condition instanceof False;
+    }
+
+    private static boolean isSpatial(final Condition condition) {
+        return condition instanceof CachedCoordinateCondition ||
+            condition.getSubConditions().stream().anyMatch(RasterizedCondition::isSpatial);
+    }
+
+    public Condition getCondition() {
+        return condition;
+    }
+
+    /**
+     * The sub-conditions of the original condition, so that code walking the tree sees through the rasterization.
+     */
+    @Override
+    public Set<Condition> getSubConditions() {
+        return condition.getSubConditions();
+    }
+
+    @Override
+    public boolean test(final Action action) {
+        final int bit;
+        final Optional<Coordinate> coordinate = action.getCoordinate();
+        if (coordinate.isPresent()) {
+            final int x = mapExtent.toGridX(coordinate.get().x);
+            final int y = mapExtent.toGridY(coordinate.get().y);
+            if (x < 0 || y < 0 || x >= mapExtent.getGridWidth() || y >= mapExtent.getGridHeight())
+                return condition.test(action);
+            bit = toIndex(x, y);
+        } else
+            bit = numberOfCells;
+        if (action.getAgent() == null)
+            return condition.test(action);
+        final Integer year = action.getDateTime().map(LocalDateTime::getYear).orElse(null);
+        final Set<String> agentTags = ImmutableSet.copyOf(Sets.intersection(tags, action.getAgent().getTags()));
+        return bitmaps
+            .computeIfAbsent(entry(year, agentTags), key -> root.evaluate(key.getKey(), key.getValue()))
+            .get(bit);
+    }
+
+    private int toIndex(
+        final int x,
+        final int y
+    ) {
+        return x * mapExtent.getGridHeight() + y;
+    }
+
+    private Node fold(
+        final Condition condition,
+        final ImmutableSet.Builder<String> tags
+    ) {
+        if (condition instanceof CachedCoordinateCondition) {
+            final BitSet raster = rasterize((CachedCoordinateCondition) condition);
+            return (year, agentTags) -> (BitSet) raster.clone();
+        } else if (condition instanceof InYear) {
+            final int conditionYear = ((InYear) condition).getYear();
+            return (year, agentTags) -> constant(year != null && year == conditionYear);
+        } else if (condition instanceof AgentHasTag) {
+            final String tag = ((AgentHasTag) condition).getTag();
+            tags.add(tag);
+            return (year, agentTags) -> constant(agentTags.contains(tag));
+        } else if (condition instanceof True) {
+            return (year, agentTags) -> constant(true);
+        } else if (condition instanceof False) {
+            return (year, agentTags) -> constant(false);
+        } else if (condition instanceof Not) {
+            final Node operand = fold(((Not) condition).getSubCondition(), tags);
+            return (year, agentTags) -> {
+                final BitSet bits = operand.evaluate(year, agentTags);
+                bits.flip(0, numberOfCells + 1);
+                return bits;
+            };
+        } else {
+            final boolean any = condition instanceof AnyOf;
+            final List<Node> operands = condition.getSubConditions().stream()
+                .map(subCondition -> fold(subCondition, tags))
+                .collect(toImmutableList());
+            return (year, agentTags) -> {
+                final BitSet bits = constant(!any);
+                for (final Node operand : operands) {
+                    if (any)
+                        bits.or(operand.evaluate(year, agentTags));
+                    else
+                        bits.and(operand.evaluate(year, agentTags));
+                }
+                return bits;
+            };
+        }
+    }
+
+    private BitSet rasterize(final CachedCoordinateCondition condition) {
+        final BitSet raster = new BitSet(numberOfCells + 1);
+        for (int x = 0; x < mapExtent.getGridWidth(); x++)
+            for (int y = 0; y < mapExtent.getGridHeight(); y++)
+                if (condition.test(mapExtent.getCoordinates(x, y)))
+                    raster.set(toIndex(x, y));
+        return raster;
+    }
+
+    private BitSet constant(final boolean value) {
+        final BitSet bits = new BitSet(numberOfCells + 1);
+        if (value)
+            bits.set(0, numberOfCells + 1);
+        return bits;
+    }
+
+    @Override
+    public String toString() {
+        return "RasterizedCondition{" +
+            "condition=" + condition +
+            '}';
+    }
+
+    @FunctionalInterface
+    private interface Node {
+        BitSet evaluate(
+            Integer year,
+            Set<String> agentTags
+        );
+    }
+}
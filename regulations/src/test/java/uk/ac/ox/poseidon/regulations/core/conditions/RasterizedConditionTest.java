@@ -0,0 +1,110 @@
+/*
+ * POSEIDON: an agent-based model of fisheries
+ * Copyright (c) 2025, University of Oxford.
+ *
+ * University of Oxford means the Chancellor, Masters and Scholars of the
+ * University of Oxford, having an administrative office at Wellington
+ * Square, Oxford OX1 2JD, UK.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+
+package uk.ac.ox.poseidon.regulations.core.conditions;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
+import com.vividsolutions.jts.geom.Coordinate;
+import com.vividsolutions.jts.geom.Envelope;
+import org.junit.jupiter.api.Test;
+import uk.ac.ox.poseidon.agents.api.Agent;
+import uk.ac.ox.poseidon.agents.core.BasicAction;
+import uk.ac.ox.poseidon.common.core.geography.MapExtent;
+import uk.ac.ox.poseidon.regulations.api.Condition;
+
+import java.time.LocalDateTime;
+import java.time.MonthDay;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class RasterizedConditionTest {
+
+    private final MapExtent mapExtent = MapExtent.from(20, 10, new Envelope(-20, 0, 0, 10));
+
+    private static Agent agent(final String... tags) {
+        return new Agent() {
+            @Override
+            public String getId() {
+                return "agent";
+            }
+
+            @Override
+            public Set<String> getTags() {
+                return ImmutableSet.copyOf(tags);
+            }
+        };
+    }
+
+    @Test
+    void rasterizedConditionsAgreeWithTheOriginalOnCells() {
+        final Condition condition = new AnyOf(ImmutableSet.of(
+            new AllOf(ImmutableSet.of(
+                new InYear(2020),
+                new AgentHasTag("a"),
+                new InRectangularArea(new Envelope(-15, -5, 2, 8))
+            )),
+            new AllOf(ImmutableSet.of(
+                new InYear(2021),
+                new Not(new AgentHasTag("b")),
+                new Not(new InRectangularArea(new Envelope(-10, 0, 0, 5)))
+            ))
+        ));
+        final Condition compiled = RasterizedCondition.compile(condition, mapExtent);
+        assertTrue(compiled instanceof RasterizedCondition);
+        assertEquals(condition.getSubConditions(), compiled.getSubConditions());
+
+        final List<Agent> agents = ImmutableList.of(agent(), agent("a"), agent("b"), agent("a", "b", "c"));
+        for (final int year : new int[]{2019, 2020, 2021})
+            for (final Agent agent : agents) {
+                final LocalDateTime dateTime = LocalDateTime.of(year, 6, 1, 0, 0);
+                for (int x = 0; x < mapExtent.getGridWidth(); x++)
+                    for (int y = 0; y < mapExtent.getGridHeight(); y++) {
+                        final BasicAction action =
+                            new BasicAction("action", agent, dateTime, mapExtent.getCoordinates(x, y));
+                        assertEquals(condition.test(action), compiled.test(action), action.toString());
+                    }
+                // without coordinates, outside the map and without dates
+                for (final BasicAction action : ImmutableList.of(
+                    new BasicAction("action", agent, dateTime, null),
+                    new BasicAction("action", agent, dateTime, new Coordinate(-30, 5)),
+                    new BasicAction("action", agent, null, new Coordinate(-12, 5))
+                ))
+                    assertEquals(condition.test(action), compiled.test(action), action.toString());
+            }
+    }
+
+    @Test
+    void onlyFoldableSubtreesAreRasterized() {
+        final InRectangularArea area = new InRectangularArea(new Envelope(-15, -5, 2, 8));
+        final BetweenYearlyDates dates = new BetweenYearlyDates(MonthDay.of(1, 1), MonthDay.of(6, 30));
+        final Condition compiled = RasterizedCondition.compile(new AllOf(ImmutableSet.of(dates, area)), mapExtent);
+        assertTrue(compiled instanceof AllOf);
+        assertTrue(compiled.getSubConditions().contains(dates));
+        assertTrue(compiled.getSubConditions().stream().anyMatch(RasterizedCondition.class::isInstance));
+    }
+
+}
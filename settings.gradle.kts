@@ -21,6 +21,7 @@
  */
 rootProject.name = "POSEIDON"
 include("agents")
+include("benchmarks")
 include("common")
 include("datasets:api")
 include("POSEIDON")